@@ -0,0 +1,52 @@
+package org.example.carshering.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+@Schema(description = "Tariff for a car model, a car class or, without both, for all other cars")
+public record TariffRequest(
+        @Schema(description = "Name of the tariff", example = "Weekend premium")
+        @NotBlank @Size(max = 100) String name,
+
+        @Schema(description = "ID of the car class the tariff applies to", example = "2")
+        Long carClassId,
+
+        @Schema(description = "ID of the car model the tariff applies to; takes priority over the class tariff", example = "5")
+        Long carModelId,
+
+        @Schema(description = "Hour-of-week multipliers of the hourly rate; a later rule overrides an earlier one")
+        @Size(max = 200) List<@Valid @NotNull HourRule> hourRules,
+
+        @Schema(description = "Multipliers of the total cost by rental duration")
+        @Size(max = 50) List<@Valid @NotNull DurationTier> durationTiers
+) {
+    @Schema(description = "Multiplier for hours [hourFrom, hourTo) of a day; hourFrom > hourTo wraps past midnight")
+    public record HourRule(
+            @Schema(description = "Day of week, 1 - Monday ... 7 - Sunday; empty for every day", example = "6")
+            @Min(1) @Max(7) Integer dayOfWeek,
+            @Schema(description = "First hour, 0-23", example = "18")
+            @NotNull @Min(0) @Max(23) Integer hourFrom,
+            @Schema(description = "Hour after the last one, 0-24", example = "23")
+            @NotNull @Min(0) @Max(24) Integer hourTo,
+            @Schema(description = "Multiplier of the hourly rate", example = "1.25")
+            @NotNull @Positive Double multiplier
+    ) {
+    }
+
+    @Schema(description = "Multiplier of the total cost for rentals of at least minHours billed hours")
+    public record DurationTier(
+            @Schema(description = "Minimum billed hours", example = "72")
+            @NotNull @Min(1) Integer minHours,
+            @Schema(description = "Multiplier of the total cost", example = "0.85")
+            @NotNull @Positive Double multiplier
+    ) {
+    }
+}
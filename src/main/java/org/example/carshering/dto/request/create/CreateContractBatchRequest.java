@@ -0,0 +1,22 @@
+package org.example.carshering.dto.request.create;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+@Schema(description = "Request to book several cars at once")
+public record CreateContractBatchRequest(
+        @Schema(description = "Cars and rental periods to book, up to 50 items")
+        @NotEmpty @Size(max = 50) List<@Valid @NotNull CreateContractRequest> contracts,
+
+        @Schema(description = "If true (default), nothing is booked when any item fails; if false, valid items are booked and failed ones are reported", example = "true")
+        Boolean allOrNothing
+) {
+    public boolean atomic() {
+        return allOrNothing == null || allOrNothing;
+    }
+}
@@ -0,0 +1,11 @@
+package org.example.carshering.dto.response;
+
+import java.time.LocalDateTime;
+
+public record BookedInterval(
+        Long contractId,
+        Long carId,
+        LocalDateTime dataStart,
+        LocalDateTime dataEnd
+) {
+}
@@ -0,0 +1,19 @@
+package org.example.carshering.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.Map;
+
+@Schema(description = "Monthly occupancy calendars of cars as bitmaps")
+public record CarCalendarResponse(
+        @Schema(description = "Month of the calendar", example = "2025-03")
+        String month,
+        @Schema(description = "Slot size: HOUR or DAY", example = "DAY")
+        String granularity,
+        @Schema(description = "Number of slots in the month", example = "31")
+        int slots,
+        @Schema(description = "Base64-encoded occupancy bitmap per car ID. Bit i (byte i / 8, bit i % 8, least significant first) " +
+                "is set when slot i is booked; missing trailing bytes are zero", example = "{\"1\": \"AAD4Bw==\"}")
+        Map<Long, String> bitmaps
+) {
+}
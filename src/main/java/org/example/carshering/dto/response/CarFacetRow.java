@@ -0,0 +1,15 @@
+package org.example.carshering.dto.response;
+
+/**
+ * Плоская строка машины для подсчёта фасетов каталога в памяти.
+ */
+public record CarFacetRow(
+        Long id,
+        String brand,
+        String model,
+        String carClass,
+        String bodyType,
+        Integer yearOfIssue,
+        Double rent
+) {
+}
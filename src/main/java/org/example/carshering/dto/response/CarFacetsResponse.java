@@ -0,0 +1,25 @@
+package org.example.carshering.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.Map;
+
+@Schema(description = "Catalogue facet counts for the current filter. " +
+        "Each facet is counted with all filters applied except its own dimension")
+public record CarFacetsResponse(
+        @Schema(description = "Number of cars matching all filters", example = "42")
+        long total,
+        @Schema(description = "Number of cars per brand", example = "{\"Toyota\": 12, \"BMW\": 4}")
+        Map<String, Long> brands,
+        @Schema(description = "Number of cars per model name", example = "{\"Camry\": 7, \"X5\": 2}")
+        Map<String, Long> models,
+        @Schema(description = "Number of cars per car class", example = "{\"Business\": 5, \"Economy\": 20}")
+        Map<String, Long> carClasses,
+        @Schema(description = "Number of cars per body type", example = "{\"Sedan\": 15, \"SUV\": 9}")
+        Map<String, Long> bodyTypes,
+        @Schema(description = "Number of cars per year of issue", example = "{\"2020\": 3, \"2021\": 8}")
+        Map<Integer, Long> years,
+        @Schema(description = "Minimum and maximum rental price ignoring the price filter")
+        MinMaxCellForFilters price
+) {
+}
@@ -0,0 +1,22 @@
+package org.example.carshering.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Car model found by fuzzy search")
+public record CarModelSearchResponse(
+        @Schema(description = "Model ID", example = "1")
+        Long modelId,
+        @Schema(description = "Brand name", example = "Toyota")
+        String brand,
+        @Schema(description = "Model name", example = "Camry")
+        String model,
+        @Schema(description = "Body type", example = "Sedan")
+        String bodyType,
+        @Schema(description = "Car class", example = "Business")
+        String carClass,
+        @Schema(description = "Is deleted flag", example = "false")
+        boolean isDeleted,
+        @Schema(description = "Trigram similarity to the query from 0 to 1, results are ordered by it", example = "0.64")
+        double score
+) {
+}
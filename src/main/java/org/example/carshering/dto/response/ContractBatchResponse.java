@@ -0,0 +1,31 @@
+package org.example.carshering.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Result of a batch booking")
+public record ContractBatchResponse(
+        @Schema(description = "Number of contracts created", example = "10")
+        int created,
+        @Schema(description = "Number of items that could not be booked", example = "0")
+        int rejected,
+        @Schema(description = "Per-item results in request order")
+        List<ItemResult> results
+) {
+
+    @Schema(description = "Result of a single batch item")
+    public record ItemResult(
+            @Schema(description = "Position of the item in the request", example = "0")
+            int index,
+            @Schema(description = "Requested car", example = "1")
+            Long carId,
+            @Schema(description = "CREATED, REJECTED, or SKIPPED when the item was valid but the all-or-nothing batch failed", example = "CREATED")
+            String status,
+            @Schema(description = "Created contract, only for CREATED")
+            ContractResponse contract,
+            @Schema(description = "Reason, only for REJECTED", example = "The car is not available on the selected dates")
+            String error
+    ) {
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.carshering.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Schema(description = "Cursor-based page without total count")
+public record CursorPageResponse<T>(
+        @Schema(description = "Page content")
+        List<T> content,
+        @Schema(description = "Opaque token to pass as 'after' to get the next page, null if there is no next page",
+                example = "bW9kZWwuYnJhbmQubmFtZXxBU0N8VG95b3RhfDQy")
+        String nextCursor,
+        @Schema(description = "Whether there is a next page", example = "true")
+        boolean hasNext,
+        @Schema(description = "Requested page size", example = "20")
+        int size
+) {
+
+    public <R> CursorPageResponse<R> map(Function<? super T, ? extends R> mapper) {
+        return new CursorPageResponse<>(
+                content.stream().<R>map(mapper).toList(),
+                nextCursor,
+                hasNext,
+                size
+        );
+    }
+}
@@ -0,0 +1,21 @@
+package org.example.carshering.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "All catalogue filter dictionaries in one snapshot")
+public record FilterDictionariesResponse(
+        @Schema(description = "Content version of the snapshot, equal to the ETag value; changes whenever the dictionaries change",
+                example = "9f86d081884c7d659a2feaa0c55ad015")
+        String version,
+        @Schema(description = "Car brands", example = "[\"BMW\", \"Toyota\"]")
+        List<String> brands,
+        @Schema(description = "Model names", example = "[\"Camry\", \"X5\"]")
+        List<String> models,
+        @Schema(description = "Car classes", example = "[\"Business\", \"Economy\"]")
+        List<String> classes,
+        @Schema(description = "Body types", example = "[\"Sedan\", \"SUV\"]")
+        List<String> bodyTypes
+) {
+}
@@ -0,0 +1,14 @@
+package org.example.carshering.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+
+@Schema(description = "Free window of a car long enough for the requested rental duration")
+public record FreeSlotResponse(
+        @Schema(description = "Earliest start of a booking in this window", example = "2025-01-10T12:00:00")
+        LocalDateTime start,
+        @Schema(description = "End of the window (exclusive); null if the car is free from start on", example = "2025-01-15T09:00:00")
+        LocalDateTime end
+) {
+}
@@ -0,0 +1,40 @@
+package org.example.carshering.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+@Schema(description = "Page of an admin list; totalElements and totalPages are exact only when totalExact is true")
+public record PageResponse<T>(
+        @Schema(description = "Page content")
+        List<T> content,
+        @Schema(description = "Page metadata")
+        PageMetadata page
+) {
+
+    public static <T> PageResponse<T> of(Page<T> page) {
+        boolean totalExact = !(page instanceof TotalAwarePage<?> totalAware) || totalAware.isTotalExact();
+        return new PageResponse<>(
+                page.getContent(),
+                new PageMetadata(page.getSize(), page.getNumber(), page.getTotalElements(), page.getTotalPages(),
+                        totalExact, page.hasNext())
+        );
+    }
+
+    public record PageMetadata(
+            @Schema(description = "Requested page size", example = "20")
+            int size,
+            @Schema(description = "Page number (0-indexed)", example = "0")
+            int number,
+            @Schema(description = "Total elements; a lower bound or an estimate when totalExact is false", example = "42")
+            long totalElements,
+            @Schema(description = "Total pages, derived from totalElements", example = "3")
+            int totalPages,
+            @Schema(description = "Whether totalElements was counted exactly", example = "true")
+            boolean totalExact,
+            @Schema(description = "Whether there is a next page", example = "true")
+            boolean hasNext
+    ) {
+    }
+}
@@ -0,0 +1,28 @@
+package org.example.carshering.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Distribution of rental prices for the current filter. " +
+        "Counted with all filters applied except the price range")
+public record PriceHistogramResponse(
+        @Schema(description = "Minimum rental price", example = "1000")
+        Double min,
+        @Schema(description = "Maximum rental price", example = "5000")
+        Double max,
+        @Schema(description = "Price buckets from the cheapest to the most expensive; empty when no cars match")
+        List<PriceBucket> buckets
+) {
+
+    @Schema(description = "Price bucket. The upper bound is exclusive except for the last bucket")
+    public record PriceBucket(
+            @Schema(description = "Lower bound of the bucket", example = "1000")
+            double from,
+            @Schema(description = "Upper bound of the bucket", example = "1400")
+            double to,
+            @Schema(description = "Number of cars in the bucket", example = "7")
+            long count
+    ) {
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.carshering.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Schema(description = "Rental prices and availability of several cars for the same period")
+public record PriceQuoteBatchResponse(
+        @Schema(description = "Start of the rental", example = "2025-01-10T12:00:00")
+        LocalDateTime start,
+        @Schema(description = "End of the rental", example = "2025-01-12T12:00:00")
+        LocalDateTime end,
+        @Schema(description = "Quotes in the order of the requested car IDs, without duplicates and unknown cars")
+        List<CarQuote> quotes,
+        @Schema(description = "Requested car IDs that do not exist", example = "[42]")
+        List<Long> notFound
+) {
+
+    @Schema(description = "Price and availability of a single car")
+    public record CarQuote(
+            @Schema(description = "ID of the car", example = "1")
+            Long carId,
+            @Schema(description = "True if the car is in service and has no booking overlapping the period", example = "true")
+            boolean available,
+            @Schema(description = "Car status", example = "AVAILABLE")
+            String carState,
+            @Schema(description = "Name of the applied tariff", example = "Weekend premium")
+            String tariff,
+            @Schema(description = "Billed whole hours, at least one", example = "48")
+            long billedHours,
+            @Schema(description = "Base hourly rate of the car", example = "1500.0")
+            double hourlyRate,
+            @Schema(description = "Discount or surcharge multiplier for the rental duration", example = "0.9")
+            double durationMultiplier,
+            @Schema(description = "Total cost", example = "64800.0")
+            double total
+    ) {
+    }
+}
@@ -0,0 +1,26 @@
+package org.example.carshering.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+
+@Schema(description = "Rental price of a car for a period, calculated by the same tariff as a booking")
+public record PriceQuoteResponse(
+        @Schema(description = "ID of the car", example = "1")
+        Long carId,
+        @Schema(description = "Start of the rental", example = "2025-01-10T12:00:00")
+        LocalDateTime start,
+        @Schema(description = "End of the rental", example = "2025-01-12T12:00:00")
+        LocalDateTime end,
+        @Schema(description = "Name of the applied tariff", example = "Weekend premium")
+        String tariff,
+        @Schema(description = "Billed whole hours, at least one", example = "48")
+        long billedHours,
+        @Schema(description = "Base hourly rate of the car", example = "1500.0")
+        double hourlyRate,
+        @Schema(description = "Discount or surcharge multiplier for the rental duration", example = "0.9")
+        double durationMultiplier,
+        @Schema(description = "Total cost", example = "64800.0")
+        double total
+) {
+}
@@ -0,0 +1,25 @@
+package org.example.carshering.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import org.example.carshering.dto.request.TariffRequest;
+
+import java.util.List;
+
+@Schema(description = "Tariff with its hour rules and duration tiers")
+public record TariffResponse(
+        @Schema(description = "ID of the tariff", example = "1")
+        Long id,
+        @Schema(description = "Name of the tariff", example = "Weekend premium")
+        String name,
+        @Schema(description = "ID of the car class the tariff applies to", example = "2")
+        Long carClassId,
+        @Schema(description = "ID of the car model the tariff applies to", example = "5")
+        Long carModelId,
+        @Schema(description = "Whether the tariff is used for pricing", example = "true")
+        boolean active,
+        @Schema(description = "Hour-of-week multipliers in the order of application")
+        List<TariffRequest.HourRule> hourRules,
+        @Schema(description = "Duration multipliers")
+        List<TariffRequest.DurationTier> durationTiers
+) {
+}
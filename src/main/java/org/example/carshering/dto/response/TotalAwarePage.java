@@ -0,0 +1,31 @@
+package org.example.carshering.dto.response;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Страница админского списка, которая помнит, посчитан ли итог точно.
+ * Неточный итог (без подсчёта или по статистике таблицы) — нижняя граница или оценка.
+ */
+public class TotalAwarePage<T> extends PageImpl<T> {
+
+    private final boolean totalExact;
+
+    public TotalAwarePage(List<T> content, Pageable pageable, long total, boolean totalExact) {
+        super(content, pageable, total);
+        this.totalExact = totalExact;
+    }
+
+    public boolean isTotalExact() {
+        return totalExact;
+    }
+
+    // сервисы маппят страницу в DTO уже после PageTotals - признак не должен теряться
+    @Override
+    public <U> TotalAwarePage<U> map(Function<? super T, ? extends U> converter) {
+        return new TotalAwarePage<>(getConvertedContent(converter), getPageable(), getTotalElements(), totalExact);
+    }
+}
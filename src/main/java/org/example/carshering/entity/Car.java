@@ -35,6 +35,10 @@ public class Car {
     @Column(name = "year_of_issue")
     private Integer yearOfIssue;
 
+    // оптимистическая блокировка: конкурентные правки админов не затирают друг друга
+    @Version
+    private Long version;
+
     @ManyToOne
     @JoinColumn(name = "model_id", nullable = false)
     private CarModel model;
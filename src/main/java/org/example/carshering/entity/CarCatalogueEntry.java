@@ -0,0 +1,49 @@
+package org.example.carshering.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Строка денормализованной витрины каталога. Пишется только через {@code CarCatalogueRepository}
+ * (INSERT ... SELECT из нормализованных таблиц), приложение её не редактирует.
+ */
+@Entity
+@Data
+@Table(name = "car_catalogue", schema = "car_rental")
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CarCatalogueEntry {
+    @Id
+    @Column(name = "car_id")
+    private Long carId;
+
+    @Column(name = "gos_number", nullable = false)
+    private String gosNumber;
+
+    @Column(nullable = false)
+    private String brand;
+
+    @Column(nullable = false)
+    private String model;
+
+    @Column(name = "car_class")
+    private String carClass;
+
+    @Column(name = "body_type")
+    private String bodyType;
+
+    @Column(nullable = false)
+    private String status;
+
+    private Double rent;
+
+    @Column(name = "year_of_issue")
+    private Integer yearOfIssue;
+
+    @Column(name = "image_url")
+    private String imageUrl;
+}
@@ -8,6 +8,26 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "contract", schema = "car_rental")
+// всё, что читает ContractMapper.toDto: клиент, статус и машина с моделью и справочниками
+@NamedEntityGraph(
+        name = Contract.RESPONSE_GRAPH,
+        attributeNodes = {
+                @NamedAttributeNode("client"),
+                @NamedAttributeNode("state"),
+                @NamedAttributeNode(value = "car", subgraph = "car")
+        },
+        subgraphs = {
+                @NamedSubgraph(name = "car", attributeNodes = @NamedAttributeNode(value = "model", subgraph = "model")),
+                @NamedSubgraph(
+                        name = "model",
+                        attributeNodes = {
+                                @NamedAttributeNode("brand"),
+                                @NamedAttributeNode("model"),
+                                @NamedAttributeNode("carClass")
+                        }
+                )
+        }
+)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -15,6 +35,8 @@ import java.time.LocalDateTime;
 @ToString(exclude = "client")
 @Builder
 public class Contract {
+    public static final String RESPONSE_GRAPH = "Contract.response";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -46,4 +68,8 @@ public class Contract {
     @ManyToOne
     @JoinColumn(name = "state_id", nullable = false)
     private RentalState state;
+
+    // оптимистическая блокировка: плановые переходы и пакетные UPDATE тоже увеличивают версию
+    @Version
+    private Long version;
 }
@@ -5,8 +5,10 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.example.carshering.service.domain.ReferenceDataChangeListener;
 
 @Entity
+@EntityListeners(ReferenceDataChangeListener.class)
 @Table(name = "doctype", schema = "car_rental")
 @Data
 @NoArgsConstructor
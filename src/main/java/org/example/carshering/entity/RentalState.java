@@ -5,8 +5,10 @@ import lombok.*;
 
 import java.util.ArrayList;
 import java.util.List;
+import org.example.carshering.service.domain.ReferenceDataChangeListener;
 
 @Entity
+@EntityListeners(ReferenceDataChangeListener.class)
 @Table(name = "rental_state", schema = "car_rental")
 @Data
 @NoArgsConstructor
@@ -2,8 +2,10 @@ package org.example.carshering.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.example.carshering.service.domain.ReferenceDataChangeListener;
 
 @Entity
+@EntityListeners(ReferenceDataChangeListener.class)
 @Table(name = "role", schema = "car_rental")
 @Data
 @NoArgsConstructor
@@ -0,0 +1,78 @@
+package org.example.carshering.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Entity
+@Table(name = "tariff", schema = "car_rental")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Tariff {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 100)
+    private String name;
+
+    // область действия: модель, класс или (оба null) тариф по умолчанию
+    @Column(name = "car_class_id")
+    private Long carClassId;
+
+    @Column(name = "car_model_id")
+    private Long carModelId;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private boolean active = true;
+
+    @ElementCollection
+    @CollectionTable(name = "tariff_hour_rule", schema = "car_rental", joinColumns = @JoinColumn(name = "tariff_id"))
+    @OrderColumn(name = "position")
+    @Builder.Default
+    private List<HourRule> hourRules = new ArrayList<>();
+
+    @ElementCollection
+    @CollectionTable(name = "tariff_duration_tier", schema = "car_rental", joinColumns = @JoinColumn(name = "tariff_id"))
+    @Builder.Default
+    private List<DurationTier> durationTiers = new ArrayList<>();
+
+    @Embeddable
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class HourRule {
+        // 1 - понедельник ... 7 - воскресенье; null - каждый день
+        @Column(name = "day_of_week")
+        private Integer dayOfWeek;
+
+        @Column(name = "hour_from", nullable = false)
+        private int hourFrom;
+
+        @Column(name = "hour_to", nullable = false)
+        private int hourTo;
+
+        @Column(nullable = false)
+        private double multiplier;
+    }
+
+    @Embeddable
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DurationTier {
+        @Column(name = "min_hours", nullable = false)
+        private int minHours;
+
+        @Column(nullable = false)
+        private double multiplier;
+    }
+}
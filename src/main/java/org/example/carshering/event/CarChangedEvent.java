@@ -0,0 +1,7 @@
+package org.example.carshering.event;
+
+/**
+ * Публикуется после изменения машины (создание, правка, смена статуса, изображения).
+ */
+public record CarChangedEvent(Long carId) {
+}
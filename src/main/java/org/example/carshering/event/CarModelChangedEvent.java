@@ -0,0 +1,7 @@
+package org.example.carshering.event;
+
+/**
+ * Публикуется после изменения модели машины (создание, правка, удаление).
+ */
+public record CarModelChangedEvent(Long modelId) {
+}
@@ -0,0 +1,7 @@
+package org.example.carshering.event;
+
+/**
+ * Публикуется после смены статуса машины, в той же транзакции.
+ */
+public record CarStateChangedEvent(Long carId, String state) {
+}
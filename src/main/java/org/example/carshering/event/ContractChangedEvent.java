@@ -0,0 +1,47 @@
+package org.example.carshering.event;
+
+import org.example.carshering.entity.Contract;
+
+import java.time.LocalDateTime;
+
+/**
+ * Публикуется после каждого изменения контракта (создание, смена дат, смена статуса).
+ * Слушатели получают уже сохранённое состояние контракта.
+ * previousDataStart/previousDataEnd заполнены только если при изменении сдвинулись даты.
+ */
+public record ContractChangedEvent(
+        Long contractId,
+        Long carId,
+        String state,
+        LocalDateTime dataStart,
+        LocalDateTime dataEnd,
+        LocalDateTime previousDataStart,
+        LocalDateTime previousDataEnd
+) {
+
+    public ContractChangedEvent(Long contractId, Long carId, String state, LocalDateTime dataStart, LocalDateTime dataEnd) {
+        this(contractId, carId, state, dataStart, dataEnd, null, null);
+    }
+
+    public static ContractChangedEvent of(Contract contract) {
+        return new ContractChangedEvent(
+                contract.getId(),
+                contract.getCar().getId(),
+                contract.getState().getName(),
+                contract.getDataStart(),
+                contract.getDataEnd()
+        );
+    }
+
+    public static ContractChangedEvent of(Contract contract, LocalDateTime previousDataStart, LocalDateTime previousDataEnd) {
+        return new ContractChangedEvent(
+                contract.getId(),
+                contract.getCar().getId(),
+                contract.getState().getName(),
+                contract.getDataStart(),
+                contract.getDataEnd(),
+                previousDataStart,
+                previousDataEnd
+        );
+    }
+}
@@ -0,0 +1,7 @@
+package org.example.carshering.event;
+
+/**
+ * Публикуется после изменения справочника фильтров каталога (бренды, названия моделей, классы).
+ */
+public record FilterDictionaryChangedEvent(String dictionary) {
+}
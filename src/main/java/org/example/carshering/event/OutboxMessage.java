@@ -0,0 +1,22 @@
+package org.example.carshering.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Доменное событие, доставленное из outbox.
+ * <p>
+ * Доставка не реже одного раза: после сбоя сообщение может прийти повторно, поэтому
+ * слушатели должны быть идемпотентны (например, запоминать последний обработанный id).
+ * События одного агрегата приходят в порядке записи.
+ *
+ * @param payload JSON исходного события ({@link ContractChangedEvent}, {@link CarStateChangedEvent})
+ */
+public record OutboxMessage(
+        Long id,
+        String aggregateType,
+        Long aggregateId,
+        String eventType,
+        String payload,
+        LocalDateTime createdAt
+) {
+}
@@ -0,0 +1,7 @@
+package org.example.carshering.event;
+
+/**
+ * Публикуется после создания, изменения или отключения тарифа.
+ */
+public record TariffChangedEvent(Long tariffId) {
+}
@@ -1,6 +1,7 @@
 package org.example.carshering.exceptions;
 
 import jakarta.validation.ValidationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.LockedException;
@@ -54,6 +55,14 @@ public class GlobalExceptionHandler {
     }
 
 
+    // конфликт @Version там, где нет повтора (правки машин админом)
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<AppError> handleOptimisticLock(OptimisticLockingFailureException ex) {
+        AppError error = new AppError("CONCURRENT_MODIFICATION",
+                "The data was changed by another request, please retry", HttpStatus.CONFLICT.value());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<AppError> handleUnexpectedException(Exception ex) {
         log.error("Unexpected internal server error occurred", ex);
@@ -0,0 +1,10 @@
+package org.example.carshering.exceptions.custom;
+
+import org.example.carshering.exceptions.ApplicationException;
+import org.springframework.http.HttpStatus;
+
+public class IdempotencyKeyReuseException extends ApplicationException {
+    public IdempotencyKeyReuseException(String message) {
+        super(message, HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+}
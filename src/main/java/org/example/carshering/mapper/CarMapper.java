@@ -5,6 +5,7 @@ import org.example.carshering.dto.request.update.UpdateCarRequest;
 import org.example.carshering.dto.response.CarDetailResponse;
 import org.example.carshering.dto.response.CarListItemResponse;
 import org.example.carshering.entity.Car;
+import org.example.carshering.entity.CarCatalogueEntry;
 import org.example.carshering.entity.CarModel;
 import org.example.carshering.exceptions.custom.NotFoundException;
 import org.example.carshering.repository.CarModelRepository;
@@ -36,6 +37,10 @@ public abstract class CarMapper {
     @Mapping(source = "favorite", target = "favorite")
     public abstract CarListItemResponse toListItemDto(Car car, boolean favorite);
 
+    @Mapping(source = "entry.carId", target = "id")
+    @Mapping(source = "favorite", target = "favorite")
+    public abstract CarListItemResponse toListItemDto(CarCatalogueEntry entry, boolean favorite);
+
 
     @Mapping(target = "model", source = "modelId")
     @Mapping(target = "state", ignore = true)
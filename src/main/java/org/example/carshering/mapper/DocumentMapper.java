@@ -5,7 +5,7 @@ import org.example.carshering.dto.request.update.UpdateDocumentRequest;
 import org.example.carshering.dto.response.DocumentResponse;
 import org.example.carshering.entity.Document;
 import org.example.carshering.entity.DocumentType;
-import org.example.carshering.repository.DocumentTypeRepository;
+import org.example.carshering.service.domain.ReferenceDataRegistry;
 import org.mapstruct.*;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -15,7 +15,7 @@ public abstract class DocumentMapper {
 
     // 2. Внедряем репозиторий (MapStruct сам подставит реализацию)
     @Autowired
-    protected DocumentTypeRepository documentTypeRepository;
+    protected ReferenceDataRegistry referenceData;
 
     // 3. Метод для частичного обновления
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
@@ -27,7 +27,7 @@ public abstract class DocumentMapper {
         if (documentTypeId == null) {
             return null;
         }
-        return documentTypeRepository.findById(documentTypeId)
+        return referenceData.findDocumentType(documentTypeId)
                 .orElseThrow(() -> new IllegalArgumentException("DocumentType not found: " + documentTypeId));
     }
 
@@ -8,6 +8,7 @@ import org.example.carshering.entity.CarState;
 import org.example.carshering.entity.RentalState;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -300,14 +301,15 @@ AND contr.durationMinutes > 0
             Pageable pageable
     );
 //        c.imageUrl,
+    // только LEFT JOIN: строка на каждую машину, иначе страницы разойдутся с count() по таблице car
     @Query("""
     SELECT NEW org.example.carshering.dto.response.CarAnalyticsResponse(
         c.id,
         c.gosNumber,
         c.vin,
-        c.model.brand.name,
-        c.model.model.name,
-        c.model.carClass.name,
+        b.name,
+        mn.name,
+        cc.name,
         c.yearOfIssue,
         
         c.rent,
@@ -318,9 +320,13 @@ AND contr.durationMinutes > 0
         (SELECT COALESCE(SUM(co.totalCost), 0.0) FROM Contract co WHERE co.car.id = c.id AND co.state = :completedState AND co.dataStart >= :startDate AND co.dataStart < :endDate)
     )
     FROM Car c
+    LEFT JOIN c.model m
+    LEFT JOIN m.brand b
+    LEFT JOIN m.model mn
+    LEFT JOIN m.carClass cc
     ORDER BY c.id
 """)
-    Page<CarAnalyticsResponse> getAllCarsAnalytics(
+    Slice<CarAnalyticsResponse> getAllCarsAnalytics(
             @Param("completedState") RentalState completedState,
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate,
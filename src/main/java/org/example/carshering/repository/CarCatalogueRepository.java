@@ -0,0 +1,186 @@
+package org.example.carshering.repository;
+
+import org.example.carshering.dto.response.CarFacetRow;
+import org.example.carshering.dto.response.CarListItemResponse;
+import org.example.carshering.dto.response.MinMaxCellForFilters;
+import org.example.carshering.entity.CarCatalogueEntry;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface CarCatalogueRepository extends JpaRepository<CarCatalogueEntry, Long>, CarCatalogueRepositoryCustom {
+
+    // общий SELECT для точечного обновления и полной пересборки витрины
+    String PROJECTION_SQL = """
+            INSERT INTO car_rental.car_catalogue (car_id, gos_number, brand, model, car_class, body_type, status, rent,
+                                                  year_of_issue, image_url)
+            SELECT c.id,
+                   c.gos_number,
+                   b.name,
+                   m.name,
+                   cc.name,
+                   cm.body_type,
+                   cs.status,
+                   c.rent,
+                   c.year_of_issue,
+                   (SELECT i.url FROM car_rental.images i WHERE i.car_id = c.id ORDER BY i.id LIMIT 1)
+            FROM car_rental.car c
+                     JOIN car_rental.car_model cm ON cm.id_model = c.model_id
+                     JOIN car_rental.brands b ON b.id = cm.brand_id
+                     JOIN car_rental.models m ON m.id = cm.model_id
+                     LEFT JOIN car_rental.car_classes cc ON cc.id = cm.car_class_id
+                     JOIN car_rental.car_state cs ON cs.id = c.state_id
+            """;
+
+    String UPSERT_SUFFIX = """
+            ON CONFLICT (car_id) DO UPDATE SET gos_number    = EXCLUDED.gos_number,
+                                               brand         = EXCLUDED.brand,
+                                               model         = EXCLUDED.model,
+                                               car_class     = EXCLUDED.car_class,
+                                               body_type     = EXCLUDED.body_type,
+                                               status        = EXCLUDED.status,
+                                               rent          = EXCLUDED.rent,
+                                               year_of_issue = EXCLUDED.year_of_issue,
+                                               image_url     = EXCLUDED.image_url
+            """;
+
+    // занятые машины приходят одним параметром-массивом из CarAvailabilityIndex (пустой - без фильтра):
+    // список через IN стал бы отдельным параметром на каждый id, а лимит драйвера - 32767 параметров
+    @Query("""
+            SELECT e FROM CarCatalogueEntry e
+            WHERE (:carStates IS NULL OR e.status IN :carStates)
+              AND (:brands IS NULL OR e.brand IN :brands)
+              AND (:models IS NULL OR e.model IN :models)
+              AND (:minYear IS NULL OR e.yearOfIssue >= :minYear)
+              AND (:maxYear IS NULL OR e.yearOfIssue <= :maxYear)
+              AND (:bodyType IS NULL OR e.bodyType = :bodyType)
+              AND (:carClasses IS NULL OR e.carClass IN :carClasses)
+              AND NOT array_contains(:bookedCarIds, e.carId)
+              AND (:minCell is null OR :minCell <= e.rent)
+              AND (:maxCell is null OR :maxCell >= e.rent)
+            """)
+    Page<CarCatalogueEntry> findByFilter(
+            @Param("brands") List<String> brands,
+            @Param("models") List<String> models,
+            @Param("minYear") Integer minYear,
+            @Param("maxYear") Integer maxYear,
+            @Param("bodyType") String bodyType,
+            @Param("carClasses") List<String> carClasses,
+            @Param("carStates") List<String> carStates,
+            @Param("bookedCarIds") Long[] bookedCarIds,
+            @Param("minCell") Double minCell,
+            @Param("maxCell") Double maxCell,
+            Pageable pageable);
+
+    // вариант для авторизованного клиента: флаг избранного считается в том же запросе,
+    // (client_id, car_id) в favorite уникален, поэтому LEFT JOIN не размножает строки
+    @Query(value = """
+            SELECT NEW org.example.carshering.dto.response.CarListItemResponse(
+                e.carId, e.brand, e.carClass, e.model, e.yearOfIssue, e.rent, e.status,
+                CASE WHEN f.id IS NOT NULL THEN true ELSE false END
+            )
+            FROM CarCatalogueEntry e
+            LEFT JOIN Favorite f ON f.car.id = e.carId AND f.client.id = :clientId
+            WHERE (:carStates IS NULL OR e.status IN :carStates)
+              AND (:brands IS NULL OR e.brand IN :brands)
+              AND (:models IS NULL OR e.model IN :models)
+              AND (:minYear IS NULL OR e.yearOfIssue >= :minYear)
+              AND (:maxYear IS NULL OR e.yearOfIssue <= :maxYear)
+              AND (:bodyType IS NULL OR e.bodyType = :bodyType)
+              AND (:carClasses IS NULL OR e.carClass IN :carClasses)
+              AND NOT array_contains(:bookedCarIds, e.carId)
+              AND (:minCell is null OR :minCell <= e.rent)
+              AND (:maxCell is null OR :maxCell >= e.rent)
+            """,
+            countQuery = """
+                    SELECT COUNT(e) FROM CarCatalogueEntry e
+                    WHERE (:carStates IS NULL OR e.status IN :carStates)
+                      AND (:brands IS NULL OR e.brand IN :brands)
+                      AND (:models IS NULL OR e.model IN :models)
+                      AND (:minYear IS NULL OR e.yearOfIssue >= :minYear)
+                      AND (:maxYear IS NULL OR e.yearOfIssue <= :maxYear)
+                      AND (:bodyType IS NULL OR e.bodyType = :bodyType)
+                      AND (:carClasses IS NULL OR e.carClass IN :carClasses)
+                      AND NOT array_contains(:bookedCarIds, e.carId)
+                      AND (:minCell is null OR :minCell <= e.rent)
+                      AND (:maxCell is null OR :maxCell >= e.rent)
+                    """)
+    Page<CarListItemResponse> findByFilterWithFavorites(
+            @Param("brands") List<String> brands,
+            @Param("models") List<String> models,
+            @Param("minYear") Integer minYear,
+            @Param("maxYear") Integer maxYear,
+            @Param("bodyType") String bodyType,
+            @Param("carClasses") List<String> carClasses,
+            @Param("carStates") List<String> carStates,
+            @Param("bookedCarIds") Long[] bookedCarIds,
+            @Param("minCell") Double minCell,
+            @Param("maxCell") Double maxCell,
+            @Param("clientId") Long clientId,
+            Pageable pageable);
+
+    @Query("""
+            SELECT NEW org.example.carshering.dto.response.MinMaxCellForFilters(MIN(e.rent), MAX(e.rent))
+            FROM CarCatalogueEntry e
+            WHERE (:carStates IS NULL OR e.status IN :carStates)
+              AND (:brands IS NULL OR e.brand IN :brands)
+              AND (:models IS NULL OR e.model IN :models)
+              AND (:minYear IS NULL OR e.yearOfIssue >= :minYear)
+              AND (:maxYear IS NULL OR e.yearOfIssue <= :maxYear)
+              AND (:bodyType IS NULL OR e.bodyType = :bodyType)
+              AND (:carClasses IS NULL OR e.carClass IN :carClasses)
+              AND NOT array_contains(:bookedCarIds, e.carId)
+            """)
+    MinMaxCellForFilters findMinMaxPriceByFilter(
+            @Param("brands") List<String> brands,
+            @Param("models") List<String> models,
+            @Param("minYear") Integer minYear,
+            @Param("maxYear") Integer maxYear,
+            @Param("bodyType") String bodyType,
+            @Param("carClasses") List<String> carClasses,
+            @Param("carStates") List<String> carStates,
+            @Param("bookedCarIds") Long[] bookedCarIds);
+
+    @Query("""
+            SELECT NEW org.example.carshering.dto.response.CarFacetRow(
+                e.carId, e.brand, e.model, e.carClass, e.bodyType, e.yearOfIssue, e.rent
+            )
+            FROM CarCatalogueEntry e
+            WHERE (:carStates IS NULL OR e.status IN :carStates)
+              AND NOT array_contains(:bookedCarIds, e.carId)
+            """)
+    List<CarFacetRow> findFacetRows(
+            @Param("carStates") List<String> carStates,
+            @Param("bookedCarIds") Long[] bookedCarIds);
+
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query(value = PROJECTION_SQL + " WHERE c.id = :carId " + UPSERT_SUFFIX, nativeQuery = true)
+    int refreshCar(@Param("carId") Long carId);
+
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query(value = PROJECTION_SQL + " WHERE c.model_id = :modelId " + UPSERT_SUFFIX, nativeQuery = true)
+    int refreshModel(@Param("modelId") Long modelId);
+
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query(value = PROJECTION_SQL + UPSERT_SUFFIX, nativeQuery = true)
+    int refreshAll();
+
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            DELETE FROM car_rental.car_catalogue cat
+            WHERE NOT EXISTS (SELECT 1 FROM car_rental.car c WHERE c.id = cat.car_id)
+            """, nativeQuery = true)
+    int deleteOrphans();
+}
@@ -0,0 +1,25 @@
+package org.example.carshering.repository;
+
+import org.example.carshering.dto.request.CarFilterRequest;
+import org.example.carshering.dto.response.CarListItemResponse;
+
+import java.util.List;
+
+public interface CarCatalogueRepositoryCustom {
+
+    /**
+     * Keyset-выборка витрины каталога: строки строго после (afterValue, afterId) в порядке (sort, carId), без COUNT.
+     * Если afterId == null — первая страница. Занятые машины исключаются массивом bookedCarIds
+     * (пустой — без фильтра). Для clientId != null флаг избранного считается тем же запросом.
+     */
+    List<CarListItemResponse> findByFilterAfter(
+            CarFilterRequest filter,
+            Long[] bookedCarIds,
+            Long clientId,
+            CarScrollSort sort,
+            boolean descending,
+            Object afterValue,
+            Long afterId,
+            int limit
+    );
+}
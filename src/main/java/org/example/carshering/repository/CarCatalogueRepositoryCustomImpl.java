@@ -0,0 +1,95 @@
+package org.example.carshering.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.example.carshering.dto.request.CarFilterRequest;
+import org.example.carshering.dto.response.CarListItemResponse;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class CarCatalogueRepositoryCustomImpl implements CarCatalogueRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<CarListItemResponse> findByFilterAfter(
+            CarFilterRequest filter,
+            Long[] bookedCarIds,
+            Long clientId,
+            CarScrollSort sort,
+            boolean descending,
+            Object afterValue,
+            Long afterId,
+            int limit
+    ) {
+        Map<String, Object> params = new HashMap<>();
+        StringBuilder jpql = new StringBuilder("""
+                SELECT NEW org.example.carshering.dto.response.CarListItemResponse(
+                    e.carId, e.brand, e.carClass, e.model, e.yearOfIssue, e.rent, e.status,
+                """);
+        if (clientId == null) {
+            jpql.append("    false\n) FROM CarCatalogueEntry e\n");
+        } else {
+            // как в findByFilterWithFavorites: (client_id, car_id) в favorite уникален, строки не размножаются
+            jpql.append("""
+                        CASE WHEN f.id IS NOT NULL THEN true ELSE false END
+                    )
+                    FROM CarCatalogueEntry e
+                    LEFT JOIN Favorite f ON f.car.id = e.carId AND f.client.id = :clientId
+                    """);
+            params.put("clientId", clientId);
+        }
+        jpql.append("WHERE 1 = 1");
+
+        // в отличие от findByFilter добавляем только заданные условия - планировщику не нужно разбирать "IS NULL OR"
+        appendIfPresent(jpql, params, " AND e.status IN :carStates", "carStates", filter.carState());
+        appendIfPresent(jpql, params, " AND e.brand IN :brands", "brands", filter.brands());
+        appendIfPresent(jpql, params, " AND e.model IN :models", "models", filter.models());
+        appendIfPresent(jpql, params, " AND e.yearOfIssue >= :minYear", "minYear", filter.minYear());
+        appendIfPresent(jpql, params, " AND e.yearOfIssue <= :maxYear", "maxYear", filter.maxYear());
+        appendIfPresent(jpql, params, " AND e.bodyType = :bodyType", "bodyType", filter.bodyType());
+        appendIfPresent(jpql, params, " AND e.carClass IN :carClasses", "carClasses", filter.carClasses());
+        appendIfPresent(jpql, params, " AND NOT array_contains(:bookedCarIds, e.carId)", "bookedCarIds", bookedCarIds);
+        appendIfPresent(jpql, params, " AND e.rent >= :minCell", "minCell", filter.minCell());
+        appendIfPresent(jpql, params, " AND e.rent <= :maxCell", "maxCell", filter.maxCell());
+
+        String cmp = descending ? "<" : ">";
+        if (afterId != null) {
+            if (sort == CarScrollSort.ID) {
+                jpql.append(" AND e.carId ").append(cmp).append(" :afterId");
+            } else {
+                String key = sort.expression();
+                jpql.append(" AND (").append(key).append(' ').append(cmp).append(" :afterValue")
+                        .append(" OR (").append(key).append(" = :afterValue AND e.carId ").append(cmp).append(" :afterId))");
+                params.put("afterValue", afterValue);
+            }
+            params.put("afterId", afterId);
+        }
+
+        String direction = descending ? " DESC" : " ASC";
+        jpql.append(" ORDER BY ");
+        if (sort != CarScrollSort.ID) {
+            jpql.append(sort.expression()).append(direction).append(", ");
+        }
+        jpql.append("e.carId").append(direction);
+
+        TypedQuery<CarListItemResponse> query = entityManager.createQuery(jpql.toString(), CarListItemResponse.class);
+        params.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    private void appendIfPresent(StringBuilder jpql, Map<String, Object> params, String condition, String name, Object value) {
+        if (value == null
+                || (value instanceof Collection<?> collection && collection.isEmpty())
+                || (value instanceof Object[] array && array.length == 0)) {
+            return;
+        }
+        jpql.append(condition);
+        params.put(name, value);
+    }
+}
@@ -34,6 +34,55 @@ public interface CarModelRepository extends JpaRepository<CarModel, Long> {
     );
 
 
+    // нечёткий поиск по бренду и названию модели: % (pg_trgm) и подстрочный LIKE обслуживаются
+    // триграммными индексами по LOWER(name), порядок - по лучшей схожести с запросом.
+    // query - запрос в нижнем регистре, pattern - он же с экранированными % и _ для LIKE
+    @Query(value = """
+            SELECT cm.id_model     AS "modelId",
+                   b.name          AS "brand",
+                   m.name          AS "model",
+                   cm.body_type    AS "bodyType",
+                   cc.name         AS "carClass",
+                   cm.is_deleted   AS "deleted",
+                   GREATEST(similarity(LOWER(b.name), :query),
+                            similarity(LOWER(m.name), :query),
+                            similarity(LOWER(b.name || ' ' || m.name), :query)) AS "score"
+            FROM car_rental.car_model cm
+                     JOIN car_rental.brands b ON b.id = cm.brand_id
+                     JOIN car_rental.models m ON m.id = cm.model_id
+                     LEFT JOIN car_rental.car_classes cc ON cc.id = cm.car_class_id
+            WHERE (:includeDeleted OR cm.is_deleted = false)
+              AND (LOWER(b.name) % :query
+                OR LOWER(m.name) % :query
+                OR LOWER(b.name) LIKE '%' || :pattern || '%'
+                OR LOWER(m.name) LIKE '%' || :pattern || '%'
+                OR LOWER(b.name || ' ' || m.name) LIKE '%' || :pattern || '%')
+            ORDER BY "score" DESC, b.name, m.name
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<ModelSearchRow> searchModels(
+            @Param("query") String query,
+            @Param("pattern") String pattern,
+            @Param("includeDeleted") boolean includeDeleted,
+            @Param("limit") int limit
+    );
+
+    interface ModelSearchRow {
+        Long getModelId();
+
+        String getBrand();
+
+        String getModel();
+
+        String getBodyType();
+
+        String getCarClass();
+
+        boolean getDeleted();
+
+        double getScore();
+    }
+
     @Query("SELECT DISTINCT m.bodyType FROM CarModel m WHERE m.deleted = false AND m.bodyType IS NOT NULL AND m.bodyType != ''")
     List<String> findDistinctBodyTypes();
 
@@ -3,10 +3,12 @@ package org.example.carshering.repository;
 import jakarta.persistence.LockModeType;
 import jakarta.validation.constraints.NotBlank;
 import org.example.carshering.dto.request.CarFilterRequest;
+import org.example.carshering.dto.response.CarFacetRow;
+import org.example.carshering.dto.response.CarListItemResponse;
 import org.example.carshering.dto.response.MinMaxCellForFilters;
 import org.example.carshering.entity.Car;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
@@ -15,35 +17,36 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 
 @Repository
 public interface CarRepository extends JpaRepository<Car, Long> {
 
+  // строки списка собираются прямо в запросе: сущности Car не гидрируются и не попадают в контекст персистентности
+  // занятые машины - один параметр-массив из CarAvailabilityIndex (пустой - без фильтра), а не параметр на каждый id
   @Query("""
-      SELECT c FROM Car c
+      SELECT NEW org.example.carshering.dto.response.CarListItemResponse(
+          c.id, b.name, cc.name, m.name, c.yearOfIssue, c.rent, s.status, false
+      )
+      FROM Car c
       JOIN c.model cm
       JOIN cm.brand b
       JOIN cm.model m
       LEFT JOIN cm.carClass cc
-      WHERE (:carStates IS NULL OR c.state.status IN :carStates)
+      LEFT JOIN c.state s
+      WHERE (:carStates IS NULL OR s.status IN :carStates)
         AND (:brands IS NULL OR b.name IN :brands)
         AND (:models IS NULL OR m.name IN :models)
         AND (:minYear IS NULL OR c.yearOfIssue >= :minYear)
         AND (:maxYear IS NULL OR c.yearOfIssue <= :maxYear)
         AND (:bodyType IS NULL OR cm.bodyType = :bodyType)
         AND (:carClasses IS NULL OR cc.name IN :carClasses)
-        AND NOT EXISTS (
-                   SELECT 1 FROM Contract r
-                   WHERE r.car.id = c.id
-                     AND r.dataStart <= :dateEnd
-                     AND r.dataEnd >= :dateStart
-               )
+        AND NOT array_contains(:bookedCarIds, c.id)
         AND (:minCell is null OR :minCell <= c.rent)
         AND (:maxCell is null OR :maxCell >= c.rent)
       """)
-  Page<Car> findByFilter(
+  Slice<CarListItemResponse> findByFilter(
       @Param("brands") List<String> brands,
       @Param("models") List<String> models,
       @Param("minYear") Integer minYear,
@@ -51,13 +54,42 @@ public interface CarRepository extends JpaRepository<Car, Long> {
       @Param("bodyType") String bodyType,
       @Param("carClasses") List<String> carClasses,
       @Param("carStates") List<String> carStates,
-      @Param("dateStart") LocalDateTime dateStart,
-      @Param("dateEnd") LocalDateTime dateEnd,
+      @Param("bookedCarIds") Long[] bookedCarIds,
       @Param("minCell") Double minCell,
       @Param("maxCell") Double maxCell,
 
       Pageable pageable);
 
+  @Query("""
+      SELECT COUNT(c) FROM Car c
+      JOIN c.model cm
+      JOIN cm.brand b
+      JOIN cm.model m
+      LEFT JOIN cm.carClass cc
+      LEFT JOIN c.state s
+      WHERE (:carStates IS NULL OR s.status IN :carStates)
+        AND (:brands IS NULL OR b.name IN :brands)
+        AND (:models IS NULL OR m.name IN :models)
+        AND (:minYear IS NULL OR c.yearOfIssue >= :minYear)
+        AND (:maxYear IS NULL OR c.yearOfIssue <= :maxYear)
+        AND (:bodyType IS NULL OR cm.bodyType = :bodyType)
+        AND (:carClasses IS NULL OR cc.name IN :carClasses)
+        AND NOT array_contains(:bookedCarIds, c.id)
+        AND (:minCell is null OR :minCell <= c.rent)
+        AND (:maxCell is null OR :maxCell >= c.rent)
+      """)
+  long countByFilter(
+      @Param("brands") List<String> brands,
+      @Param("models") List<String> models,
+      @Param("minYear") Integer minYear,
+      @Param("maxYear") Integer maxYear,
+      @Param("bodyType") String bodyType,
+      @Param("carClasses") List<String> carClasses,
+      @Param("carStates") List<String> carStates,
+      @Param("bookedCarIds") Long[] bookedCarIds,
+      @Param("minCell") Double minCell,
+      @Param("maxCell") Double maxCell);
+
   boolean existsByGosNumber(@NotBlank String s);
 
   boolean existsByVin(@NotBlank String vin);
@@ -79,12 +111,7 @@ public interface CarRepository extends JpaRepository<Car, Long> {
                 AND (:maxYear IS NULL OR c.yearOfIssue <= :maxYear)
                 AND (:bodyType IS NULL OR cm.bodyType = :bodyType)
                 AND (:carClasses IS NULL OR cc.name IN :carClasses)
-                AND NOT EXISTS (
-                           SELECT 1 FROM Contract r
-                           WHERE r.car.id = c.id
-                             AND r.dataStart <= :dateEnd
-                             AND r.dataEnd >= :dateStart
-                       )
+                AND NOT array_contains(:bookedCarIds, c.id)
       """)
   MinMaxCellForFilters findMinMaxPriceByFilter(
       @Param("brands") List<String> brands,
@@ -94,16 +121,57 @@ public interface CarRepository extends JpaRepository<Car, Long> {
       @Param("bodyType") String bodyType,
       @Param("carClasses") List<String> carClasses,
       @Param("carStates") List<String> carStates,
-      @Param("dateStart") LocalDateTime dateStart,
-      @Param("dateEnd") LocalDateTime dateEnd);
+      @Param("bookedCarIds") Long[] bookedCarIds);
 
 
-    @Lock(LockModeType. PESSIMISTIC_WRITE)
+  @Query("""
+      SELECT NEW org.example.carshering.dto.response.CarFacetRow(
+          c.id, b.name, m.name, cc.name, cm.bodyType, c.yearOfIssue, c.rent
+      )
+      FROM Car c
+      JOIN c.model cm
+      JOIN cm.brand b
+      JOIN cm.model m
+      LEFT JOIN cm.carClass cc
+      WHERE (:carStates IS NULL OR c.state.status IN :carStates)
+        AND NOT array_contains(:bookedCarIds, c.id)
+      """)
+  List<CarFacetRow> findFacetRows(
+      @Param("carStates") List<String> carStates,
+      @Param("bookedCarIds") Long[] bookedCarIds);
+
+
+    // блокировки берутся в порядке id, поэтому пересекающиеся пакетные брони не встают в дедлок
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("""
     SELECT c FROM Car c
-    WHERE c.id = :carId
+    WHERE c.id IN :carIds
+    ORDER BY c.id
+    """)
+    List<Car> findAllByIdWithLock(@Param("carIds") Collection<Long> carIds);
+
+    // всё, что нужно для расчёта цены, одним запросом и без гидрации Car (см. TariffEngine.tableFor)
+    @Query("""
+    SELECT c.id AS id, c.rent AS rent, cm.idModel AS modelId, cc.id AS classId, s.status AS state
+    FROM Car c
+    JOIN c.model cm
+    LEFT JOIN cm.carClass cc
+    LEFT JOIN c.state s
+    WHERE c.id IN :carIds
     """)
-    Optional<Car> findByIdWithLock(@Param("carId") Long carId);
+    List<PricedCar> findPricedCars(@Param("carIds") Collection<Long> carIds);
+
+    interface PricedCar {
+        Long getId();
+
+        Double getRent();
+
+        Long getModelId();
+
+        Long getClassId();
+
+        String getState();
+    }
 
 }
 
@@ -0,0 +1,58 @@
+package org.example.carshering.repository;
+
+import org.example.carshering.dto.response.CarListItemResponse;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Ключи сортировки, доступные в режиме курсорной пагинации каталога.
+ * Каждый ключ — выражение JPQL над алиасом {@code e} витрины car_catalogue;
+ * id машины всегда добавляется последним ключом, чтобы порядок был однозначным.
+ * Nullable-колонки приводятся через COALESCE, иначе сравнение "после курсора" теряет строки с null.
+ */
+public enum CarScrollSort {
+
+    ID("id", "e.carId", item -> item.id(), Long::valueOf),
+    RENT("rent", "COALESCE(e.rent, 0.0)",
+            item -> item.rent() == null ? 0.0 : item.rent(), Double::valueOf),
+    YEAR_OF_ISSUE("yearOfIssue", "COALESCE(e.yearOfIssue, 0)",
+            item -> item.yearOfIssue() == null ? 0 : item.yearOfIssue(), Integer::valueOf),
+    BRAND("model.brand.name", "e.brand",
+            item -> item.brand(), value -> value);
+
+    private final String property;
+    private final String expression;
+    private final Function<CarListItemResponse, Object> extractor;
+    private final Function<String, Object> parser;
+
+    CarScrollSort(String property, String expression, Function<CarListItemResponse, Object> extractor, Function<String, Object> parser) {
+        this.property = property;
+        this.expression = expression;
+        this.extractor = extractor;
+        this.parser = parser;
+    }
+
+    public static Optional<CarScrollSort> byProperty(String property) {
+        return Arrays.stream(values())
+                .filter(sort -> sort.property.equals(property))
+                .findFirst();
+    }
+
+    public String property() {
+        return property;
+    }
+
+    String expression() {
+        return expression;
+    }
+
+    public Object extract(CarListItemResponse item) {
+        return extractor.apply(item);
+    }
+
+    public Object parse(String value) {
+        return parser.apply(value);
+    }
+}
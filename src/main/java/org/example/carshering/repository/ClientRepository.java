@@ -3,8 +3,8 @@ package org.example.carshering.repository;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import org.example.carshering.entity.Client;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -37,12 +37,20 @@ public interface ClientRepository extends JpaRepository<Client, Long> {
     @Query("SELECT c FROM Client c " +
             "WHERE (:banned IS NULL OR c.banned = :banned) " +
             "AND (:roleName IS NULL OR c.role.name = :roleName)")
-    Page<Client> findByFilter(
+    Slice<Client> findByFilter(
             @Param("banned") Boolean banned,
             @Param("roleName") String roleName,
             Pageable pageable
     );
 
+    @Query("SELECT COUNT(c) FROM Client c " +
+            "WHERE (:banned IS NULL OR c.banned = :banned) " +
+            "AND (:roleName IS NULL OR c.role.name = :roleName)")
+    long countByFilter(
+            @Param("banned") Boolean banned,
+            @Param("roleName") String roleName
+    );
+
 
     @Query("""
             SELECT CASE WHEN COUNT(c) > 0 THEN true ELSE false END FROM Client c WHERE c.phone = :phone and c.deleted = false and c.id != :id
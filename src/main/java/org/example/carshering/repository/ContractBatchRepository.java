@@ -0,0 +1,77 @@
+package org.example.carshering.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.example.carshering.entity.Contract;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Пакетная вставка контрактов через JDBC.
+ * <p>
+ * У контракта IDENTITY-ключ, поэтому Hibernate вставляет такие строки по одной;
+ * здесь все строки уходят одним JDBC-батчем, а сгенерированные id возвращаются через RETURNING.
+ * Работает в транзакции вызывающего кода (JpaTransactionManager отдаёт JdbcTemplate то же соединение).
+ */
+@Repository
+@RequiredArgsConstructor
+public class ContractBatchRepository {
+
+    private static final String INSERT = """
+            INSERT INTO car_rental.contract (data_start, data_end, total_cost, comment, car_id, client_id, duration_minutes, state_id)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Вставляет новые контракты и проставляет им id. Связи (клиент, машина, статус) должны иметь id.
+     */
+    public void insertAll(List<Contract> contracts) {
+        if (contracts.isEmpty()) {
+            return;
+        }
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Contract contract = contracts.get(i);
+                        ps.setObject(1, contract.getDataStart());
+                        ps.setObject(2, contract.getDataEnd());
+                        ps.setDouble(3, contract.getTotalCost());
+                        ps.setString(4, contract.getComment());
+                        ps.setLong(5, contract.getCar().getId());
+                        ps.setLong(6, contract.getClient().getId());
+                        if (contract.getDurationMinutes() == null) {
+                            ps.setNull(7, Types.BIGINT);
+                        } else {
+                            ps.setLong(7, contract.getDurationMinutes());
+                        }
+                        ps.setLong(8, contract.getState().getId());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return contracts.size();
+                    }
+                },
+                keys
+        );
+
+        List<Map<String, Object>> generated = keys.getKeyList();
+        for (int i = 0; i < contracts.size(); i++) {
+            contracts.get(i).setId(((Number) generated.get(i).get("id")).longValue());
+            contracts.get(i).setVersion(0L); // DEFAULT столбца version
+        }
+    }
+}
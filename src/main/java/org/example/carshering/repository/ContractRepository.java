@@ -1,11 +1,14 @@
 package org.example.carshering.repository;
 
 import jakarta.persistence.LockModeType;
+import org.example.carshering.dto.response.BookedInterval;
 import org.example.carshering.entity.Car;
 import org.example.carshering.entity.Client;
 import org.example.carshering.entity.Contract;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
@@ -21,16 +24,16 @@ import java.util.Set;
 
 @Repository
 public interface ContractRepository extends JpaRepository<Contract, Long> {
-    @Query("""
-    SELECT c FROM Contract c
-    JOIN c.state s
-    WHERE c.car.id = :carId
-      AND (:contractId IS NULL OR c.id <> :contractId)
-      AND s.name IN ('BOOKED', 'ACTIVE', 'PENDING', 'CONFIRMED')
-      AND (
-        (c.dataStart < :endDate AND c.dataEnd > :startDate)
-      )
-    """)
+    // после V25_1_18 интервалы броней, занимающих машину, лежат в contract_car_period (её ведёт триггер),
+    // и ограничение ex_contract_car_period со своим GiST-индексом стоит там: ищем по нему, а к секционированной
+    // contract возвращаемся только за найденными строками. lower(period) = data_start - ключ секционирования
+    @Query(value = """
+    SELECT c.* FROM car_rental.contract_car_period p
+    JOIN car_rental.contract c ON c.id = p.contract_id AND c.data_start = lower(p.period)
+    WHERE p.car_id = :carId
+      AND p.period && tsrange(CAST(:startDate AS timestamp), CAST(:endDate AS timestamp), '[)')
+      AND (CAST(:contractId AS bigint) IS NULL OR p.contract_id <> CAST(:contractId AS bigint))
+    """, nativeQuery = true)
     List<Contract> findOverlappingContracts(
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate,
@@ -50,6 +53,7 @@ public interface ContractRepository extends JpaRepository<Contract, Long> {
     )
     Optional<Contract> findByIdAndUserId(@Param("contractId") Long contractId, @Param("userId") Long userId);
 
+    @EntityGraph(Contract.RESPONSE_GRAPH)
     Page<Contract> findByClientId(Long userId, Pageable pageable);
 
     @Query("""
@@ -63,7 +67,8 @@ public interface ContractRepository extends JpaRepository<Contract, Long> {
       AND (:bodyType IS NULL OR model.bodyType = :bodyType)
       AND (:carClass IS NULL OR model.carClass.name = :carClass)
     """)
-    Page<Contract> findAllByFilter(
+    @EntityGraph(Contract.RESPONSE_GRAPH)
+    Slice<Contract> findAllByFilter(
             @Param("status") String status,
             @Param("idUser") Long idUser,
             @Param("idCar") Long idCar,
@@ -72,13 +77,117 @@ public interface ContractRepository extends JpaRepository<Contract, Long> {
             @Param("carClass") String carClass,
             Pageable pageable
     );
+
+    @Query("""
+    SELECT COUNT(c) FROM Contract c
+    JOIN c.car car
+    JOIN car.model model
+    WHERE (:status IS NULL OR c.state.name = :status)
+      AND (:idUser IS NULL OR c.client.id = :idUser)
+      AND (:idCar IS NULL OR c.car.id = :idCar)
+      AND (:brand IS NULL OR model.brand.name = :brand)
+      AND (:bodyType IS NULL OR model.bodyType = :bodyType)
+      AND (:carClass IS NULL OR model.carClass.name = :carClass)
+    """)
+    long countByFilter(
+            @Param("status") String status,
+            @Param("idUser") Long idUser,
+            @Param("idCar") Long idCar,
+            @Param("brand") String brand,
+            @Param("bodyType") String bodyType,
+            @Param("carClass") String carClass
+    );
     @Query("""
             SELECT c FROM Contract c WHERE c.client = :client AND UPPER(c.state.name) IN :activeStates
             """
     )
     List<Contract> findAllByClientAndActiveStates(@Param("client") Client client, @Param("activeStates") Collection<String> activeStates);
 
-    List<Contract> findAllByStateNameAndDataStartBefore(String confirmed, LocalDateTime localDate);
+    // перевод статуса пачкой без загрузки сущностей: подзапрос ограничивает пачку,
+    // SKIP LOCKED пропускает строки, которые сейчас меняет другая транзакция - их заберёт следующий запуск
+    @Query(value = """
+            UPDATE car_rental.contract c
+            SET state_id = :toStateId, version = c.version + 1
+            WHERE c.id IN (
+                SELECT s.id FROM car_rental.contract s
+                WHERE s.state_id = :fromStateId
+                  AND s.data_start <= :now
+                ORDER BY s.id
+                LIMIT :batchSize
+                FOR UPDATE SKIP LOCKED
+            )
+            RETURNING c.id AS "id", c.car_id AS "carId", c.data_start AS "dataStart", c.data_end AS "dataEnd"
+            """, nativeQuery = true)
+    List<TransitionedContract> transitionStartedBatch(
+            @Param("fromStateId") Long fromStateId,
+            @Param("toStateId") Long toStateId,
+            @Param("now") LocalDateTime now,
+            @Param("batchSize") int batchSize
+    );
+
+    @Query(value = """
+            UPDATE car_rental.contract c
+            SET state_id = :toStateId, version = c.version + 1
+            WHERE c.id IN (
+                SELECT s.id FROM car_rental.contract s
+                WHERE s.state_id = :fromStateId
+                  AND s.data_end <= :now
+                ORDER BY s.id
+                LIMIT :batchSize
+                FOR UPDATE SKIP LOCKED
+            )
+            RETURNING c.id AS "id", c.car_id AS "carId", c.data_start AS "dataStart", c.data_end AS "dataEnd"
+            """, nativeQuery = true)
+    List<TransitionedContract> transitionEndedBatch(
+            @Param("fromStateId") Long fromStateId,
+            @Param("toStateId") Long toStateId,
+            @Param("now") LocalDateTime now,
+            @Param("batchSize") int batchSize
+    );
+
+    @Query("""
+    SELECT NEW org.example.carshering.dto.response.BookedInterval(c.id, c.car.id, c.dataStart, c.dataEnd)
+    FROM Contract c
+    WHERE c.state.name IN :states
+    """)
+    List<BookedInterval> findBookedIntervals(@Param("states") Collection<String> states);
+
+    @Query("""
+    SELECT NEW org.example.carshering.dto.response.BookedInterval(c.id, c.car.id, c.dataStart, c.dataEnd)
+    FROM Contract c
+    WHERE c.car.id = :carId
+      AND c.state.name IN :states
+      AND c.dataEnd > :from
+    ORDER BY c.dataStart, c.id
+    """)
+    List<BookedInterval> findCarBookedIntervalsEndingAfter(@Param("carId") Long carId,
+                                                           @Param("states") Collection<String> states,
+                                                           @Param("from") LocalDateTime from);
+
+    @Query("""
+    SELECT NEW org.example.carshering.dto.response.BookedInterval(c.id, c.car.id, c.dataStart, c.dataEnd)
+    FROM Contract c
+    WHERE c.car.id IN :carIds
+      AND c.state.name IN :states
+      AND c.dataStart < :end
+      AND c.dataEnd > :start
+    """)
+    List<BookedInterval> findBookedIntervalsInRange(@Param("carIds") Collection<Long> carIds,
+                                                    @Param("states") Collection<String> states,
+                                                    @Param("start") LocalDateTime start,
+                                                    @Param("end") LocalDateTime end);
+
+    // создаёт месячные секции contract вперёд и секции под брони, попавшие в DEFAULT (см. V25_1_18)
+    @Query(value = "SELECT car_rental.ensure_contract_partitions(:monthsAhead)", nativeQuery = true)
+    int ensureMonthlyPartitions(@Param("monthsAhead") int monthsAhead);
+
+    interface TransitionedContract {
+        Long getId();
+
+        Long getCarId();
+
+        LocalDateTime getDataStart();
 
-    List<Contract> findAllByStateNameAndDataEndBefore(String completed, LocalDateTime localDateTime);
+        LocalDateTime getDataEnd();
+    }
 }
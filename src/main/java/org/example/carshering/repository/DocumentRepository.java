@@ -1,8 +1,8 @@
 package org.example.carshering.repository;
 
 import org.example.carshering.entity.Document;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
@@ -21,7 +21,12 @@ public interface DocumentRepository extends JpaRepository<Document, Long> {
     @Query(
             "SELECT d from Document d WHERE d.verified is false"
     )
-    Page<Document> findByVerifiedIsFalse(Pageable pageable);
+    Slice<Document> findByVerifiedIsFalse(Pageable pageable);
+
+    long countByVerifiedIsFalse();
+
+    // findAll(Pageable) всегда считает COUNT, здесь итог выбирает PageTotals
+    Slice<Document> findAllBy(Pageable pageable);
 
     // todo возможность вернуть удаленные документы для админа??
     Optional<Document> findByClientIdAndDeletedFalse(Long clientId);
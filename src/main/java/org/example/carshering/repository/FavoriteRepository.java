@@ -2,10 +2,13 @@ package org.example.carshering.repository;
 
 import org.example.carshering.entity.Favorite;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface FavoriteRepository extends JpaRepository<Favorite, Long> {
@@ -15,4 +18,7 @@ public interface FavoriteRepository extends JpaRepository<Favorite, Long> {
     void deleteFavoriteByClientIdAndCarId(Long clientId, Long carId);
 
     Optional<Favorite> findByClientIdAndCarId(Long userId, Long carId);
+
+    @Query("SELECT f.car.id FROM Favorite f WHERE f.client.id = :clientId")
+    Set<Long> findCarIdsByClientId(@Param("clientId") Long clientId);
 }
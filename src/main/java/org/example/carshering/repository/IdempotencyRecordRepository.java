@@ -0,0 +1,54 @@
+package org.example.carshering.repository;
+
+import org.example.carshering.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    Optional<IdempotencyRecord> findByClientIdAndKey(Long clientId, String key);
+
+    // занимает ключ; если его держит незавершённая транзакция, INSERT ждёт её исхода.
+    // 0 - ключ уже занят завершённым запросом
+    @Modifying
+    @Query(value = """
+            INSERT INTO car_rental.idempotency_key (client_id, idem_key, operation, request_hash, created_at, expires_at)
+            VALUES (:clientId, :key, :operation, :requestHash, :now, :expiresAt)
+            ON CONFLICT (client_id, idem_key) DO NOTHING
+            """, nativeQuery = true)
+    int claim(@Param("clientId") Long clientId,
+              @Param("key") String key,
+              @Param("operation") String operation,
+              @Param("requestHash") String requestHash,
+              @Param("now") LocalDateTime now,
+              @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query(value = """
+            UPDATE car_rental.idempotency_key
+            SET response = :response
+            WHERE client_id = :clientId AND idem_key = :key
+            """, nativeQuery = true)
+    int complete(@Param("clientId") Long clientId, @Param("key") String key, @Param("response") String response);
+
+    @Modifying
+    @Query(value = """
+            DELETE FROM car_rental.idempotency_key
+            WHERE client_id = :clientId AND idem_key = :key AND expires_at <= :now
+            """, nativeQuery = true)
+    int deleteIfExpired(@Param("clientId") Long clientId, @Param("key") String key, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query(value = """
+            DELETE FROM car_rental.idempotency_key
+            WHERE expires_at <= :now
+            """, nativeQuery = true)
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
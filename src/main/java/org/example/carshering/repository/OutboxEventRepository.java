@@ -0,0 +1,82 @@
+package org.example.carshering.repository;
+
+import org.example.carshering.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // блокировка до конца транзакции: релей работает в одном экземпляре приложения за раз,
+    // иначе два экземпляра могли бы доставить события одного агрегата не по порядку
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:lockKey)", nativeQuery = true)
+    boolean tryRelayLock(@Param("lockKey") long lockKey);
+
+    // событие пропускается, пока отложено оно само или более раннее событие того же агрегата,
+    // чтобы отсрочка не нарушала порядок внутри агрегата
+    @Query(value = """
+            SELECT * FROM car_rental.outbox_event e
+            WHERE e.published_at IS NULL
+              AND e.parked_at IS NULL
+              AND NOT EXISTS (
+                  SELECT 1 FROM car_rental.outbox_event d
+                  WHERE d.aggregate_type = e.aggregate_type
+                    AND d.aggregate_id = e.aggregate_id
+                    AND d.id <= e.id
+                    AND d.published_at IS NULL
+                    AND d.parked_at IS NULL
+                    AND d.next_attempt_at > :now
+              )
+            ORDER BY e.id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<OutboxEvent> findDeliverable(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Query(value = """
+            SELECT min(created_at) FROM car_rental.outbox_event
+            WHERE published_at IS NULL AND parked_at IS NULL
+            """, nativeQuery = true)
+    LocalDateTime findOldestUnpublishedCreatedAt();
+
+    @Query(value = "SELECT count(*) FROM car_rental.outbox_event WHERE parked_at IS NOT NULL", nativeQuery = true)
+    long countParked();
+
+    @Modifying
+    @Query(value = """
+            UPDATE car_rental.outbox_event
+            SET published_at = :now, attempts = attempts + 1
+            WHERE id IN (:ids)
+            """, nativeQuery = true)
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query(value = """
+            UPDATE car_rental.outbox_event
+            SET attempts = attempts + 1, last_error = :error, next_attempt_at = :nextAttemptAt
+            WHERE id = :id
+            """, nativeQuery = true)
+    int markFailed(@Param("id") Long id, @Param("error") String error,
+                   @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+
+    @Modifying
+    @Query(value = """
+            UPDATE car_rental.outbox_event
+            SET attempts = attempts + 1, last_error = :error, next_attempt_at = NULL, parked_at = :now
+            WHERE id = :id
+            """, nativeQuery = true)
+    int markParked(@Param("id") Long id, @Param("error") String error, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query(value = """
+            DELETE FROM car_rental.outbox_event
+            WHERE published_at < :before
+            """, nativeQuery = true)
+    int deletePublishedBefore(@Param("before") LocalDateTime before);
+}
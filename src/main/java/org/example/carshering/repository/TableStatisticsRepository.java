@@ -0,0 +1,43 @@
+package org.example.carshering.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Оценки размера таблиц из статистики планировщика PostgreSQL.
+ */
+@Repository
+public class TableStatisticsRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * @param table имя таблицы со схемой, например {@code car_rental.contract}
+     * @return оценка числа строк ({@code pg_class.reltuples}) или -1, если таблицы нет
+     * или по ней ещё не собиралась статистика; у секционированной таблицы - сумма по секциям
+     */
+    public long estimateRowCount(String table) {
+        // у самой секционированной таблицы reltuples не ведётся, статистика есть только у секций
+        List<?> rows = entityManager.createNativeQuery("""
+                        SELECT CASE
+                                   WHEN c.relkind = 'p' THEN (SELECT sum(greatest(p.reltuples, 0))
+                                                              FROM pg_partition_tree(c.oid) t
+                                                                       JOIN pg_class p ON p.oid = t.relid
+                                                              WHERE t.isleaf)
+                                   ELSE c.reltuples
+                                   END
+                        FROM pg_class c
+                        WHERE c.oid = to_regclass(:table)
+                        """)
+                .setParameter("table", table)
+                .getResultList();
+        if (rows.isEmpty() || rows.getFirst() == null) {
+            return -1;
+        }
+        return Math.round(((Number) rows.getFirst()).doubleValue());
+    }
+}
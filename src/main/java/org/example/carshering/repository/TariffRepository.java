@@ -0,0 +1,15 @@
+package org.example.carshering.repository;
+
+import org.example.carshering.entity.Tariff;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TariffRepository extends JpaRepository<Tariff, Long> {
+
+    List<Tariff> findAllByActiveTrue();
+
+    List<Tariff> findAllByOrderByIdAsc();
+}
@@ -11,6 +11,7 @@ import lombok.RequiredArgsConstructor;
 import org.example.carshering.dto.response.AdminOverview;
 import org.example.carshering.dto.response.ContractDetailResponse;
 import org.example.carshering.dto.response.DailyRevenueResponse;
+import org.example.carshering.dto.response.PageResponse;
 import org.example.carshering.service.interfaces.AnalysisService;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
@@ -214,7 +215,7 @@ public class AdminAnalysisController {
                             description = "Cars analytics retrieved successfully",
                             content = @Content(
                                     mediaType = "application/json",
-                                    schema = @Schema(implementation = org.springframework.data.domain.Page.class)
+                                    schema = @Schema(implementation = PageResponse.class)
                             )
                     ),
                     @ApiResponse(
@@ -245,10 +246,15 @@ public class AdminAnalysisController {
             @RequestParam(defaultValue = "0") int page,
 
             @Parameter(description = "Number of items per page", example = "20")
-            @RequestParam(defaultValue = "20") int size
+            @RequestParam(defaultValue = "20") int size,
+
+            @Parameter(description = "Count total elements; false skips the count and reports a lower bound " +
+                    "(rows up to the end of this page, plus one if there is a next page) with page.totalExact = false",
+                    example = "true")
+            @RequestParam(defaultValue = "true") boolean withTotal
     ) {
         org.springframework.data.domain.Pageable pageable = org.springframework.data.domain.PageRequest.of(page, size);
-        return ResponseEntity.status(HttpStatus.OK).body(analysisService.getAllCarsAnalytics(from, to, pageable));
+        return ResponseEntity.status(HttpStatus.OK).body(PageResponse.of(analysisService.getAllCarsAnalytics(from, to, pageable, withTotal)));
     }
 
 }
@@ -14,13 +14,17 @@ import org.example.carshering.dto.request.update.UpdateCarStateRequest;
 import org.example.carshering.dto.response.CarDetailResponse;
 import org.example.carshering.dto.response.CarListItemResponse;
 import org.example.carshering.dto.response.CarStateResponse;
+import org.example.carshering.dto.response.CursorPageResponse;
+import org.example.carshering.dto.response.PageResponse;
 import org.example.carshering.rest.all.CarController;
 import org.example.carshering.service.interfaces.CarService;
 import org.example.carshering.service.interfaces.CarStateService;
 import org.example.carshering.service.interfaces.ImageService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.SortDefault;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -225,11 +229,11 @@ public class AdminCarController {
             description = "Paginated list of cars retrieved successfully",
             content = @Content(
                     mediaType = "application/json",
-                    schema = @Schema(implementation = Page.class)
+                    schema = @Schema(implementation = PageResponse.class)
             )
     )
     @GetMapping
-    public Page<CarListItemResponse> getCars(
+    public PageResponse<CarListItemResponse> getCars(
             @Parameter(
                     description = "Filter by car brand",
                     example = "Toyota"
@@ -274,6 +278,10 @@ public class AdminCarController {
                     description = "Maximum price per day",
                     example = "5000"
             ) @RequestParam(value = "max_cell", required = false) Double maxCell,
+            @Parameter(description = "Count total elements; false skips the count and reports a lower bound " +
+                    "(rows up to the end of this page, plus one if there is a next page) with page.totalExact = false",
+                    example = "true")
+            @RequestParam(defaultValue = "true") boolean withTotal,
 
             @Parameter(
                     description = "Pagination and sorting information"
@@ -281,7 +289,99 @@ public class AdminCarController {
     ) {
 
         var filter = CarController.createFilter(brand, model, minYear, maxYear, bodyType, carClass, carState, dateStart, dateEnd, minCell, maxCell);
-        return carService.getAllCars(pageable, filter);
+        return PageResponse.of(carService.getAllCars(pageable, filter, withTotal));
+    }
+
+    @Operation(
+            summary = "Scroll Cars",
+            description = "Retrieve all cars page by page using an opaque cursor instead of page numbers, without total count (admin access). " +
+                    "Supported sort properties: id, rent, yearOfIssue, model.brand.name"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Page of cars retrieved successfully",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = CursorPageResponse.class)
+            )
+    )
+    @ApiResponse(
+            responseCode = "400",
+            description = "Invalid cursor or unsupported sort property"
+    )
+    @GetMapping("/scroll")
+    public CursorPageResponse<CarListItemResponse> scrollCars(
+            @Parameter(
+                    description = "Filter by car brand",
+                    example = "Toyota"
+            ) @RequestParam(value = "brand", required = false) String brand,
+            @Parameter(
+                    description = "Filter by car model",
+                    example = "Camry"
+            ) @RequestParam(value = "model", required = false) String model,
+            @Parameter(
+                    description = "Minimum manufacturing year",
+                    example = "2015"
+            ) @RequestParam(value = "minYear", required = false) Integer minYear,
+            @Parameter(
+                    description = "Maximum manufacturing year",
+                    example = "2023"
+            ) @RequestParam(value = "maxYear", required = false) Integer maxYear,
+            @Parameter(
+                    description = "Filter by body type",
+                    example = "Sedan"
+            ) @RequestParam(value = "body_type", required = false) String bodyType,
+            @Parameter(
+                    description = "Filter by car class",
+                    example = "Economy"
+            ) @RequestParam(value = "car_class", required = false) String carClass,
+            @Parameter(
+                    description = "Filter by car state",
+                    example = "AVAILABLE"
+            ) @RequestParam(value = "car_state", required = false) String carState,
+            @Parameter(
+                    description = "Start date for car availability",
+                    example = "2025-01-01"
+            ) @RequestParam(value = "date_start", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dateStart,
+            @Parameter(
+                    description = "End date for car availability",
+                    example = "2025-01-31"
+            ) @RequestParam(value = "date_end", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dateEnd,
+            @Parameter(
+                    description = "Minimum price per day",
+                    example = "1000"
+            ) @RequestParam(value = "min_cell", required = false) Double minCell,
+            @Parameter(
+                    description = "Maximum price per day",
+                    example = "5000"
+            ) @RequestParam(value = "max_cell", required = false) Double maxCell,
+            @Parameter(
+                    description = "Cursor returned as 'nextCursor' by the previous page"
+            ) @RequestParam(value = "after", required = false) String after,
+            @Parameter(
+                    description = "Page size",
+                    example = "20"
+            ) @RequestParam(value = "size", defaultValue = "20") int size,
+            @Parameter(
+                    description = "Sorting information"
+            ) @SortDefault(sort = "model.brand.name") Sort sort
+    ) {
+        var filter = CarController.createFilter(brand, model, minYear, maxYear, bodyType, carClass, carState, dateStart, dateEnd, minCell, maxCell);
+        return carService.scrollCars(filter, sort, size, after, null);
+    }
+
+    @Operation(
+            summary = "Rebuild Car Catalogue",
+            description = "Rebuild the denormalized car catalogue read model from the car tables (admin access). " +
+                    "Use after backfills or manual changes in the database"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Catalogue rebuilt, returns the number of rows written"
+    )
+    @PostMapping("/catalogue/rebuild")
+    public ResponseEntity<Integer> rebuildCatalogue() {
+        return ResponseEntity.ok(carService.rebuildCatalogue());
     }
 
     @Operation(
@@ -12,8 +12,8 @@ import org.example.carshering.dto.request.FilterUserRequest;
 import org.example.carshering.dto.request.RoleRequested;
 import org.example.carshering.dto.response.AllUserResponse;
 import org.example.carshering.dto.response.ShortUserResponse;
+import org.example.carshering.dto.response.PageResponse;
 import org.example.carshering.service.interfaces.ClientService;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
@@ -63,14 +63,18 @@ public class AdminClientController {
             description = "Paginated list of users retrieved successfully",
             content = @Content(
                     mediaType = "application/json",
-                    schema = @Schema(implementation = Page.class)
+                    schema = @Schema(implementation = PageResponse.class)
             )
     )
-    public Page<ShortUserResponse> getAllUsers(
+    public PageResponse<ShortUserResponse> getAllUsers(
             @Parameter(description = "Filter by banned status", example = "false")
             @RequestParam(value = "banned", required = false) Boolean banned,
             @Parameter(description = "Filter by role name", example = "USER")
             @RequestParam(value = "roleName", required = false) String roleName,
+            @Parameter(description = "Count total elements; false skips the count and reports a lower bound " +
+                    "(rows up to the end of this page, plus one if there is a next page) with page.totalExact = false",
+                    example = "true")
+            @RequestParam(defaultValue = "true") boolean withTotal,
             @Parameter(description = "Pagination and sorting information")
             @PageableDefault(size = 20, sort = "banned") Pageable pageable
     ) {
@@ -78,7 +82,7 @@ public class AdminClientController {
                 banned,
                 roleName
         );
-        return clientService.filterUsers(filter, pageable);
+        return PageResponse.of(clientService.filterUsers(filter, pageable, withTotal));
     }
 
 
@@ -9,8 +9,8 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.example.carshering.dto.request.FilterContractRequest;
 import org.example.carshering.dto.response.ContractResponse;
+import org.example.carshering.dto.response.PageResponse;
 import org.example.carshering.service.interfaces.ContractService;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
@@ -65,10 +65,10 @@ public class AdminContractController {
             description = "Paginated list of contracts retrieved successfully",
             content = @Content(
                     mediaType = "application/json",
-                    schema = @Schema(implementation = Page.class)
+                    schema = @Schema(implementation = PageResponse.class)
             )
     )
-    public Page<ContractResponse> getAllContracts(
+    public PageResponse<ContractResponse> getAllContracts(
             @Parameter(description = "Filter by contract status", example = "ACTIVE")
             @RequestParam(required = false) String status,
             @Parameter(description = "Filter by user ID", example = "1")
@@ -81,12 +81,16 @@ public class AdminContractController {
             @RequestParam(value = "body_type", required = false) String bodyType,
             @Parameter(description = "Filter by car class", example = "Business")
             @RequestParam(value = "car_class", required = false) String carClass,
+            @Parameter(description = "Count total elements; false skips the count and reports a lower bound " +
+                    "(rows up to the end of this page, plus one if there is a next page) with page.totalExact = false",
+                    example = "true")
+            @RequestParam(defaultValue = "true") boolean withTotal,
             @Parameter(description = "Pagination and sorting information")
             @PageableDefault(size = 20, sort = "id") Pageable pageable
 
     ) {
         var filter = new FilterContractRequest(status, idUser, idCar, brand, bodyType, carClass);
-        return contractService.getAllContracts(pageable, filter);
+        return PageResponse.of(contractService.getAllContracts(pageable, filter, withTotal));
     }
 
     @GetMapping("/{contractId}")
@@ -8,8 +8,8 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.example.carshering.dto.response.DocumentResponse;
+import org.example.carshering.dto.response.PageResponse;
 import org.example.carshering.service.interfaces.DocumentService;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
@@ -34,16 +34,20 @@ public class AdminDocumentController {
             description = "Paginated list of documents retrieved successfully",
             content = @Content(
                     mediaType = "application/json",
-                    schema = @Schema(implementation = Page.class)
+                    schema = @Schema(implementation = PageResponse.class)
             )
     )
-    public Page<DocumentResponse> getAllDocuments(
+    public PageResponse<DocumentResponse> getAllDocuments(
             @Parameter(description = "Show only unverified documents", example = "true")
             @RequestParam(defaultValue = "true") boolean onlyUnverified,
+            @Parameter(description = "Count total elements; false skips the count and reports a lower bound " +
+                    "(rows up to the end of this page, plus one if there is a next page) with page.totalExact = false",
+                    example = "true")
+            @RequestParam(defaultValue = "true") boolean withTotal,
             @Parameter(description = "Pagination and sorting information")
             @PageableDefault(size = 20, sort = "id") Pageable pageable
     ) {
-        return documentService.getAllDocuments(onlyUnverified, pageable);
+        return PageResponse.of(documentService.getAllDocuments(onlyUnverified, pageable, withTotal));
     }
 
     // Подтвердить документ
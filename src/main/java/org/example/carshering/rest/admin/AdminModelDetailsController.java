@@ -15,6 +15,7 @@ import org.example.carshering.dto.request.create.CreateCarModelsBrand;
 import org.example.carshering.dto.request.update.UpdateCarModelRequest;
 import org.example.carshering.dto.response.BrandModelResponse;
 import org.example.carshering.dto.response.CarModelResponse;
+import org.example.carshering.dto.response.CarModelSearchResponse;
 import org.example.carshering.dto.response.ModelNameResponse;
 import org.example.carshering.service.interfaces.CarBrandService;
 import org.example.carshering.service.interfaces.CarClassService;
@@ -71,6 +72,26 @@ public class AdminModelDetailsController {
                 pageable);
     }
 
+    @GetMapping("/models/search")
+    @Operation(
+            summary = "Search Models",
+            description = "Typo-tolerant search of car models by brand and model name, ordered by similarity to the query (admin access)"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Matching models retrieved successfully"
+    )
+    public List<CarModelSearchResponse> searchModels(
+            @Parameter(description = "Search query", example = "bmv x5")
+            @RequestParam(value = "q") String query,
+            @Parameter(description = "Include deleted models", example = "false")
+            @RequestParam(value = "include_deleted", defaultValue = "false") boolean includeDeleted,
+            @Parameter(description = "Maximum number of results (1-50), 10 by default", example = "10")
+            @RequestParam(value = "limit", required = false) Integer limit
+    ) {
+        return carModelService.searchModels(query, includeDeleted, limit);
+    }
+
     @GetMapping("/models/{modelId}")
     @Operation(
             summary = "Get Model by ID",
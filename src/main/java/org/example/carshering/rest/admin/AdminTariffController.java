@@ -0,0 +1,133 @@
+package org.example.carshering.rest.admin;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.example.carshering.dto.request.TariffRequest;
+import org.example.carshering.dto.response.TariffResponse;
+import org.example.carshering.service.interfaces.TariffService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@Tag(name = "Admin Tariff Management", description = "Endpoints for admin management of rental tariffs")
+@RequiredArgsConstructor
+@RequestMapping("/api/admin/tariffs")
+public class AdminTariffController {
+
+    private final TariffService tariffService;
+
+    @GetMapping
+    @Operation(
+            summary = "Get Tariffs",
+            description = "Retrieve all tariffs, including inactive ones (admin access)"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Tariffs retrieved successfully"
+    )
+    public List<TariffResponse> allTariffs() {
+        return tariffService.findAll();
+    }
+
+    @PostMapping
+    @Operation(
+            summary = "Create Tariff",
+            description = "Create an active tariff for a car model, a car class or, without both, for all other cars. " +
+                    "New prices apply to bookings and quotes right after the change is saved (admin access)"
+    )
+    @ApiResponse(
+            responseCode = "201",
+            description = "Tariff created successfully",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = TariffResponse.class)
+            )
+    )
+    @ApiResponse(
+            responseCode = "400",
+            description = "Invalid rules or tiers, or both a class and a model are set"
+    )
+    @ApiResponse(
+            responseCode = "404",
+            description = "Car class or model not found"
+    )
+    @ApiResponse(
+            responseCode = "409",
+            description = "An active tariff for this model, class or the default one already exists"
+    )
+    public ResponseEntity<TariffResponse> createTariff(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Tariff to create",
+                    required = true,
+                    content = @Content(
+                            schema = @Schema(implementation = TariffRequest.class)
+                    )
+            )
+            @RequestBody @Valid TariffRequest request
+    ) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(tariffService.createTariff(request));
+    }
+
+    @PutMapping("/{tariffId}")
+    @Operation(
+            summary = "Update Tariff",
+            description = "Replace the scope, rules and tiers of a tariff and activate it (admin access)"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Tariff updated successfully",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = TariffResponse.class)
+            )
+    )
+    @ApiResponse(
+            responseCode = "400",
+            description = "Invalid rules or tiers, or both a class and a model are set"
+    )
+    @ApiResponse(
+            responseCode = "404",
+            description = "Tariff, car class or model not found"
+    )
+    @ApiResponse(
+            responseCode = "409",
+            description = "An active tariff for this model, class or the default one already exists"
+    )
+    public TariffResponse updateTariff(
+            @Parameter(description = "ID of the tariff to update", example = "1", required = true)
+            @PathVariable Long tariffId,
+            @RequestBody @Valid TariffRequest request
+    ) {
+        return tariffService.updateTariff(tariffId, request);
+    }
+
+    @DeleteMapping("/{tariffId}")
+    @Operation(
+            summary = "Deactivate Tariff",
+            description = "Stop using a tariff for pricing; existing contracts keep their cost (admin access)"
+    )
+    @ApiResponse(
+            responseCode = "204",
+            description = "Tariff deactivated successfully"
+    )
+    @ApiResponse(
+            responseCode = "404",
+            description = "Tariff not found"
+    )
+    public ResponseEntity<?> deactivateTariff(
+            @Parameter(description = "ID of the tariff to deactivate", example = "1", required = true)
+            @PathVariable Long tariffId
+    ) {
+        tariffService.deactivateTariff(tariffId);
+        return ResponseEntity.noContent().build();
+    }
+}
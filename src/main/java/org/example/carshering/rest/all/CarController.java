@@ -9,23 +9,36 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.carshering.dto.request.CarFilterRequest;
+import org.example.carshering.dto.response.CarCalendarResponse;
 import org.example.carshering.dto.response.CarDetailResponse;
+import org.example.carshering.dto.response.CarFacetsResponse;
 import org.example.carshering.dto.response.CarListItemResponse;
+import org.example.carshering.dto.response.CarModelSearchResponse;
+import org.example.carshering.dto.response.CursorPageResponse;
+import org.example.carshering.dto.response.FilterDictionariesResponse;
+import org.example.carshering.dto.response.FreeSlotResponse;
 import org.example.carshering.dto.response.MinMaxCellForFilters;
+import org.example.carshering.dto.response.PriceQuoteBatchResponse;
+import org.example.carshering.dto.response.PriceQuoteResponse;
+import org.example.carshering.dto.response.PriceHistogramResponse;
 import org.example.carshering.security.ClientDetails;
+import org.example.carshering.service.domain.FilterDictionaryCache;
 import org.example.carshering.service.interfaces.*;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.SortDefault;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Set;
 
 @Slf4j
 @RestController
@@ -35,11 +48,10 @@ import java.util.Set;
 public class CarController {
     // todo фильтр по модели
     private final CarService carService;
-    private final CarModelService carModelService;
-    private final CarBrandService carBrandService;
-    private final CarModelNameService carModelNameService;
-    private final CarClassService carClassService;
     private final FavoriteService favoriteService;
+    private final FilterDictionaryCache filterDictionaryCache;
+    private final CarModelService carModelService;
+    private final ContractService contractService;
 
     public static CarFilterRequest createFilter(String brand,
                                                 String model,
@@ -113,30 +125,65 @@ public class CarController {
     ) {
         //todo: узнать  у нее - это норма?
         var filter = createFilter(brand, model, minYear, maxYear, bodyType, carClass, "AVAILABLE", dateStart, dateEnd, minCell, maxCell);
-        var carsPage = carService.getAllCars(pageable, filter);
         if (auth != null) {
             log.info("User '{}' is browsing the car catalogue with filters: brand='{}', model='{}', minYear='{}', maxYear='{}', bodyType='{}', carClass='{}', dateStart='{}', dateEnd='{}', minCell='{}', maxCell='{}'.",
                     auth.getName(), brand, model, minYear, maxYear, bodyType, carClass, dateStart, dateEnd, minCell, maxCell);
-            Set<Long> favorites = favoriteService.getAllFavoriteCarIds(((ClientDetails) auth.getPrincipal()).getId());
-
-            log.info("User '{}' has {} favorite cars.", auth.getName(), favorites.size());
-            carsPage = carsPage.map(carDto -> {
-                boolean isFav = favorites.contains(carDto.id());
-                return new CarListItemResponse(
-                        carDto.id(),
-                        carDto.brand(),
-                        carDto.carClass(),
-                        carDto.model(),
-                        carDto.yearOfIssue(),
-                        carDto.rent(),
-                        carDto.status(),
-                        isFav
-                );
-            });
-
+            return carService.getCatalogue(pageable, filter, ((ClientDetails) auth.getPrincipal()).getId());
         }
 
-        return carsPage;
+        return carService.getCatalogue(pageable, filter);
+    }
+
+    @GetMapping("/catalogue/scroll")
+    @Operation(
+            summary = "Scroll Car Catalogue",
+            description = "Retrieve the car catalogue page by page using an opaque cursor instead of page numbers. " +
+                    "No total count is calculated. Supported sort properties: id, rent, yearOfIssue, model.brand.name"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Page of available cars retrieved successfully",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = CursorPageResponse.class)
+            )
+    )
+    @ApiResponse(
+            responseCode = "400",
+            description = "Invalid cursor or unsupported sort property"
+    )
+    public CursorPageResponse<CarListItemResponse> scrollCatalogue(
+            @Parameter(description = "Filter by car brand", example = "Toyota")
+            @RequestParam(value = "brand", required = false) String brand,
+            @Parameter(description = "Filter by car model", example = "Camry")
+            @RequestParam(value = "model", required = false) String model,
+            @Parameter(description = "Minimum year of issue", example = "2015")
+            @RequestParam(value = "minYear", required = false) Integer minYear,
+            @Parameter(description = "Maximum year of issue", example = "2023")
+            @RequestParam(value = "maxYear", required = false) Integer maxYear,
+            @Parameter(description = "Filter by body type", example = "Sedan")
+            @RequestParam(value = "body_type", required = false) String bodyType,
+            @Parameter(description = "Filter by car class", example = "Business")
+            @RequestParam(value = "car_class", required = false) String carClass,
+            @Parameter(description = "Start date for car availability", example = "2025-01-01")
+            @RequestParam(value = "date_start", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dateStart,
+            @Parameter(description = "End date for car availability", example = "2025-01-31")
+            @RequestParam(value = "date_end", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dateEnd,
+            @Parameter(description = "Minimum price per day", example = "1000")
+            @RequestParam(value = "min_cell", required = false) Double minCell,
+            @Parameter(description = "Maximum price per day", example = "5000")
+            @RequestParam(value = "max_cell", required = false) Double maxCell,
+            @Parameter(description = "Cursor returned as 'nextCursor' by the previous page")
+            @RequestParam(value = "after", required = false) String after,
+            @Parameter(description = "Page size", example = "20")
+            @RequestParam(value = "size", defaultValue = "20") int size,
+            @Parameter(description = "Sorting information")
+            @SortDefault(sort = "model.brand.name") Sort sort,
+            @Parameter(hidden = true) Authentication auth
+    ) {
+        var filter = createFilter(brand, model, minYear, maxYear, bodyType, carClass, "AVAILABLE", dateStart, dateEnd, minCell, maxCell);
+        Long clientId = auth == null ? null : ((ClientDetails) auth.getPrincipal()).getId();
+        return carService.scrollCars(filter, sort, size, after, clientId);
     }
 
     @GetMapping("/filters/min-max-cell")
@@ -175,6 +222,228 @@ public class CarController {
     }
 
 
+    @GetMapping("/filters/price-histogram")
+    @Operation(
+            summary = "Get Price Histogram",
+            description = "Retrieve the distribution of rental prices of available cars for the current filter parameters " +
+                    "as equal-width buckets. The price range filter itself is not applied"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Price histogram retrieved successfully",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = PriceHistogramResponse.class)
+            )
+    )
+    public PriceHistogramResponse getPriceHistogram(
+            @Parameter(description = "Filter by car brand", example = "Toyota")
+            @RequestParam(value = "brand", required = false) String brand,
+            @Parameter(description = "Filter by car model", example = "Camry")
+            @RequestParam(value = "model", required = false) String model,
+            @Parameter(description = "Minimum year of issue", example = "2015")
+            @RequestParam(value = "minYear", required = false) Integer minYear,
+            @Parameter(description = "Maximum year of issue", example = "2023")
+            @RequestParam(value = "maxYear", required = false) Integer maxYear,
+            @Parameter(description = "Filter by body type", example = "Sedan")
+            @RequestParam(value = "body_type", required = false) String bodyType,
+            @Parameter(description = "Filter by car class", example = "Business")
+            @RequestParam(value = "car_class", required = false) String carClass,
+            @Parameter(description = "Start date for car availability", example = "2025-01-01")
+            @RequestParam(value = "date_start", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dateStart,
+            @Parameter(description = "End date for car availability", example = "2025-01-31")
+            @RequestParam(value = "date_end", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dateEnd,
+            @Parameter(description = "Number of buckets (1-50), 10 by default", example = "10")
+            @RequestParam(value = "buckets", required = false) Integer buckets
+    ) {
+        var filter = createFilter(brand, model, minYear, maxYear, bodyType, carClass, "AVAILABLE", dateStart, dateEnd, null, null);
+        return carService.getPriceHistogram(filter, buckets);
+    }
+
+    @GetMapping("/filters/facets")
+    @Operation(
+            summary = "Get Catalogue Facets",
+            description = "Retrieve per-brand, per-model, per-class, per-body-type and per-year counts of available cars " +
+                    "plus the price range for the current filter in one request. " +
+                    "Each facet is counted with all filters applied except its own dimension"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Facet counts retrieved successfully",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = CarFacetsResponse.class)
+            )
+    )
+    public CarFacetsResponse getFacets(
+            @Parameter(description = "Filter by car brand", example = "Toyota")
+            @RequestParam(value = "brand", required = false) String brand,
+            @Parameter(description = "Filter by car model", example = "Camry")
+            @RequestParam(value = "model", required = false) String model,
+            @Parameter(description = "Minimum year of issue", example = "2015")
+            @RequestParam(value = "minYear", required = false) Integer minYear,
+            @Parameter(description = "Maximum year of issue", example = "2023")
+            @RequestParam(value = "maxYear", required = false) Integer maxYear,
+            @Parameter(description = "Filter by body type", example = "Sedan")
+            @RequestParam(value = "body_type", required = false) String bodyType,
+            @Parameter(description = "Filter by car class", example = "Business")
+            @RequestParam(value = "car_class", required = false) String carClass,
+            @Parameter(description = "Start date for car availability", example = "2025-01-01")
+            @RequestParam(value = "date_start", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dateStart,
+            @Parameter(description = "End date for car availability", example = "2025-01-31")
+            @RequestParam(value = "date_end", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dateEnd,
+            @Parameter(description = "Minimum price per day", example = "1000")
+            @RequestParam(value = "min_cell", required = false) Double minCell,
+            @Parameter(description = "Maximum price per day", example = "5000")
+            @RequestParam(value = "max_cell", required = false) Double maxCell
+    ) {
+        var filter = createFilter(brand, model, minYear, maxYear, bodyType, carClass, "AVAILABLE", dateStart, dateEnd, minCell, maxCell);
+        return carService.getFacets(filter);
+    }
+
+
+    @GetMapping("/calendar")
+    @Operation(
+            summary = "Get Occupancy Calendar",
+            description = "Retrieve monthly occupancy bitmaps for one or more cars (up to 50) with a slot per hour or per day. " +
+                    "Bit i of a bitmap is set when slot i of the month overlaps a booking"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Calendars retrieved successfully",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = CarCalendarResponse.class)
+            )
+    )
+    @ApiResponse(
+            responseCode = "400",
+            description = "No car IDs, too many car IDs or unsupported granularity"
+    )
+    public CarCalendarResponse getCalendar(
+            @Parameter(description = "Comma-separated car IDs", example = "1,2,3", required = true)
+            @RequestParam(value = "car_id") List<Long> carIds,
+            @Parameter(description = "Month in yyyy-MM format", example = "2025-03", required = true)
+            @RequestParam(value = "month") @DateTimeFormat(pattern = "yyyy-MM") YearMonth month,
+            @Parameter(description = "Slot size: DAY (default) or HOUR", example = "DAY")
+            @RequestParam(value = "granularity", required = false) String granularity
+    ) {
+        return contractService.getCalendar(carIds, month, granularity);
+    }
+
+    @GetMapping("/{carId}/free-slots")
+    @Operation(
+            summary = "Find Free Slots",
+            description = "Retrieve the earliest free windows of a car that fit a rental of the requested duration. " +
+                    "A booking starting at a window start with the requested duration will not overlap existing bookings"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Free windows retrieved successfully, ordered by start. The last window may have no end"
+    )
+    @ApiResponse(
+            responseCode = "400",
+            description = "Duration is missing or not positive"
+    )
+    @ApiResponse(
+            responseCode = "404",
+            description = "Car not found"
+    )
+    public List<FreeSlotResponse> findFreeSlots(
+            @Parameter(description = "ID of the car", example = "1", required = true)
+            @PathVariable Long carId,
+            @Parameter(description = "Rental duration in minutes", example = "1440", required = true)
+            @RequestParam(value = "duration_minutes") Long durationMinutes,
+            @Parameter(description = "Search windows starting from this moment, now by default", example = "2025-01-01T10:00:00")
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Number of windows to return (1-20), 5 by default", example = "5")
+            @RequestParam(value = "count", required = false) Integer count
+    ) {
+        return contractService.findFreeSlots(carId, from, durationMinutes, count);
+    }
+
+    @GetMapping("/quotes")
+    @Operation(
+            summary = "Quote Rental Prices",
+            description = "Calculate rental prices and availability of up to 300 cars for the same period in one request. " +
+                    "Prices are calculated by the same tariffs as bookings; a car is available when it is in service " +
+                    "and has no booking overlapping the period"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Prices calculated successfully",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = PriceQuoteBatchResponse.class)
+            )
+    )
+    @ApiResponse(
+            responseCode = "400",
+            description = "No car IDs, too many car IDs, or end is not later than start"
+    )
+    public PriceQuoteBatchResponse quoteAll(
+            @Parameter(description = "Comma-separated car IDs", example = "1,2,3", required = true)
+            @RequestParam(value = "car_id") List<Long> carIds,
+            @Parameter(description = "Start of the rental", example = "2025-01-10T12:00:00", required = true)
+            @RequestParam(value = "start") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @Parameter(description = "End of the rental", example = "2025-01-12T12:00:00", required = true)
+            @RequestParam(value = "end") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end
+    ) {
+        return contractService.quoteAll(carIds, start, end);
+    }
+
+    @GetMapping("/{carId}/quote")
+    @Operation(
+            summary = "Quote Rental Price",
+            description = "Calculate the rental price of a car for a period by its tariff: hour-of-week surcharges " +
+                    "and duration discounts on top of the hourly rate. A booking for the same period costs the same"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Price calculated successfully",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = PriceQuoteResponse.class)
+            )
+    )
+    @ApiResponse(
+            responseCode = "400",
+            description = "End is not later than start"
+    )
+    @ApiResponse(
+            responseCode = "404",
+            description = "Car not found"
+    )
+    public PriceQuoteResponse quote(
+            @Parameter(description = "ID of the car", example = "1", required = true)
+            @PathVariable Long carId,
+            @Parameter(description = "Start of the rental", example = "2025-01-10T12:00:00", required = true)
+            @RequestParam(value = "start") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @Parameter(description = "End of the rental", example = "2025-01-12T12:00:00", required = true)
+            @RequestParam(value = "end") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end
+    ) {
+        return contractService.quote(carId, start, end);
+    }
+
+    @GetMapping("/search")
+    @Operation(
+            summary = "Search Car Models",
+            description = "Typo-tolerant search of car models by brand and model name. " +
+                    "Results are ordered by similarity to the query; queries shorter than 2 characters return an empty list"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Matching models retrieved successfully"
+    )
+    public List<CarModelSearchResponse> searchModels(
+            @Parameter(description = "Search query", example = "toyta camr")
+            @RequestParam(value = "q") String query,
+            @Parameter(description = "Maximum number of results (1-50), 10 by default", example = "10")
+            @RequestParam(value = "limit", required = false) Integer limit
+    ) {
+        return carModelService.searchModels(query, false, limit);
+    }
+
     @GetMapping("/{carId}")
     @Operation(
             summary = "Get Valid Car",
@@ -207,56 +476,98 @@ public class CarController {
         return carService.getValidCarById(carId, false);
     }
 
+    @GetMapping("/filters/dictionaries")
+    @Operation(
+            summary = "Get Filter Dictionaries",
+            description = "Retrieve brands, model names, car classes and body types for filtering in one response. " +
+                    "Served with a strong ETag; send it back in If-None-Match to get 304 Not Modified while the dictionaries are unchanged"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Filter dictionaries retrieved successfully",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = FilterDictionariesResponse.class)
+            )
+    )
+    @ApiResponse(
+            responseCode = "304",
+            description = "Dictionaries have not changed since the version identified by If-None-Match"
+    )
+    public FilterDictionariesResponse getDictionaries(@Parameter(hidden = true) WebRequest request) {
+        var snapshot = filterDictionaryCache.get();
+        if (request.checkNotModified(snapshot.etag())) {
+            return null;
+        }
+        return snapshot.dictionaries();
+    }
+
     @GetMapping("/filters/brands")
     @Operation(
             summary = "Get Filter Brands",
-            description = "Retrieve a list of all available car brands for filtering"
+            description = "Retrieve a list of all available car brands for filtering. Supports If-None-Match"
     )
     @ApiResponse(
             responseCode = "200",
             description = "List of brands retrieved successfully"
     )
-    public List<String> getBrands() {
-        return carBrandService.findAllBrands();
+    public List<String> getBrands(@Parameter(hidden = true) WebRequest request) {
+        var snapshot = filterDictionaryCache.get();
+        if (request.checkNotModified(snapshot.etag())) {
+            return null;
+        }
+        return snapshot.dictionaries().brands();
     }
 
     @GetMapping("/filters/models")
     @Operation(
             summary = "Get Filter Models",
-            description = "Retrieve a list of all available model names for filtering"
+            description = "Retrieve a list of all available model names for filtering. Supports If-None-Match"
     )
     @ApiResponse(
             responseCode = "200",
             description = "List of model names retrieved successfully"
     )
-    public List<String> getModels() {
-        return carModelNameService.findAllModels();
+    public List<String> getModels(@Parameter(hidden = true) WebRequest request) {
+        var snapshot = filterDictionaryCache.get();
+        if (request.checkNotModified(snapshot.etag())) {
+            return null;
+        }
+        return snapshot.dictionaries().models();
     }
 
     @GetMapping("/filters/classes")
     @Operation(
             summary = "Get Filter Classes",
-            description = "Retrieve a list of all available car classes for filtering"
+            description = "Retrieve a list of all available car classes for filtering. Supports If-None-Match"
     )
     @ApiResponse(
             responseCode = "200",
             description = "List of car classes retrieved successfully"
     )
-    public List<String> getClasses() {
-        return carClassService.findAllClasses();
+    public List<String> getClasses(@Parameter(hidden = true) WebRequest request) {
+        var snapshot = filterDictionaryCache.get();
+        if (request.checkNotModified(snapshot.etag())) {
+            return null;
+        }
+        return snapshot.dictionaries().classes();
     }
 
     @GetMapping("/filters/body-types")
     @Operation(
             summary = "Get Filter Body Types",
-            description = "Retrieve a list of all available body types for filtering"
+            description = "Retrieve a list of all available body types for filtering. Supports If-None-Match"
     )
     @ApiResponse(
             responseCode = "200",
             description = "List of body types retrieved successfully"
     )
-    public List<String> getBodyTypes() {
-        return carModelService.findAllBodyTypes();
+    public List<String> getBodyTypes(@Parameter(hidden = true) WebRequest request) {
+        var snapshot = filterDictionaryCache.get();
+        if (request.checkNotModified(snapshot.etag())) {
+            return null;
+        }
+        return snapshot.dictionaries().bodyTypes();
     }
 
 
@@ -8,13 +8,17 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.example.carshering.dto.request.create.CreateContractBatchRequest;
 import org.example.carshering.dto.request.create.CreateContractRequest;
 import org.example.carshering.dto.request.update.UpdateContractRequest;
+import org.example.carshering.dto.response.ContractBatchResponse;
 import org.example.carshering.dto.response.ContractResponse;
 import org.example.carshering.security.ClientDetails;
+import org.example.carshering.service.domain.IdempotencyStore;
 import org.example.carshering.service.interfaces.ContractService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
@@ -27,7 +31,10 @@ import java.net.URI;
 @RequiredArgsConstructor
 public class ContractController {
 
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
     private final ContractService contractService;
+    private final IdempotencyStore idempotencyStore;
 
     @PostMapping
     @Operation(
@@ -59,10 +66,14 @@ public class ContractController {
                     )
             )
             @Valid @RequestBody CreateContractRequest request,
+            @Parameter(description = "Client-generated key; a retry with the same key returns the original result " +
+                    "instead of repeating the operation", example = "5f0c8a9e-3b7a-4a51-9c1e-2d7f0b6a4e11")
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
             Authentication auth
     ) {
         Long userId = getCurrentUserId(auth);
-        ContractResponse response = contractService.createContract(userId, request);
+        ContractResponse response = idempotencyStore.execute(userId, idempotencyKey, "contract.create", request,
+                ContractResponse.class, () -> contractService.createContract(userId, request));
         URI location = ServletUriComponentsBuilder.fromCurrentRequest()
                 .path("/{id}")
                 .buildAndExpand(response.id())
@@ -70,6 +81,42 @@ public class ContractController {
         return ResponseEntity.created(location).body(response);
     }
 
+    @PostMapping("/batch")
+    @Operation(
+            summary = "Create Contracts in Batch",
+            description = "Book several cars at once for the authenticated user. The client and document are checked once, " +
+                    "cars are locked in id order and all overlaps are checked in one query. " +
+                    "With allOrNothing=true (default) nothing is booked if any item fails"
+    )
+    @ApiResponse(
+            responseCode = "201",
+            description = "At least one contract created; per-item results in request order",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = ContractBatchResponse.class)
+            )
+    )
+    @ApiResponse(
+            responseCode = "409",
+            description = "No contract created; per-item results explain why"
+    )
+    public ResponseEntity<ContractBatchResponse> createContracts(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Cars and rental periods to book",
+                    required = true,
+                    content = @Content(
+                            schema = @Schema(implementation = CreateContractBatchRequest.class)
+                    )
+            )
+            @Valid @RequestBody CreateContractBatchRequest request,
+            Authentication auth
+    ) {
+        Long userId = getCurrentUserId(auth);
+        ContractBatchResponse response = contractService.createContracts(userId, request);
+        HttpStatus status = response.created() > 0 ? HttpStatus.CREATED : HttpStatus.CONFLICT;
+        return ResponseEntity.status(status).body(response);
+    }
+
     @GetMapping
     @Operation(
             summary = "Get User Contracts",
@@ -146,10 +193,16 @@ public class ContractController {
     public ResponseEntity<?> cancelContract(
             @Parameter(description = "ID of the contract to cancel", example = "1", required = true)
             @PathVariable Long contractId,
+            @Parameter(description = "Client-generated key; a retry with the same key returns the original result " +
+                    "instead of repeating the operation", example = "5f0c8a9e-3b7a-4a51-9c1e-2d7f0b6a4e11")
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
             Authentication auth
     ) {
         Long userId = getCurrentUserId(auth);
-        contractService.cancelContract(userId, contractId );
+        idempotencyStore.execute(userId, idempotencyKey, "contract.cancel:" + contractId, null, Void.class, () -> {
+            contractService.cancelContract(userId, contractId);
+            return null;
+        });
         return ResponseEntity.noContent().build();
     } // todo логику отмены
     // todo изменение контракта
@@ -190,10 +243,14 @@ public class ContractController {
                     )
             )
             @Valid @RequestBody UpdateContractRequest request,
+            @Parameter(description = "Client-generated key; a retry with the same key returns the original result " +
+                    "instead of repeating the operation", example = "5f0c8a9e-3b7a-4a51-9c1e-2d7f0b6a4e11")
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
             Authentication auth
     ){
         Long userId = getCurrentUserId(auth);
-        ContractResponse response = contractService.updateContract(userId, contractId, request);
+        ContractResponse response = idempotencyStore.execute(userId, idempotencyKey, "contract.update:" + contractId,
+                request, ContractResponse.class, () -> contractService.updateContract(userId, contractId, request));
         return ResponseEntity.ok(response);
     }
 
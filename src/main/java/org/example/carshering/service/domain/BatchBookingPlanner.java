@@ -0,0 +1,98 @@
+package org.example.carshering.service.domain;
+
+import org.example.carshering.dto.request.create.CreateContractRequest;
+import org.example.carshering.dto.response.BookedInterval;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Разбор пакетной брони: для каждой позиции решает, можно ли её создать, не обращаясь к БД.
+ * <p>
+ * Позиции проверяются в порядке запроса: корректность дат, существование машины и пересечение
+ * с уже существующими бронями и с принятыми ранее позициями того же пакета. Брони - полуинтервалы
+ * [start, end), как в ограничении {@code ex_contract_car_period} на {@code car_rental.contract_car_period}.
+ */
+public final class BatchBookingPlanner {
+
+    public static final String INVALID_DATES = "The end date must be later than the start date";
+    public static final String CAR_NOT_FOUND = "Car not found";
+    public static final String CAR_UNAVAILABLE = "The car is not available on the selected dates";
+
+    private BatchBookingPlanner() {
+    }
+
+    /**
+     * @param error null, если позицию можно создать
+     */
+    public record Decision(int index, CreateContractRequest request, String error) {
+        public boolean accepted() {
+            return error == null;
+        }
+    }
+
+    /**
+     * @param items      позиции пакета в порядке запроса
+     * @param knownCars  id существующих машин из пакета
+     * @param bookings   существующие брони этих машин, пересекающиеся с периодом пакета
+     */
+    public static List<Decision> plan(List<CreateContractRequest> items, Set<Long> knownCars, List<BookedInterval> bookings) {
+        Map<Long, List<BookedInterval>> byCar = bookings.stream()
+                .collect(Collectors.groupingBy(BookedInterval::carId, HashMap::new, Collectors.toCollection(ArrayList::new)));
+
+        List<Decision> decisions = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            CreateContractRequest item = items.get(i);
+            String error = null;
+            if (!item.dataEnd().isAfter(item.dataStart())) {
+                error = INVALID_DATES;
+            } else if (!knownCars.contains(item.carId())) {
+                error = CAR_NOT_FOUND;
+            } else {
+                List<BookedInterval> carBookings = byCar.computeIfAbsent(item.carId(), id -> new ArrayList<>());
+                if (overlapsAny(carBookings, item)) {
+                    error = CAR_UNAVAILABLE;
+                } else {
+                    // принятая позиция занимает машину для следующих позиций пакета
+                    carBookings.add(new BookedInterval(null, item.carId(), item.dataStart(), item.dataEnd()));
+                }
+            }
+            decisions.add(new Decision(i, item, error));
+        }
+        return decisions;
+    }
+
+    /**
+     * Минимальное начало и максимальный конец среди позиций с корректными датами,
+     * чтобы загрузить существующие брони одним запросом; null, если таких позиций нет.
+     */
+    public static BookedInterval span(List<CreateContractRequest> items) {
+        BookedInterval span = null;
+        for (CreateContractRequest item : items) {
+            if (!item.dataEnd().isAfter(item.dataStart())) {
+                continue;
+            }
+            if (span == null) {
+                span = new BookedInterval(null, null, item.dataStart(), item.dataEnd());
+            } else {
+                span = new BookedInterval(null, null,
+                        item.dataStart().isBefore(span.dataStart()) ? item.dataStart() : span.dataStart(),
+                        item.dataEnd().isAfter(span.dataEnd()) ? item.dataEnd() : span.dataEnd());
+            }
+        }
+        return span;
+    }
+
+    private static boolean overlapsAny(List<BookedInterval> bookings, CreateContractRequest item) {
+        for (BookedInterval booking : bookings) {
+            if (booking.dataStart().isBefore(item.dataEnd()) && booking.dataEnd().isAfter(item.dataStart())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,238 @@
+package org.example.carshering.service.domain;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.carshering.dto.response.BookedInterval;
+import org.example.carshering.event.ContractChangedEvent;
+import org.example.carshering.repository.ContractRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory индекс занятости машин: для каждой машины хранится отсортированный по началу
+ * список забронированных интервалов. Позволяет ответить на вопрос "какие машины заняты
+ * в период [start, end)" без обращения к таблице contract.
+ * <p>
+ * Загружается при старте, обновляется по {@link ContractChangedEvent} после коммита
+ * и периодически пересобирается из БД, чтобы не накапливать расхождения.
+ * <p>
+ * События, пришедшие во время пересборки, копятся и применяются поверх загруженного снимка:
+ * иначе бронь или отмена, закоммиченная после чтения из БД, затёрлась бы устаревшими данными.
+ * <p>
+ * Индекс свой на каждом экземпляре приложения, а события локальные: брони, созданные на другом
+ * экземпляре, видны здесь только после ближайшей пересборки ({@code availability.index.resync-interval},
+ * по умолчанию раз в минуту). В это окно фильтр каталога по датам может показать такую машину свободной;
+ * саму бронь это не пропускает — пересечения отсекает ограничение ex_contract_car_period
+ * на car_rental.contract_car_period.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CarAvailabilityIndex {
+
+    public static final Set<String> BLOCKING_STATES = Set.of("BOOKED", "ACTIVE", "PENDING", "CONFIRMED");
+
+    private final ContractRepository contractRepository;
+
+    private final Map<Long, CarTimeline> timelines = new ConcurrentHashMap<>();
+    private volatile boolean loaded = false;
+
+    // запись событий идёт под lock, а не под монитором индекса: чтение из БД при пересборке их не задерживает
+    private final Object lock = new Object();
+    // не null, пока идёт пересборка: события, которые нужно применить поверх загруженного снимка
+    private List<ContractChangedEvent> replayBuffer;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        ensureLoaded();
+    }
+
+    @Scheduled(fixedDelayString = "${availability.index.resync-interval:PT1M}",
+            initialDelayString = "${availability.index.resync-interval:PT1M}")
+    public synchronized void rebuild() {
+        // буфер включается до чтения: событие коммита, не попавшего в снимок, придёт уже после этого
+        synchronized (lock) {
+            replayBuffer = new ArrayList<>();
+        }
+        List<BookedInterval> intervals;
+        try {
+            intervals = contractRepository.findBookedIntervals(BLOCKING_STATES);
+        } catch (RuntimeException e) {
+            synchronized (lock) {
+                replayBuffer = null;
+            }
+            throw e;
+        }
+
+        Map<Long, CarTimeline> rebuilt = new HashMap<>();
+        intervals.stream()
+                .collect(Collectors.groupingBy(BookedInterval::carId))
+                .forEach((carId, carIntervals) -> rebuilt.put(carId, CarTimeline.of(carIntervals)));
+
+        int replayed;
+        synchronized (lock) {
+            timelines.keySet().retainAll(rebuilt.keySet());
+            timelines.putAll(rebuilt);
+            // применение события идемпотентно, поэтому уже учтённое в снимке событие ничего не меняет
+            replayed = replayBuffer.size();
+            replayBuffer.forEach(this::apply);
+            replayBuffer = null;
+            loaded = true;
+        }
+
+        log.info("Car availability index rebuilt: {} intervals for {} cars, {} events replayed",
+                intervals.size(), rebuilt.size(), replayed);
+    }
+
+    /**
+     * Машины, у которых есть бронь, пересекающаяся с [start, end).
+     * Семантика пересечения та же, что и в {@link ContractRepository#findOverlappingContracts}.
+     */
+    public Set<Long> findBookedCarIds(LocalDateTime start, LocalDateTime end) {
+        ensureLoaded();
+        Set<Long> booked = new HashSet<>();
+        timelines.forEach((carId, timeline) -> {
+            if (timeline.overlaps(start, end)) {
+                booked.add(carId);
+            }
+        });
+        return booked;
+    }
+
+    public boolean isBooked(Long carId, LocalDateTime start, LocalDateTime end) {
+        ensureLoaded();
+        CarTimeline timeline = timelines.get(carId);
+        return timeline != null && timeline.overlaps(start, end);
+    }
+
+    // индекс обновляется раньше остальных слушателей: они могут сразу пересчитывать выдачу каталога
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContractChanged(ContractChangedEvent event) {
+        if (event.carId() == null || event.contractId() == null) {
+            return;
+        }
+        synchronized (lock) {
+            if (replayBuffer != null) {
+                replayBuffer.add(event);
+            }
+            apply(event);
+        }
+    }
+
+    private void apply(ContractChangedEvent event) {
+        if (BLOCKING_STATES.contains(event.state())) {
+            BookedInterval interval = new BookedInterval(event.contractId(), event.carId(), event.dataStart(), event.dataEnd());
+            timelines.compute(event.carId(), (id, timeline) ->
+                    (timeline == null ? CarTimeline.EMPTY : timeline).with(interval));
+        } else {
+            timelines.computeIfPresent(event.carId(), (id, timeline) -> {
+                CarTimeline updated = timeline.without(event.contractId());
+                return updated.isEmpty() ? null : updated;
+            });
+        }
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    rebuild();
+                }
+            }
+        }
+    }
+
+    /**
+     * Неизменяемая временная шкала одной машины. Интервалы отсортированы по началу,
+     * maxEnd[i] — максимальный конец среди интервалов 0..i, поэтому проверка пересечения
+     * работает за O(log n) даже если в данных оказались пересекающиеся брони.
+     */
+    static final class CarTimeline {
+
+        static final CarTimeline EMPTY = new CarTimeline(new BookedInterval[0]);
+
+        private static final Comparator<BookedInterval> ORDER = Comparator
+                .comparing(BookedInterval::dataStart)
+                .thenComparing(BookedInterval::contractId);
+
+        private final BookedInterval[] intervals;
+        private final LocalDateTime[] maxEnd;
+
+        private CarTimeline(BookedInterval[] sorted) {
+            this.intervals = sorted;
+            this.maxEnd = new LocalDateTime[sorted.length];
+            LocalDateTime max = null;
+            for (int i = 0; i < sorted.length; i++) {
+                LocalDateTime end = sorted[i].dataEnd();
+                if (max == null || end.isAfter(max)) {
+                    max = end;
+                }
+                maxEnd[i] = max;
+            }
+        }
+
+        static CarTimeline of(Collection<BookedInterval> intervals) {
+            BookedInterval[] sorted = intervals.toArray(new BookedInterval[0]);
+            Arrays.sort(sorted, ORDER);
+            return new CarTimeline(sorted);
+        }
+
+        boolean isEmpty() {
+            return intervals.length == 0;
+        }
+
+        boolean overlaps(LocalDateTime start, LocalDateTime end) {
+            int idx = lastStartingBefore(end);
+            return idx >= 0 && maxEnd[idx].isAfter(start);
+        }
+
+        CarTimeline with(BookedInterval interval) {
+            List<BookedInterval> list = new ArrayList<>(intervals.length + 1);
+            for (BookedInterval existing : intervals) {
+                if (!existing.contractId().equals(interval.contractId())) {
+                    list.add(existing);
+                }
+            }
+            list.add(interval);
+            return of(list);
+        }
+
+        CarTimeline without(Long contractId) {
+            List<BookedInterval> list = new ArrayList<>(intervals.length);
+            for (BookedInterval existing : intervals) {
+                if (!existing.contractId().equals(contractId)) {
+                    list.add(existing);
+                }
+            }
+            return list.size() == intervals.length ? this : of(list);
+        }
+
+        // индекс последнего интервала, который начинается строго раньше moment, или -1
+        private int lastStartingBefore(LocalDateTime moment) {
+            int lo = 0;
+            int hi = intervals.length - 1;
+            int result = -1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (intervals[mid].dataStart().isBefore(moment)) {
+                    result = mid;
+                    lo = mid + 1;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            return result;
+        }
+    }
+}
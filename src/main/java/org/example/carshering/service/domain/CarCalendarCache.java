@@ -0,0 +1,68 @@
+package org.example.carshering.service.domain;
+
+import org.example.carshering.event.ContractChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Кэш закодированных календарей занятости ({@link OccupancyCalendar}) по машине, месяцу и шагу.
+ * <p>
+ * Любое изменение контракта машины удаляет все её календари: событие приходит после коммита,
+ * поэтому следующий запрос прочитает уже новые брони.
+ */
+@Service
+public class CarCalendarCache {
+
+    private final int maxSize;
+    private final LinkedHashMap<Key, byte[]> entries;
+    // растёт при каждой инвалидации: календарь, посчитанный до неё, в кэш уже не кладётся
+    private long generation = 0;
+
+    public CarCalendarCache(@Value("${calendar.cache.max-size:10000}") int maxSize) {
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, byte[]> eldest) {
+                return size() > CarCalendarCache.this.maxSize;
+            }
+        };
+    }
+
+    public synchronized byte[] get(Long carId, YearMonth month, OccupancyCalendar.Granularity granularity) {
+        return entries.get(new Key(carId, month, granularity));
+    }
+
+    public synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * @param loadGeneration значение {@link #generation()} на момент чтения броней из БД
+     */
+    public synchronized void put(Long carId, YearMonth month, OccupancyCalendar.Granularity granularity,
+                                 byte[] bitmap, long loadGeneration) {
+        if (loadGeneration == generation) {
+            entries.put(new Key(carId, month, granularity), bitmap);
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @Order
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onContractChanged(ContractChangedEvent event) {
+        entries.keySet().removeIf(key -> key.carId().equals(event.carId()));
+        generation++;
+    }
+
+    private record Key(Long carId, YearMonth month, OccupancyCalendar.Granularity granularity) {
+    }
+}
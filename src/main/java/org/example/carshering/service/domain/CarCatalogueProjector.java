@@ -0,0 +1,50 @@
+package org.example.carshering.service.domain;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.carshering.event.CarChangedEvent;
+import org.example.carshering.event.CarModelChangedEvent;
+import org.example.carshering.repository.CarCatalogueRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Поддерживает витрину car_catalogue в актуальном состоянии.
+ * Слушает события в той же транзакции, что и изменение, поэтому витрина
+ * коммитится или откатывается вместе с исходными данными.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CarCatalogueProjector {
+
+    private final CarCatalogueRepository catalogueRepository;
+
+    @EventListener
+    public void onCarChanged(CarChangedEvent event) {
+        if (event.carId() != null) {
+            catalogueRepository.refreshCar(event.carId());
+        }
+    }
+
+    @EventListener
+    public void onCarModelChanged(CarModelChangedEvent event) {
+        if (event.modelId() != null) {
+            catalogueRepository.refreshModel(event.modelId());
+        }
+    }
+
+    /**
+     * Полная пересборка витрины (бэкфилл, восстановление после ручных правок в БД).
+     *
+     * @return число записанных строк
+     */
+    @Transactional
+    public int rebuild() {
+        int removed = catalogueRepository.deleteOrphans();
+        int written = catalogueRepository.refreshAll();
+        log.info("Car catalogue rebuilt: {} rows written, {} orphan rows removed", written, removed);
+        return written;
+    }
+}
@@ -0,0 +1,159 @@
+package org.example.carshering.service.domain;
+
+import org.example.carshering.dto.request.CarFilterRequest;
+import org.example.carshering.dto.response.CarFacetRow;
+import org.example.carshering.dto.response.CarFacetsResponse;
+import org.example.carshering.dto.response.MinMaxCellForFilters;
+import org.example.carshering.dto.response.PriceHistogramResponse;
+import org.example.carshering.dto.response.PriceHistogramResponse.PriceBucket;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Подсчёт фасетов каталога за один проход по строкам.
+ * <p>
+ * Фасеты "дизъюнктивные": счётчик значения измерения считается с учётом всех фильтров,
+ * кроме фильтра по этому же измерению — иначе после выбора бренда в списке брендов
+ * остался бы только он. Диапазон цен так же считается без ценового фильтра,
+ * как и в {@code getMinMaxCell}.
+ * <p>
+ * Там же строится гистограмма цен для слайдера: те же строки, все фильтры, кроме ценового.
+ */
+public final class CarFacetCalculator {
+
+    private CarFacetCalculator() {
+    }
+
+    /**
+     * @param rows   машины, уже отфильтрованные по статусу и датам
+     * @param filter нормализованный фильтр (пустые списки заменены на null)
+     */
+    public static CarFacetsResponse compute(List<CarFacetRow> rows, CarFilterRequest filter) {
+        Map<String, Long> brands = new TreeMap<>();
+        Map<String, Long> models = new TreeMap<>();
+        Map<String, Long> carClasses = new TreeMap<>();
+        Map<String, Long> bodyTypes = new TreeMap<>();
+        Map<Integer, Long> years = new TreeMap<>();
+        Double minPrice = null;
+        Double maxPrice = null;
+        long total = 0;
+
+        for (CarFacetRow row : rows) {
+            boolean brand = filter.brands() == null || filter.brands().contains(row.brand());
+            boolean model = filter.models() == null || filter.models().contains(row.model());
+            boolean carClass = filter.carClasses() == null || filter.carClasses().contains(row.carClass());
+            boolean bodyType = filter.bodyType() == null || filter.bodyType().equals(row.bodyType());
+            boolean year = matchesYear(row.yearOfIssue(), filter);
+            boolean price = matchesPrice(row.rent(), filter);
+
+            if (model && carClass && bodyType && year && price) {
+                increment(brands, row.brand());
+            }
+            if (brand && carClass && bodyType && year && price) {
+                increment(models, row.model());
+            }
+            if (brand && model && bodyType && year && price) {
+                increment(carClasses, row.carClass());
+            }
+            if (brand && model && carClass && year && price) {
+                increment(bodyTypes, row.bodyType());
+            }
+            if (brand && model && carClass && bodyType && price) {
+                increment(years, row.yearOfIssue());
+            }
+            if (brand && model && carClass && bodyType && year && row.rent() != null) {
+                minPrice = minPrice == null ? row.rent() : Math.min(minPrice, row.rent());
+                maxPrice = maxPrice == null ? row.rent() : Math.max(maxPrice, row.rent());
+            }
+            if (brand && model && carClass && bodyType && year && price) {
+                total++;
+            }
+        }
+
+        return new CarFacetsResponse(
+                total,
+                brands,
+                models,
+                carClasses,
+                bodyTypes,
+                years,
+                new MinMaxCellForFilters(minPrice, maxPrice)
+        );
+    }
+
+    /**
+     * Делит диапазон цен на {@code bucketCount} равных корзин (как {@code width_bucket} в PostgreSQL,
+     * но максимальная цена попадает в последнюю корзину, а не в отдельную переполненную).
+     *
+     * @param rows   машины, уже отфильтрованные по статусу и датам
+     * @param filter нормализованный фильтр; ценовой фильтр не учитывается
+     */
+    public static PriceHistogramResponse priceHistogram(List<CarFacetRow> rows, CarFilterRequest filter, int bucketCount) {
+        List<Double> prices = new ArrayList<>();
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+
+        for (CarFacetRow row : rows) {
+            boolean matches = row.rent() != null
+                    && (filter.brands() == null || filter.brands().contains(row.brand()))
+                    && (filter.models() == null || filter.models().contains(row.model()))
+                    && (filter.carClasses() == null || filter.carClasses().contains(row.carClass()))
+                    && (filter.bodyType() == null || filter.bodyType().equals(row.bodyType()))
+                    && matchesYear(row.yearOfIssue(), filter);
+            if (matches) {
+                prices.add(row.rent());
+                min = Math.min(min, row.rent());
+                max = Math.max(max, row.rent());
+            }
+        }
+
+        if (prices.isEmpty()) {
+            return new PriceHistogramResponse(null, null, List.of());
+        }
+        if (min == max) {
+            // все цены одинаковые - делить нечего
+            return new PriceHistogramResponse(min, max, List.of(new PriceBucket(min, max, prices.size())));
+        }
+
+        double width = (max - min) / bucketCount;
+        long[] counts = new long[bucketCount];
+        for (double price : prices) {
+            counts[Math.min((int) ((price - min) / width), bucketCount - 1)]++;
+        }
+
+        List<PriceBucket> buckets = new ArrayList<>(bucketCount);
+        for (int i = 0; i < bucketCount; i++) {
+            double to = i == bucketCount - 1 ? max : min + width * (i + 1);
+            buckets.add(new PriceBucket(min + width * i, to, counts[i]));
+        }
+        return new PriceHistogramResponse(min, max, buckets);
+    }
+
+    // null в SQL-условии "c.yearOfIssue >= :minYear" не проходит, здесь так же
+    private static boolean matchesYear(Integer value, CarFilterRequest filter) {
+        if (filter.minYear() == null && filter.maxYear() == null) {
+            return true;
+        }
+        return value != null
+                && (filter.minYear() == null || value >= filter.minYear())
+                && (filter.maxYear() == null || value <= filter.maxYear());
+    }
+
+    private static boolean matchesPrice(Double value, CarFilterRequest filter) {
+        if (filter.minCell() == null && filter.maxCell() == null) {
+            return true;
+        }
+        return value != null
+                && (filter.minCell() == null || value >= filter.minCell())
+                && (filter.maxCell() == null || value <= filter.maxCell());
+    }
+
+    private static <K> void increment(Map<K, Long> counts, K key) {
+        if (key != null) {
+            counts.merge(key, 1L, Long::sum);
+        }
+    }
+}
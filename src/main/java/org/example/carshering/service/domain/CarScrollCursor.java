@@ -0,0 +1,43 @@
+package org.example.carshering.service.domain;
+
+import org.example.carshering.exceptions.custom.InvalidDataException;
+import org.example.carshering.repository.CarScrollSort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Позиция в каталоге для курсорной пагинации: ключ сортировки последней отданной машины и её id.
+ * Клиенту отдаётся как непрозрачная base64-строка; сортировка зашита в токен,
+ * чтобы курсор нельзя было применить к выдаче с другим порядком.
+ */
+public record CarScrollCursor(
+        CarScrollSort sort,
+        boolean descending,
+        Object value,
+        Long id
+) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = sort.property() + SEPARATOR + (descending ? "DESC" : "ASC") + SEPARATOR + id + SEPARATOR + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CarScrollCursor decode(String token, CarScrollSort expectedSort, boolean expectedDescending) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            // значение последним полем - в названии бренда может встретиться разделитель
+            String[] parts = raw.split("\\|", 4);
+            if (parts.length != 4
+                    || !expectedSort.property().equals(parts[0])
+                    || expectedDescending != "DESC".equals(parts[1])) {
+                throw new InvalidDataException("Cursor does not match the requested sort");
+            }
+            return new CarScrollCursor(expectedSort, expectedDescending, expectedSort.parse(parts[3]), Long.valueOf(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidDataException("Invalid cursor");
+        }
+    }
+}
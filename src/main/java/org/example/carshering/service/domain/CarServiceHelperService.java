@@ -5,21 +5,27 @@ import org.example.carshering.dto.response.CarStateResponse;
 import org.example.carshering.entity.Car;
 import org.example.carshering.entity.CarModel;
 import org.example.carshering.entity.CarState;
+import org.example.carshering.event.CarChangedEvent;
+import org.example.carshering.event.CarStateChangedEvent;
 import org.example.carshering.exceptions.custom.CarNotFoundException;
 import org.example.carshering.repository.CarRepository;
-import org.example.carshering.repository.CarStateRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
+
 
 @Service
 @RequiredArgsConstructor
 public class CarServiceHelperService {
 
-    private final CarStateRepository carStateRepository;
+    private final ReferenceDataRegistry referenceData;
     private static final String CAR_STATE_UNAVAILABLE = "UNAVAILABLE";
 
     private final CarRepository carRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     private Car getCarOrThrow(Long carId) {
         return carRepository.findById(carId)
@@ -30,7 +36,7 @@ public class CarServiceHelperService {
     public CarStateResponse updateCarState(Long carId, String carStateName) {
         Car car = getCarOrThrow(carId);
 
-        CarState state = carStateRepository.findByStatusIgnoreCase(carStateName).orElseThrow(
+        CarState state = referenceData.findCarState(carStateName).orElseThrow(
                 () -> new CarNotFoundException("Car state not found")
         );
 
@@ -42,6 +48,8 @@ public class CarServiceHelperService {
 
         car.setState(state);
         carRepository.save(car);
+        eventPublisher.publishEvent(new CarChangedEvent(carId));
+        eventPublisher.publishEvent(new CarStateChangedEvent(carId, state.getStatus()));
         return new  CarStateResponse(state.getId(), carStateName);
     }
 
@@ -56,7 +64,18 @@ public class CarServiceHelperService {
     public Car getEntity(Long carId) {
         return getCarOrThrow(carId);
     }
-    public Car getEntityWithLock(Long carId) {
-        return carRepository.findByIdWithLock(carId).orElseThrow(() -> new CarNotFoundException("Car not found"));
+
+    /**
+     * Блокирует существующие машины из списка в порядке id; отсутствующие id пропускаются.
+     */
+    public List<Car> getEntitiesWithLock(Collection<Long> carIds) {
+        return carRepository.findAllByIdWithLock(carIds);
+    }
+
+    /**
+     * Ставка, модель, класс и статус существующих машин из списка; отсутствующие id пропускаются.
+     */
+    public List<CarRepository.PricedCar> getPricedCars(Collection<Long> carIds) {
+        return carRepository.findPricedCars(carIds);
     }
 }
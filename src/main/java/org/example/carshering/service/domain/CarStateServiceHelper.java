@@ -4,7 +4,6 @@ import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
 import org.example.carshering.entity.CarState;
 import org.example.carshering.exceptions.custom.NotFoundException;
-import org.example.carshering.repository.CarStateRepository;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -12,11 +11,11 @@ import java.util.List;
 @Service
 @RequiredArgsConstructor
 public class CarStateServiceHelper {
-    private final CarStateRepository stateRepository;
+    private final ReferenceDataRegistry referenceData;
 
 
     public CarState getStateByName(String stateName) {
-        return stateRepository.findByStatusIgnoreCase(stateName)
+        return referenceData.findCarState(stateName)
                 .orElseThrow(() -> new NotFoundException("State not found"));
     }
     private static final String CAR_STATE_AVAILABLE = "AVAILABLE";
@@ -27,7 +26,7 @@ public class CarStateServiceHelper {
     }
 
     public CarState getStateById(@NotNull Long stateId) {
-        return stateRepository.findById(stateId).orElseThrow(() -> new NotFoundException("State not found"));
+        return referenceData.findCarState(stateId).orElseThrow(() -> new NotFoundException("State not found"));
     }
 
 
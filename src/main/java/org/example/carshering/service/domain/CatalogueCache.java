@@ -0,0 +1,170 @@
+package org.example.carshering.service.domain;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.carshering.dto.request.CarFilterRequest;
+import org.example.carshering.event.CarChangedEvent;
+import org.example.carshering.event.CarModelChangedEvent;
+import org.example.carshering.event.ContractChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Кэш выдачи каталога (страницы, фасеты, диапазон цен) с ограничением по размеру (LRU) и TTL.
+ * <p>
+ * Ключ — вид выдачи + нормализованный {@link CarFilterRequest} + дополнительный параметр (обычно Pageable).
+ * Инвалидация:
+ * <ul>
+ *     <li>изменение машины или модели — кэш очищается целиком (меняются атрибуты и состав выдачи);</li>
+ *     <li>изменение контракта — удаляются только записи, у которых окно дат фильтра пересекается
+ *     с текущим или прежним интервалом контракта. Записи без окна дат от контрактов не зависят.</li>
+ * </ul>
+ * Метрики: {@code catalogue.cache.requests{result=hit|miss}}, {@code catalogue.cache.evictions{cause=...}},
+ * {@code catalogue.cache.size}.
+ */
+@Service
+public class CatalogueCache {
+
+    private final int maxSize;
+    private final Duration ttl;
+    private final Clock clock;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter expiredEvictions;
+    private final Counter invalidations;
+
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // растёт при каждой инвалидации: значение, загруженное до неё, в кэш уже не кладётся
+    private long generation = 0;
+
+    @Autowired
+    public CatalogueCache(MeterRegistry meterRegistry,
+                          @Value("${catalogue.cache.max-size:500}") int maxSize,
+                          @Value("${catalogue.cache.ttl:PT10M}") Duration ttl) {
+        this(meterRegistry, maxSize, ttl, Clock.systemUTC());
+    }
+
+    CatalogueCache(MeterRegistry meterRegistry, int maxSize, Duration ttl, Clock clock) {
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+        this.clock = clock;
+        this.hits = meterRegistry.counter("catalogue.cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("catalogue.cache.requests", "result", "miss");
+        this.sizeEvictions = meterRegistry.counter("catalogue.cache.evictions", "cause", "size");
+        this.expiredEvictions = meterRegistry.counter("catalogue.cache.evictions", "cause", "expired");
+        this.invalidations = meterRegistry.counter("catalogue.cache.evictions", "cause", "invalidation");
+        meterRegistry.gauge("catalogue.cache.size", this, CatalogueCache::size);
+    }
+
+    /**
+     * @param filter нормализованный фильтр; даты должны быть null, если фильтр по датам не применяется
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String view, CarFilterRequest filter, Object extra, Supplier<T> loader) {
+        Key key = new Key(view, filter, extra);
+        Instant now = clock.instant();
+        long loadGeneration;
+
+        synchronized (this) {
+            loadGeneration = generation;
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expiresAt().isAfter(now)) {
+                    hits.increment();
+                    return (T) entry.value();
+                }
+                entries.remove(key);
+                expiredEvictions.increment();
+            }
+        }
+
+        // загрузка вне блокировки: параллельный промах по тому же ключу просто посчитает значение дважды
+        misses.increment();
+        T value = loader.get();
+
+        synchronized (this) {
+            if (loadGeneration == generation) {
+                entries.put(key, new Entry(value, now.plus(ttl)));
+                evictOverflow();
+            }
+        }
+        return value;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized void clear() {
+        invalidations.increment(entries.size());
+        entries.clear();
+        generation++;
+    }
+
+    @Order
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCarChanged(CarChangedEvent event) {
+        clear();
+    }
+
+    @Order
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCarModelChanged(CarModelChangedEvent event) {
+        clear();
+    }
+
+    @Order
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onContractChanged(ContractChangedEvent event) {
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        int removed = 0;
+        while (iterator.hasNext()) {
+            CarFilterRequest filter = iterator.next().getKey().filter();
+            if (filter.dateStart() == null || filter.dateEnd() == null) {
+                continue;
+            }
+            if (overlaps(filter, event.dataStart(), event.dataEnd())
+                    || overlaps(filter, event.previousDataStart(), event.previousDataEnd())) {
+                iterator.remove();
+                removed++;
+            }
+        }
+        invalidations.increment(removed);
+        generation++;
+    }
+
+    private boolean overlaps(CarFilterRequest filter, LocalDateTime start, LocalDateTime end) {
+        return start != null && end != null
+                && start.isBefore(filter.dateEnd())
+                && end.isAfter(filter.dateStart());
+    }
+
+    private void evictOverflow() {
+        Iterator<Key> eldest = entries.keySet().iterator();
+        while (entries.size() > maxSize && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            sizeEvictions.increment();
+        }
+    }
+
+    private record Key(String view, CarFilterRequest filter, Object extra) {
+    }
+
+    private record Entry(Object value, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.carshering.service.domain;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.carshering.repository.ContractRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Заранее создаёт месячные секции таблицы contract.
+ * <p>
+ * Бронь без своей секции попадает в DEFAULT и работает, но запросы по её месяцу уже не отсекают
+ * DEFAULT при чтении. Поэтому при старте и раз в сутки создаются секции на {@code contract.partitions.months-ahead}
+ * месяцев вперёд, а брони из DEFAULT переносятся в секции своих месяцев.
+ */
+@Slf4j
+@Service
+public class ContractPartitionMaintainer {
+
+    private final ContractRepository contractRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int monthsAhead;
+
+    public ContractPartitionMaintainer(ContractRepository contractRepository,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${contract.partitions.months-ahead:12}") int monthsAhead) {
+        this.contractRepository = contractRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.monthsAhead = monthsAhead;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${contract.partitions.cron:0 10 0 * * *}")
+    public void ensurePartitions() {
+        try {
+            Integer created = transactionTemplate.execute(status -> contractRepository.ensureMonthlyPartitions(monthsAhead));
+            if (created != null && created > 0) {
+                log.info("Contract partitions created: {}", created);
+            }
+        } catch (RuntimeException e) {
+            // без новых секций брони уходят в DEFAULT, следующий запуск их перенесёт
+            log.error("Contract partition maintenance failed", e);
+        }
+    }
+}
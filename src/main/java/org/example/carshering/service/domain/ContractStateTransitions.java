@@ -0,0 +1,109 @@
+package org.example.carshering.service.domain;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.carshering.entity.RentalState;
+import org.example.carshering.event.ContractChangedEvent;
+import org.example.carshering.repository.ContractRepository;
+import org.example.carshering.repository.ContractRepository.TransitionedContract;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiFunction;
+
+/**
+ * Плановые переходы статусов контрактов по времени: CONFIRMED -> ACTIVE после {@code dataStart}
+ * и ACTIVE -> COMPLETED после {@code dataEnd}.
+ * <p>
+ * Переход выполняется одним UPDATE ... RETURNING на пачку строк, без загрузки сущностей.
+ * Каждая пачка идёт в своей транзакции, поэтому {@link ContractChangedEvent} по ней
+ * доходят до слушателей сразу после её коммита, а долгий перевод не держит блокировки
+ * на всех строках сразу.
+ * <p>
+ * В нужную минуту переходы запускает {@link ContractTransitionTimer}; здесь остаётся редкий
+ * страховочный проход на случай пропущенных таймеров (другой экземпляр приложения, рестарт).
+ */
+@Slf4j
+@Service
+public class ContractStateTransitions {
+
+    private final ContractRepository contractRepository;
+    private final ReferenceDataRegistry referenceData;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public ContractStateTransitions(ContractRepository contractRepository,
+                                    ReferenceDataRegistry referenceData,
+                                    ApplicationEventPublisher eventPublisher,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${contract.transitions.batch-size:500}") int batchSize) {
+        this.contractRepository = contractRepository;
+        this.referenceData = referenceData;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(cron = "${contract.transitions.cron:0 0 * * * *}") // страховка раз в час
+    public void runDueTransitions() {
+        LocalDateTime now = LocalDateTime.now();
+        int activated = activateStarted(now);
+        int completed = completeEnded(now);
+        if (activated > 0 || completed > 0) {
+            log.info("Contract transitions at {}: {} activated, {} completed", now, activated, completed);
+        }
+    }
+
+    /**
+     * CONFIRMED -> ACTIVE для контрактов с {@code dataStart <= now}.
+     *
+     * @return число переведённых контрактов
+     */
+    public int activateStarted(LocalDateTime now) {
+        return transition("CONFIRMED", "ACTIVE",
+                (fromId, toId) -> contractRepository.transitionStartedBatch(fromId, toId, now, batchSize));
+    }
+
+    /**
+     * ACTIVE -> COMPLETED для контрактов с {@code dataEnd <= now}.
+     *
+     * @return число переведённых контрактов
+     */
+    public int completeEnded(LocalDateTime now) {
+        return transition("ACTIVE", "COMPLETED",
+                (fromId, toId) -> contractRepository.transitionEndedBatch(fromId, toId, now, batchSize));
+    }
+
+    private int transition(String from, String to, BiFunction<Long, Long, List<TransitionedContract>> batchUpdate) {
+        Optional<RentalState> fromState = referenceData.findRentalState(from);
+        Optional<RentalState> toState = referenceData.findRentalState(to);
+        if (fromState.isEmpty() || toState.isEmpty()) {
+            log.warn("Rental state {} or {} not found, transition skipped", from, to);
+            return 0;
+        }
+        Long fromId = fromState.get().getId();
+        Long toId = toState.get().getId();
+        String toName = toState.get().getName();
+
+        int total = 0;
+        int batch;
+        do {
+            List<TransitionedContract> rows = transactionTemplate.execute(status -> {
+                List<TransitionedContract> updated = batchUpdate.apply(fromId, toId);
+                updated.forEach(row -> eventPublisher.publishEvent(new ContractChangedEvent(
+                        row.getId(), row.getCarId(), toName, row.getDataStart(), row.getDataEnd())));
+                return updated;
+            });
+            batch = rows == null ? 0 : rows.size();
+            total += batch;
+        } while (batch == batchSize);
+        return total;
+    }
+}
@@ -0,0 +1,108 @@
+package org.example.carshering.service.domain;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.carshering.dto.response.BookedInterval;
+import org.example.carshering.event.ContractChangedEvent;
+import org.example.carshering.repository.ContractRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Точные по времени переходы контрактов: CONFIRMED -> ACTIVE в минуту {@code dataStart}
+ * и ACTIVE -> COMPLETED в минуту {@code dataEnd}.
+ * <p>
+ * Сроки хранятся в {@link TimerWheel}: при старте колёса заполняются из БД, дальше обновляются
+ * по {@link ContractChangedEvent} (создание, смена дат, подтверждение, отмена, сами переходы).
+ * Раз в минуту колёса сдвигаются; если что-то сработало, выполняется пакетный переход
+ * из {@link ContractStateTransitions} — он переводит все наступившие контракты, а не только сработавшие.
+ * В минуты без сроков БД не трогается.
+ */
+@Slf4j
+@Service
+public class ContractTransitionTimer {
+
+    private final ContractRepository contractRepository;
+    private final ContractStateTransitions transitions;
+    private final Clock clock;
+
+    // колёса меняются только под монитором this
+    private final TimerWheel<Long> starts;
+    private final TimerWheel<Long> ends;
+
+    @Autowired
+    public ContractTransitionTimer(ContractRepository contractRepository, ContractStateTransitions transitions) {
+        this(contractRepository, transitions, Clock.systemDefaultZone());
+    }
+
+    ContractTransitionTimer(ContractRepository contractRepository, ContractStateTransitions transitions, Clock clock) {
+        this.contractRepository = contractRepository;
+        this.transitions = transitions;
+        this.clock = clock;
+        LocalDateTime now = LocalDateTime.now(clock);
+        this.starts = new TimerWheel<>(now);
+        this.ends = new TimerWheel<>(now);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rehydrate() {
+        List<BookedInterval> confirmed = contractRepository.findBookedIntervals(Set.of("CONFIRMED"));
+        List<BookedInterval> active = contractRepository.findBookedIntervals(Set.of("ACTIVE"));
+        confirmed.forEach(interval -> starts.schedule(interval.contractId(), interval.dataStart()));
+        active.forEach(interval -> ends.schedule(interval.contractId(), interval.dataEnd()));
+        log.info("Contract transition timers loaded: {} starts, {} ends", confirmed.size(), active.size());
+    }
+
+    @Scheduled(cron = "${contract.timer.tick-cron:0 * * * * *}")
+    public void tick() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        boolean startsDue;
+        boolean endsDue;
+        synchronized (this) {
+            startsDue = !starts.advanceTo(now).isEmpty();
+            endsDue = !ends.advanceTo(now).isEmpty();
+        }
+        // переходы публикуют события, которые снова попадают в onContractChanged - монитор уже отпущен
+        if (startsDue) {
+            transitions.activateStarted(now);
+        }
+        if (endsDue) {
+            transitions.completeEnded(now);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onContractChanged(ContractChangedEvent event) {
+        Long contractId = event.contractId();
+        if (contractId == null || event.state() == null) {
+            return;
+        }
+        switch (event.state()) {
+            case "CONFIRMED" -> {
+                starts.schedule(contractId, event.dataStart());
+                ends.cancel(contractId);
+            }
+            case "ACTIVE" -> {
+                starts.cancel(contractId);
+                ends.schedule(contractId, event.dataEnd());
+            }
+            // PENDING ещё не подтверждён, остальные статусы уже не переходят по времени
+            default -> {
+                starts.cancel(contractId);
+                ends.cancel(contractId);
+            }
+        }
+    }
+
+    public synchronized int scheduledCount() {
+        return starts.size() + ends.size();
+    }
+}
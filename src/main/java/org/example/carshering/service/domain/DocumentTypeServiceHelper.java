@@ -3,16 +3,15 @@ package org.example.carshering.service.domain;
 import lombok.RequiredArgsConstructor;
 import org.example.carshering.entity.DocumentType;
 import org.example.carshering.exceptions.custom.DocumentTypeException;
-import org.example.carshering.repository.DocumentTypeRepository;
 import org.springframework.stereotype.Service;
 
 @Service
 @RequiredArgsConstructor
 public class DocumentTypeServiceHelper {
-    private final DocumentTypeRepository repository;
+    private final ReferenceDataRegistry referenceData;
 
     public DocumentType getById(Long id) {
-        return repository.findById(id)
+        return referenceData.findDocumentType(id)
                 .orElseThrow(() -> new DocumentTypeException("Document type not found"));
     }
 }
@@ -0,0 +1,123 @@
+package org.example.carshering.service.domain;
+
+import lombok.RequiredArgsConstructor;
+import org.example.carshering.dto.response.FilterDictionariesResponse;
+import org.example.carshering.event.CarModelChangedEvent;
+import org.example.carshering.event.FilterDictionaryChangedEvent;
+import org.example.carshering.service.interfaces.CarBrandService;
+import org.example.carshering.service.interfaces.CarClassService;
+import org.example.carshering.service.interfaces.CarModelNameService;
+import org.example.carshering.service.interfaces.CarModelService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Снимок справочников фильтров каталога (бренды, модели, классы, типы кузова) в памяти.
+ * <p>
+ * Снимок загружается при первом обращении и живёт до изменения справочников: админские
+ * операции публикуют {@link FilterDictionaryChangedEvent} / {@link CarModelChangedEvent},
+ * после коммита поколение увеличивается и следующий запрос перечитывает справочники.
+ * События видит только узел, где прошла транзакция, поэтому остальные узлы подхватывают
+ * изменения периодическим перечитыванием ({@code filters.dictionaries.resync-interval}).
+ * <p>
+ * Версия и ETag снимка — хэш его содержимого: одинаковые справочники дают одинаковый ETag
+ * на всех узлах и после рестарта, а любое изменение содержимого меняет его.
+ */
+@Service
+@RequiredArgsConstructor
+public class FilterDictionaryCache {
+
+    private final CarBrandService carBrandService;
+    private final CarModelNameService carModelNameService;
+    private final CarClassService carClassService;
+    private final CarModelService carModelService;
+
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    public Snapshot get() {
+        Snapshot current = snapshot;
+        if (current != null && current.generation() == generation.get()) {
+            return current;
+        }
+        return reload();
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    @Scheduled(
+            fixedDelayString = "${filters.dictionaries.resync-interval:PT5M}",
+            initialDelayString = "${filters.dictionaries.resync-interval:PT5M}"
+    )
+    public void resync() {
+        invalidate();
+        get();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDictionaryChanged(FilterDictionaryChangedEvent event) {
+        invalidate();
+    }
+
+    // типы кузова берутся из моделей
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCarModelChanged(CarModelChangedEvent event) {
+        invalidate();
+    }
+
+    private synchronized Snapshot reload() {
+        // поколение читается до загрузки: если справочник изменится во время чтения,
+        // снимок получится устаревшим и будет перечитан следующим запросом
+        long loadGeneration = generation.get();
+        Snapshot current = snapshot;
+        if (current != null && current.generation() == loadGeneration) {
+            return current;
+        }
+
+        List<String> brands = carBrandService.findAllBrands();
+        List<String> models = carModelNameService.findAllModels();
+        List<String> classes = carClassService.findAllClasses();
+        List<String> bodyTypes = carModelService.findAllBodyTypes();
+        String contentVersion = hash(brands, models, classes, bodyTypes);
+
+        FilterDictionariesResponse dictionaries =
+                new FilterDictionariesResponse(contentVersion, brands, models, classes, bodyTypes);
+        snapshot = new Snapshot(dictionaries, "\"" + contentVersion + "\"", loadGeneration);
+        return snapshot;
+    }
+
+    @SafeVarargs
+    private static String hash(List<String>... dictionaries) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (List<String> dictionary : dictionaries) {
+                // разделители не дают разным разбиениям одних и тех же строк совпасть по хэшу
+                for (String value : dictionary) {
+                    digest.update(value.getBytes(StandardCharsets.UTF_8));
+                    digest.update((byte) 0);
+                }
+                digest.update((byte) '\n');
+            }
+            return HexFormat.of().formatHex(digest.digest(), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot hash filter dictionaries", e);
+        }
+    }
+
+    /**
+     * @param etag       строгий ETag (в кавычках), общий для всех справочников снимка
+     * @param generation поколение, из которого загружен снимок; только для проверки устаревания
+     */
+    public record Snapshot(FilterDictionariesResponse dictionaries, String etag, long generation) {
+    }
+}
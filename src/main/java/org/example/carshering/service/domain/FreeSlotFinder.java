@@ -0,0 +1,50 @@
+package org.example.carshering.service.domain;
+
+import org.example.carshering.dto.response.BookedInterval;
+import org.example.carshering.dto.response.FreeSlotResponse;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Поиск свободных окон машины одним проходом по её броням, отсортированным по началу.
+ * <p>
+ * Брони - полуинтервалы [start, end), поэтому окно, заканчивающееся ровно в начале брони,
+ * подходит (как и в {@code ContractRepository.findOverlappingContracts}).
+ */
+public final class FreeSlotFinder {
+
+    private FreeSlotFinder() {
+    }
+
+    /**
+     * @param bookings брони машины, отсортированные по началу; могут пересекаться и начинаться раньше from
+     * @param from     момент, раньше которого окна не ищутся
+     * @param duration требуемая длительность аренды
+     * @param count    сколько окон вернуть; последнее окно может быть открытым (end = null)
+     */
+    public static List<FreeSlotResponse> find(List<BookedInterval> bookings, LocalDateTime from, Duration duration, int count) {
+        List<FreeSlotResponse> slots = new ArrayList<>(count);
+        LocalDateTime cursor = from;
+
+        for (BookedInterval booking : bookings) {
+            if (slots.size() == count) {
+                return slots;
+            }
+            if (!booking.dataEnd().isAfter(cursor)) {
+                continue;
+            }
+            if (!cursor.plus(duration).isAfter(booking.dataStart())) {
+                slots.add(new FreeSlotResponse(cursor, booking.dataStart()));
+            }
+            cursor = booking.dataEnd();
+        }
+
+        if (slots.size() < count) {
+            slots.add(new FreeSlotResponse(cursor, null));
+        }
+        return slots;
+    }
+}
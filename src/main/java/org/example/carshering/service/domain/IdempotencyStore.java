@@ -0,0 +1,210 @@
+package org.example.carshering.service.domain;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.example.carshering.entity.IdempotencyRecord;
+import org.example.carshering.exceptions.custom.BusinessConflictException;
+import org.example.carshering.exceptions.custom.IdempotencyKeyReuseException;
+import org.example.carshering.exceptions.custom.InvalidDataException;
+import org.example.carshering.repository.IdempotencyRecordRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Идемпотентность клиентских операций по заголовку {@code Idempotency-Key}.
+ * <p>
+ * Ключ занимается строкой в таблице idempotency_key в той же транзакции, что и сама операция, и до неё.
+ * Повтор с тем же ключом, пришедший во время выполнения, ждёт на уникальном индексе и после коммита
+ * получает сохранённый ответ; если первая попытка упала, её строка откатывается и повтор выполняется заново.
+ * Ключ с другим телом запроса или другой операцией отклоняется.
+ * <p>
+ * Завершённые ответы дублируются в небольшом LRU-кэше в памяти, чтобы частые повторы не ходили в БД.
+ * Записи живут {@code idempotency.ttl}, просроченные строки периодически удаляются.
+ */
+@Slf4j
+@Service
+public class IdempotencyStore {
+
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private final IdempotencyRecordRepository repository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final RetryingTransactionTemplate retryingTransaction;
+    private final Duration ttl;
+    private final int cacheSize;
+    private final Clock clock;
+
+    private final LinkedHashMap<CacheKey, Completed> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+    @Autowired
+    public IdempotencyStore(IdempotencyRecordRepository repository,
+                            ObjectMapper objectMapper,
+                            PlatformTransactionManager transactionManager,
+                            RetryingTransactionTemplate retryingTransaction,
+                            @Value("${idempotency.ttl:PT24H}") Duration ttl,
+                            @Value("${idempotency.cache.max-size:10000}") int cacheSize) {
+        this(repository, objectMapper, transactionManager, retryingTransaction, ttl, cacheSize, Clock.systemDefaultZone());
+    }
+
+    IdempotencyStore(IdempotencyRecordRepository repository, ObjectMapper objectMapper,
+                     PlatformTransactionManager transactionManager, RetryingTransactionTemplate retryingTransaction,
+                     Duration ttl, int cacheSize, Clock clock) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retryingTransaction = retryingTransaction;
+        this.ttl = ttl;
+        this.cacheSize = cacheSize;
+        this.clock = clock;
+    }
+
+    /**
+     * Выполняет операцию один раз на ключ или возвращает ответ первого выполнения.
+     *
+     * @param key       значение заголовка; без ключа операция просто выполняется
+     * @param operation имя операции вместе с id из пути, например {@code contract.update:42}
+     * @param request   тело запроса, по нему проверяется, что ключ не переиспользован для другого запроса
+     */
+    public <T> T execute(Long clientId, String key, String operation, Object request,
+                         Class<T> responseType, Supplier<T> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidDataException("Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+
+        CacheKey cacheKey = new CacheKey(clientId, key);
+        String requestHash = hash(operation, request);
+        Completed cached = cached(cacheKey);
+        if (cached != null) {
+            return replay(cached, operation, requestHash, responseType);
+        }
+        // повтор при конфликте @Version - здесь, снаружи общей транзакции ключа и операции
+        String operationType = operation.contains(":") ? operation.substring(0, operation.indexOf(':')) : operation;
+        return retryingTransaction.execute(operationType, () ->
+                claimAndRun(cacheKey, operation, requestHash, responseType, action));
+    }
+
+    @Scheduled(cron = "${idempotency.purge-cron:0 15 * * * *}")
+    public void purgeExpired() {
+        Integer removed = transactionTemplate.execute(status -> repository.deleteExpired(LocalDateTime.now(clock)));
+        if (removed != null && removed > 0) {
+            log.info("Expired idempotency keys removed: {}", removed);
+        }
+    }
+
+    public synchronized int cacheSize() {
+        return cache.size();
+    }
+
+    private <T> T claimAndRun(CacheKey cacheKey, String operation, String requestHash,
+                              Class<T> responseType, Supplier<T> action) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime expiresAt = now.plus(ttl);
+        repository.deleteIfExpired(cacheKey.clientId(), cacheKey.key(), now);
+
+        if (repository.claim(cacheKey.clientId(), cacheKey.key(), operation, requestHash, now, expiresAt) == 0) {
+            IdempotencyRecord record = repository.findByClientIdAndKey(cacheKey.clientId(), cacheKey.key())
+                    .orElseThrow(() -> new BusinessConflictException("The request with this Idempotency-Key is still in progress"));
+            if (record.getResponse() == null) {
+                throw new BusinessConflictException("The request with this Idempotency-Key is still in progress");
+            }
+            Completed completed = new Completed(record.getOperation(), record.getRequestHash(),
+                    record.getResponse(), record.getExpiresAt());
+            remember(cacheKey, completed);
+            return replay(completed, operation, requestHash, responseType);
+        }
+
+        T result = action.get();
+        String response = write(result);
+        repository.complete(cacheKey.clientId(), cacheKey.key(), response);
+
+        // в кэш только после коммита: откат операции откатывает и ключ
+        Completed completed = new Completed(operation, requestHash, response, expiresAt);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            remember(cacheKey, completed);
+            return result;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remember(cacheKey, completed);
+            }
+        });
+        return result;
+    }
+
+    private <T> T replay(Completed completed, String operation, String requestHash, Class<T> responseType) {
+        if (!completed.operation().equals(operation) || !completed.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyReuseException("The Idempotency-Key was already used for a different request");
+        }
+        try {
+            return objectMapper.readValue(completed.response(), responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored idempotent response cannot be read", e);
+        }
+    }
+
+    private synchronized Completed cached(CacheKey key) {
+        Completed completed = cache.get(key);
+        if (completed != null && !completed.expiresAt().isAfter(LocalDateTime.now(clock))) {
+            cache.remove(key);
+            return null;
+        }
+        return completed;
+    }
+
+    private synchronized void remember(CacheKey key, Completed completed) {
+        cache.put(key, completed);
+        if (cache.size() > cacheSize) {
+            Map.Entry<CacheKey, Completed> eldest = cache.entrySet().iterator().next();
+            cache.remove(eldest.getKey());
+        }
+    }
+
+    private String hash(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Cannot hash request for idempotency check", e);
+        }
+    }
+
+    private String write(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot store idempotent response", e);
+        }
+    }
+
+    private record CacheKey(Long clientId, String key) {
+    }
+
+    private record Completed(String operation, String requestHash, String response, LocalDateTime expiresAt) {
+    }
+}
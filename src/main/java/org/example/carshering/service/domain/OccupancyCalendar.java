@@ -0,0 +1,72 @@
+package org.example.carshering.service.domain;
+
+import org.example.carshering.dto.response.BookedInterval;
+import org.example.carshering.exceptions.custom.InvalidDataException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * Календарь занятости машины за месяц в виде битовой маски: бит i выставлен,
+ * если слот i (час или день от начала месяца) пересекается хотя бы с одной бронью.
+ * <p>
+ * Маска кодируется как {@link BitSet#toByteArray()}: бит i лежит в байте i / 8 на позиции i % 8
+ * (младший бит первый), хвостовые нулевые байты отбрасываются.
+ */
+public final class OccupancyCalendar {
+
+    public enum Granularity {
+        HOUR(ChronoUnit.HOURS),
+        DAY(ChronoUnit.DAYS);
+
+        private final ChronoUnit unit;
+
+        Granularity(ChronoUnit unit) {
+            this.unit = unit;
+        }
+
+        public int slotCount(YearMonth month) {
+            return (int) unit.between(month.atDay(1).atStartOfDay(), month.plusMonths(1).atDay(1).atStartOfDay());
+        }
+
+        public static Granularity parse(String value) {
+            if (value == null || value.isBlank()) {
+                return DAY;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidDataException("Unsupported calendar granularity: " + value);
+            }
+        }
+    }
+
+    private OccupancyCalendar() {
+    }
+
+    /**
+     * @param bookings брони одной машины, пересекающиеся с месяцем, в любом порядке
+     */
+    public static byte[] encode(Collection<BookedInterval> bookings, YearMonth month, Granularity granularity) {
+        LocalDateTime monthStart = month.atDay(1).atStartOfDay();
+        int slots = granularity.slotCount(month);
+        Duration slot = granularity.unit.getDuration();
+        BitSet bits = new BitSet(slots);
+
+        for (BookedInterval booking : bookings) {
+            // бронь [start, end) занимает слоты с first по last включительно
+            int first = (int) Math.max(0, granularity.unit.between(monthStart, booking.dataStart()));
+            long endOffset = Duration.between(monthStart, booking.dataEnd()).toSeconds();
+            int last = (int) Math.min(slots - 1, Math.ceilDiv(endOffset, slot.toSeconds()) - 1);
+            if (first <= last) {
+                bits.set(first, last + 1);
+            }
+        }
+        return bits.toByteArray();
+    }
+}
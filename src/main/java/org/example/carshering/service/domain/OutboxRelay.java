@@ -0,0 +1,216 @@
+package org.example.carshering.service.domain;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.example.carshering.entity.OutboxEvent;
+import org.example.carshering.event.OutboxMessage;
+import org.example.carshering.repository.OutboxEventRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Доставка событий из outbox: пачками по порядку id, не реже одного раза.
+ * <p>
+ * Пачка читается и помечается доставленной в одной транзакции под advisory-блокировкой PostgreSQL,
+ * поэтому релей в каждый момент работает только в одном экземпляре приложения. Каждое событие
+ * публикуется как {@link OutboxMessage} слушателям приложения и отправляется во все {@link OutboxSink};
+ * сами слушатели выполняются вне транзакции релея, со своими транзакциями.
+ * <p>
+ * Если доставка события упала, оно и все следующие события того же агрегата остаются
+ * недоставленными — порядок внутри агрегата не нарушается. Следующая попытка откладывается
+ * с экспоненциальной отсрочкой ({@code outbox.relay.backoff}, не больше {@code outbox.relay.max-backoff});
+ * после {@code outbox.relay.max-attempts} неудач событие паркуется: релей его больше не читает,
+ * следующие события агрегата доставляются дальше, а припаркованное ждёт разбора вручную.
+ * Сбой после доставки, но до коммита приведёт к повторной доставке.
+ * <p>
+ * Метрики: {@code outbox.lag} — возраст самого старого недоставленного события,
+ * {@code outbox.delivery.delay} — от записи до доставки, счётчики {@code outbox.delivered},
+ * {@code outbox.failed} и {@code outbox.parked}, {@code outbox.parked.events} — сколько событий
+ * припарковано сейчас.
+ */
+@Slf4j
+@Service
+public class OutboxRelay {
+
+    // ключ advisory-блокировки релея (любое число, уникальное в пределах БД)
+    static final long RELAY_LOCK_KEY = 0x0BB0_0001L;
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final OutboxEventRepository outboxRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectProvider<OutboxSink> sinks;
+    private final TransactionTemplate relayTransaction;
+    private final TransactionTemplate dispatchTransaction;
+    private final int batchSize;
+    private final Duration retention;
+    private final int maxAttempts;
+    private final Duration backoff;
+    private final Duration maxBackoff;
+    private final Clock clock;
+
+    private final Counter delivered;
+    private final Counter failed;
+    private final Counter parked;
+    private final Timer deliveryDelay;
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final AtomicLong parkedEvents = new AtomicLong();
+
+    @Autowired
+    public OutboxRelay(OutboxEventRepository outboxRepository,
+                       ApplicationEventPublisher eventPublisher,
+                       ObjectProvider<OutboxSink> sinks,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${outbox.relay.batch-size:200}") int batchSize,
+                       @Value("${outbox.retention:P7D}") Duration retention,
+                       @Value("${outbox.relay.max-attempts:10}") int maxAttempts,
+                       @Value("${outbox.relay.backoff:PT5S}") Duration backoff,
+                       @Value("${outbox.relay.max-backoff:PT10M}") Duration maxBackoff) {
+        this(outboxRepository, eventPublisher, sinks, transactionManager, meterRegistry, batchSize, retention,
+                maxAttempts, backoff, maxBackoff, Clock.systemDefaultZone());
+    }
+
+    OutboxRelay(OutboxEventRepository outboxRepository, ApplicationEventPublisher eventPublisher,
+                ObjectProvider<OutboxSink> sinks, PlatformTransactionManager transactionManager,
+                MeterRegistry meterRegistry, int batchSize, Duration retention,
+                int maxAttempts, Duration backoff, Duration maxBackoff, Clock clock) {
+        this.outboxRepository = outboxRepository;
+        this.eventPublisher = eventPublisher;
+        this.sinks = sinks;
+        this.relayTransaction = new TransactionTemplate(transactionManager);
+        this.dispatchTransaction = new TransactionTemplate(transactionManager);
+        this.dispatchTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_NOT_SUPPORTED);
+        this.batchSize = batchSize;
+        this.retention = retention;
+        this.maxAttempts = maxAttempts;
+        this.backoff = backoff;
+        this.maxBackoff = maxBackoff;
+        this.clock = clock;
+        this.delivered = meterRegistry.counter("outbox.delivered");
+        this.failed = meterRegistry.counter("outbox.failed");
+        this.parked = meterRegistry.counter("outbox.parked");
+        this.deliveryDelay = meterRegistry.timer("outbox.delivery.delay");
+        meterRegistry.more().timeGauge("outbox.lag", List.of(), lagMillis, TimeUnit.MILLISECONDS,
+                AtomicLong::doubleValue);
+        meterRegistry.gauge("outbox.parked.events", parkedEvents, AtomicLong::doubleValue);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval:PT1S}")
+    public void relay() {
+        Boolean more;
+        do {
+            more = relayTransaction.execute(status -> relayBatch());
+        } while (Boolean.TRUE.equals(more));
+    }
+
+    @Scheduled(cron = "${outbox.purge-cron:0 30 3 * * *}")
+    public void purgePublished() {
+        LocalDateTime before = LocalDateTime.now(clock).minus(retention);
+        Integer removed = relayTransaction.execute(status -> outboxRepository.deletePublishedBefore(before));
+        if (removed != null && removed > 0) {
+            log.info("Published outbox events removed: {}", removed);
+        }
+    }
+
+    /**
+     * @return есть ли смысл сразу читать следующую пачку: эта была полной и что-то из неё доставлено
+     */
+    private boolean relayBatch() {
+        if (!outboxRepository.tryRelayLock(RELAY_LOCK_KEY)) {
+            return false;
+        }
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<OutboxEvent> events = outboxRepository.findDeliverable(now, batchSize);
+        List<Long> published = new ArrayList<>(events.size());
+        Set<String> blocked = new HashSet<>();
+
+        for (OutboxEvent event : events) {
+            String aggregate = event.getAggregateType() + ":" + event.getAggregateId();
+            if (blocked.contains(aggregate)) {
+                continue;
+            }
+            try {
+                dispatch(toMessage(event));
+                published.add(event.getId());
+                delivered.increment();
+                deliveryDelay.record(Duration.between(event.getCreatedAt(), now));
+            } catch (RuntimeException e) {
+                blocked.add(aggregate);
+                failed.increment();
+                onFailure(event, aggregate, e, now);
+            }
+        }
+        if (!published.isEmpty()) {
+            outboxRepository.markPublished(published, now);
+        }
+
+        LocalDateTime oldest = outboxRepository.findOldestUnpublishedCreatedAt();
+        lagMillis.set(oldest == null ? 0 : Math.max(0, Duration.between(oldest, now).toMillis()));
+        parkedEvents.set(outboxRepository.countParked());
+        return events.size() == batchSize && !published.isEmpty();
+    }
+
+    private void onFailure(OutboxEvent event, String aggregate, RuntimeException e, LocalDateTime now) {
+        int attempt = event.getAttempts() + 1;
+        String error = truncate(String.valueOf(e.getMessage()));
+        if (attempt >= maxAttempts) {
+            parked.increment();
+            log.error("Outbox event {} ({} {}) parked after {} failed attempts: {}",
+                    event.getId(), event.getEventType(), aggregate, attempt, e.toString());
+            outboxRepository.markParked(event.getId(), error, now);
+            return;
+        }
+        LocalDateTime nextAttemptAt = now.plus(backoffAfter(attempt));
+        // стек - только на первой неудаче, повторы того же сбоя логируются одной строкой
+        if (attempt == 1) {
+            log.warn("Outbox event {} ({} {}) delivery failed, retry at {}",
+                    event.getId(), event.getEventType(), aggregate, nextAttemptAt, e);
+        } else {
+            log.warn("Outbox event {} ({} {}) delivery failed, attempt {}, retry at {}: {}",
+                    event.getId(), event.getEventType(), aggregate, attempt, nextAttemptAt, e.toString());
+        }
+        outboxRepository.markFailed(event.getId(), error, nextAttemptAt);
+    }
+
+    // backoff * 2^(attempt - 1), не больше maxBackoff
+    Duration backoffAfter(int attempt) {
+        int shift = Math.min(attempt - 1, 30);
+        Duration delay = backoff.multipliedBy(1L << shift);
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private void dispatch(OutboxMessage message) {
+        dispatchTransaction.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(message);
+            sinks.orderedStream().forEach(sink -> sink.send(message));
+        });
+    }
+
+    private static OutboxMessage toMessage(OutboxEvent event) {
+        return new OutboxMessage(event.getId(), event.getAggregateType(), event.getAggregateId(),
+                event.getEventType(), event.getPayload(), event.getCreatedAt());
+    }
+
+    private static String truncate(String error) {
+        return error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
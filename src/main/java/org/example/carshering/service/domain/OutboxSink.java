@@ -0,0 +1,15 @@
+package org.example.carshering.service.domain;
+
+import org.example.carshering.event.OutboxMessage;
+
+/**
+ * Внешний получатель событий outbox (брокер, вебхук). Бины этого типа подхватываются
+ * {@link OutboxRelay} автоматически; по умолчанию их нет и события идут только в слушатели приложения.
+ * <p>
+ * Исключение из {@link #send} оставляет событие недоставленным: оно и следующие события того же
+ * агрегата будут отправлены повторно при следующем проходе.
+ */
+public interface OutboxSink {
+
+    void send(OutboxMessage message);
+}
@@ -0,0 +1,60 @@
+package org.example.carshering.service.domain;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.example.carshering.entity.OutboxEvent;
+import org.example.carshering.event.CarStateChangedEvent;
+import org.example.carshering.event.ContractChangedEvent;
+import org.example.carshering.repository.OutboxEventRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+
+/**
+ * Записывает доменные события в outbox.
+ * <p>
+ * Обычный {@link EventListener} вызывается синхронно в момент публикации, то есть внутри транзакции
+ * изменения: строка outbox коммитится или откатывается вместе с ним.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxWriter {
+
+    public static final String CONTRACT = "contract";
+    public static final String CAR = "car";
+
+    private final OutboxEventRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+    private final Clock clock = Clock.systemDefaultZone();
+
+    @EventListener
+    public void onContractChanged(ContractChangedEvent event) {
+        if (event.contractId() != null) {
+            append(CONTRACT, event.contractId(), "ContractChanged", event);
+        }
+    }
+
+    @EventListener
+    public void onCarStateChanged(CarStateChangedEvent event) {
+        append(CAR, event.carId(), "CarStateChanged", event);
+    }
+
+    private void append(String aggregateType, Long aggregateId, String eventType, Object event) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + eventType + " for outbox", e);
+        }
+        outboxRepository.save(OutboxEvent.builder()
+                .aggregateType(aggregateType)
+                .aggregateId(aggregateId)
+                .eventType(eventType)
+                .payload(payload)
+                .createdAt(LocalDateTime.now(clock))
+                .build());
+    }
+}
@@ -0,0 +1,142 @@
+package org.example.carshering.service.domain;
+
+import org.example.carshering.dto.response.TotalAwarePage;
+import org.example.carshering.repository.TableStatisticsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Итоги для постраничных админских списков без COUNT на каждый запрос.
+ * <p>
+ * Репозитории отдают {@link Slice} (страница + одна лишняя строка, чтобы узнать, есть ли следующая),
+ * а общее число строк выбирается так:
+ * <ul>
+ *     <li>страница последняя — итог известен и без подсчёта;</li>
+ *     <li>{@code withTotal = false} — подсчёт не делается, итог — нижняя граница
+ *     (до конца текущей страницы плюс одна строка, если есть следующая);</li>
+ *     <li>список без фильтров по большой таблице — оценка из {@code pg_class.reltuples};</li>
+ *     <li>иначе — точный COUNT, закэшированный на короткий TTL по виду списка и фильтру.</li>
+ * </ul>
+ * Нижняя граница и оценка помечаются в {@link TotalAwarePage#isTotalExact()}, чтобы клиент не принял их за итог.
+ */
+@Service
+public class PageTotals {
+
+    private final TableStatisticsRepository tableStatisticsRepository;
+    private final long estimateThreshold;
+    private final int maxSize;
+    private final Duration ttl;
+    private final Clock clock;
+
+    private final LinkedHashMap<CountKey, CachedCount> counts = new LinkedHashMap<>(16, 0.75f, true);
+
+    @Autowired
+    public PageTotals(TableStatisticsRepository tableStatisticsRepository,
+                      @Value("${pagination.estimate-threshold:100000}") long estimateThreshold,
+                      @Value("${pagination.count-cache.max-size:1000}") int maxSize,
+                      @Value("${pagination.count-cache.ttl:PT30S}") Duration ttl) {
+        this(tableStatisticsRepository, estimateThreshold, maxSize, ttl, Clock.systemUTC());
+    }
+
+    PageTotals(TableStatisticsRepository tableStatisticsRepository, long estimateThreshold,
+               int maxSize, Duration ttl, Clock clock) {
+        this.tableStatisticsRepository = tableStatisticsRepository;
+        this.estimateThreshold = estimateThreshold;
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    /**
+     * @param slice      страница, полученная без подсчёта
+     * @param key        вид списка и фильтр; для списков без фильтров — с таблицей для оценки
+     * @param withTotal  нужен ли итог вообще
+     * @param exactCount точный подсчёт с теми же условиями, что и у страницы
+     */
+    public <T> TotalAwarePage<T> toPage(Slice<T> slice, CountKey key, boolean withTotal, LongSupplier exactCount) {
+        long seen = slice.getPageable().isPaged()
+                ? slice.getPageable().getOffset() + slice.getNumberOfElements()
+                : slice.getNumberOfElements();
+
+        if (!slice.hasNext() && (slice.hasContent() || slice.isFirst())) {
+            return new TotalAwarePage<>(slice.getContent(), slice.getPageable(), seen, true);
+        }
+        long lowerBound = slice.hasNext() ? seen + 1 : seen;
+        if (!withTotal) {
+            return new TotalAwarePage<>(slice.getContent(), slice.getPageable(), lowerBound, false);
+        }
+
+        long total = estimate(key);
+        boolean exact = total < 0;
+        if (exact) {
+            total = cachedCount(key, exactCount);
+        }
+        // оценка или закэшированный итог могли отстать от данных - страница не должна стать последней раньше времени
+        if (total < lowerBound) {
+            return new TotalAwarePage<>(slice.getContent(), slice.getPageable(), lowerBound, false);
+        }
+        return new TotalAwarePage<>(slice.getContent(), slice.getPageable(), total, exact);
+    }
+
+    public synchronized void clear() {
+        counts.clear();
+    }
+
+    private long estimate(CountKey key) {
+        if (key.estimateTable() == null) {
+            return -1;
+        }
+        long estimate = tableStatisticsRepository.estimateRowCount(key.estimateTable());
+        return estimate >= estimateThreshold ? estimate : -1;
+    }
+
+    private long cachedCount(CountKey key, LongSupplier exactCount) {
+        Instant now = clock.instant();
+        synchronized (this) {
+            CachedCount cached = counts.get(key);
+            if (cached != null && cached.expiresAt().isAfter(now)) {
+                return cached.value();
+            }
+        }
+
+        long value = exactCount.getAsLong();
+
+        synchronized (this) {
+            counts.put(key, new CachedCount(value, now.plus(ttl)));
+            Iterator<CountKey> eldest = counts.keySet().iterator();
+            while (counts.size() > maxSize && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+            }
+        }
+        return value;
+    }
+
+    /**
+     * @param view          имя списка
+     * @param filter        нормализованный фильтр (record) или null
+     * @param estimateTable таблица для оценки по статистике; только для списков без фильтров
+     */
+    public record CountKey(String view, Object filter, String estimateTable) {
+
+        public static CountKey filtered(String view, Object filter) {
+            return new CountKey(view, filter, null);
+        }
+
+        public static CountKey unfiltered(String view, String table) {
+            return new CountKey(view, null, table);
+        }
+    }
+
+    private record CachedCount(long value, Instant expiresAt) {
+    }
+}
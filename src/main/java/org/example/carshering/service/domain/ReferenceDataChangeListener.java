@@ -0,0 +1,29 @@
+package org.example.carshering.service.domain;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * JPA-слушатель справочных сущностей: после вставки, изменения или удаления
+ * помечает снимок {@link ReferenceDataRegistry} устаревшим.
+ * <p>
+ * Создаётся Hibernate через контейнер бинов Spring; реестр берётся лениво, потому что сам
+ * зависит от репозиториев, а в срезах вроде {@code @DataJpaTest} его нет вовсе.
+ */
+public class ReferenceDataChangeListener {
+
+    private final ObjectProvider<ReferenceDataRegistry> registry;
+
+    public ReferenceDataChangeListener(ObjectProvider<ReferenceDataRegistry> registry) {
+        this.registry = registry;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void onChange(Object entity) {
+        registry.ifAvailable(ReferenceDataRegistry::invalidate);
+    }
+}
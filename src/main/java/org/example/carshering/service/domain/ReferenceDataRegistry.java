@@ -0,0 +1,153 @@
+package org.example.carshering.service.domain;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.carshering.entity.CarState;
+import org.example.carshering.entity.DocumentType;
+import org.example.carshering.entity.RentalState;
+import org.example.carshering.entity.Role;
+import org.example.carshering.repository.CarStateRepository;
+import org.example.carshering.repository.DocumentTypeRepository;
+import org.example.carshering.repository.RentalStateRepository;
+import org.example.carshering.repository.RoleRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Справочники статусов и типов (статусы аренды и машин, роли, типы документов) в памяти.
+ * <p>
+ * Справочники маленькие и меняются редко, поэтому загружаются целиком при старте в неизменяемый
+ * снимок. Любое сохранение или удаление этих сущностей через JPA ({@link ReferenceDataChangeListener})
+ * помечает снимок устаревшим, и следующий поиск перечитывает справочники; правки мимо JPA
+ * подхватываются периодическим {@link #refresh()}. Поиск по имени без учёта регистра,
+ * как в {@code findBy...IgnoreCase}.
+ * <p>
+ * В снимке лежат отсоединённые копии сущностей только с id и именем: их можно ставить в связи
+ * ({@code contract.setState(...)}) — Hibernate возьмёт из них только внешний ключ.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReferenceDataRegistry {
+
+    private final RentalStateRepository rentalStateRepository;
+    private final CarStateRepository carStateRepository;
+    private final RoleRepository roleRepository;
+    private final DocumentTypeRepository documentTypeRepository;
+
+    private final AtomicLong version = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        snapshot();
+    }
+
+    @Scheduled(fixedDelayString = "${reference-data.resync-interval:PT10M}",
+            initialDelayString = "${reference-data.resync-interval:PT10M}")
+    public synchronized void refresh() {
+        // версия читается до загрузки: изменение во время чтения сделает снимок устаревшим
+        long loadVersion = version.get();
+        Snapshot loaded = new Snapshot(
+                loadVersion,
+                Lookup.of(rentalStateRepository.findAll().stream()
+                                .map(s -> RentalState.builder().id(s.getId()).name(s.getName()).build()).toList(),
+                        RentalState::getId, RentalState::getName),
+                Lookup.of(carStateRepository.findAll().stream()
+                                .map(s -> CarState.builder().id(s.getId()).status(s.getStatus()).build()).toList(),
+                        CarState::getId, CarState::getStatus),
+                Lookup.of(roleRepository.findAll().stream()
+                                .map(r -> Role.builder().id(r.getId()).name(r.getName()).build()).toList(),
+                        Role::getId, Role::getName),
+                Lookup.of(documentTypeRepository.findAll().stream()
+                                .map(t -> DocumentType.builder().id(t.getId()).name(t.getName()).build()).toList(),
+                        DocumentType::getId, DocumentType::getName)
+        );
+        snapshot = loaded;
+        log.info("Reference data loaded: {} rental states, {} car states, {} roles, {} document types",
+                loaded.rentalStates().size(), loaded.carStates().size(),
+                loaded.roles().size(), loaded.documentTypes().size());
+    }
+
+    public void invalidate() {
+        version.incrementAndGet();
+    }
+
+    public Optional<RentalState> findRentalState(String name) {
+        return snapshot().rentalStates().byName(name);
+    }
+
+    public Optional<CarState> findCarState(String status) {
+        return snapshot().carStates().byName(status);
+    }
+
+    public Optional<CarState> findCarState(Long id) {
+        return snapshot().carStates().byId(id);
+    }
+
+    public Optional<Role> findRole(String name) {
+        return snapshot().roles().byName(name);
+    }
+
+    public Optional<DocumentType> findDocumentType(Long id) {
+        return snapshot().documentTypes().byId(id);
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null && current.version() == version.get()) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot == null || snapshot.version() != version.get()) {
+                refresh();
+            }
+            return snapshot;
+        }
+    }
+
+    private record Snapshot(
+            long version,
+            Lookup<RentalState> rentalStates,
+            Lookup<CarState> carStates,
+            Lookup<Role> roles,
+            Lookup<DocumentType> documentTypes
+    ) {
+    }
+
+    private record Lookup<T>(Map<Long, T> byId, Map<String, T> byName) {
+
+        static <T> Lookup<T> of(List<T> values, Function<T, Long> id, Function<T, String> name) {
+            return new Lookup<>(
+                    values.stream().collect(Collectors.toUnmodifiableMap(id, Function.identity())),
+                    values.stream().collect(Collectors.toUnmodifiableMap(v -> key(name.apply(v)), Function.identity()))
+            );
+        }
+
+        Optional<T> byId(Long id) {
+            return id == null ? Optional.empty() : Optional.ofNullable(byId.get(id));
+        }
+
+        Optional<T> byName(String name) {
+            return name == null ? Optional.empty() : Optional.ofNullable(byName.get(key(name)));
+        }
+
+        int size() {
+            return byId.size();
+        }
+
+        private static String key(String name) {
+            return name.toUpperCase(Locale.ROOT);
+        }
+    }
+}
@@ -6,24 +6,33 @@ import org.example.carshering.entity.Contract;
 import org.example.carshering.repository.ContractRepository;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
-import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class RentalDomainService {
 
     private final ContractRepository contractRepository;
+    private final TariffEngine tariffEngine;
 
     public boolean isCarAvailable(LocalDateTime start, LocalDateTime end, Long carId, Long excludeContractId) {
         return contractRepository.findOverlappingContracts(start, end, carId, excludeContractId).isEmpty();
     }
 
 
+    public TariffTable.Quote quote(Car car, LocalDateTime start, LocalDateTime end) {
+        return tariffEngine.quote(car, start, end);
+    }
+
+    /**
+     * Тот же расчёт без сущности машины — для котировок по проекции {@code CarRepository.PricedCar}.
+     */
+    public TariffTable.Quote quote(Long modelId, Long classId, double hourlyRate,
+                                   LocalDateTime start, LocalDateTime end) {
+        return tariffEngine.tableFor(modelId, classId).quote(hourlyRate, start, end);
+    }
+
     public double calculateCost(Car car, LocalDateTime start, LocalDateTime end) {
-        long hours = Math.max(1, ChronoUnit.HOURS.between(start, end)); // минимум 1 час
-        return hours * car.getRent();
+        return quote(car, start, end).total();
     }
 }
@@ -0,0 +1,113 @@
+package org.example.carshering.service.domain;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import lombok.extern.slf4j.Slf4j;
+import org.example.carshering.exceptions.custom.BusinessConflictException;
+import org.hibernate.StaleStateException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Транзакция с повтором при конфликте оптимистической блокировки ({@code @Version}).
+ * <p>
+ * Каждая попытка идёт в новой транзакции: сущности перечитываются, проверки выполняются заново
+ * на свежих данных. Между попытками пауза растёт экспоненциально со случайным разбросом,
+ * чтобы конкурирующие запросы не столкнулись снова. После последней неудачи — 409.
+ * <p>
+ * Если транзакция уже открыта снаружи, действие просто выполняется в ней: после конфликта она
+ * помечена на откат, повторять должен тот, кто её открыл.
+ * <p>
+ * Метрики: {@code contract.mutation.executions} и {@code contract.mutation.conflicts}
+ * (их отношение — доля конфликтов), {@code contract.mutation.retries.exhausted}; тег — операция.
+ */
+@Slf4j
+@Service
+public class RetryingTransactionTemplate {
+
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final Duration backoff;
+
+    @Autowired
+    public RetryingTransactionTemplate(PlatformTransactionManager transactionManager,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${contract.retry.max-attempts:3}") int maxAttempts,
+                                       @Value("${contract.retry.backoff:PT0.02S}") Duration backoff) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoff = backoff;
+    }
+
+    /**
+     * @param operation имя операции для метрик и логов, без id (ограниченное число значений тега)
+     */
+    public <T> T execute(String operation, Supplier<T> action) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return action.get();
+        }
+        meterRegistry.counter("contract.mutation.executions", "operation", operation).increment();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (RuntimeException e) {
+                if (!isConflict(e)) {
+                    throw e;
+                }
+                meterRegistry.counter("contract.mutation.conflicts", "operation", operation).increment();
+                if (attempt >= maxAttempts) {
+                    meterRegistry.counter("contract.mutation.retries.exhausted", "operation", operation).increment();
+                    log.warn("Optimistic lock conflict on {} after {} attempts", operation, attempt);
+                    throw new BusinessConflictException("The data was changed by another request, please retry");
+                }
+                log.debug("Optimistic lock conflict on {}, attempt {}", operation, attempt);
+                pause(attempt);
+            }
+        }
+    }
+
+    public void executeWithoutResult(String operation, Runnable action) {
+        execute(operation, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private void pause(int attempt) {
+        long base = backoff.toMillis() << (attempt - 1);
+        if (base <= 0) {
+            return;
+        }
+        // половина паузы фиксирована, половина случайна
+        long millis = base / 2 + ThreadLocalRandom.current().nextLong(base / 2 + 1);
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessConflictException("The data was changed by another request, please retry");
+        }
+    }
+
+    // конфликт при коммите приходит обёрнутым в исключение транзакции, поэтому смотрим всю цепочку
+    private static boolean isConflict(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof OptimisticLockingFailureException
+                    || cause instanceof OptimisticLockException
+                    || cause instanceof StaleStateException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,136 @@
+package org.example.carshering.service.domain;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.carshering.entity.Car;
+import org.example.carshering.entity.CarModel;
+import org.example.carshering.entity.Tariff;
+import org.example.carshering.event.TariffChangedEvent;
+import org.example.carshering.exceptions.custom.InvalidDataException;
+import org.example.carshering.repository.TariffRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Расчёт стоимости аренды по тарифам — единая точка для создания и изменения контракта и для котировок.
+ * <p>
+ * Активные тарифы компилируются в {@link TariffTable} и лежат в неизменяемом каталоге, который
+ * подменяется целиком: после коммита правки тарифа ({@link TariffChangedEvent}), при старте и
+ * периодически на случай правок мимо приложения. Расчёт цены не ходит в базу и не берёт блокировок.
+ * <p>
+ * Тариф машины выбирается по приоритету: тариф модели, тариф класса, тариф по умолчанию,
+ * иначе {@link TariffTable#FLAT}.
+ */
+@Slf4j
+@Service
+public class TariffEngine {
+
+    private final TariffRepository tariffRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private volatile Catalog catalog;
+
+    public TariffEngine(TariffRepository tariffRepository, PlatformTransactionManager transactionManager) {
+        this.tariffRepository = tariffRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${tariffs.resync-interval:PT5M}",
+            initialDelayString = "${tariffs.resync-interval:PT5M}")
+    public void resync() {
+        reload();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTariffChanged(TariffChangedEvent event) {
+        reload();
+    }
+
+    public synchronized void reload() {
+        Catalog loaded = readOnlyTransaction.execute(status -> compile(tariffRepository.findAllByActiveTrue()));
+        catalog = loaded;
+        log.info("Tariffs compiled: {} by model, {} by class, default {}",
+                loaded.byModel().size(), loaded.byClass().size(), loaded.fallback().name());
+    }
+
+    public TariffTable.Quote quote(Car car, LocalDateTime start, LocalDateTime end) {
+        CarModel model = car.getModel();
+        Long modelId = model == null ? null : model.getIdModel();
+        Long classId = model == null || model.getCarClass() == null ? null : model.getCarClass().getId();
+        return tableFor(modelId, classId).quote(car.getRent(), start, end);
+    }
+
+    /**
+     * Тариф для машины заданной модели и класса; оба id могут быть null.
+     */
+    public TariffTable tableFor(Long modelId, Long classId) {
+        Catalog current = catalog();
+        TariffTable table = modelId == null ? null : current.byModel().get(modelId);
+        if (table == null && classId != null) {
+            table = current.byClass().get(classId);
+        }
+        return table == null ? current.fallback() : table;
+    }
+
+    private Catalog catalog() {
+        Catalog current = catalog;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (catalog == null) {
+                reload();
+            }
+            return catalog;
+        }
+    }
+
+    private static Catalog compile(List<Tariff> tariffs) {
+        Map<Long, TariffTable> byModel = new HashMap<>();
+        Map<Long, TariffTable> byClass = new HashMap<>();
+        TariffTable fallback = TariffTable.FLAT;
+        for (Tariff tariff : tariffs) {
+            TariffTable table;
+            try {
+                table = TariffTable.compile(
+                        tariff.getName(),
+                        tariff.getHourRules().stream()
+                                .map(r -> new TariffTable.HourRule(r.getDayOfWeek(), r.getHourFrom(), r.getHourTo(), r.getMultiplier()))
+                                .toList(),
+                        tariff.getDurationTiers().stream()
+                                .map(t -> new TariffTable.DurationTier(t.getMinHours(), t.getMultiplier()))
+                                .toList());
+            } catch (InvalidDataException e) {
+                // правка мимо API не должна ломать расчёт цен остальных машин
+                log.warn("Tariff {} skipped: {}", tariff.getId(), e.getMessage());
+                continue;
+            }
+            if (tariff.getCarModelId() != null) {
+                byModel.put(tariff.getCarModelId(), table);
+            } else if (tariff.getCarClassId() != null) {
+                byClass.put(tariff.getCarClassId(), table);
+            } else {
+                fallback = table;
+            }
+        }
+        return new Catalog(Map.copyOf(byModel), Map.copyOf(byClass), fallback);
+    }
+
+    private record Catalog(Map<Long, TariffTable> byModel, Map<Long, TariffTable> byClass, TariffTable fallback) {
+    }
+}
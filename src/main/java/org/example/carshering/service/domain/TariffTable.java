@@ -0,0 +1,155 @@
+package org.example.carshering.service.domain;
+
+import org.example.carshering.exceptions.custom.InvalidDataException;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Скомпилированный тариф: неизменяемые таблицы, по которым цена аренды считается за O(log n)
+ * от числа ступеней длительности и не зависит от длины аренды.
+ * <p>
+ * Правила по часам раскладываются в множитель на каждый из 168 часов недели (позднее правило
+ * перекрывает раннее), поверх них строятся префиксные суммы на две недели подряд. Сумма множителей
+ * любого отрезка аренды — целые недели плюс одна разность префиксов. Множитель длительности берётся
+ * у ступени с наибольшим {@code minHours}, не превышающим число оплачиваемых часов.
+ * <p>
+ * Оплачиваемые часы считаются как раньше: целые часы между началом и концом, минимум один;
+ * час аренды тарифицируется по часу недели, в который он начинается.
+ */
+public final class TariffTable {
+
+    public static final int HOURS_PER_WEEK = 7 * 24;
+
+    /** Без надбавок и скидок: ставка машины за каждый час, как до появления тарифов. */
+    public static final TariffTable FLAT = compile("FLAT", List.of(), List.of());
+
+    private final String name;
+    private final double[] prefix;
+    private final int[] tierMinHours;
+    private final double[] tierMultipliers;
+
+    private TariffTable(String name, double[] prefix, int[] tierMinHours, double[] tierMultipliers) {
+        this.name = name;
+        this.prefix = prefix;
+        this.tierMinHours = tierMinHours;
+        this.tierMultipliers = tierMultipliers;
+    }
+
+    /**
+     * @param rules правила по часам; {@code dayOfWeek} 1 - понедельник ... 7 - воскресенье, null - каждый день;
+     *              {@code hourFrom > hourTo} - интервал через полночь в следующий день
+     * @param tiers ступени длительности
+     * @throws InvalidDataException если правило или ступень вне допустимых значений
+     */
+    public static TariffTable compile(String name, List<HourRule> rules, List<DurationTier> tiers) {
+        double[] hourly = new double[HOURS_PER_WEEK];
+        Arrays.fill(hourly, 1.0);
+        for (HourRule rule : rules) {
+            validate(rule);
+            int length = rule.hourTo() > rule.hourFrom()
+                    ? rule.hourTo() - rule.hourFrom()
+                    : rule.hourTo() + 24 - rule.hourFrom();
+            int firstDay = rule.dayOfWeek() == null ? 1 : rule.dayOfWeek();
+            int lastDay = rule.dayOfWeek() == null ? 7 : rule.dayOfWeek();
+            for (int day = firstDay; day <= lastDay; day++) {
+                int from = (day - 1) * 24 + rule.hourFrom();
+                for (int i = 0; i < length; i++) {
+                    hourly[(from + i) % HOURS_PER_WEEK] = rule.multiplier();
+                }
+            }
+        }
+
+        // две недели подряд: отрезок из любого часа недели длиной меньше недели не выходит за массив
+        double[] prefix = new double[2 * HOURS_PER_WEEK + 1];
+        for (int i = 0; i < 2 * HOURS_PER_WEEK; i++) {
+            prefix[i + 1] = prefix[i] + hourly[i % HOURS_PER_WEEK];
+        }
+
+        List<DurationTier> sorted = tiers.stream()
+                .peek(TariffTable::validate)
+                .sorted(Comparator.comparingInt(DurationTier::minHours))
+                .toList();
+        int[] minHours = new int[sorted.size()];
+        double[] multipliers = new double[sorted.size()];
+        for (int i = 0; i < sorted.size(); i++) {
+            if (i > 0 && minHours[i - 1] == sorted.get(i).minHours()) {
+                throw new InvalidDataException("Duplicate duration tier for " + minHours[i - 1] + " hours");
+            }
+            minHours[i] = sorted.get(i).minHours();
+            multipliers[i] = sorted.get(i).multiplier();
+        }
+        return new TariffTable(name, prefix, minHours, multipliers);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public Quote quote(double hourlyRate, LocalDateTime start, LocalDateTime end) {
+        long hours = Math.max(1, ChronoUnit.HOURS.between(start, end)); // минимум 1 час
+        int first = (start.getDayOfWeek().getValue() - 1) * 24 + start.getHour();
+        int rest = (int) (hours % HOURS_PER_WEEK);
+        double weighted = (hours / HOURS_PER_WEEK) * prefix[HOURS_PER_WEEK]
+                + prefix[first + rest] - prefix[first];
+        double durationMultiplier = durationMultiplier(hours);
+        double total = Math.round(hourlyRate * weighted * durationMultiplier * 100) / 100.0;
+        return new Quote(name, hours, hourlyRate, durationMultiplier, total);
+    }
+
+    private double durationMultiplier(long hours) {
+        int low = 0;
+        int high = tierMinHours.length - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (tierMinHours[mid] <= hours) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found < 0 ? 1.0 : tierMultipliers[found];
+    }
+
+    private static void validate(HourRule rule) {
+        if (rule.dayOfWeek() != null && (rule.dayOfWeek() < 1 || rule.dayOfWeek() > 7)) {
+            throw new InvalidDataException("Day of week must be between 1 and 7");
+        }
+        if (rule.hourFrom() < 0 || rule.hourFrom() > 23 || rule.hourTo() < 0 || rule.hourTo() > 24
+                || rule.hourFrom() == rule.hourTo()) {
+            throw new InvalidDataException("Hour rule must cover hours from 0-23 to 0-24 and must not be empty");
+        }
+        validateMultiplier(rule.multiplier());
+    }
+
+    private static void validate(DurationTier tier) {
+        if (tier.minHours() < 1) {
+            throw new InvalidDataException("Duration tier must start from at least 1 hour");
+        }
+        validateMultiplier(tier.multiplier());
+    }
+
+    private static void validateMultiplier(double multiplier) {
+        if (!(multiplier > 0) || Double.isInfinite(multiplier)) {
+            throw new InvalidDataException("Tariff multiplier must be a positive number");
+        }
+    }
+
+    public record HourRule(Integer dayOfWeek, int hourFrom, int hourTo, double multiplier) {
+    }
+
+    public record DurationTier(int minHours, double multiplier) {
+    }
+
+    /**
+     * Расчёт цены: {@code total = hourlyRate * (сумма множителей по часам) * durationMultiplier},
+     * округлённая до копеек.
+     */
+    public record Quote(String tariff, long billedHours, double hourlyRate, double durationMultiplier, double total) {
+    }
+}
@@ -0,0 +1,156 @@
+package org.example.carshering.service.domain;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Иерархическое колесо таймеров с точностью до минуты.
+ * <p>
+ * Три уровня: 60 минутных слотов, 24 часовых и 64 суточных; всё, что дальше 64 суток,
+ * лежит в общем списке и раз в сутки раскладывается заново. Постановка и отмена таймера — O(1),
+ * сдвиг на минуту — O(1) плюс перенос таймеров из слота старшего уровня, когда до них дошла очередь.
+ * <p>
+ * Срок таймера округляется вверх до минуты: таймер на 10:00:30 сработает при переходе на 10:01.
+ * Таймер с уже прошедшим сроком срабатывает при ближайшем {@link #advanceTo}.
+ * <p>
+ * Не потокобезопасен — синхронизация на вызывающей стороне.
+ *
+ * @param <K> ключ таймера; повторная постановка по тому же ключу заменяет прежний срок
+ */
+public final class TimerWheel<K> {
+
+    private static final int[] SLOTS = {60, 24, 64};
+    private static final long[] TICK_MINUTES = {1, 60, 24 * 60};
+    private static final int READY = -1;
+    private static final int OVERFLOW = 3;
+
+    private final List<List<Set<K>>> levels = new ArrayList<>(SLOTS.length);
+    private final Set<K> overflow = new HashSet<>();
+    private final Set<K> ready = new LinkedHashSet<>();
+    private final Map<K, Placement> placements = new HashMap<>();
+    private long current;
+
+    public TimerWheel(LocalDateTime now) {
+        for (int slots : SLOTS) {
+            List<Set<K>> level = new ArrayList<>(slots);
+            for (int i = 0; i < slots; i++) {
+                level.add(new HashSet<>());
+            }
+            levels.add(level);
+        }
+        this.current = floorMinute(now);
+    }
+
+    public void schedule(K key, LocalDateTime due) {
+        cancel(key);
+        place(key, ceilMinute(due));
+    }
+
+    public boolean cancel(K key) {
+        Placement placement = placements.remove(key);
+        if (placement == null) {
+            return false;
+        }
+        switch (placement.level()) {
+            case READY -> ready.remove(key);
+            case OVERFLOW -> overflow.remove(key);
+            default -> levels.get(placement.level()).get(placement.slot()).remove(key);
+        }
+        return true;
+    }
+
+    /**
+     * Сдвигает колесо до минуты {@code now} и возвращает ключи таймеров, срок которых наступил.
+     * Сработавшие таймеры удаляются.
+     */
+    public List<K> advanceTo(LocalDateTime now) {
+        long target = floorMinute(now);
+        while (current < target) {
+            tick();
+        }
+        List<K> fired = new ArrayList<>(ready);
+        fired.forEach(placements::remove);
+        ready.clear();
+        return fired;
+    }
+
+    public int size() {
+        return placements.size();
+    }
+
+    private void tick() {
+        current++;
+        // сначала старшие уровни: перенесённые таймеры могут попасть в текущую минуту
+        if (current % TICK_MINUTES[2] == 0) {
+            List<K> far = new ArrayList<>(overflow);
+            overflow.clear();
+            redistribute(far);
+            cascade(2);
+        }
+        if (current % TICK_MINUTES[1] == 0) {
+            cascade(1);
+        }
+        Set<K> expired = levels.get(0).get(slotOf(0, current));
+        for (K key : expired) {
+            ready.add(key);
+            placements.put(key, new Placement(current, READY, 0));
+        }
+        expired.clear();
+    }
+
+    private void cascade(int level) {
+        Set<K> slot = levels.get(level).get(slotOf(level, current));
+        List<K> keys = new ArrayList<>(slot);
+        slot.clear();
+        redistribute(keys);
+    }
+
+    private void redistribute(List<K> keys) {
+        for (K key : keys) {
+            place(key, placements.get(key).due());
+        }
+    }
+
+    private void place(K key, long due) {
+        long delta = due - current;
+        if (delta <= 0) {
+            ready.add(key);
+            placements.put(key, new Placement(due, READY, 0));
+            return;
+        }
+        for (int level = 0; level < SLOTS.length; level++) {
+            if (delta < TICK_MINUTES[level] * SLOTS[level]) {
+                int slot = slotOf(level, due);
+                levels.get(level).get(slot).add(key);
+                placements.put(key, new Placement(due, level, slot));
+                return;
+            }
+        }
+        overflow.add(key);
+        placements.put(key, new Placement(due, OVERFLOW, 0));
+    }
+
+    private static int slotOf(int level, long minute) {
+        return (int) Math.floorMod(Math.floorDiv(minute, TICK_MINUTES[level]), (long) SLOTS[level]);
+    }
+
+    private static long floorMinute(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    private static long ceilMinute(LocalDateTime time) {
+        long minute = floorMinute(time);
+        return time.truncatedTo(ChronoUnit.MINUTES).equals(time) ? minute : minute + 1;
+    }
+
+    private record Placement(long due, int level, int slot) {
+    }
+}
@@ -7,9 +7,10 @@ import org.example.carshering.entity.CarState;
 import org.example.carshering.entity.RentalState;
 import org.example.carshering.exceptions.custom.NotFoundException;
 import org.example.carshering.repository.AnalysisRepository;
-import org.example.carshering.repository.RentalStateRepository;
+import org.example.carshering.service.domain.PageTotals;
+import org.example.carshering.service.domain.PageTotals.CountKey;
+import org.example.carshering.service.domain.ReferenceDataRegistry;
 import org.example.carshering.service.interfaces.AnalysisService;
-import org.example.carshering.service.interfaces.CarStateService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -104,7 +105,8 @@ public class AnalysisServiceImpl implements AnalysisService {
                 .build();
     }
 
-    private final RentalStateRepository rentalStateRepository;
+    private final ReferenceDataRegistry referenceData;
+    private final PageTotals pageTotals;
 
     @Override
     public Page<RideStats> getRidesLastMonth(Pageable  pageable) {
@@ -142,7 +144,7 @@ public class AnalysisServiceImpl implements AnalysisService {
 
         Long allRidesMinuteLastMonth = analysisRepository.allRidesMinuteLastMonth(startOfMonth,
                 startOfNextMonth);
-        RentalState rentalState = rentalStateRepository.findByNameIgnoreCase("COMPLETED").orElseThrow(() -> new NotFoundException("Rental State Not Found"));
+        RentalState rentalState = referenceData.findRentalState("COMPLETED").orElseThrow(() -> new NotFoundException("Rental State Not Found"));
         Long allContracts = analysisRepository.getAllContractsCount(rentalState);
         Long allContractsMonth = analysisRepository.getAllContractsCountLastMonth(rentalState, startOfMonth,
                 startOfNextMonth);
@@ -152,7 +154,8 @@ public class AnalysisServiceImpl implements AnalysisService {
 
         Long totalCars = analysisRepository.getAllCar();
 
-        CarState state = carStateService.getStateByName("AVAILABLE");
+        CarState state = referenceData.findCarState("AVAILABLE")
+                .orElseThrow(() -> new NotFoundException("State not found"));
         Long totalAvailableCars = analysisRepository.findAllCarByState(state);
         Double profit = analysisRepository.totalRevenue();
         Double profitThisMonth = analysisRepository.profitThisMonth(startOfMonth,
@@ -183,7 +186,7 @@ public class AnalysisServiceImpl implements AnalysisService {
     public List<DailyRevenueResponse> getDailyRevenueBetween(LocalDate from, LocalDate to) {
         LocalDateTime start = from.atStartOfDay();
         LocalDateTime end = to.plusDays(1).atStartOfDay();
-        RentalState completed = rentalStateRepository.findByNameIgnoreCase("COMPLETED")
+        RentalState completed = referenceData.findRentalState("COMPLETED")
                 .orElseThrow(() -> new NotFoundException("COMPLETED state not found"));
 
         return analysisRepository.getDailyRevenueBetween(completed, start, end).stream()
@@ -199,7 +202,7 @@ public class AnalysisServiceImpl implements AnalysisService {
 
     @Override
     public List<ContractDetailResponse> getContractDetailsForDay(LocalDate date) {
-        RentalState completed = rentalStateRepository.findByNameIgnoreCase("COMPLETED")
+        RentalState completed = referenceData.findRentalState("COMPLETED")
                 .orElseThrow(() -> new NotFoundException("COMPLETED state not found"));
 
         LocalDateTime start = date.atStartOfDay();
@@ -210,7 +213,7 @@ public class AnalysisServiceImpl implements AnalysisService {
 
     @Override
     public Page<CarAnalyticsResponse> getTopCarsByProfit(LocalDate from, LocalDate to, Pageable pageable) {
-        RentalState completed = rentalStateRepository.findByNameIgnoreCase("COMPLETED")
+        RentalState completed = referenceData.findRentalState("COMPLETED")
                 .orElseThrow(() -> new NotFoundException("COMPLETED state not found"));
 
         LocalDateTime startDate = from.atStartOfDay();
@@ -220,15 +223,15 @@ public class AnalysisServiceImpl implements AnalysisService {
     }
 
     @Override
-    public Page<CarAnalyticsResponse> getAllCarsAnalytics(LocalDate from, LocalDate to, Pageable pageable) {
-        RentalState completed = rentalStateRepository.findByNameIgnoreCase("COMPLETED")
+    public Page<CarAnalyticsResponse> getAllCarsAnalytics(LocalDate from, LocalDate to, Pageable pageable, boolean withTotal) {
+        RentalState completed = referenceData.findRentalState("COMPLETED")
                 .orElseThrow(() -> new NotFoundException("COMPLETED state not found"));
 
         LocalDateTime startDate = from.atStartOfDay();
         LocalDateTime endDate = to.plusDays(1).atStartOfDay();
 
-        return analysisRepository.getAllCarsAnalytics(completed, startDate, endDate, pageable);
+        // строка на каждую машину, период влияет только на суммы - итог от дат не зависит
+        return pageTotals.toPage(analysisRepository.getAllCarsAnalytics(completed, startDate, endDate, pageable),
+                CountKey.unfiltered("cars-analytics", "car_rental.car"), withTotal, analysisRepository::count);
     }
-
-    private final CarStateService carStateService;
 }
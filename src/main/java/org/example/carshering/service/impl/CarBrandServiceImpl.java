@@ -4,10 +4,12 @@ import lombok.RequiredArgsConstructor;
 import org.example.carshering.dto.request.create.CreateCarModelsBrand;
 import org.example.carshering.dto.response.BrandModelResponse;
 import org.example.carshering.entity.Brand;
+import org.example.carshering.event.FilterDictionaryChangedEvent;
 import org.example.carshering.exceptions.custom.NotFoundException;
 import org.example.carshering.mapper.BrandMapper;
 import org.example.carshering.repository.BrandRepository;
 import org.example.carshering.service.interfaces.CarBrandService;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -18,6 +20,7 @@ public class CarBrandServiceImpl implements CarBrandService {
 
     private final BrandMapper brandMapper;
     private final BrandRepository carBrandRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public BrandModelResponse createBrands(CreateCarModelsBrand request) {
@@ -27,6 +30,7 @@ public class CarBrandServiceImpl implements CarBrandService {
         System.out.println("--------");
         saved = carBrandRepository.save(saved);
         System.out.println(saved);
+        eventPublisher.publishEvent(new FilterDictionaryChangedEvent("brands"));
         return brandMapper.toDto(saved);
 
     }
@@ -4,10 +4,12 @@ import lombok.RequiredArgsConstructor;
 import org.example.carshering.dto.request.create.CreateCarModelName;
 import org.example.carshering.dto.response.ModelNameResponse;
 import org.example.carshering.entity.CarClass;
+import org.example.carshering.event.FilterDictionaryChangedEvent;
 import org.example.carshering.exceptions.custom.NotFoundException;
 import org.example.carshering.mapper.CarClassMapper;
 import org.example.carshering.repository.CarClassRepository;
 import org.example.carshering.service.interfaces.CarClassService;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -18,11 +20,13 @@ public class CarClassServiceImpl implements CarClassService {
 
     private final CarClassMapper carClassMapper;
     private final CarClassRepository carClassRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public ModelNameResponse createCarClass(CreateCarModelName request) {
 
         CarClass saved = carClassRepository.save(carClassMapper.toEntity(request));
+        eventPublisher.publishEvent(new FilterDictionaryChangedEvent("classes"));
 
         return carClassMapper.toDto(saved);
     }
@@ -4,10 +4,12 @@ import lombok.RequiredArgsConstructor;
 import org.example.carshering.dto.request.create.CreateCarModelName;
 import org.example.carshering.dto.response.ModelNameResponse;
 import org.example.carshering.entity.Model;
+import org.example.carshering.event.FilterDictionaryChangedEvent;
 import org.example.carshering.exceptions.custom.NotFoundException;
 import org.example.carshering.mapper.ModelNameMapper;
 import org.example.carshering.repository.ModelNameRepository;
 import org.example.carshering.service.interfaces.CarModelNameService;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -18,6 +20,7 @@ public class CarModelNameServiceImpl implements CarModelNameService {
 
     private final ModelNameMapper modelNameMapper;
     private final ModelNameRepository modelNameRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public List<String> findAllModels() {
@@ -30,6 +33,7 @@ public class CarModelNameServiceImpl implements CarModelNameService {
     @Override
     public ModelNameResponse createModelName(CreateCarModelName request) {
         Model saved = modelNameRepository.save(modelNameMapper.toEntity(request));
+        eventPublisher.publishEvent(new FilterDictionaryChangedEvent("models"));
 
         return modelNameMapper.toDto(saved);
     }
@@ -5,8 +5,10 @@ import org.example.carshering.dto.request.FilterCarModelRequest;
 import org.example.carshering.dto.request.create.CreateCarModelRequest;
 import org.example.carshering.dto.request.update.UpdateCarModelRequest;
 import org.example.carshering.dto.response.CarModelResponse;
+import org.example.carshering.dto.response.CarModelSearchResponse;
 import org.example.carshering.entity.Car;
 import org.example.carshering.entity.CarModel;
+import org.example.carshering.event.CarModelChangedEvent;
 import org.example.carshering.exceptions.custom.AlreadyExistsException;
 import org.example.carshering.exceptions.custom.EntityNotFoundException;
 import org.example.carshering.exceptions.custom.InvalidQueryParameterException;
@@ -14,6 +16,7 @@ import org.example.carshering.mapper.ModelMapper;
 import org.example.carshering.repository.CarModelRepository;
 import org.example.carshering.service.interfaces.CarModelService;
 import org.example.carshering.service.domain.CarServiceHelperService;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -21,6 +24,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.Set;
 
 @Service
@@ -31,9 +35,14 @@ public class CarModelServiceImpl implements CarModelService {
             "brand.name", "model.name", "bodyType", "carClass.name"
             , "brand", "model", "carClass"
     );
+    private static final int MIN_SEARCH_LENGTH = 2;
+    private static final int DEFAULT_SEARCH_LIMIT = 10;
+    private static final int MAX_SEARCH_LIMIT = 50;
+
     private final ModelMapper modelMapper;
     private final CarModelRepository carModelRepository;
     private final CarServiceHelperService carService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -48,6 +57,7 @@ public class CarModelServiceImpl implements CarModelService {
         model.setDeleted(true);
 
         carModelRepository.save(model);
+        eventPublisher.publishEvent(new CarModelChangedEvent(modelId));
     }
 
     @Override
@@ -63,6 +73,7 @@ public class CarModelServiceImpl implements CarModelService {
         }
 
         CarModel saved = carModelRepository.save(modelMapper.toEntity(request));
+        eventPublisher.publishEvent(new CarModelChangedEvent(saved.getIdModel()));
         return modelMapper.toDto(saved);
     }
 
@@ -101,7 +112,9 @@ public class CarModelServiceImpl implements CarModelService {
 
         modelMapper.updateCarFromDto(request, model);
 
-        return modelMapper.toDto(carModelRepository.save(model));
+        CarModel saved = carModelRepository.save(model);
+        eventPublisher.publishEvent(new CarModelChangedEvent(modelId));
+        return modelMapper.toDto(saved);
     }
 
     @Override
@@ -109,6 +122,32 @@ public class CarModelServiceImpl implements CarModelService {
         return carModelRepository.findDistinctBodyTypes();
     }
 
+    @Override
+    public List<CarModelSearchResponse> searchModels(String query, boolean includeDeleted, Integer limit) {
+        String normalized = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+        // по одному символу триграммы ничего осмысленного не найдут
+        if (normalized.length() < MIN_SEARCH_LENGTH) {
+            return List.of();
+        }
+        String pattern = normalized
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        int size = Math.clamp(limit == null ? DEFAULT_SEARCH_LIMIT : limit, 1, MAX_SEARCH_LIMIT);
+
+        return carModelRepository.searchModels(normalized, pattern, includeDeleted, size).stream()
+                .map(row -> new CarModelSearchResponse(
+                        row.getModelId(),
+                        row.getBrand(),
+                        row.getModel(),
+                        row.getBodyType(),
+                        row.getCarClass(),
+                        row.getDeleted(),
+                        row.getScore()
+                ))
+                .toList();
+    }
+
     @Override
     public CarModel getCarModelById(Long modelId) {
         return carModelRepository.findByIdAndDeletedFalse(modelId)
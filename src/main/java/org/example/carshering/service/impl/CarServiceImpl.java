@@ -5,27 +5,47 @@ import org.example.carshering.dto.request.CarFilterRequest;
 import org.example.carshering.dto.request.create.CreateCarRequest;
 import org.example.carshering.dto.request.update.UpdateCarRequest;
 import org.example.carshering.dto.response.CarDetailResponse;
+import org.example.carshering.dto.response.CarFacetRow;
+import org.example.carshering.dto.response.CarFacetsResponse;
 import org.example.carshering.dto.response.CarListItemResponse;
 import org.example.carshering.dto.response.CarStateResponse;
+import org.example.carshering.dto.response.CursorPageResponse;
 import org.example.carshering.dto.response.MinMaxCellForFilters;
+import org.example.carshering.dto.response.PriceHistogramResponse;
 import org.example.carshering.entity.Car;
 import org.example.carshering.entity.CarModel;
 import org.example.carshering.entity.CarState;
+import org.example.carshering.event.CarChangedEvent;
+import org.example.carshering.event.CarStateChangedEvent;
 import org.example.carshering.exceptions.custom.*;
 import org.example.carshering.mapper.CarMapper;
+import org.example.carshering.repository.CarCatalogueRepository;
 import org.example.carshering.repository.CarRepository;
+import org.example.carshering.repository.CarScrollSort;
 import org.example.carshering.repository.FavoriteRepository;
+import org.example.carshering.service.domain.CarAvailabilityIndex;
+import org.example.carshering.service.domain.CarCatalogueProjector;
+import org.example.carshering.service.domain.CarFacetCalculator;
 import org.example.carshering.service.domain.CarModelHelperService;
+import org.example.carshering.service.domain.CarScrollCursor;
 import org.example.carshering.service.domain.CarStateServiceHelper;
+import org.example.carshering.service.domain.CatalogueCache;
+import org.example.carshering.service.domain.PageTotals;
+import org.example.carshering.service.domain.PageTotals.CountKey;
 import org.example.carshering.service.interfaces.CarService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -47,13 +67,43 @@ public class CarServiceImpl implements CarService {
             "model"
     );
 
+    // сортировки каталога (свойства Car) -> поля витрины car_catalogue
+    private static final Map<String, String> CATALOGUE_SORT_PROPERTIES = Map.ofEntries(
+            Map.entry("id", "carId"),
+            Map.entry("gosNumber", "gosNumber"),
+            Map.entry("yearOfIssue", "yearOfIssue"),
+            Map.entry("rent", "rent"),
+            Map.entry("model.bodyType", "bodyType"),
+            Map.entry("model.brand.name", "brand"),
+            Map.entry("model.model.name", "model"),
+            Map.entry("model.carClass.name", "carClass"),
+            Map.entry("car_class", "carClass"),
+            Map.entry("brand", "brand"),
+            Map.entry("model", "model")
+    );
+
+    private static final int MAX_SCROLL_SIZE = 100;
+    private static final int MAX_HISTOGRAM_BUCKETS = 50;
+    private static final Long[] NO_BOOKED_CARS = new Long[0];
+
     private static final String CAR_STATE_AVAILABLE = "AVAILABLE";
     private static final String CAR_STATE_UNAVAILABLE = "UNAVAILABLE";
+    private static final CarFilterRequest EMPTY_FILTER =
+            new CarFilterRequest(null, null, null, null, null, null, null, null, null, null, null);
 
     private final CarRepository carRepository;
     private final CarMapper carMapper;
     private final CarModelHelperService carModelService;
     private final CarStateServiceHelper carStateService;
+    private final CarAvailabilityIndex availabilityIndex;
+    private final CatalogueCache catalogueCache;
+    private final CarCatalogueRepository catalogueRepository;
+    private final CarCatalogueProjector catalogueProjector;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PageTotals pageTotals;
+
+    @Value("${catalogue.histogram.default-buckets:10}")
+    private int defaultHistogramBuckets = 10;
 
 
     @Override
@@ -76,7 +126,10 @@ public class CarServiceImpl implements CarService {
         car.setState(state);
 
 
-        CarDetailResponse carDetailResponse = carMapper.toDetailDto(carRepository.save(car), false, null);
+        Car saved = carRepository.save(car);
+        eventPublisher.publishEvent(new CarChangedEvent(saved.getId()));
+
+        CarDetailResponse carDetailResponse = carMapper.toDetailDto(saved, false, null);
         return carDetailResponse;
     }
 
@@ -102,15 +155,14 @@ public class CarServiceImpl implements CarService {
         carMapper.updateCar(car, request);
         String imageUrl = ((car.getImages() != null) && !car.getImages().isEmpty()) ? car.getImages().get(0).getUrl() : null;
 
-        if (request.modelId() == null) {
-            return carMapper.toDetailDto(carRepository.save(car), false, imageUrl);
+        if (request.modelId() != null) {
+            CarModel newModel = carModelService.getCarModelById(request.modelId());
+            car.setModel(newModel);
         }
 
-        CarModel newModel = carModelService.getCarModelById(request.modelId());
-
-        car.setModel(newModel);
-
-        return carMapper.toDetailDto(carRepository.save(car), false, imageUrl);
+        Car saved = carRepository.save(car);
+        eventPublisher.publishEvent(new CarChangedEvent(carId));
+        return carMapper.toDetailDto(saved, false, imageUrl);
     }
 
     @Transactional(readOnly = true)
@@ -158,6 +210,8 @@ public class CarServiceImpl implements CarService {
 
         car.setState(state);
         carRepository.save(car);
+        eventPublisher.publishEvent(new CarChangedEvent(carId));
+        eventPublisher.publishEvent(new CarStateChangedEvent(carId, state.getStatus()));
         return new CarStateResponse(state.getId(), carStateName);
     }
 
@@ -189,64 +243,221 @@ public class CarServiceImpl implements CarService {
 
 
     // todo объединить с методом в CarModelServiceImpl - подумать над этим
-    // todo сделать дополнительно фильтр по датам, используя ContractService - находить  машины, которые не забронированы и не арендованы в указанный период
     @Override
-    public Page<CarListItemResponse> getAllCars(Pageable pageable, CarFilterRequest filter) {
+    public Page<CarListItemResponse> getAllCars(Pageable pageable, CarFilterRequest filter, boolean withTotal) {
+        validateSortProperties(pageable.getSort());
+
+        CarFilterRequest normalized = normalizeFilterRequest(filter);
+
+        return catalogueCache.get(withTotal ? "page" : "page-without-total", normalized, pageable, () -> {
+            Long[] bookedCarIds = resolveBookedCarIds(normalized.dateStart(), normalized.dateEnd());
+            Slice<CarListItemResponse> cars = carRepository.findByFilter(
+                    normalized.brands(),
+                    normalized.models(),
+                    normalized.minYear(),
+                    normalized.maxYear(),
+                    normalized.bodyType(),
+                    normalized.carClasses(),
+                    normalized.carState(),
+                    bookedCarIds,
+                    normalized.minCell(),
+                    normalized.maxCell(),
+                    pageable
+            );
+            CountKey countKey = EMPTY_FILTER.equals(normalized)
+                    ? CountKey.unfiltered("cars", "car_rental.car")
+                    : CountKey.filtered("cars", normalized);
+
+            return pageTotals.toPage(cars, countKey, withTotal, () -> carRepository.countByFilter(
+                    normalized.brands(),
+                    normalized.models(),
+                    normalized.minYear(),
+                    normalized.maxYear(),
+                    normalized.bodyType(),
+                    normalized.carClasses(),
+                    normalized.carState(),
+                    bookedCarIds,
+                    normalized.minCell(),
+                    normalized.maxCell()
+            ));
+        });
+    }
+    @Override
+    public Page<CarListItemResponse> getCatalogue(Pageable pageable, CarFilterRequest filter) {
+        validateSortProperties(pageable.getSort());
+
+        CarFilterRequest normalized = normalizeFilterRequest(filter);
+        Pageable cataloguePageable = toCataloguePageable(pageable);
+
+        return catalogueCache.get("catalogue", normalized, pageable, () -> catalogueRepository.findByFilter(
+                normalized.brands(),
+                normalized.models(),
+                normalized.minYear(),
+                normalized.maxYear(),
+                normalized.bodyType(),
+                normalized.carClasses(),
+                normalized.carState(),
+                resolveBookedCarIds(normalized.dateStart(), normalized.dateEnd()),
+                normalized.minCell(),
+                normalized.maxCell(),
+                cataloguePageable
+        ).map(entry -> carMapper.toListItemDto(entry, false)));
+    }
+
+    @Override
+    public Page<CarListItemResponse> getCatalogue(Pageable pageable, CarFilterRequest filter, Long clientId) {
         validateSortProperties(pageable.getSort());
 
+        CarFilterRequest normalized = normalizeFilterRequest(filter);
+
+        // выдача зависит от клиента, поэтому в общий кэш каталога не попадает
+        return catalogueRepository.findByFilterWithFavorites(
+                normalized.brands(),
+                normalized.models(),
+                normalized.minYear(),
+                normalized.maxYear(),
+                normalized.bodyType(),
+                normalized.carClasses(),
+                normalized.carState(),
+                resolveBookedCarIds(normalized.dateStart(), normalized.dateEnd()),
+                normalized.minCell(),
+                normalized.maxCell(),
+                clientId,
+                toCataloguePageable(pageable)
+        );
+    }
+
+    @Override
+    @Transactional
+    public int rebuildCatalogue() {
+        int rows = catalogueProjector.rebuild();
+        catalogueCache.clear();
+        return rows;
+    }
+
+    @Override
+    public CursorPageResponse<CarListItemResponse> scrollCars(CarFilterRequest filter, Sort sort, int size, String after, Long clientId) {
+        Sort.Order order = sort.isSorted() ? sort.iterator().next() : Sort.Order.asc("id");
+        if (sort.stream().count() > 1) {
+            throw new InvalidDataException("Cursor pagination supports a single sort property");
+        }
+        CarScrollSort scrollSort = CarScrollSort.byProperty(order.getProperty())
+                .orElseThrow(() -> new InvalidQueryParameterException(order.getProperty()));
+        boolean descending = order.isDescending();
+        int pageSize = Math.clamp(size, 1, MAX_SCROLL_SIZE);
+
+        CarScrollCursor cursor = after == null || after.isBlank()
+                ? null
+                : CarScrollCursor.decode(after, scrollSort, descending);
+
         filter = normalizeFilterRequest(filter);
-        LocalDateTime dateStart = filter.dateStart();
-        LocalDateTime dateEnd = filter.dateEnd();
 
-        if (dateStart == null || dateEnd == null || dateStart.isAfter(dateEnd) || dateEnd.isAfter(LocalDateTime.now().plusYears(1))) {
-            dateStart = LocalDateTime.of(1000, 1, 1, 0, 0);
-            dateEnd = LocalDateTime.of(1000, 1, 2, 0, 0);
+        // берём на одну строку больше, чтобы узнать, есть ли следующая страница, без COUNT;
+        // читаем витрину car_catalogue, флаг избранного считается тем же запросом
+        List<CarListItemResponse> cars = catalogueRepository.findByFilterAfter(
+                filter,
+                resolveBookedCarIds(filter.dateStart(), filter.dateEnd()),
+                clientId,
+                scrollSort,
+                descending,
+                cursor == null ? null : cursor.value(),
+                cursor == null ? null : cursor.id(),
+                pageSize + 1
+        );
+
+        boolean hasNext = cars.size() > pageSize;
+        List<CarListItemResponse> page = hasNext ? cars.subList(0, pageSize) : cars;
+
+        String nextCursor = null;
+        if (hasNext) {
+            CarListItemResponse last = page.getLast();
+            nextCursor = new CarScrollCursor(scrollSort, descending, scrollSort.extract(last), last.id()).encode();
         }
 
-        return carRepository.findByFilter(
-                filter.brands(),
-                filter.models(),
-                filter.minYear(),
-                filter.maxYear(),
-                filter.bodyType(),
-                filter.carClasses(),
-                filter.carState(),
-                dateStart,
-                dateEnd,
-                filter.minCell(),
-                filter.maxCell(),
-                pageable
-        ).map(car -> carMapper.toListItemDto(car, false));
+        return new CursorPageResponse<>(
+                page,
+                nextCursor,
+                hasNext,
+                pageSize
+        );
     }
+
     @Override
     public MinMaxCellForFilters getMinMaxCell(CarFilterRequest filter) {
-        filter = normalizeFilterRequest(filter);
+        CarFilterRequest normalized = normalizeFilterRequest(filter);
+
+        return catalogueCache.get("min-max-cell", normalized, null, () -> catalogueRepository.findMinMaxPriceByFilter(
+                normalized.brands(),
+                normalized.models(),
+                normalized.minYear(),
+                normalized.maxYear(),
+                normalized.bodyType(),
+                normalized.carClasses(),
+                normalized.carState(),
+                resolveBookedCarIds(normalized.dateStart(), normalized.dateEnd())
+        ));
+    }
 
-        LocalDateTime dateStart = filter.dateStart();
-        LocalDateTime dateEnd = filter.dateEnd();
+    @Override
+    public CarFacetsResponse getFacets(CarFilterRequest filter) {
+        CarFilterRequest normalized = normalizeFilterRequest(filter);
+
+        return catalogueCache.get("facets", normalized, null, () -> {
+            // одним запросом берём машины, подходящие по статусу и датам, остальные измерения считаем в памяти
+            List<CarFacetRow> rows = catalogueRepository.findFacetRows(
+                    normalized.carState(),
+                    resolveBookedCarIds(normalized.dateStart(), normalized.dateEnd())
+            );
+            return CarFacetCalculator.compute(rows, normalized);
+        });
+    }
+
+    @Override
+    public PriceHistogramResponse getPriceHistogram(CarFilterRequest filter, Integer buckets) {
+        CarFilterRequest normalized = normalizeFilterRequest(filter);
+        int bucketCount = Math.clamp(buckets == null ? defaultHistogramBuckets : buckets, 1, MAX_HISTOGRAM_BUCKETS);
+
+        // строки те же, что и для фасетов: статус и даты в запросе, остальные фильтры в памяти
+        return catalogueCache.get("price-histogram", normalized, bucketCount, () -> CarFacetCalculator.priceHistogram(
+                catalogueRepository.findFacetRows(
+                        normalized.carState(),
+                        resolveBookedCarIds(normalized.dateStart(), normalized.dateEnd())
+                ),
+                normalized,
+                bucketCount
+        ));
+    }
 
-        if (dateStart == null || dateEnd == null) {
-            dateStart = LocalDateTime.of(1000, 1, 1, 0, 0);
-            dateEnd = LocalDateTime.of(1000, 1, 2, 0, 0);
+    // занятые машины уходят в запрос одним параметром-массивом, сколько бы их ни было;
+    // пустой массив - фильтр по датам не применяется (даты не заданы, некорректны или занятых нет)
+    private Long[] resolveBookedCarIds(LocalDateTime dateStart, LocalDateTime dateEnd) {
+        if (!hasDateWindow(dateStart, dateEnd)) {
+            return NO_BOOKED_CARS;
         }
-        return carRepository.findMinMaxPriceByFilter(
-                filter.brands(),
-                filter.models(),
-                filter.minYear(),
-                filter.maxYear(),
-                filter.bodyType(),
-                filter.carClasses(),
-                filter.carState(),
-                dateStart,
-                dateEnd
-        );
+        return availabilityIndex.findBookedCarIds(dateStart, dateEnd).toArray(NO_BOOKED_CARS);
+    }
+
+    private Pageable toCataloguePageable(Pageable pageable) {
+        Sort sort = Sort.by(pageable.getSort().stream()
+                .map(order -> order.withProperty(CATALOGUE_SORT_PROPERTIES.get(order.getProperty())))
+                .toList());
+        return pageable.isPaged()
+                ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort)
+                : Pageable.unpaged(sort);
+    }
+
+    private boolean hasDateWindow(LocalDateTime dateStart, LocalDateTime dateEnd) {
+        return dateStart != null && dateEnd != null && dateStart.isBefore(dateEnd)
+                && !dateEnd.isAfter(LocalDateTime.now().plusYears(1));
     }
 
+    // неприменимые даты обнуляются, чтобы такие запросы попадали в один ключ кэша
     private CarFilterRequest normalizeFilterRequest(CarFilterRequest filter) {
         List<String> brands = isEmpty(filter.brands()) ? null : filter.brands();
         List<String> models = isEmpty(filter.models()) ? null : filter.models();
         List<String> carClasses = isEmpty(filter.carClasses()) ? null : filter.carClasses();
         List<String> carStates = isEmpty(filter.carState()) ? null : filter.carState();
+        boolean dated = hasDateWindow(filter.dateStart(), filter.dateEnd());
 
         return new CarFilterRequest(
                 brands,
@@ -256,8 +467,8 @@ public class CarServiceImpl implements CarService {
                 filter.bodyType(),
                 carClasses,
                 carStates,
-                filter.dateStart(),
-                filter.dateEnd(),
+                dated ? filter.dateStart() : null,
+                dated ? filter.dateEnd() : null,
                 filter.minCell(),
                 filter.maxCell()
         );
@@ -15,9 +15,12 @@ import org.example.carshering.repository.ClientRepository;
 import org.example.carshering.service.interfaces.ClientService;
 import org.example.carshering.service.interfaces.EmailService;
 import org.example.carshering.service.domain.ContractServiceHelper;
+import org.example.carshering.service.domain.PageTotals;
+import org.example.carshering.service.domain.PageTotals.CountKey;
 import org.example.carshering.service.domain.RoleServiceHelper;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -37,6 +40,7 @@ public class ClientServiceImpl implements ClientService {
     private final ContractServiceHelper contractService;
     private final ClientRepository clientRepository;
     private final EmailService emailService;
+    private final PageTotals pageTotals;
 
     @Override
     public AllUserResponse findAllUser(Long userId) {
@@ -96,7 +100,7 @@ public class ClientServiceImpl implements ClientService {
     }
 
     @Override
-    public Page<ShortUserResponse> filterUsers(FilterUserRequest filter, Pageable pageable) {
+    public Page<ShortUserResponse> filterUsers(FilterUserRequest filter, Pageable pageable, boolean withTotal) {
 
         var availableBySort = Set.of("id", "email", "login", "banned", "role.name");
 
@@ -109,7 +113,13 @@ public class ClientServiceImpl implements ClientService {
         }
 
 
-        return clientRepository.findByFilter(filter.banned(), filter.roleName(), pageable)
+        Slice<Client> clients = clientRepository.findByFilter(filter.banned(), filter.roleName(), pageable);
+        CountKey countKey = filter.banned() == null && filter.roleName() == null
+                ? CountKey.unfiltered("clients", "car_rental.client")
+                : CountKey.filtered("clients", filter);
+
+        return pageTotals.toPage(clients, countKey, withTotal,
+                        () -> clientRepository.countByFilter(filter.banned(), filter.roleName()))
                 .map(clientMapper::toShortDtoForAdmin);
     }
 
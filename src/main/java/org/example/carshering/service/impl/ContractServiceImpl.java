@@ -3,53 +3,127 @@ package org.example.carshering.service.impl;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.carshering.dto.request.FilterContractRequest;
+import org.example.carshering.dto.request.create.CreateContractBatchRequest;
 import org.example.carshering.dto.request.create.CreateContractRequest;
 import org.example.carshering.dto.request.update.UpdateContractRequest;
+import org.example.carshering.dto.response.BookedInterval;
+import org.example.carshering.dto.response.CarCalendarResponse;
+import org.example.carshering.dto.response.ContractBatchResponse;
 import org.example.carshering.dto.response.ContractResponse;
+import org.example.carshering.dto.response.FreeSlotResponse;
+import org.example.carshering.dto.response.PriceQuoteBatchResponse;
+import org.example.carshering.dto.response.PriceQuoteResponse;
 import org.example.carshering.entity.Car;
 import org.example.carshering.entity.Client;
 import org.example.carshering.entity.Contract;
 import org.example.carshering.entity.RentalState;
+import org.example.carshering.event.ContractChangedEvent;
 import org.example.carshering.exceptions.custom.*;
 import org.example.carshering.mapper.ContractMapper;
+import org.example.carshering.repository.ContractBatchRepository;
+import org.example.carshering.repository.CarRepository.PricedCar;
 import org.example.carshering.repository.ContractRepository;
-import org.example.carshering.repository.RentalStateRepository;
+import org.example.carshering.service.domain.BatchBookingPlanner;
+import org.example.carshering.service.domain.CarAvailabilityIndex;
+import org.example.carshering.service.domain.CarCalendarCache;
 import org.example.carshering.service.domain.CarServiceHelperService;
 import org.example.carshering.service.domain.ClientServiceHelper;
 import org.example.carshering.service.domain.DocumentServiceHelper;
+import org.example.carshering.service.domain.FreeSlotFinder;
+import org.example.carshering.service.domain.OccupancyCalendar;
+import org.example.carshering.service.domain.PageTotals;
+import org.example.carshering.service.domain.PageTotals.CountKey;
+import org.example.carshering.service.domain.ReferenceDataRegistry;
 import org.example.carshering.service.domain.RentalDomainService;
+import org.example.carshering.service.domain.RetryingTransactionTemplate;
+import org.example.carshering.service.domain.TariffTable;
 import org.example.carshering.service.interfaces.ContractService;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ContractServiceImpl implements ContractService {
+    private static final String OVERLAP_CONSTRAINT = "ex_contract_car_period";
     private static final Set<String> ACTIVE_STATES = Set.of("ACTIVE", "PENDING", "CANCELLATION REQUESTED", "CONFIRMED");
+    private static final int DEFAULT_FREE_SLOTS = 5;
+    private static final int MAX_FREE_SLOTS = 20;
+    private static final int MAX_CALENDAR_CARS = 50;
+    private static final int MAX_QUOTE_CARS = 300;
+    private static final String CAR_STATE_UNAVAILABLE = "UNAVAILABLE";
+    private static final FilterContractRequest EMPTY_CONTRACT_FILTER =
+            new FilterContractRequest(null, null, null, null, null, null);
     private final ContractRepository contractRepository;
-    private final RentalStateRepository rentalStateRepository;
+    private final ContractBatchRepository contractBatchRepository;
+    private final ReferenceDataRegistry referenceData;
     private final ContractMapper contractMapper;
     private final ClientServiceHelper clientService;
     private final CarServiceHelperService carService;
     private final DocumentServiceHelper documentService;
     private final RentalDomainService rentalDomainService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CarCalendarCache calendarCache;
+    private final PageTotals pageTotals;
+    private final RetryingTransactionTemplate retryingTransaction;
+    private final PlatformTransactionManager transactionManager;
 
     private RentalState getStateByName(String name) {
-        return rentalStateRepository.findByNameIgnoreCase(name)
+        return referenceData.findRentalState(name)
                 .orElseThrow(() -> new NotFoundException("State " + name + " not found"));
     }
 
+    // flush сразу, чтобы нарушение ограничения пришло здесь, а не при коммите
+    private Contract saveBooking(Contract contract) {
+        try {
+            return contractRepository.saveAndFlush(contract);
+        } catch (DataIntegrityViolationException e) {
+            if (isOverlapViolation(e)) {
+                throw new CarUnavailableOnDatesException("The car is not available on the selected dates");
+            }
+            throw e;
+        }
+    }
+
+    private boolean isOverlapViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException cve
+                    && OVERLAP_CONSTRAINT.equalsIgnoreCase(cve.getConstraintName())) {
+                return true;
+            }
+            if (cause.getMessage() != null && cause.getMessage().contains(OVERLAP_CONSTRAINT)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private void ensureState(Contract contract, String expectedState) {
         if (!expectedState.equals(contract.getState().getName())) {
             throw new InvalidContractStateException("Status expected " + expectedState + "but current: "
@@ -58,12 +132,7 @@ public class ContractServiceImpl implements ContractService {
     }
 
 
-    @Override
-    @Transactional
-    public ContractResponse createContract(Long userId, CreateContractRequest request) {
-        if (!request.dataEnd().isAfter(request.dataStart())) {
-            throw new InvalidContractDateRangeException("The end date must be later than the start date");
-        }
+    private Client getBookingClient(Long userId) {
         Client client = clientService.getEntity(userId);
         if (!documentService.hasDocument(userId)) {
             throw new MissingClientDocumentException("The client must have a document uploaded");
@@ -71,68 +140,192 @@ public class ContractServiceImpl implements ContractService {
         if (!documentService.findDocument(userId).verified()) {
             throw new UnverifiedClientDocumentException("The document is not verified. Please wait for verification or attach the relevant document");
         }
+        return client;
+    }
 
-        Car car = carService.getEntityWithLock(request.carId());
 
-        if (!rentalDomainService.isCarAvailable(request.dataStart(), request.dataEnd(), car.getId(), null)) {
-            throw new CarUnavailableOnDatesException("The car is not available on the selected dates");
+    @Override
+    @Transactional
+    public ContractResponse createContract(Long userId, CreateContractRequest request) {
+        if (!request.dataEnd().isAfter(request.dataStart())) {
+            throw new InvalidContractDateRangeException("The end date must be later than the start date");
         }
+        Client client = getBookingClient(userId);
+
+        // блокировка машины и предварительная проверка не нужны: пересечение отсекает ограничение ex_contract_car_period;
+        // пакетная бронь, проверившая эту машину раньше нас, переживает такую гонку сама (см. createContracts)
+        Car car = carService.getEntity(request.carId());
+
         Contract contract = contractMapper.toEntity(request);
         contract.setClient(client);
         contract.setCar(car);
         contract.setTotalCost(rentalDomainService.calculateCost(car, request.dataStart(), request.dataEnd()));
         contract.setState(getStateByName("PENDING"));
-        return contractMapper.toDto(contractRepository.save(contract));
+        Contract saved = saveBooking(contract);
+        eventPublisher.publishEvent(ContractChangedEvent.of(saved));
+        return contractMapper.toDto(saved);
     }
 
     @Override
     @Transactional
-    public void cancelContract(Long userId, Long contractId) {
-        Contract contract = contractRepository.findById(contractId)
-                .orElseThrow(() -> new NotFoundException("Contract not found"));
+    public ContractBatchResponse createContracts(Long userId, CreateContractBatchRequest request) {
+        Client client = getBookingClient(userId);
+        List<CreateContractRequest> items = request.contracts();
+
+        // машины блокируются в порядке id: пакеты с общими машинами выполняются по очереди, без дедлоков
+        List<Long> carIds = items.stream().map(CreateContractRequest::carId).distinct().sorted().toList();
+        Map<Long, Car> cars = carService.getEntitiesWithLock(carIds).stream()
+                .collect(Collectors.toMap(Car::getId, car -> car));
+
+        // существующие брони всех машин пакета - одним запросом по общему периоду
+        BookedInterval span = BatchBookingPlanner.span(items);
+        List<BookedInterval> bookings = span == null || cars.isEmpty()
+                ? List.of()
+                : contractRepository.findBookedIntervalsInRange(
+                cars.keySet(), CarAvailabilityIndex.BLOCKING_STATES, span.dataStart(), span.dataEnd());
+
+        List<BatchBookingPlanner.Decision> decisions = BatchBookingPlanner.plan(items, cars.keySet(), bookings);
+        boolean anyRejected = decisions.stream().anyMatch(decision -> !decision.accepted());
+
+        List<ContractBatchResponse.ItemResult> results = new ArrayList<>(decisions.size());
+        if (request.atomic() && anyRejected) {
+            for (BatchBookingPlanner.Decision decision : decisions) {
+                results.add(new ContractBatchResponse.ItemResult(decision.index(), decision.request().carId(),
+                        decision.accepted() ? "SKIPPED" : "REJECTED", null, decision.error()));
+            }
+            return new ContractBatchResponse(0, (int) decisions.stream().filter(d -> !d.accepted()).count(), results);
+        }
 
-        log.info("Contract client id = {}, Current user id = {}",
-                contract.getClient().getId(), userId);
+        RentalState pending = getStateByName("PENDING");
+        List<Contract> contracts = new ArrayList<>();
+        for (BatchBookingPlanner.Decision decision : decisions) {
+            if (decision.accepted()) {
+                CreateContractRequest item = decision.request();
+                Car car = cars.get(item.carId());
+                Contract contract = contractMapper.toEntity(item);
+                contract.setClient(client);
+                contract.setCar(car);
+                contract.setTotalCost(rentalDomainService.calculateCost(car, item.dataStart(), item.dataEnd()));
+                contract.setState(pending);
+                contracts.add(contract);
+            }
+        }
 
-        if (!contract.getClient().getId().equals(userId)) {
-            throw new UnauthorizedContractAccessException("You can't terminate someone else's contract");
+        // одиночные брони и смена дат идут без блокировки машины, поэтому между проверкой выше и вставкой
+        // пересекающаяся бронь всё же может появиться - её отсекает ограничение ex_contract_car_period
+        Set<Contract> lost = Collections.newSetFromMap(new IdentityHashMap<>());
+        if (request.atomic()) {
+            try {
+                contractBatchRepository.insertAll(contracts);
+            } catch (DataIntegrityViolationException e) {
+                if (isOverlapViolation(e)) {
+                    throw new CarUnavailableOnDatesException("The car is not available on the selected dates");
+                }
+                throw e;
+            }
+        } else if (!insertUnderSavepoint(contracts)) {
+            // пакет откатан до точки сохранения: позиции вставляются по одной, проигравшие гонку отклоняются
+            for (Contract contract : contracts) {
+                if (!insertUnderSavepoint(List.of(contract))) {
+                    lost.add(contract);
+                }
+            }
+        }
+
+        Iterator<Contract> created = contracts.iterator();
+        int rejected = 0;
+        for (BatchBookingPlanner.Decision decision : decisions) {
+            if (decision.accepted()) {
+                Contract contract = created.next();
+                if (lost.contains(contract)) {
+                    rejected++;
+                    results.add(new ContractBatchResponse.ItemResult(decision.index(), decision.request().carId(),
+                            "REJECTED", null, BatchBookingPlanner.CAR_UNAVAILABLE));
+                    continue;
+                }
+                eventPublisher.publishEvent(ContractChangedEvent.of(contract));
+                results.add(new ContractBatchResponse.ItemResult(decision.index(), decision.request().carId(),
+                        "CREATED", contractMapper.toDto(contract), null));
+            } else {
+                rejected++;
+                results.add(new ContractBatchResponse.ItemResult(decision.index(), decision.request().carId(),
+                        "REJECTED", null, decision.error()));
+            }
         }
+        return new ContractBatchResponse(contracts.size() - lost.size(), rejected, results);
+    }
 
-        cancelContract(contract, false);
+    /**
+     * Вставляет контракты под точкой сохранения внутри текущей транзакции.
+     *
+     * @return false, если вставка нарушила ex_contract_car_period; тогда откатана только она
+     */
+    private boolean insertUnderSavepoint(List<Contract> contracts) {
+        TransactionTemplate savepoint = new TransactionTemplate(transactionManager);
+        savepoint.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+        try {
+            savepoint.executeWithoutResult(status -> contractBatchRepository.insertAll(contracts));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            if (isOverlapViolation(e)) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    // изменения контрактов ниже - с повтором при конфликте @Version, каждая попытка в своей транзакции
+    @Override
+    public void cancelContract(Long userId, Long contractId) {
+        retryingTransaction.executeWithoutResult("contract.cancel", () -> {
+            Contract contract = contractRepository.findById(contractId)
+                    .orElseThrow(() -> new NotFoundException("Contract not found"));
+
+            log.info("Contract client id = {}, Current user id = {}",
+                    contract.getClient().getId(), userId);
+
+            if (!contract.getClient().getId().equals(userId)) {
+                throw new UnauthorizedContractAccessException("You can't terminate someone else's contract");
+            }
+
+            cancelContract(contract, false);
+        });
     }
 
     // FIXME: сделать что-то типо подписи для админской отмены контракта, чтобы не любой админ мог отменять контракты
     @Override
-    @Transactional
     public void cancelContractByAdmin(Long contractId) {
-        Contract contract = contractRepository.findById(contractId)
-                .orElseThrow(() -> new NotFoundException("Contract not found"));
+        retryingTransaction.executeWithoutResult("contract.cancel-by-admin", () -> {
+            Contract contract = contractRepository.findById(contractId)
+                    .orElseThrow(() -> new NotFoundException("Contract not found"));
 
-        cancelContract(contract, true);
-        // админская отмена
+            cancelContract(contract, true);
+            // админская отмена
+        });
     }
 
     @Override
-    @Transactional
     public void confirmCancellationByAdmin(Long contractId) {
-        Contract contract = contractRepository.findById(contractId)
-                .orElseThrow(() -> new NotFoundException("Contract not found"));
+        retryingTransaction.executeWithoutResult("contract.confirm-cancellation", () -> {
+            Contract contract = contractRepository.findById(contractId)
+                    .orElseThrow(() -> new NotFoundException("Contract not found"));
 
-        if (!"CANCELLATION_REQUESTED".equals(contract.getState().getName())) {
-            throw new InvalidContractCancellationStateException("The contract is not at the cancellation request stage");
-        }
+            if (!"CANCELLATION_REQUESTED".equals(contract.getState().getName())) {
+                throw new InvalidContractCancellationStateException("The contract is not at the cancellation request stage");
+            }
 
-        contract.setState(getStateByName("CANCELLED"));
-        contractRepository.save(contract);
+            contract.setState(getStateByName("CANCELLED"));
+            contractRepository.saveAndFlush(contract);
+            eventPublisher.publishEvent(ContractChangedEvent.of(contract));
+        });
     }
 
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     public ContractResponse findContract(Long contractId, Long userId) {
         Contract contract = contractRepository.findByIdAndUserId(contractId, userId)
                 .orElseThrow(() -> new NotFoundException("Contract not found"));
-        setActive(contract);
 
         return contractMapper.toDto(contract);
     }
@@ -140,53 +333,60 @@ public class ContractServiceImpl implements ContractService {
     @Override
     public Page<ContractResponse> getAllClientContracts(Pageable pageable, Long userId) {
         return contractRepository.findByClientId(userId, pageable)
-                .map(this::activateIfDueForDto);
+                .map(contractMapper::toDto);
     }
 
     @Override
-    public Page<ContractResponse> getAllContracts(Pageable pageable, FilterContractRequest filter) {
-        return contractRepository.findAllByFilter(
+    public Page<ContractResponse> getAllContracts(Pageable pageable, FilterContractRequest filter, boolean withTotal) {
+        Slice<Contract> contracts = contractRepository.findAllByFilter(
+                filter.status(),
+                filter.idUser(),
+                filter.idCar(),
+                filter.brand(),
+                filter.bodyType(),
+                filter.carClass(),
+                pageable
+        );
+        CountKey countKey = EMPTY_CONTRACT_FILTER.equals(filter)
+                ? CountKey.unfiltered("contracts", "car_rental.contract")
+                : CountKey.filtered("contracts", filter);
+
+        return pageTotals.toPage(contracts, countKey, withTotal, () -> contractRepository.countByFilter(
                         filter.status(),
                         filter.idUser(),
                         filter.idCar(),
                         filter.brand(),
                         filter.bodyType(),
-                        filter.carClass(),
-                        pageable
-                )
-                .map(this::activateIfDueForDto);
+                        filter.carClass()
+                ))
+                .map(contractMapper::toDto);
     }
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     public ContractResponse getContractById(Long contractId) {
-
         Contract contract = contractRepository.findById(contractId)
                 .orElseThrow(() -> new NotFoundException("Contract not found"));
 
-        setActive(contract);
-
-
         return contractMapper.toDto(contract);
-        // todo планировщик, чтобы раз в N минут (например, каждые 5 минут) находить контракты, у которых dataStart <= NOW и статус = CONFIRMED, и активировать их.
-
-
     }
 
     @Override
-    @Transactional
     public ContractResponse confirmContract(Long contractId) {
-        Contract contract = contractRepository.findById(contractId)
-                .orElseThrow(() -> new NotFoundException("Contract not found"));
-
-        ensureState(contract, "PENDING");
-
-        contract.setState(getStateByName("CONFIRMED"));
-        Duration duration = Duration.between(contract.getDataStart(), contract.getDataEnd());
-        long minutes = Math.max(0, duration.toMinutes());
-        contract.setDurationMinutes(minutes);
-        contractRepository.save(contract);
-        return contractMapper.toDto(contract);
+        return retryingTransaction.execute("contract.confirm", () -> {
+            Contract contract = contractRepository.findById(contractId)
+                    .orElseThrow(() -> new NotFoundException("Contract not found"));
+
+            ensureState(contract, "PENDING");
+
+            contract.setState(getStateByName("CONFIRMED"));
+            Duration duration = Duration.between(contract.getDataStart(), contract.getDataEnd());
+            long minutes = Math.max(0, duration.toMinutes());
+            contract.setDurationMinutes(minutes);
+            contractRepository.saveAndFlush(contract);
+            eventPublisher.publishEvent(ContractChangedEvent.of(contract));
+            return contractMapper.toDto(contract);
+        });
     }
 
 
@@ -200,25 +400,118 @@ public class ContractServiceImpl implements ContractService {
 
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<FreeSlotResponse> findFreeSlots(Long carId, LocalDateTime from, Long durationMinutes, Integer count) {
+        if (durationMinutes == null || durationMinutes <= 0) {
+            throw new InvalidDataException("Duration must be a positive number of minutes");
+        }
+        carService.getEntity(carId);
 
-    private ContractResponse activateIfDueForDto(Contract contract) {
-
-        RentalState now = contract.getState();
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+        LocalDateTime start = from == null || from.isBefore(now) ? now : from;
+        int slots = Math.clamp(count == null ? DEFAULT_FREE_SLOTS : count, 1, MAX_FREE_SLOTS);
 
+        // одним запросом - брони машины, которые ещё не закончились к start, по возрастанию начала
+        List<BookedInterval> bookings = contractRepository.findCarBookedIntervalsEndingAfter(
+                carId, CarAvailabilityIndex.BLOCKING_STATES, start);
+        return FreeSlotFinder.find(bookings, start, Duration.ofMinutes(durationMinutes), slots);
+    }
 
-        if ("CONFIRMED".equals(contract.getState().getName()) &&
-                !contract.getDataStart().isAfter(LocalDateTime.now())) {
-            // В DTO временно меняем статус на ACTIVE (но не сохраняем в БД!)
+    @Override
+    @Transactional(readOnly = true)
+    public PriceQuoteResponse quote(Long carId, LocalDateTime start, LocalDateTime end) {
+        if (start == null || end == null || !end.isAfter(start)) {
+            throw new InvalidContractDateRangeException("The end date must be later than the start date");
+        }
+        Car car = carService.getEntity(carId);
+        // тот же расчёт, что и при создании контракта
+        TariffTable.Quote quote = rentalDomainService.quote(car, start, end);
+        return new PriceQuoteResponse(carId, start, end, quote.tariff(), quote.billedHours(),
+                quote.hourlyRate(), quote.durationMultiplier(), quote.total());
+    }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PriceQuoteBatchResponse quoteAll(List<Long> carIds, LocalDateTime start, LocalDateTime end) {
+        if (carIds == null || carIds.isEmpty() || carIds.size() > MAX_QUOTE_CARS) {
+            throw new InvalidDataException("Between 1 and " + MAX_QUOTE_CARS + " car IDs are required");
+        }
+        if (start == null || end == null || !end.isAfter(start)) {
+            throw new InvalidContractDateRangeException("The end date must be later than the start date");
+        }
+        Set<Long> requested = new LinkedHashSet<>(carIds);
+
+        // два запроса на весь список: ставки и тарифные ключи машин, затем их брони, пересекающие период
+        Map<Long, PricedCar> cars = carService.getPricedCars(requested).stream()
+                .collect(Collectors.toMap(PricedCar::getId, car -> car));
+        Set<Long> booked = cars.isEmpty()
+                ? Set.of()
+                : contractRepository.findBookedIntervalsInRange(
+                        cars.keySet(), CarAvailabilityIndex.BLOCKING_STATES, start, end)
+                .stream().map(BookedInterval::carId).collect(Collectors.toSet());
+
+        List<PriceQuoteBatchResponse.CarQuote> quotes = new ArrayList<>(cars.size());
+        List<Long> notFound = new ArrayList<>();
+        for (Long carId : requested) {
+            PricedCar car = cars.get(carId);
+            if (car == null) {
+                notFound.add(carId);
+                continue;
+            }
+            TariffTable.Quote quote = rentalDomainService.quote(
+                    car.getModelId(), car.getClassId(), car.getRent(), start, end);
+            boolean available = !booked.contains(carId) && !CAR_STATE_UNAVAILABLE.equals(car.getState());
+            quotes.add(new PriceQuoteBatchResponse.CarQuote(carId, available, car.getState(), quote.tariff(),
+                    quote.billedHours(), quote.hourlyRate(), quote.durationMultiplier(), quote.total()));
+        }
+        return new PriceQuoteBatchResponse(start, end, quotes, notFound);
+    }
 
-            contract.setState(getStateByName("ACTIVE"));
+    @Override
+    @Transactional(readOnly = true)
+    public CarCalendarResponse getCalendar(List<Long> carIds, YearMonth month, String granularity) {
+        if (carIds == null || carIds.isEmpty() || carIds.size() > MAX_CALENDAR_CARS) {
+            throw new InvalidDataException("Between 1 and " + MAX_CALENDAR_CARS + " car IDs are required");
+        }
+        OccupancyCalendar.Granularity step = OccupancyCalendar.Granularity.parse(granularity);
+
+        Map<Long, byte[]> bitmaps = new LinkedHashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long carId : new LinkedHashSet<>(carIds)) {
+            byte[] cached = calendarCache.get(carId, month, step);
+            if (cached != null) {
+                bitmaps.put(carId, cached);
+            } else {
+                bitmaps.put(carId, null);
+                missing.add(carId);
+            }
+        }
 
+        if (!missing.isEmpty()) {
+            long generation = calendarCache.generation();
+            // брони всех недостающих машин за месяц - одним запросом по диапазону
+            Map<Long, List<BookedInterval>> byCar = contractRepository.findBookedIntervalsInRange(
+                    missing,
+                    CarAvailabilityIndex.BLOCKING_STATES,
+                    month.atDay(1).atStartOfDay(),
+                    month.plusMonths(1).atDay(1).atStartOfDay()
+            ).stream().collect(Collectors.groupingBy(BookedInterval::carId));
+
+            for (Long carId : missing) {
+                byte[] bitmap = OccupancyCalendar.encode(byCar.getOrDefault(carId, List.of()), month, step);
+                calendarCache.put(carId, month, step, bitmap, generation);
+                bitmaps.put(carId, bitmap);
+            }
         }
-        ContractResponse dto = contractMapper.toDto(contract);
-        contract.setState(now); // возвращаем обратно
-        return dto;
+
+        Base64.Encoder encoder = Base64.getEncoder();
+        Map<Long, String> encoded = new LinkedHashMap<>();
+        bitmaps.forEach((carId, bitmap) -> encoded.put(carId, encoder.encodeToString(bitmap)));
+        return new CarCalendarResponse(month.toString(), step.name(), step.slotCount(month), encoded);
     }
 
+
     // FIXME: продумать логику отмены контракта
     // FIXME: аккуратно
     @Transactional
@@ -255,93 +548,44 @@ public class ContractServiceImpl implements ContractService {
 
         }
 
-        contractRepository.save(contract);
+        contractRepository.saveAndFlush(contract);
+        eventPublisher.publishEvent(ContractChangedEvent.of(contract));
     }
 
-    @Transactional
-    void setActive(Contract contract) {
-        if ("CONFIRMED".equals(contract.getState().getName()) &&
-                !contract.getDataStart().isAfter(LocalDateTime.now())) {
-            contract.setState(getStateByName("ACTIVE"));
-            contractRepository.save(contract);
-        }
-    }
-
-    @Transactional
-    @Scheduled(cron = "0 0 * * * *") // каждый час
-    public void setActive() {
-        LocalDateTime now = LocalDateTime.now();
-
-
-        List<Contract> contractsToActivate = contractRepository
-                .findAllByStateNameAndDataStartBefore("CONFIRMED", now);
-
-        if (contractsToActivate.isEmpty()) return;
-
-        RentalState activeState = getStateByName("ACTIVE");
-        for (Contract contract : contractsToActivate) {
-            contract.setState(activeState);
-        }
-        contractRepository.saveAll(contractsToActivate);
-    }
-
-    @Transactional
-    @Scheduled(cron = "0 0 * * * *") // каждый час
-    public void setCompleted() {
-        LocalDateTime now = LocalDateTime.now();
-
-
-        List<Contract> contractsToComplete = contractRepository
-                .findAllByStateNameAndDataEndBefore("ACTIVE", now);
-
-        if (contractsToComplete.isEmpty()) return;
-
-        RentalState completedState = getStateByName("COMPLETED");
-        for (Contract contract : contractsToComplete) {
-            contract.setState(completedState);
-        }
-        contractRepository.saveAll(contractsToComplete);
-    }
-
-
-
     @Override
-    @Transactional
     public ContractResponse updateContract(Long userId, Long contractId, UpdateContractRequest request) {
         if (!request.dataEnd().isAfter(request.dataStart())) {
             throw new InvalidContractDateRangeException("The end date must be later than the start date");
         }
 
-        Contract contract = contractRepository.findById(contractId)
-                .orElseThrow(() -> new NotFoundException("Contract not found"));
+        return retryingTransaction.execute("contract.update", () -> {
+            Contract contract = contractRepository.findById(contractId)
+                    .orElseThrow(() -> new NotFoundException("Contract not found"));
 
-        if (!contract.getClient().getId().equals(userId)) {
-            throw new UnauthorizedContractAccessException("You can't terminate someone else's contract");
-        }
-
-        String currentState = contract.getState().getName();
-        if (!"PENDING".equals(currentState) && !"CONFIRMED".equals(currentState)) {
-            throw new CannotCancelCompletedContractException("The change is only available for contracts in the status PENDING or CONFIRMED");
-        }
+            if (!contract.getClient().getId().equals(userId)) {
+                throw new UnauthorizedContractAccessException("You can't terminate someone else's contract");
+            }
 
-        if (!rentalDomainService.isCarAvailable(
-                request.dataStart(),
-                request.dataEnd(),
-                contract.getCar().getId(),
-                contract.getId())) {
-            throw new CarUnavailableOnDatesException("The car is not available on the selected dates");
-        }
+            String currentState = contract.getState().getName();
+            if (!"PENDING".equals(currentState) && !"CONFIRMED".equals(currentState)) {
+                throw new CannotCancelCompletedContractException("The change is only available for contracts in the status PENDING or CONFIRMED");
+            }
 
-        contractMapper.updateContractFromRequest(request, contract);
+            LocalDateTime previousStart = contract.getDataStart();
+            LocalDateTime previousEnd = contract.getDataEnd();
+            contractMapper.updateContractFromRequest(request, contract);
 
 
-        contract.setTotalCost(rentalDomainService.calculateCost(
-                contract.getCar(),
-                contract.getDataStart(),
-                contract.getDataEnd()
-        ));
+            contract.setTotalCost(rentalDomainService.calculateCost(
+                    contract.getCar(),
+                    contract.getDataStart(),
+                    contract.getDataEnd()
+            ));
 
-        return contractMapper.toDto(contractRepository.save(contract));
+            Contract saved = saveBooking(contract);
+            eventPublisher.publishEvent(ContractChangedEvent.of(saved, previousStart, previousEnd));
+            return contractMapper.toDto(saved);
+        });
     }
 
 
@@ -16,6 +16,8 @@ import org.example.carshering.repository.DocumentRepository;
 import org.example.carshering.service.interfaces.DocumentService;
 import org.example.carshering.service.domain.ClientServiceHelper;
 import org.example.carshering.service.domain.DocumentTypeServiceHelper;
+import org.example.carshering.service.domain.PageTotals;
+import org.example.carshering.service.domain.PageTotals.CountKey;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -30,6 +32,7 @@ public class DocumentServiceImpl implements DocumentService {
     private final DocumentRepository documentRepository;
 
     private final ClientServiceHelper clientService;
+    private final PageTotals pageTotals;
 
     @Override
     @Transactional
@@ -129,15 +132,15 @@ public class DocumentServiceImpl implements DocumentService {
     }
 
     @Override
-    public Page<DocumentResponse> getAllDocuments(boolean onlyUnverified, Pageable pageable) {
+    public Page<DocumentResponse> getAllDocuments(boolean onlyUnverified, Pageable pageable, boolean withTotal) {
         Page<Document> documents = onlyUnverified
-                ? documentRepository.findByVerifiedIsFalse(pageable)
-                : documentRepository.findAll(pageable);
+                ? pageTotals.toPage(documentRepository.findByVerifiedIsFalse(pageable),
+                CountKey.filtered("documents", "unverified"), withTotal, documentRepository::countByVerifiedIsFalse)
+                : pageTotals.toPage(documentRepository.findAllBy(pageable),
+                CountKey.unfiltered("documents", "car_rental.document"), withTotal, documentRepository::count);
 
         return documents
-
-                .map(documentMapper::toDto)
-                ;
+                .map(documentMapper::toDto);
     }
 
     @Override
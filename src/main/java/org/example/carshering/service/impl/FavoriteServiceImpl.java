@@ -90,10 +90,7 @@ public class FavoriteServiceImpl implements FavoriteService {
 
     @Override
     public Set<Long> getAllFavoriteCarIds(Long clientId) {
-        List<Favorite> list = favoriteRepository.findByClientId(clientId);
-        return list.stream()
-                .map(favorite -> favorite.getCar().getId())
-                .collect(java.util.stream.Collectors.toSet());
+        return favoriteRepository.findCarIdsByClientId(clientId);
     }
 
 
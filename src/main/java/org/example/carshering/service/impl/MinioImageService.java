@@ -7,10 +7,12 @@ import io.minio.http.Method;
 import lombok.RequiredArgsConstructor;
 import org.example.carshering.entity.Car;
 import org.example.carshering.entity.Image;
+import org.example.carshering.event.CarChangedEvent;
 import org.example.carshering.repository.CarRepository;
 import org.example.carshering.repository.ImageRepository;
 import org.example.carshering.service.interfaces.ImageService;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -23,6 +25,7 @@ public class MinioImageService implements ImageService {
     private final MinioClient minioClient;
     private final ImageRepository imageRepository;
     private final CarRepository carRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${minio.bucket}")
     private String bucket;
@@ -64,7 +67,9 @@ public class MinioImageService implements ImageService {
                     .car(car)
                     .build();
 
-            return imageRepository.save(img);
+            Image saved = imageRepository.save(img);
+            eventPublisher.publishEvent(new CarChangedEvent(carId));
+            return saved;
 
         } catch (Exception e) {
             throw new RuntimeException("Failed to upload file", e);
@@ -0,0 +1,134 @@
+package org.example.carshering.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.example.carshering.dto.request.TariffRequest;
+import org.example.carshering.dto.response.TariffResponse;
+import org.example.carshering.entity.Tariff;
+import org.example.carshering.event.TariffChangedEvent;
+import org.example.carshering.exceptions.custom.BusinessConflictException;
+import org.example.carshering.exceptions.custom.InvalidDataException;
+import org.example.carshering.exceptions.custom.NotFoundException;
+import org.example.carshering.repository.CarClassRepository;
+import org.example.carshering.repository.CarModelRepository;
+import org.example.carshering.repository.TariffRepository;
+import org.example.carshering.service.domain.TariffTable;
+import org.example.carshering.service.interfaces.TariffService;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class TariffServiceImpl implements TariffService {
+
+    private final TariffRepository tariffRepository;
+    private final CarClassRepository carClassRepository;
+    private final CarModelRepository carModelRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TariffResponse> findAll() {
+        return tariffRepository.findAllByOrderByIdAsc().stream()
+                .map(TariffServiceImpl::toDto)
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public TariffResponse createTariff(TariffRequest request) {
+        Tariff tariff = new Tariff();
+        apply(request, tariff);
+        return save(tariff);
+    }
+
+    @Override
+    @Transactional
+    public TariffResponse updateTariff(Long tariffId, TariffRequest request) {
+        Tariff tariff = getEntity(tariffId);
+        apply(request, tariff);
+        return save(tariff);
+    }
+
+    @Override
+    @Transactional
+    public void deactivateTariff(Long tariffId) {
+        Tariff tariff = getEntity(tariffId);
+        if (tariff.isActive()) {
+            tariff.setActive(false);
+            eventPublisher.publishEvent(new TariffChangedEvent(tariffId));
+        }
+    }
+
+    private Tariff getEntity(Long tariffId) {
+        return tariffRepository.findById(tariffId)
+                .orElseThrow(() -> new NotFoundException("Tariff not found"));
+    }
+
+    private void apply(TariffRequest request, Tariff tariff) {
+        if (request.carClassId() != null && request.carModelId() != null) {
+            throw new InvalidDataException("A tariff applies either to a car class or to a car model, not both");
+        }
+        if (request.carClassId() != null && !carClassRepository.existsById(request.carClassId())) {
+            throw new NotFoundException("Car Class Not Found");
+        }
+        if (request.carModelId() != null && !carModelRepository.existsById(request.carModelId())) {
+            throw new NotFoundException("Car Model Not Found");
+        }
+        List<TariffRequest.HourRule> hourRules = request.hourRules() == null ? List.of() : request.hourRules();
+        List<TariffRequest.DurationTier> tiers = request.durationTiers() == null ? List.of() : request.durationTiers();
+
+        // пробная компиляция: в базу не попадёт тариф, который движок не сможет применить
+        TariffTable.compile(
+                request.name(),
+                hourRules.stream()
+                        .map(r -> new TariffTable.HourRule(r.dayOfWeek(), r.hourFrom(), r.hourTo(), r.multiplier()))
+                        .toList(),
+                tiers.stream()
+                        .map(t -> new TariffTable.DurationTier(t.minHours(), t.multiplier()))
+                        .toList());
+
+        tariff.setName(request.name());
+        tariff.setCarClassId(request.carClassId());
+        tariff.setCarModelId(request.carModelId());
+        tariff.setActive(true);
+        tariff.setHourRules(new ArrayList<>(hourRules.stream()
+                .map(r -> new Tariff.HourRule(r.dayOfWeek(), r.hourFrom(), r.hourTo(), r.multiplier()))
+                .toList()));
+        tariff.setDurationTiers(new ArrayList<>(tiers.stream()
+                .map(t -> new Tariff.DurationTier(t.minHours(), t.multiplier()))
+                .toList()));
+    }
+
+    private TariffResponse save(Tariff tariff) {
+        Tariff saved;
+        try {
+            saved = tariffRepository.saveAndFlush(tariff);
+        } catch (DataIntegrityViolationException e) {
+            // uq_tariff_active_*: на модель, класс и по умолчанию - не больше одного активного тарифа
+            throw new BusinessConflictException("An active tariff for this car model or class already exists");
+        }
+        eventPublisher.publishEvent(new TariffChangedEvent(saved.getId()));
+        return toDto(saved);
+    }
+
+    private static TariffResponse toDto(Tariff tariff) {
+        return new TariffResponse(
+                tariff.getId(),
+                tariff.getName(),
+                tariff.getCarClassId(),
+                tariff.getCarModelId(),
+                tariff.isActive(),
+                tariff.getHourRules().stream()
+                        .map(r -> new TariffRequest.HourRule(r.getDayOfWeek(), r.getHourFrom(), r.getHourTo(), r.getMultiplier()))
+                        .toList(),
+                tariff.getDurationTiers().stream()
+                        .map(t -> new TariffRequest.DurationTier(t.getMinHours(), t.getMultiplier()))
+                        .toList()
+        );
+    }
+}
@@ -4,6 +4,7 @@ import org.example.carshering.dto.request.FilterCarModelRequest;
 import org.example.carshering.dto.request.create.CreateCarModelRequest;
 import org.example.carshering.dto.request.update.UpdateCarModelRequest;
 import org.example.carshering.dto.response.CarModelResponse;
+import org.example.carshering.dto.response.CarModelSearchResponse;
 import org.example.carshering.entity.CarModel;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -27,4 +28,6 @@ public interface CarModelService {
 
     List<String> findAllBodyTypes();
 
+    List<CarModelSearchResponse> searchModels(String query, boolean includeDeleted, Integer limit);
+
 }
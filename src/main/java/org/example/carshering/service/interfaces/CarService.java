@@ -4,12 +4,16 @@ import org.example.carshering.dto.request.CarFilterRequest;
 import org.example.carshering.dto.request.create.CreateCarRequest;
 import org.example.carshering.dto.request.update.UpdateCarRequest;
 import org.example.carshering.dto.response.CarDetailResponse;
+import org.example.carshering.dto.response.CarFacetsResponse;
 import org.example.carshering.dto.response.CarListItemResponse;
 import org.example.carshering.dto.response.CarStateResponse;
+import org.example.carshering.dto.response.CursorPageResponse;
 import org.example.carshering.dto.response.MinMaxCellForFilters;
+import org.example.carshering.dto.response.PriceHistogramResponse;
 import org.example.carshering.entity.Car;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.transaction.annotation.Transactional;
 
 public interface CarService  {
@@ -17,7 +21,15 @@ public interface CarService  {
     @Transactional(readOnly = true)
     CarDetailResponse getCarById(Long carId);
 
-    Page<CarListItemResponse> getAllCars(Pageable pageable, CarFilterRequest filter);
+    Page<CarListItemResponse> getAllCars(Pageable pageable, CarFilterRequest filter, boolean withTotal);
+
+    Page<CarListItemResponse> getCatalogue(Pageable pageable, CarFilterRequest filter);
+
+    Page<CarListItemResponse> getCatalogue(Pageable pageable, CarFilterRequest filter, Long clientId);
+
+    int rebuildCatalogue();
+
+    CursorPageResponse<CarListItemResponse> scrollCars(CarFilterRequest filter, Sort sort, int size, String after, Long clientId);
 
     Car getEntity(Long carId);
 
@@ -34,4 +46,8 @@ public interface CarService  {
     void deleteCar(Long carId);
 
     MinMaxCellForFilters getMinMaxCell(CarFilterRequest filter);
+
+    CarFacetsResponse getFacets(CarFilterRequest filter);
+
+    PriceHistogramResponse getPriceHistogram(CarFilterRequest filter, Integer buckets);
 }
@@ -38,7 +38,7 @@ public interface ClientService {
     @Transactional
     AllUserResponse updateRole(Long userId, String roleName);
 
-    Page<ShortUserResponse> filterUsers(FilterUserRequest filter, Pageable pageable);
+    Page<ShortUserResponse> filterUsers(FilterUserRequest filter, Pageable pageable, boolean withTotal);
 
     @Transactional
     VerifyStatusResponse verifyEmail(Long userId);
@@ -1,17 +1,29 @@
 package org.example.carshering.service.interfaces;
 
+import org.example.carshering.dto.request.create.CreateContractBatchRequest;
 import org.example.carshering.dto.request.create.CreateContractRequest;
 import org.example.carshering.dto.request.FilterContractRequest;
 import org.example.carshering.dto.request.update.UpdateContractRequest;
+import org.example.carshering.dto.response.CarCalendarResponse;
+import org.example.carshering.dto.response.ContractBatchResponse;
 import org.example.carshering.dto.response.ContractResponse;
+import org.example.carshering.dto.response.FreeSlotResponse;
+import org.example.carshering.dto.response.PriceQuoteBatchResponse;
+import org.example.carshering.dto.response.PriceQuoteResponse;
 import org.example.carshering.entity.Client;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
 public interface ContractService {
 
     ContractResponse createContract(Long userId, CreateContractRequest request);
 
+    ContractBatchResponse createContracts(Long userId, CreateContractBatchRequest request);
+
     void cancelContract(Long userId, Long contractId);
 
     void cancelContractByAdmin(Long contractId);
@@ -22,7 +34,7 @@ public interface ContractService {
 
     Page<ContractResponse> getAllClientContracts(Pageable pageable, Long userId);
 
-    Page<ContractResponse> getAllContracts(Pageable pageable, FilterContractRequest filter);
+    Page<ContractResponse> getAllContracts(Pageable pageable, FilterContractRequest filter, boolean withTotal);
 
     ContractResponse getContractById(Long contractId);
 
@@ -31,4 +43,12 @@ public interface ContractService {
     ContractResponse updateContract(Long userId, Long contractId, UpdateContractRequest request);
 
     void checkAndAllActiveContractsByClient(Client client);
+
+    List<FreeSlotResponse> findFreeSlots(Long carId, LocalDateTime from, Long durationMinutes, Integer count);
+
+    CarCalendarResponse getCalendar(List<Long> carIds, YearMonth month, String granularity);
+
+    PriceQuoteResponse quote(Long carId, LocalDateTime start, LocalDateTime end);
+
+    PriceQuoteBatchResponse quoteAll(List<Long> carIds, LocalDateTime start, LocalDateTime end);
 }
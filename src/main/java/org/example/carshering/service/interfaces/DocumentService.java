@@ -18,7 +18,7 @@ public interface DocumentService {
 
     void verifyDocument(Long documentId);
 
-    Page<DocumentResponse> getAllDocuments(boolean onlyUnverified, Pageable pageable);
+    Page<DocumentResponse> getAllDocuments(boolean onlyUnverified, Pageable pageable, boolean withTotal);
 
     void deleteDocument(Long userId);
 }
@@ -0,0 +1,17 @@
+package org.example.carshering.service.interfaces;
+
+import org.example.carshering.dto.request.TariffRequest;
+import org.example.carshering.dto.response.TariffResponse;
+
+import java.util.List;
+
+public interface TariffService {
+
+    List<TariffResponse> findAll();
+
+    TariffResponse createTariff(TariffRequest request);
+
+    TariffResponse updateTariff(Long tariffId, TariffRequest request);
+
+    void deactivateTariff(Long tariffId);
+}
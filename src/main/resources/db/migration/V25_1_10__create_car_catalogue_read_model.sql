@@ -0,0 +1,40 @@
+-- Денормализованная витрина каталога: одна строка на машину, без join'ов при чтении.
+-- Поддерживается приложением (CarCatalogueProjector), полностью пересобирается через
+-- POST /api/admin/cars/catalogue/rebuild.
+CREATE TABLE car_rental.car_catalogue
+(
+    car_id        BIGINT       NOT NULL,
+    gos_number    VARCHAR(255) NOT NULL,
+    brand         VARCHAR(255) NOT NULL,
+    model         VARCHAR(255) NOT NULL,
+    car_class     VARCHAR(255),
+    body_type     VARCHAR(255),
+    status        VARCHAR(255) NOT NULL,
+    rent          DOUBLE PRECISION,
+    year_of_issue INTEGER,
+    image_url     TEXT,
+    CONSTRAINT pk_car_catalogue PRIMARY KEY (car_id),
+    CONSTRAINT fk_car_catalogue_on_car FOREIGN KEY (car_id) REFERENCES car_rental.car (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_car_catalogue_status_brand ON car_rental.car_catalogue (status, brand);
+CREATE INDEX idx_car_catalogue_status_rent ON car_rental.car_catalogue (status, rent);
+
+INSERT INTO car_rental.car_catalogue (car_id, gos_number, brand, model, car_class, body_type, status, rent,
+                                      year_of_issue, image_url)
+SELECT c.id,
+       c.gos_number,
+       b.name,
+       m.name,
+       cc.name,
+       cm.body_type,
+       cs.status,
+       c.rent,
+       c.year_of_issue,
+       (SELECT i.url FROM car_rental.images i WHERE i.car_id = c.id ORDER BY i.id LIMIT 1)
+FROM car_rental.car c
+         JOIN car_rental.car_model cm ON cm.id_model = c.model_id
+         JOIN car_rental.brands b ON b.id = cm.brand_id
+         JOIN car_rental.models m ON m.id = cm.model_id
+         LEFT JOIN car_rental.car_classes cc ON cc.id = cm.car_class_id
+         JOIN car_rental.car_state cs ON cs.id = c.state_id;
@@ -0,0 +1,5 @@
+-- Планировщик переводит контракты пачками: state_id = ? AND data_start <= ? (CONFIRMED -> ACTIVE)
+-- и state_id = ? AND data_end <= ? (ACTIVE -> COMPLETED). Равенство по статусу идёт первым столбцом,
+-- диапазон по дате - вторым; существующий idx_contract_datastart_state устроен наоборот.
+CREATE INDEX idx_contract_state_datastart ON car_rental.contract (state_id, data_start);
+CREATE INDEX idx_contract_state_dataend ON car_rental.contract (state_id, data_end);
@@ -0,0 +1,46 @@
+-- Тарифы: множители по часам недели и скидки за длительность поверх почасовой ставки машины (car.rent).
+-- Тариф задаётся для модели, для класса машин или по умолчанию (оба поля пустые);
+-- в каждой из этих областей действует не больше одного активного тарифа.
+CREATE TABLE car_rental.tariff
+(
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    name         VARCHAR(100)                            NOT NULL,
+    car_class_id BIGINT,
+    car_model_id BIGINT,
+    active       BOOLEAN                                 NOT NULL DEFAULT TRUE,
+    CONSTRAINT pk_tariff PRIMARY KEY (id),
+    CONSTRAINT fk_tariff_car_class FOREIGN KEY (car_class_id) REFERENCES car_rental.car_classes (id),
+    CONSTRAINT fk_tariff_car_model FOREIGN KEY (car_model_id) REFERENCES car_rental.car_model (id_model),
+    CONSTRAINT ck_tariff_single_scope CHECK (car_class_id IS NULL OR car_model_id IS NULL)
+);
+
+CREATE UNIQUE INDEX uq_tariff_active_model ON car_rental.tariff (car_model_id)
+    WHERE active AND car_model_id IS NOT NULL;
+CREATE UNIQUE INDEX uq_tariff_active_class ON car_rental.tariff (car_class_id)
+    WHERE active AND car_class_id IS NOT NULL;
+CREATE UNIQUE INDEX uq_tariff_active_default ON car_rental.tariff ((TRUE))
+    WHERE active AND car_class_id IS NULL AND car_model_id IS NULL;
+
+-- множитель для часов [hour_from, hour_to) дня недели (1 - понедельник; NULL - каждый день);
+-- hour_from > hour_to - интервал через полночь. Правила применяются по порядку position, позднее перекрывает раннее
+CREATE TABLE car_rental.tariff_hour_rule
+(
+    tariff_id   BIGINT           NOT NULL,
+    position    INTEGER          NOT NULL,
+    day_of_week SMALLINT,
+    hour_from   SMALLINT         NOT NULL,
+    hour_to     SMALLINT         NOT NULL,
+    multiplier  DOUBLE PRECISION NOT NULL,
+    CONSTRAINT pk_tariff_hour_rule PRIMARY KEY (tariff_id, position),
+    CONSTRAINT fk_tariff_hour_rule_tariff FOREIGN KEY (tariff_id) REFERENCES car_rental.tariff (id) ON DELETE CASCADE
+);
+
+-- множитель всей стоимости для аренды от min_hours часов; действует ступень с наибольшим подходящим min_hours
+CREATE TABLE car_rental.tariff_duration_tier
+(
+    tariff_id  BIGINT           NOT NULL,
+    min_hours  INTEGER          NOT NULL,
+    multiplier DOUBLE PRECISION NOT NULL,
+    CONSTRAINT pk_tariff_duration_tier PRIMARY KEY (tariff_id, min_hours),
+    CONSTRAINT fk_tariff_duration_tier_tariff FOREIGN KEY (tariff_id) REFERENCES car_rental.tariff (id) ON DELETE CASCADE
+);
@@ -0,0 +1,17 @@
+-- Повторы доставки outbox с отсрочкой и парковкой.
+-- next_attempt_at - раньше этого момента событие (и следующие события его агрегата) не доставляются;
+-- parked_at - событие исчерпало попытки и больше не доставляется, ждёт разбора вручную.
+ALTER TABLE car_rental.outbox_event
+    ADD COLUMN next_attempt_at TIMESTAMP WITHOUT TIME ZONE,
+    ADD COLUMN parked_at       TIMESTAMP WITHOUT TIME ZONE;
+
+-- припаркованные события релей больше не читает
+DROP INDEX car_rental.idx_outbox_event_unpublished;
+CREATE INDEX idx_outbox_event_unpublished ON car_rental.outbox_event (id)
+    WHERE published_at IS NULL AND parked_at IS NULL;
+
+-- проверка, не отложено ли более раннее событие того же агрегата
+CREATE INDEX idx_outbox_event_aggregate_pending ON car_rental.outbox_event (aggregate_type, aggregate_id, id)
+    WHERE published_at IS NULL AND parked_at IS NULL AND next_attempt_at IS NOT NULL;
+
+CREATE INDEX idx_outbox_event_parked ON car_rental.outbox_event (parked_at) WHERE parked_at IS NOT NULL;
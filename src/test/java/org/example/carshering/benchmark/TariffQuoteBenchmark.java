@@ -0,0 +1,89 @@
+package org.example.carshering.benchmark;
+
+import org.example.carshering.service.domain.TariffTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность расчёта цены по скомпилированному тарифу.
+ * <p>
+ * Стоимость расчёта не должна зависеть от длины аренды: {@code rentalHours} от часа до квартала.
+ * Запуск:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=org.example.carshering.benchmark.TariffQuoteBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TariffQuoteBenchmark {
+
+    private static final int STARTS = 1024;
+
+    @Param({"1", "48", "2200"})
+    public int rentalHours;
+
+    private TariffTable table;
+    private LocalDateTime[] starts;
+    private LocalDateTime[] ends;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        table = TariffTable.compile("benchmark",
+                List.of(
+                        new TariffTable.HourRule(null, 8, 10, 1.2),
+                        new TariffTable.HourRule(null, 17, 20, 1.3),
+                        new TariffTable.HourRule(null, 23, 6, 0.8),
+                        new TariffTable.HourRule(5, 18, 24, 1.5),
+                        new TariffTable.HourRule(6, 0, 24, 1.4),
+                        new TariffTable.HourRule(7, 0, 24, 1.4)
+                ),
+                List.of(
+                        new TariffTable.DurationTier(24, 0.95),
+                        new TariffTable.DurationTier(72, 0.9),
+                        new TariffTable.DurationTier(168, 0.8),
+                        new TariffTable.DurationTier(720, 0.7)
+                ));
+        starts = new LocalDateTime[STARTS];
+        ends = new LocalDateTime[STARTS];
+        LocalDateTime base = LocalDateTime.of(2030, 1, 7, 0, 0);
+        for (int i = 0; i < STARTS; i++) {
+            // разные часы недели, чтобы не мерить один и тот же отрезок префиксов
+            starts[i] = base.plusMinutes(i * 97L);
+            ends[i] = starts[i].plusHours(rentalHours);
+        }
+    }
+
+    @Benchmark
+    public double quote() {
+        int i = next++ & (STARTS - 1);
+        return table.quote(1500.0, starts[i], ends[i]).total();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TariffQuoteBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
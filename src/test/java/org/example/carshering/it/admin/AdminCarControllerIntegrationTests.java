@@ -10,6 +10,7 @@ import org.example.carshering.dto.response.CarStateResponse;
 import org.example.carshering.entity.*;
 import org.example.carshering.it.BaseWebIntegrateTest;
 import org.example.carshering.repository.*;
+import org.example.carshering.service.domain.CatalogueCache;
 import org.example.carshering.util.DataUtils;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -85,9 +86,13 @@ public class AdminCarControllerIntegrationTests extends BaseWebIntegrateTest {
         jdbcTemplate.execute("ALTER SEQUENCE car_rental.car_classes_id_seq RESTART WITH 1");
     }
 
+    @Autowired
+    private CatalogueCache catalogueCache;
+
     @BeforeEach
     @Transactional
     public void setup() {
+        catalogueCache.clear();
         carRepository.deleteAll();
         carStateRepository.deleteAll();
         carModelRepository.deleteAll();
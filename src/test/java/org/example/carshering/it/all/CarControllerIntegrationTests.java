@@ -4,6 +4,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.example.carshering.entity.*;
 import org.example.carshering.it.BaseWebIntegrateTest;
 import org.example.carshering.repository.*;
+import org.example.carshering.service.domain.CatalogueCache;
+import org.example.carshering.service.domain.FilterDictionaryCache;
 import org.example.carshering.util.DataUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -73,9 +75,20 @@ public class CarControllerIntegrationTests extends BaseWebIntegrateTest {
         jdbcTemplate.execute("ALTER SEQUENCE car_rental.car_classes_id_seq RESTART WITH 1");
     }
 
+    @Autowired
+    private CatalogueCache catalogueCache;
+
+    @Autowired
+    private CarCatalogueRepository catalogueRepository;
+
+    @Autowired
+    private FilterDictionaryCache filterDictionaryCache;
+
     @BeforeEach
     @Transactional
     public void setup() {
+        catalogueCache.clear();
+        filterDictionaryCache.invalidate();
         carRepository.deleteAll();
         carStateRepository.deleteAll();
         carModelRepository.deleteAll();
@@ -158,6 +171,7 @@ public class CarControllerIntegrationTests extends BaseWebIntegrateTest {
         carRepository.save(car2);
 
         // when
+        catalogueRepository.refreshAll();
         ResultActions resultActions = mockMvc.perform(get(apiUrl + "/catalogue")
                 .contentType(MediaType.APPLICATION_JSON));
 
@@ -189,6 +203,7 @@ public class CarControllerIntegrationTests extends BaseWebIntegrateTest {
         carRepository.save(car1);
 
         // when
+        catalogueRepository.refreshAll();
         ResultActions resultActions = mockMvc.perform(get(apiUrl + "/catalogue")
                 .param("brand", "Toyota")
                 .contentType(MediaType.APPLICATION_JSON));
@@ -216,6 +231,7 @@ public class CarControllerIntegrationTests extends BaseWebIntegrateTest {
         carRepository.save(car1);
 
         // when
+        catalogueRepository.refreshAll();
         ResultActions resultActions = mockMvc.perform(get(apiUrl + "/catalogue")
                 .param("brand", "Toyota")
                 .param("minYear", "2019")
@@ -248,6 +264,7 @@ public class CarControllerIntegrationTests extends BaseWebIntegrateTest {
         carRepository.save(car1);
 
         // when
+        catalogueRepository.refreshAll();
         ResultActions resultActions = mockMvc.perform(get(apiUrl + "/catalogue")
                 .param("minYear", "2018")
                 .param("maxYear", "2022")
@@ -276,6 +293,7 @@ public class CarControllerIntegrationTests extends BaseWebIntegrateTest {
         carRepository.save(car1);
 
         // when
+        catalogueRepository.refreshAll();
         ResultActions resultActions = mockMvc.perform(get(apiUrl + "/catalogue")
                 .param("body_type", "SEDAN")
                 .contentType(MediaType.APPLICATION_JSON));
@@ -311,6 +329,7 @@ public class CarControllerIntegrationTests extends BaseWebIntegrateTest {
         carRepository.save(car2);
 
         // when
+        catalogueRepository.refreshAll();
         ResultActions resultActions = mockMvc.perform(get(apiUrl + "/catalogue")
                 .param("brand", "Toyota,Honda")
                 .contentType(MediaType.APPLICATION_JSON));
@@ -338,6 +357,7 @@ public class CarControllerIntegrationTests extends BaseWebIntegrateTest {
         carRepository.save(car1);
 
         // when
+        catalogueRepository.refreshAll();
         ResultActions resultActions = mockMvc.perform(get(apiUrl + "/catalogue")
                 .param("page", "0")
                 .param("size", "10")
@@ -572,6 +592,7 @@ public class CarControllerIntegrationTests extends BaseWebIntegrateTest {
         carRepository.save(car1);
 
         // when
+        catalogueRepository.refreshAll();
         ResultActions resultActions = mockMvc.perform(get(apiUrl + "/catalogue")
                 .param("model", "Camry")
                 .contentType(MediaType.APPLICATION_JSON));
@@ -599,6 +620,7 @@ public class CarControllerIntegrationTests extends BaseWebIntegrateTest {
         carRepository.save(car1);
 
         // when
+        catalogueRepository.refreshAll();
         ResultActions resultActions = mockMvc.perform(get(apiUrl + "/catalogue")
                 .param("car_class", "Comfort")
                 .contentType(MediaType.APPLICATION_JSON));
@@ -626,6 +648,7 @@ public class CarControllerIntegrationTests extends BaseWebIntegrateTest {
         carRepository.save(car1);
 
         // when
+        catalogueRepository.refreshAll();
         ResultActions resultActions = mockMvc.perform(get(apiUrl + "/catalogue")
                 .param("brand", "Toyota")
                 .param("model", "Camry")
@@ -14,9 +14,9 @@ import org.junit.jupiter.params.provider.CsvSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.context.annotation.Import;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.util.Arrays;
@@ -194,9 +194,9 @@ public class ClientRepositoryTest extends AbstractRepositoryTest {
         createClient("r3", "r3@example.com", "12", false, true, rAdmin);
 
         // when: filter banned = false -> should return r1 and r2 (not r3)
-        Page<Client> notBanned = clientRepository.findByFilter(false, null, pageable);
+        Slice<Client> notBanned = clientRepository.findByFilter(false, null, pageable);
         // when: filter role ADMIN and banned null -> should return r1 and r3 (both ADMIN)
-        Page<Client> adminAll = clientRepository.findByFilter(null, "ADMIN", pageable);
+        Slice<Client> adminAll = clientRepository.findByFilter(null, "ADMIN", pageable);
 
         // then
         assertThat(notBanned.getContent()).hasSize(2);
@@ -241,7 +241,7 @@ public class ClientRepositoryTest extends AbstractRepositoryTest {
         createClient("activeUser", "u1@example.com", "3", false, false, user);                         // should not match
 
         // when
-        Page<Client> result = clientRepository.findByFilter(false, "ADMIN", pageable);
+        Slice<Client> result = clientRepository.findByFilter(false, "ADMIN", pageable);
 
         // then
         assertThat(result.getContent()).hasSize(1);
@@ -257,7 +257,7 @@ public class ClientRepositoryTest extends AbstractRepositoryTest {
         createClient("banned", "ban@example.com", "2", false, true, dummyRole);
 
         // when
-        Page<Client> bannedOnly = clientRepository.findByFilter(true, null, pageable);
+        Slice<Client> bannedOnly = clientRepository.findByFilter(true, null, pageable);
 
         // then
         assertThat(bannedOnly.getContent()).hasSize(1);
@@ -268,11 +268,11 @@ public class ClientRepositoryTest extends AbstractRepositoryTest {
     @DisplayName("findByFilter returns empty page when no results match")
     public void findByFilter_returnsEmptyPageWhenNoMatches() {
         // when
-        Page<Client> empty = clientRepository.findByFilter(false, "NONEXISTENT_ROLE", pageable);
+        Slice<Client> empty = clientRepository.findByFilter(false, "NONEXISTENT_ROLE", pageable);
 
         // then
         assertThat(empty.getContent()).isEmpty();
-        assertThat(empty.getTotalElements()).isZero();
+        assertThat(clientRepository.countByFilter(false, "NONEXISTENT_ROLE")).isZero();
     }
 
     @Test
@@ -395,7 +395,7 @@ public class ClientRepositoryTest extends AbstractRepositoryTest {
             banned = Boolean.valueOf(bannedStr);
         }
 
-        Page<Client> page = clientRepository.findByFilter(banned, roleName == null || roleName.isEmpty() ? null : roleName, pageable);
+        Slice<Client> page = clientRepository.findByFilter(banned, roleName == null || roleName.isEmpty() ? null : roleName, pageable);
         assertThat(page.getContent()).hasSize(expectedCount);
     }
 
@@ -708,7 +708,7 @@ public class ClientRepositoryTest extends AbstractRepositoryTest {
 
         // when & then
         for (String payload : payloads) {
-            Page<Client> result = clientRepository.findByFilter(null, payload, pageable);
+            Slice<Client> result = clientRepository.findByFilter(null, payload, pageable);
             // Должен вернуть пусто, потому что нет роли с именем "' OR '1'='1"
             assertThat(result.getContent())
                     .as("findByFilter should return empty for roleName payload: %s", payload)
@@ -716,7 +716,7 @@ public class ClientRepositoryTest extends AbstractRepositoryTest {
         }
 
         // Проверяем, что нормальный фильтр работает
-        Page<Client> validResult = clientRepository.findByFilter(null, "USER", pageable);
+        Slice<Client> validResult = clientRepository.findByFilter(null, "USER", pageable);
         assertThat(validResult.getContent()).hasSize(1);
     }
 
@@ -9,9 +9,11 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDate;
@@ -21,6 +23,7 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @DataJpaTest
 @Import(DataUtils.class)
@@ -332,9 +335,9 @@ public class ContractRepositoryTest extends AbstractRepositoryTest {
         contractRepository.save((Contract) saveContract("overlap", car, "PENDING",
                 LocalDateTime.of(2025, 1, 1, 0, 0), LocalDateTime.of(2025, 1, 10, 0, 0)).getFirst());
 
-        // ACTIVE, полностью внутри диапазона — пересекается
+        // ACTIVE, полностью внутри диапазона — пересекается (с c1 не пересекается: это запрещено ограничением)
         Contract c5 = contractRepository.save((Contract) saveContract("overlap", car, "ACTIVE",
-                LocalDateTime.of(2025, 1, 11, 0, 0), LocalDateTime.of(2025, 1, 12, 0, 0)).getFirst());
+                LocalDateTime.of(2025, 1, 16, 0, 0), LocalDateTime.of(2025, 1, 18, 0, 0)).getFirst());
 
         // when
         // передаём contractId = null → ничего не исключается
@@ -378,27 +381,65 @@ public class ContractRepositoryTest extends AbstractRepositoryTest {
         LocalDate end = LocalDate.of(2025, 3, 20);
 
         // ends exactly at start -> should NOT overlap
-        contractRepository.save ((Contract) saveContract("boundary", car, "BOOKED",
+        Contract before = contractRepository.save ((Contract) saveContract("boundary", car, "BOOKED",
                 LocalDateTime.of(2025, 3, 1, 0, 0), LocalDateTime.of(2025, 3, 10, 0, 0)).getFirst());
         // starts exactly at end -> should NOT overlap
-        contractRepository.save ((Contract) saveContract("boundary", car, "BOOKED",
+        Contract after = contractRepository.save ((Contract) saveContract("boundary", car, "BOOKED",
                 LocalDateTime.of(2025, 3, 20, 0, 0), LocalDateTime.of(2025, 3, 25, 0, 0)).getFirst());
+        // пересекающиеся между собой брони одной машины запрещены ограничением ex_contract_car_period,
+        // поэтому каждый пересекающийся вариант проверяем по отдельности
         // fully inside -> should overlap
-        Contract inside = contractRepository.save ((Contract) saveContract("boundary", car, "ACTIVE",
-                LocalDateTime.of(2025, 3, 12, 0, 0), LocalDateTime.of(2025, 3, 15, 0, 0)).getFirst());
+        Contract inside = (Contract) saveContract("boundary", car, "ACTIVE",
+                LocalDateTime.of(2025, 3, 12, 0, 0), LocalDateTime.of(2025, 3, 15, 0, 0)).getFirst();
         // covering entire range -> should overlap
-        Contract covering =contractRepository.save ((Contract) saveContract("boundary", car, "ACTIVE",
-                LocalDateTime.of(2025, 3, 5, 0, 0), LocalDateTime.of(2025, 3, 25, 0, 0)).getFirst());
+        Contract covering = (Contract) saveContract("boundary", car, "ACTIVE",
+                LocalDateTime.of(2025, 3, 5, 0, 0), LocalDateTime.of(2025, 3, 25, 0, 0)).getFirst();
         // exact match -> should overlap
-        Contract exact = contractRepository.save ((Contract) saveContract("boundary", car, "BOOKED",
-                LocalDateTime.of(2025, 3, 10, 0, 0), LocalDateTime.of(2025, 3, 20, 0, 0)).getFirst());
+        Contract exact = (Contract) saveContract("boundary", car, "BOOKED",
+                LocalDateTime.of(2025, 3, 10, 0, 0), LocalDateTime.of(2025, 3, 20, 0, 0)).getFirst();
+
+        for (Contract candidate : List.of(inside, exact)) {
+            Contract saved = contractRepository.saveAndFlush(candidate);
+
+            // when
+            List<Contract> found = contractRepository.findOverlappingContracts(start.atStartOfDay(), end.atStartOfDay(), car.getId(), null);
+
+            // then
+            assertThat(found).extracting(Contract::getId)
+                    .containsExactly(saved.getId());
+
+            contractRepository.delete(saved);
+            contractRepository.flush();
+        }
+
+        // covering пересекается и с граничными бронями, поэтому проверяется без них
+        contractRepository.deleteAll(List.of(before, after));
+        Contract saved = contractRepository.saveAndFlush(covering);
 
-        // when
         List<Contract> found = contractRepository.findOverlappingContracts(start.atStartOfDay(), end.atStartOfDay(), car.getId(), null);
 
-        // then
         assertThat(found).extracting(Contract::getId)
-                .containsExactlyInAnyOrder(inside.getId(), covering.getId(), exact.getId());
+                .containsExactly(saved.getId());
+    }
+
+    @Test
+    @DisplayName("overlapping blocking contracts for the same car are rejected by the database")
+    public void save_overlappingBlockingContract_violatesExclusionConstraint() {
+        // given
+        Car car = carRepository.save(dataUtils.getJohnDoeTransient(
+
+                (CarState) getCarStateAndCarModelAndSaveAllDependencies().get(0),
+                (CarModel) getCarStateAndCarModelAndSaveAllDependencies().get(1)
+        ));
+        contractRepository.saveAndFlush((Contract) saveContract("exclusion", car, "BOOKED",
+                LocalDateTime.of(2025, 4, 1, 0, 0), LocalDateTime.of(2025, 4, 10, 0, 0)).getFirst());
+        Contract overlapping = (Contract) saveContract("exclusion", car, "ACTIVE",
+                LocalDateTime.of(2025, 4, 5, 0, 0), LocalDateTime.of(2025, 4, 12, 0, 0)).getFirst();
+
+        // when / then
+        assertThatThrownBy(() -> contractRepository.saveAndFlush(overlapping))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .hasMessageContaining("ex_contract_car_period");
     }
 
     @Test
@@ -478,40 +519,40 @@ public class ContractRepositoryTest extends AbstractRepositoryTest {
 
         // when - filter by status
 
-        Page<Contract> byStatus = contractRepository.findAllByFilter
+        Slice<Contract> byStatus = contractRepository.findAllByFilter
                 ("ACTIVE", null, null, null, null, null, pageable);
         assertThat(byStatus.getContent()).hasSize(2);
 
         Client clientA = (Client) list.get(1);
         // when - filter by user
-        Page<Contract> byUser = contractRepository.findAllByFilter(null, clientA.getId(), null, null, null, null, pageable);
+        Slice<Contract> byUser = contractRepository.findAllByFilter(null, clientA.getId(), null, null, null, null, pageable);
         assertThat(byUser.getContent()).hasSize(2);
 
         // when - filter by car id
-        Page<Contract> byCar = contractRepository.findAllByFilter(null, null, carB.getId(), null, null, null, pageable);
+        Slice<Contract> byCar = contractRepository.findAllByFilter(null, null, carB.getId(), null, null, null, pageable);
         assertThat(byCar.getContent()).hasSize(1);
         assertThat(byCar.getContent().get(0).getId()).isEqualTo(ca2.getId());
 
         // when - filter by bodyType
-        Page<Contract> byBody = contractRepository.findAllByFilter(null, null, null, null, "SEDAN", null, pageable);
+        Slice<Contract> byBody = contractRepository.findAllByFilter(null, null, null, null, "SEDAN", null, pageable);
         assertThat(byBody.getContent()).hasSize(2); // ca1 and cb1 use carA with SEDAN
 
         // when - filter by carClass
-        Page<Contract> byClass = contractRepository.findAllByFilter(null, null, null, null, null, "CLASSB", pageable);
+        Slice<Contract> byClass = contractRepository.findAllByFilter(null, null, null, null, null, "CLASSB", pageable);
         assertThat(byClass.getContent()).hasSize(1);
         assertThat(byClass.getContent().get(0).getId()).isEqualTo(ca2.getId());
 
         // when - combined filter: status and user
-        Page<Contract> combined = contractRepository.findAllByFilter("ACTIVE", clientA.getId(), null, null, null, null, pageable);
+        Slice<Contract> combined = contractRepository.findAllByFilter("ACTIVE", clientA.getId(), null, null, null, null, pageable);
         assertThat(combined.getContent()).hasSize(1);
         assertThat(combined.getContent().get(0).getId()).isEqualTo(ca1.getId());
 
         // when - all params null should return all
-        Page<Contract> all = contractRepository.findAllByFilter(null, null, null, null, null, null, pageable);
+        Slice<Contract> all = contractRepository.findAllByFilter(null, null, null, null, null, null, pageable);
         assertThat(all.getContent()).hasSize(3);
 
         // when - no matches
-        Page<Contract> nomatch = contractRepository.findAllByFilter("NONEXISTENT", null, null, null, null, null, pageable);
+        Slice<Contract> nomatch = contractRepository.findAllByFilter("NONEXISTENT", null, null, null, null, null, pageable);
         assertThat(nomatch.getContent()).isEmpty();
     }
 
@@ -534,8 +575,8 @@ public class ContractRepositoryTest extends AbstractRepositoryTest {
         }
 
         // when
-        Page<Contract> first = contractRepository.findAllByFilter(null, null, null, null, null, null, pageable);
-        Page<Contract> second = contractRepository.findAllByFilter(null, null, null, null, null, null, PageRequest.of(1, 10));
+        Slice<Contract> first = contractRepository.findAllByFilter(null, null, null, null, null, null, pageable);
+        Slice<Contract> second = contractRepository.findAllByFilter(null, null, null, null, null, null, PageRequest.of(1, 10));
 
         // then
         assertThat(first.getContent()).hasSize(10);
@@ -707,28 +748,28 @@ public class ContractRepositoryTest extends AbstractRepositoryTest {
             // Test each vulnerable string parameter individually
 
             // 1. status
-            Page<Contract> byStatus = contractRepository.findAllByFilter(
+            Slice<Contract> byStatus = contractRepository.findAllByFilter(
                     payload, null, null, null, null, null, pageable);
             assertThat(byStatus.getContent())
                     .as("findAllByFilter should return empty for status payload: %s", payload)
                     .isEmpty();
 
             // 2. brand
-            Page<Contract> byBrand = contractRepository.findAllByFilter(
+            Slice<Contract> byBrand = contractRepository.findAllByFilter(
                     null, null, null, payload, null, null, pageable);
             assertThat(byBrand.getContent())
                     .as("findAllByFilter should return empty for brand payload: %s", payload)
                     .isEmpty();
 
             // 3. bodyType
-            Page<Contract> byBodyType = contractRepository.findAllByFilter(
+            Slice<Contract> byBodyType = contractRepository.findAllByFilter(
                     null, null, null, null, payload, null, pageable);
             assertThat(byBodyType.getContent())
                     .as("findAllByFilter should return empty for bodyType payload: %s", payload)
                     .isEmpty();
 
             // 4. carClass
-            Page<Contract> byCarClass = contractRepository.findAllByFilter(
+            Slice<Contract> byCarClass = contractRepository.findAllByFilter(
                     null, null, null, null, null, payload, pageable);
             assertThat(byCarClass.getContent())
                     .as("findAllByFilter should return empty for carClass payload: %s", payload)
@@ -736,16 +777,16 @@ public class ContractRepositoryTest extends AbstractRepositoryTest {
         }
 
         // Убедимся, что легитимные значения всё ещё работают
-        Page<Contract> validStatus = contractRepository.findAllByFilter("ACTIVE", null, null, null, null, null, pageable);
+        Slice<Contract> validStatus = contractRepository.findAllByFilter("ACTIVE", null, null, null, null, null, pageable);
         assertThat(validStatus.getContent()).contains(legitimateContract);
 
-        Page<Contract> validBrand = contractRepository.findAllByFilter(null, null, null, "SAFE_BRAND", null, null, pageable);
+        Slice<Contract> validBrand = contractRepository.findAllByFilter(null, null, null, "SAFE_BRAND", null, null, pageable);
         assertThat(validBrand.getContent()).contains(legitimateContract);
 
-        Page<Contract> validBody = contractRepository.findAllByFilter(null, null, null, null, "SEDAN", null, pageable);
+        Slice<Contract> validBody = contractRepository.findAllByFilter(null, null, null, null, "SEDAN", null, pageable);
         assertThat(validBody.getContent()).contains(legitimateContract);
 
-        Page<Contract> validClass = contractRepository.findAllByFilter(null, null, null, null, null, "LUXURY", pageable);
+        Slice<Contract> validClass = contractRepository.findAllByFilter(null, null, null, null, null, "LUXURY", pageable);
         assertThat(validClass.getContent()).contains(legitimateContract);
     }
 
@@ -12,9 +12,9 @@ import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.context.annotation.Import;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDate;
@@ -158,12 +158,12 @@ public class DocumentRepositoryTest extends AbstractRepositoryTest {
         Pageable pageable = PageRequest.of(0, 20);
 
         // when
-        Page<Document> unverified = documentRepository.findByVerifiedIsFalse(pageable);
+        Slice<Document> unverified = documentRepository.findByVerifiedIsFalse(pageable);
 
         // then
         assertThat(unverified).isNotNull();
         assertThat(unverified.getContent()).hasSize(2);
-        assertThat(unverified.getTotalElements()).isEqualTo(2);
+        assertThat(documentRepository.countByVerifiedIsFalse()).isEqualTo(2);
         assertThat(unverified.getContent()).allMatch(doc -> !doc.isVerified());
     }
 
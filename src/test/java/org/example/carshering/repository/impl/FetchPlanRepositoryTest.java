@@ -0,0 +1,177 @@
+package org.example.carshering.repository.impl;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.carshering.dto.request.CarFilterRequest;
+import org.example.carshering.dto.response.CarListItemResponse;
+import org.example.carshering.dto.response.ContractResponse;
+import org.example.carshering.entity.*;
+import org.example.carshering.mapper.CarMapperImpl;
+import org.example.carshering.mapper.ContractMapper;
+import org.example.carshering.mapper.ContractMapperImpl;
+import org.example.carshering.repository.*;
+import org.example.carshering.util.DataUtils;
+import org.example.carshering.util.StatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Проверяет планы загрузки списков машин и контрактов: выборка страницы вместе с маппингом в DTO
+ * должна укладываться в фиксированное число запросов независимо от числа разных моделей на странице.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({DataUtils.class, CarMapperImpl.class, ContractMapperImpl.class})
+@ActiveProfiles("test")
+public class FetchPlanRepositoryTest extends AbstractRepositoryTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 10, 10, 0);
+
+    @Autowired
+    private CarRepository carRepository;
+    @Autowired
+    private CarCatalogueRepository catalogueRepository;
+    @Autowired
+    private ContractRepository contractRepository;
+    @Autowired
+    private CarModelRepository carModelRepository;
+    @Autowired
+    private BrandRepository brandRepository;
+    @Autowired
+    private ModelNameRepository modelNameRepository;
+    @Autowired
+    private CarClassRepository carClassRepository;
+    @Autowired
+    private CarStateRepository carStateRepository;
+    @Autowired
+    private RentalStateRepository rentalStateRepository;
+    @Autowired
+    private ClientRepository clientRepository;
+    @Autowired
+    private ContractMapper contractMapper;
+    @Autowired
+    private DataUtils dataUtils;
+    @Autowired
+    private TestEntityManager testEntityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private StatementCounter statementCounter;
+    private Client client;
+
+    @BeforeEach
+    void setUp() {
+        contractRepository.deleteAll();
+        carRepository.deleteAll();
+        carModelRepository.deleteAll();
+        statementCounter = new StatementCounter(entityManagerFactory);
+
+        // у каждой машины свои бренд, модель, класс и статус - ленивая загрузка дала бы отдельные запросы на каждую
+        List<Car> cars = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Brand brand = brandRepository.save(dataUtils.getBrandTransient("FetchBrand" + i));
+            Model modelName = modelNameRepository.save(dataUtils.getModelNameTransient("FetchModel" + i));
+            CarClass carClass = carClassRepository.save(dataUtils.getCarClassTransient("FetchClass" + i));
+            CarModel carModel = carModelRepository.save(dataUtils.getCarModelSEDAN(brand, modelName, carClass));
+            CarState carState = carStateRepository.save(dataUtils.getCarStateTransient("FETCH_STATE_" + i));
+            cars.add(carRepository.save(dataUtils.getJohnDoeTransient(
+                    carState, carModel, "FETCHVIN" + i, "FETCH" + i, 2020 + i, 1000.0 * (i + 1))));
+        }
+
+        client = clientRepository.save(dataUtils.createUniqueClient("fetch"));
+        for (int i = 0; i < cars.size(); i++) {
+            RentalState state = rentalStateRepository.save(dataUtils.getRentalState("FETCH_RENTAL_" + i));
+            contractRepository.save(dataUtils.createContractWithDateTime(
+                    client, cars.get(i), state, BASE.plusDays(i * 2L), BASE.plusDays(i * 2L + 1)));
+        }
+
+        testEntityManager.flush();
+        testEntityManager.clear();
+        statementCounter.reset();
+    }
+
+    @Test
+    @DisplayName("Test admin car list slice runs a single statement and loads no entities")
+    public void givenCarsWithDifferentModels_whenFindByFilter_thenOneStatementAndNoEntities() {
+        // when
+        Slice<CarListItemResponse> slice = carRepository.findByFilter(
+                null, null, null, null, null, null, null, new Long[0], null, null, PageRequest.of(0, 2));
+
+        // then
+        assertThat(slice.hasNext()).isTrue();
+        assertThat(slice.getContent()).allSatisfy(item -> {
+            assertThat(item.brand()).startsWith("FetchBrand");
+            assertThat(item.carClass()).startsWith("FetchClass");
+            assertThat(item.status()).startsWith("FETCH_STATE_");
+            assertThat(item.favorite()).isFalse();
+        });
+        assertThat(statementCounter.count()).isEqualTo(1);
+        assertThat(statementCounter.loadedEntities()).isZero();
+    }
+
+    @Test
+    @DisplayName("Test client contracts page with mapping runs page select and count only")
+    public void givenClientContracts_whenFindByClientIdAndMap_thenTwoStatements() {
+        // when
+        Page<ContractResponse> page = contractRepository.findByClientId(client.getId(), PageRequest.of(0, 2))
+                .map(contractMapper::toDto);
+
+        // then
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getContent()).allSatisfy(contract -> {
+            assertThat(contract.brand()).startsWith("FetchBrand");
+            assertThat(contract.lastName()).isEqualTo("Last");
+            assertThat(contract.state()).startsWith("FETCH_RENTAL_");
+        });
+        assertThat(statementCounter.count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Test admin contracts slice with mapping runs a single statement")
+    public void givenContracts_whenFindAllByFilterAndMap_thenOneStatement() {
+        // when
+        Slice<ContractResponse> slice = contractRepository.findAllByFilter(
+                        null, null, null, null, null, null, PageRequest.of(0, 2))
+                .map(contractMapper::toDto);
+
+        // then
+        assertThat(slice.hasNext()).isTrue();
+        assertThat(slice.getContent()).extracting(ContractResponse::model).allMatch(m -> m.startsWith("FetchModel"));
+        assertThat(statementCounter.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Test keyset catalogue page runs a single statement and loads no entities")
+    public void givenCarsWithDifferentModels_whenFindByFilterAfter_thenOneStatementAndNoEntities() {
+        // given
+        catalogueRepository.refreshAll();
+        statementCounter.reset();
+
+        // when
+        List<CarListItemResponse> items = catalogueRepository.findByFilterAfter(
+                new CarFilterRequest(
+                        null, null, null, null, null, null, null, null, null, null, null),
+                new Long[0], client.getId(), CarScrollSort.ID, false, null, null, 3);
+
+        // then
+        assertThat(items).hasSize(3).allSatisfy(item -> {
+            assertThat(item.model()).startsWith("FetchModel");
+            assertThat(item.favorite()).isFalse();
+        });
+        assertThat(statementCounter.count()).isEqualTo(1);
+        assertThat(statementCounter.loadedEntities()).isZero();
+    }
+}
@@ -441,7 +441,7 @@ public class AdminCarControllerTests extends BaseWebMvcTest {
 
         Page<CarListItemResponse> page = new org.springframework.data.domain.PageImpl<>(List.of(car1, car2));
 
-        given(carService.getAllCars(any(Pageable.class), any())).willReturn(page);
+        given(carService.getAllCars(any(Pageable.class), any(), anyBoolean())).willReturn(page);
 
         // when
         ResultActions resultActions = mockMvc.perform(get(apiUrl)
@@ -469,7 +469,7 @@ public class AdminCarControllerTests extends BaseWebMvcTest {
         CarListItemResponse car = new CarListItemResponse(3L, "Toyota", "ECONOMY", "Camry", 2020, 50.0, "AVAILABLE", false);
         Page<CarListItemResponse> page = new org.springframework.data.domain.PageImpl<>(List.of(car));
 
-        given(carService.getAllCars(any(Pageable.class), any())).willReturn(page);
+        given(carService.getAllCars(any(Pageable.class), any(), anyBoolean())).willReturn(page);
 
         // when
         ResultActions resultActions = mockMvc.perform(get(apiUrl)
@@ -500,7 +500,7 @@ public class AdminCarControllerTests extends BaseWebMvcTest {
 
         // given
         Page<CarListItemResponse> emptyPage = new PageImpl<>(List.of());
-        given(carService.getAllCars(any(Pageable.class), any())).willReturn(emptyPage);
+        given(carService.getAllCars(any(Pageable.class), any(), anyBoolean())).willReturn(emptyPage);
 
         // when
         ResultActions resultActions = mockMvc.perform(get(apiUrl)
@@ -522,7 +522,7 @@ public class AdminCarControllerTests extends BaseWebMvcTest {
         // given
         Page<CarListItemResponse> emptyPage = new org.springframework.data.domain.PageImpl<>(List.of());
 
-        given(carService.getAllCars(any(Pageable.class), any())).willReturn(emptyPage);
+        given(carService.getAllCars(any(Pageable.class), any(), anyBoolean())).willReturn(emptyPage);
 
         // when
         ResultActions resultActions = mockMvc.perform(get(apiUrl)
@@ -561,7 +561,7 @@ public class AdminCarControllerTests extends BaseWebMvcTest {
 
         // given
         Page<CarListItemResponse> emptyPage = new PageImpl<>(List.of());
-        given(carService.getAllCars(any(Pageable.class), any())).willReturn(emptyPage);
+        given(carService.getAllCars(any(Pageable.class), any(), anyBoolean())).willReturn(emptyPage);
 
         // when
         ResultActions resultActions = mockMvc.perform(get(apiUrl)
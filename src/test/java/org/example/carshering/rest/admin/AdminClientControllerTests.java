@@ -136,7 +136,7 @@ public class AdminClientControllerTests extends BaseWebMvcTest {
 
         Page<ShortUserResponse> page = new PageImpl<>(List.of(user1, user2));
 
-        given(clientService.filterUsers(any(), any(Pageable.class))).willReturn(page);
+        given(clientService.filterUsers(any(), any(Pageable.class), anyBoolean())).willReturn(page);
 
         // when
         ResultActions resultActions = mockMvc.perform(get(apiUrl)
@@ -164,7 +164,7 @@ public class AdminClientControllerTests extends BaseWebMvcTest {
         ShortUserResponse user = new ShortUserResponse(3L, "bannedUser", "banned@example.com", "CLIENT", true, false);
         Page<ShortUserResponse> page = new PageImpl<>(List.of(user));
 
-        given(clientService.filterUsers(any(), any(Pageable.class))).willReturn(page);
+        given(clientService.filterUsers(any(), any(Pageable.class), anyBoolean())).willReturn(page);
 
         // when
         ResultActions resultActions = mockMvc.perform(get(apiUrl)
@@ -188,7 +188,7 @@ public class AdminClientControllerTests extends BaseWebMvcTest {
         ShortUserResponse user = new ShortUserResponse(4L, "adminUser", "admin@example.com", "ADMIN", false, false);
         Page<ShortUserResponse> page = new PageImpl<>(List.of(user));
 
-        given(clientService.filterUsers(any(), any(Pageable.class))).willReturn(page);
+        given(clientService.filterUsers(any(), any(Pageable.class), anyBoolean())).willReturn(page);
 
         // when
         ResultActions resultActions = mockMvc.perform(get(apiUrl)
@@ -211,7 +211,7 @@ public class AdminClientControllerTests extends BaseWebMvcTest {
         ShortUserResponse user = new ShortUserResponse(5L, "activeAdmin", "activeadmin@example.com", "ADMIN", false, false);
         Page<ShortUserResponse> page = new PageImpl<>(List.of(user));
 
-        given(clientService.filterUsers(any(), any(Pageable.class))).willReturn(page);
+        given(clientService.filterUsers(any(), any(Pageable.class), anyBoolean())).willReturn(page);
 
         // when
         ResultActions resultActions = mockMvc.perform(get(apiUrl)
@@ -236,7 +236,7 @@ public class AdminClientControllerTests extends BaseWebMvcTest {
         // given
         Page<ShortUserResponse> emptyPage = new PageImpl<>(List.of());
 
-        given(clientService.filterUsers(any(), any(Pageable.class))).willReturn(emptyPage);
+        given(clientService.filterUsers(any(), any(Pageable.class), anyBoolean())).willReturn(emptyPage);
 
         // when
         ResultActions resultActions = mockMvc.perform(get(apiUrl)
@@ -532,7 +532,7 @@ public class AdminClientControllerTests extends BaseWebMvcTest {
 
         Page<ShortUserResponse> page = new PageImpl<>(List.of(user1, user2));
 
-        given(clientService.filterUsers(any(), any(Pageable.class))).willReturn(page);
+        given(clientService.filterUsers(any(), any(Pageable.class), anyBoolean())).willReturn(page);
 
         // when
         ResultActions resultActions = mockMvc.perform(get(apiUrl)
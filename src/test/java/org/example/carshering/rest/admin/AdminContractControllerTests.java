@@ -133,7 +133,7 @@ public class AdminContractControllerTests extends BaseWebMvcTest {
 
         Page<ContractResponse> page = new PageImpl<>(List.of(contract1, contract2));
 
-        given(contractService.getAllContracts(any(Pageable.class), any())).willReturn(page);
+        given(contractService.getAllContracts(any(Pageable.class), any(), anyBoolean())).willReturn(page);
 
         // when
         ResultActions resultActions = mockMvc.perform(get(apiUrl)
@@ -161,7 +161,7 @@ public class AdminContractControllerTests extends BaseWebMvcTest {
         ContractResponse contract = DataUtils.contractResponseConfirmed();
         Page<ContractResponse> page = new PageImpl<>(List.of(contract));
 
-        given(contractService.getAllContracts(any(Pageable.class), any())).willReturn(page);
+        given(contractService.getAllContracts(any(Pageable.class), any(), anyBoolean())).willReturn(page);
 
         // when
         ResultActions resultActions = mockMvc.perform(get(apiUrl)
@@ -184,7 +184,7 @@ public class AdminContractControllerTests extends BaseWebMvcTest {
         ContractResponse contract = DataUtils.contractResponsePersisted();
         Page<ContractResponse> page = new PageImpl<>(List.of(contract));
 
-        given(contractService.getAllContracts(any(Pageable.class), any())).willReturn(page);
+        given(contractService.getAllContracts(any(Pageable.class), any(), anyBoolean())).willReturn(page);
 
         // when
         ResultActions resultActions = mockMvc.perform(get(apiUrl)
@@ -207,7 +207,7 @@ public class AdminContractControllerTests extends BaseWebMvcTest {
         ContractResponse contract = DataUtils.contractResponsePersisted();
         Page<ContractResponse> page = new PageImpl<>(List.of(contract));
 
-        given(contractService.getAllContracts(any(Pageable.class), any())).willReturn(page);
+        given(contractService.getAllContracts(any(Pageable.class), any(), anyBoolean())).willReturn(page);
 
         // when
         ResultActions resultActions = mockMvc.perform(get(apiUrl)
@@ -230,7 +230,7 @@ public class AdminContractControllerTests extends BaseWebMvcTest {
         ContractResponse contract = DataUtils.contractResponsePersisted();
         Page<ContractResponse> page = new PageImpl<>(List.of(contract));
 
-        given(contractService.getAllContracts(any(Pageable.class), any())).willReturn(page);
+        given(contractService.getAllContracts(any(Pageable.class), any(), anyBoolean())).willReturn(page);
 
         // when
         ResultActions resultActions = mockMvc.perform(get(apiUrl)
@@ -447,7 +447,7 @@ public class AdminContractControllerTests extends BaseWebMvcTest {
                 2
         );
 
-        given(contractService.getAllContracts(any(Pageable.class), any())).willReturn(page);
+        given(contractService.getAllContracts(any(Pageable.class), any(), anyBoolean())).willReturn(page);
 
         // when
         ResultActions resultActions = mockMvc.perform(get(apiUrl)
@@ -472,7 +472,7 @@ public class AdminContractControllerTests extends BaseWebMvcTest {
         // given
         Page<ContractResponse> emptyPage = new PageImpl<>(List.of());
 
-        given(contractService.getAllContracts(any(Pageable.class), any())).willReturn(emptyPage);
+        given(contractService.getAllContracts(any(Pageable.class), any(), anyBoolean())).willReturn(emptyPage);
 
         // when
         ResultActions resultActions = mockMvc.perform(get(apiUrl)
@@ -63,7 +63,7 @@ public class AdminDocumentControllerTests extends BaseWebMvcTest {
         DocumentResponse doc2 = DataUtils.documentResponsePersisted("Водительское удостоверение", "5678", "123456", "ГИБДД", false);
         List<DocumentResponse> documents = Arrays.asList(doc1, doc2);
 
-        given(documentService.getAllDocuments(eq(true), any(Pageable.class))).willReturn(new PageImpl<>(documents));
+        given(documentService.getAllDocuments(eq(true), any(Pageable.class), anyBoolean())).willReturn(new PageImpl<>(documents));
 
         // when
         ResultActions resultActions = mockMvc.perform(get(apiUrl)
@@ -92,7 +92,7 @@ public class AdminDocumentControllerTests extends BaseWebMvcTest {
         DocumentResponse doc2 = DataUtils.documentResponsePersisted("Паспорт", "5678", "123456", "УФМС", false);
         List<DocumentResponse> documents = Arrays.asList(doc1, doc2);
 
-        given(documentService.getAllDocuments(eq(false), any(Pageable.class))).willReturn(new PageImpl<>(documents));
+        given(documentService.getAllDocuments(eq(false), any(Pageable.class), anyBoolean())).willReturn(new PageImpl<>(documents));
 
         // when
         ResultActions resultActions = mockMvc.perform(get(apiUrl)
@@ -116,7 +116,7 @@ public class AdminDocumentControllerTests extends BaseWebMvcTest {
         DocumentResponse doc1 = DataUtils.documentResponsePersisted("Паспорт", "1234", "567890", "УФМС", false);
         List<DocumentResponse> documents = Collections.singletonList(doc1);
 
-        given(documentService.getAllDocuments(eq(true), any(Pageable.class))).willReturn(new PageImpl<>(documents));
+        given(documentService.getAllDocuments(eq(true), any(Pageable.class), anyBoolean())).willReturn(new PageImpl<>(documents));
 
         // when
         ResultActions resultActions = mockMvc.perform(get(apiUrl)
@@ -135,7 +135,7 @@ public class AdminDocumentControllerTests extends BaseWebMvcTest {
     public void givenNoDocuments_whenGetAllDocuments_thenEmptyListResponse() throws Exception {
 
         // given
-        given(documentService.getAllDocuments(anyBoolean(), any(Pageable.class))).willReturn(new PageImpl<>(Collections.emptyList()));
+        given(documentService.getAllDocuments(anyBoolean(), any(Pageable.class), anyBoolean())).willReturn(new PageImpl<>(Collections.emptyList()));
 
         // when
         ResultActions resultActions = mockMvc.perform(get(apiUrl)
@@ -3,10 +3,14 @@ package org.example.carshering.rest.all;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.example.carshering.dto.response.CarDetailResponse;
 import org.example.carshering.dto.response.CarListItemResponse;
+import org.example.carshering.event.FilterDictionaryChangedEvent;
 import org.example.carshering.exceptions.custom.CarNotFoundException;
 import org.example.carshering.rest.BaseWebMvcTest;
+import org.example.carshering.service.domain.FilterDictionaryCache;
 import org.example.carshering.service.interfaces.*;
 import org.example.carshering.util.DataUtils;
+import org.example.carshering.util.WithMockClientDetails;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -31,14 +35,18 @@ import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(
         controllers = CarController.class
 )
-@Import(LocalValidatorFactoryBean.class)
+@Import({LocalValidatorFactoryBean.class, FilterDictionaryCache.class})
 @AutoConfigureMockMvc(addFilters = false)
 public class CarControllerTests extends BaseWebMvcTest {
 
@@ -66,6 +74,21 @@ public class CarControllerTests extends BaseWebMvcTest {
     @MockitoBean
     private CarClassService carClassService;
 
+    @MockitoBean
+    private FavoriteService favoriteService;
+
+    @MockitoBean
+    private ContractService contractService;
+
+    @Autowired
+    private FilterDictionaryCache filterDictionaryCache;
+
+    @BeforeEach
+    void resetDictionaries() {
+        // снимок справочников живёт в общем контексте теста, моки между тестами меняются
+        filterDictionaryCache.invalidate();
+    }
+
     @Test
     @DisplayName("Test get catalogue functionality")
     public void givenNoFilters_whenGetCatalogue_thenSuccessResponse() throws Exception {
@@ -93,7 +116,7 @@ public class CarControllerTests extends BaseWebMvcTest {
 
         Page<CarListItemResponse> page = new PageImpl<>(Arrays.asList(car1, car2));
 
-        given(carService.getAllCars(any(Pageable.class), any())).willReturn(page);
+        given(carService.getCatalogue(any(Pageable.class), any())).willReturn(page);
 
         // when
         ResultActions resultActions = mockMvc.perform(get(apiUrl + "/catalogue")
@@ -112,6 +135,35 @@ public class CarControllerTests extends BaseWebMvcTest {
                 .andExpect(jsonPath("$.content[1].brand").value("Honda"));
     }
 
+    @Test
+    @WithMockClientDetails(id = 7L)
+    @DisplayName("Test get catalogue for authenticated client returns favorite flags from the catalogue query")
+    public void givenAuthenticatedClient_whenGetCatalogue_thenFavoriteFlagsFromQuery() throws Exception {
+
+        // given
+        CarListItemResponse car1 = CarListItemResponse.builder()
+                .id(1L)
+                .brand("Toyota")
+                .model("Camry")
+                .status("AVAILABLE")
+                .favorite(true)
+                .build();
+
+        given(carService.getCatalogue(any(Pageable.class), any(), eq(7L))).willReturn(new PageImpl<>(List.of(car1)));
+
+        // when
+        ResultActions resultActions = mockMvc.perform(get(apiUrl + "/catalogue")
+                .contentType(MediaType.APPLICATION_JSON));
+
+        // then
+        resultActions
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1L))
+                .andExpect(jsonPath("$.content[0].favorite").value(true));
+        verifyNoInteractions(favoriteService);
+    }
+
     @Test
     @DisplayName("Test get catalogue with brand filter functionality")
     public void givenBrandFilter_whenGetCatalogue_thenFilteredResponse() throws Exception {
@@ -129,7 +181,7 @@ public class CarControllerTests extends BaseWebMvcTest {
 
         Page<CarListItemResponse> page = new PageImpl<>(List.of(car1));
 
-        given(carService.getAllCars(any(Pageable.class), any())).willReturn(page);
+        given(carService.getCatalogue(any(Pageable.class), any())).willReturn(page);
 
         // when
         ResultActions resultActions = mockMvc.perform(get(apiUrl + "/catalogue")
@@ -161,7 +213,7 @@ public class CarControllerTests extends BaseWebMvcTest {
 
         Page<CarListItemResponse> page = new PageImpl<>(List.of(car1));
 
-        given(carService.getAllCars(any(Pageable.class), any())).willReturn(page);
+        given(carService.getCatalogue(any(Pageable.class), any())).willReturn(page);
 
         // when
         ResultActions resultActions = mockMvc.perform(get(apiUrl + "/catalogue")
@@ -198,7 +250,7 @@ public class CarControllerTests extends BaseWebMvcTest {
 
         Page<CarListItemResponse> page = new PageImpl<>(List.of(car1));
 
-        given(carService.getAllCars(any(Pageable.class), any())).willReturn(page);
+        given(carService.getCatalogue(any(Pageable.class), any())).willReturn(page);
 
         // when
         ResultActions resultActions = mockMvc.perform(get(apiUrl + "/catalogue")
@@ -231,7 +283,7 @@ public class CarControllerTests extends BaseWebMvcTest {
 
         Page<CarListItemResponse> page = new PageImpl<>(List.of(car1));
 
-        given(carService.getAllCars(any(Pageable.class), any())).willReturn(page);
+        given(carService.getCatalogue(any(Pageable.class), any())).willReturn(page);
 
         // when
         ResultActions resultActions = mockMvc.perform(get(apiUrl + "/catalogue")
@@ -272,7 +324,7 @@ public class CarControllerTests extends BaseWebMvcTest {
 
         Page<CarListItemResponse> page = new PageImpl<>(Arrays.asList(car1, car2));
 
-        given(carService.getAllCars(any(Pageable.class), any())).willReturn(page);
+        given(carService.getCatalogue(any(Pageable.class), any())).willReturn(page);
 
         // when
         ResultActions resultActions = mockMvc.perform(get(apiUrl + "/catalogue")
@@ -304,7 +356,7 @@ public class CarControllerTests extends BaseWebMvcTest {
 
         Page<CarListItemResponse> page = new PageImpl<>(List.of(car1));
 
-        given(carService.getAllCars(any(Pageable.class), any())).willReturn(page);
+        given(carService.getCatalogue(any(Pageable.class), any())).willReturn(page);
 
         // when
         ResultActions resultActions = mockMvc.perform(get(apiUrl + "/catalogue")
@@ -400,6 +452,48 @@ public class CarControllerTests extends BaseWebMvcTest {
                 .andExpect(jsonPath("$.message", is("Invalid value for parameter 'carId': 'invalid-id'")));
     }
 
+    @Test
+    @DisplayName("Test get brands returns 304 when ETag matches and dictionaries are not reloaded")
+    public void givenMatchingETag_whenGetBrands_thenNotModified() throws Exception {
+
+        // given
+        given(carBrandService.findAllBrands()).willReturn(List.of("Toyota"));
+        String etag = mockMvc.perform(get(apiUrl + "/filters/brands"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        // when
+        ResultActions resultActions = mockMvc.perform(get(apiUrl + "/filters/models")
+                .header("If-None-Match", etag));
+
+        // then
+        resultActions
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag));
+        verify(carBrandService, times(1)).findAllBrands();
+    }
+
+    @Test
+    @DisplayName("Test get brands returns new content after dictionaries change")
+    public void givenDictionaryChanged_whenGetBrandsWithOldETag_thenNewContent() throws Exception {
+
+        // given
+        given(carBrandService.findAllBrands()).willReturn(List.of("Toyota"));
+        String etag = mockMvc.perform(get(apiUrl + "/filters/brands"))
+                .andReturn().getResponse().getHeader("ETag");
+        given(carBrandService.findAllBrands()).willReturn(List.of("Toyota", "BMW"));
+        filterDictionaryCache.onDictionaryChanged(new FilterDictionaryChangedEvent("brands"));
+
+        // when
+        ResultActions resultActions = mockMvc.perform(get(apiUrl + "/filters/brands")
+                .header("If-None-Match", etag));
+
+        // then
+        resultActions
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
     @Test
     @DisplayName("Test get all brands functionality")
     public void givenRequest_whenGetBrands_thenSuccessResponse() throws Exception {
@@ -553,7 +647,7 @@ public class CarControllerTests extends BaseWebMvcTest {
 
         Page<CarListItemResponse> page = new PageImpl<>(List.of(car1));
 
-        given(carService.getAllCars(any(Pageable.class), any())).willReturn(page);
+        given(carService.getCatalogue(any(Pageable.class), any())).willReturn(page);
 
         // when
         ResultActions resultActions = mockMvc.perform(get(apiUrl + "/catalogue")
@@ -585,7 +679,7 @@ public class CarControllerTests extends BaseWebMvcTest {
 
         Page<CarListItemResponse> page = new PageImpl<>(List.of(car1));
 
-        given(carService.getAllCars(any(Pageable.class), any())).willReturn(page);
+        given(carService.getCatalogue(any(Pageable.class), any())).willReturn(page);
 
         // when
         ResultActions resultActions = mockMvc.perform(get(apiUrl + "/catalogue")
@@ -617,7 +711,7 @@ public class CarControllerTests extends BaseWebMvcTest {
 
         Page<CarListItemResponse> page = new PageImpl<>(List.of(car1));
 
-        given(carService.getAllCars(any(Pageable.class), any())).willReturn(page);
+        given(carService.getCatalogue(any(Pageable.class), any())).willReturn(page);
 
         // when
         ResultActions resultActions = mockMvc.perform(get(apiUrl + "/catalogue")
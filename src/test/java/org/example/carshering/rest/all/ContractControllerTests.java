@@ -9,10 +9,12 @@ import org.example.carshering.exceptions.custom.NotFoundException;
 import org.example.carshering.exceptions.custom.UnauthorizedContractAccessException;
 import org.example.carshering.rest.BaseWebMvcTest;
 import org.example.carshering.security.ClientDetails;
+import org.example.carshering.service.domain.IdempotencyStore;
 import org.example.carshering.service.interfaces.ContractService;
 import org.example.carshering.util.DataUtils;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -60,6 +62,10 @@ public class ContractControllerTests extends BaseWebMvcTest {
     @MockitoBean
     private ContractService contractService;
 
+    // без заголовка Idempotency-Key настоящий execute просто вызывает сервис
+    @MockitoBean(answers = Answers.CALLS_REAL_METHODS)
+    private IdempotencyStore idempotencyStore;
+
     @MockitoBean
     private Authentication authentication;
 
@@ -0,0 +1,89 @@
+package org.example.carshering.service.domain;
+
+import org.example.carshering.dto.request.create.CreateContractRequest;
+import org.example.carshering.dto.response.BookedInterval;
+import org.example.carshering.service.domain.BatchBookingPlanner.Decision;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for BatchBookingPlanner
+ */
+public class BatchBookingPlannerTests {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 4, 1, 10, 0);
+
+    private static CreateContractRequest item(long carId, int fromHour, int toHour) {
+        return new CreateContractRequest(carId, BASE.plusHours(fromHour), BASE.plusHours(toHour));
+    }
+
+    @Test
+    @DisplayName("Test items for free cars are all accepted")
+    public void givenFreeCars_whenPlan_thenAcceptAll() {
+        // when
+        List<Decision> result = BatchBookingPlanner.plan(
+                List.of(item(1, 0, 5), item(2, 0, 5), item(3, 0, 5)), Set.of(1L, 2L, 3L), List.of());
+
+        // then
+        assertThat(result).allMatch(Decision::accepted);
+        assertThat(result).extracting(Decision::index).containsExactly(0, 1, 2);
+    }
+
+    @Test
+    @DisplayName("Test item overlapping an existing booking is rejected, touching one is accepted")
+    public void givenExistingBookings_whenPlan_thenRejectOnlyOverlapping() {
+        // given
+        List<BookedInterval> bookings = List.of(
+                new BookedInterval(10L, 1L, BASE.plusHours(3), BASE.plusHours(8)),
+                new BookedInterval(11L, 2L, BASE.plusHours(5), BASE.plusHours(8)));
+
+        // when
+        List<Decision> result = BatchBookingPlanner.plan(
+                List.of(item(1, 0, 5), item(2, 0, 5)), Set.of(1L, 2L), bookings);
+
+        // then
+        assertThat(result).extracting(Decision::error)
+                .containsExactly(BatchBookingPlanner.CAR_UNAVAILABLE, null);
+    }
+
+    @Test
+    @DisplayName("Test second item for the same car in the batch is checked against the first")
+    public void givenSameCarTwiceInBatch_whenPlan_thenRejectLaterOverlap() {
+        // when
+        List<Decision> result = BatchBookingPlanner.plan(
+                List.of(item(1, 0, 5), item(1, 4, 6), item(1, 5, 7)), Set.of(1L), List.of());
+
+        // then
+        assertThat(result).extracting(Decision::accepted).containsExactly(true, false, true);
+    }
+
+    @Test
+    @DisplayName("Test invalid dates and unknown cars are rejected with their own reason")
+    public void givenInvalidItems_whenPlan_thenRejectWithReason() {
+        // when
+        List<Decision> result = BatchBookingPlanner.plan(
+                List.of(item(1, 5, 5), item(99, 0, 5)), Set.of(1L), List.of());
+
+        // then
+        assertThat(result).extracting(Decision::error)
+                .containsExactly(BatchBookingPlanner.INVALID_DATES, BatchBookingPlanner.CAR_NOT_FOUND);
+    }
+
+    @Test
+    @DisplayName("Test span covers only items with valid dates")
+    public void givenItems_whenSpan_thenMinStartMaxEnd() {
+        // when
+        BookedInterval span = BatchBookingPlanner.span(List.of(item(1, 2, 4), item(2, -1, 3), item(3, 9, 1)));
+
+        // then
+        assertThat(span.dataStart()).isEqualTo(BASE.minusHours(1));
+        assertThat(span.dataEnd()).isEqualTo(BASE.plusHours(4));
+        assertThat(BatchBookingPlanner.span(List.of(item(1, 3, 3)))).isNull();
+    }
+}
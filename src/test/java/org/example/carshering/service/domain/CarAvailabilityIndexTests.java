@@ -0,0 +1,146 @@
+package org.example.carshering.service.domain;
+
+import org.example.carshering.dto.response.BookedInterval;
+import org.example.carshering.event.ContractChangedEvent;
+import org.example.carshering.repository.ContractRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for CarAvailabilityIndex
+ */
+@ExtendWith(MockitoExtension.class)
+public class CarAvailabilityIndexTests {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 10, 10, 0);
+
+    @Mock
+    private ContractRepository contractRepository;
+
+    @InjectMocks
+    private CarAvailabilityIndex indexUnderTest;
+
+    @Test
+    @DisplayName("Test findBookedCarIds returns only cars with overlapping intervals")
+    public void givenBookedIntervals_whenFindBookedCarIds_thenReturnOverlappingCars() {
+        // given
+        given(contractRepository.findBookedIntervals(anyCollection())).willReturn(List.of(
+                new BookedInterval(1L, 10L, BASE, BASE.plusDays(2)),
+                new BookedInterval(2L, 20L, BASE.plusDays(5), BASE.plusDays(6)),
+                new BookedInterval(3L, 30L, BASE.minusDays(3), BASE.minusDays(1))
+        ));
+
+        // when
+        Set<Long> result = indexUnderTest.findBookedCarIds(BASE.plusDays(1), BASE.plusDays(5).plusHours(1));
+
+        // then
+        assertThat(result).containsExactlyInAnyOrder(10L, 20L);
+    }
+
+    @Test
+    @DisplayName("Test touching intervals are not treated as overlapping")
+    public void givenAdjacentRequest_whenIsBooked_thenReturnFalse() {
+        // given
+        given(contractRepository.findBookedIntervals(anyCollection())).willReturn(List.of(
+                new BookedInterval(1L, 10L, BASE, BASE.plusDays(2))
+        ));
+
+        // when & then
+        assertThat(indexUnderTest.isBooked(10L, BASE.plusDays(2), BASE.plusDays(3))).isFalse();
+        assertThat(indexUnderTest.isBooked(10L, BASE.minusDays(1), BASE)).isFalse();
+        assertThat(indexUnderTest.isBooked(10L, BASE.plusDays(2).minusMinutes(1), BASE.plusDays(3))).isTrue();
+        assertThat(indexUnderTest.isBooked(99L, BASE, BASE.plusDays(2))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Test long interval is found even when shorter ones start after it")
+    public void givenNestedIntervals_whenIsBooked_thenUseMaxEnd() {
+        // given
+        given(contractRepository.findBookedIntervals(anyCollection())).willReturn(List.of(
+                new BookedInterval(1L, 10L, BASE, BASE.plusDays(10)),
+                new BookedInterval(2L, 10L, BASE.plusDays(1), BASE.plusDays(2))
+        ));
+
+        // when
+        boolean result = indexUnderTest.isBooked(10L, BASE.plusDays(5), BASE.plusDays(6));
+
+        // then
+        assertThat(result).isTrue();
+    }
+
+    @Test
+    @DisplayName("Test contract events add, move and release intervals")
+    public void givenContractEvents_whenOnContractChanged_thenIndexUpdated() {
+        // given
+        given(contractRepository.findBookedIntervals(anyCollection())).willReturn(List.of());
+        indexUnderTest.rebuild();
+
+        // when
+        indexUnderTest.onContractChanged(new ContractChangedEvent(1L, 10L, "PENDING", BASE, BASE.plusDays(1)));
+
+        // then
+        assertThat(indexUnderTest.isBooked(10L, BASE, BASE.plusHours(1))).isTrue();
+
+        // when - даты контракта изменены
+        indexUnderTest.onContractChanged(new ContractChangedEvent(1L, 10L, "CONFIRMED", BASE.plusDays(3), BASE.plusDays(4)));
+
+        // then
+        assertThat(indexUnderTest.isBooked(10L, BASE, BASE.plusHours(1))).isFalse();
+        assertThat(indexUnderTest.isBooked(10L, BASE.plusDays(3), BASE.plusDays(3).plusHours(1))).isTrue();
+
+        // when - контракт отменён
+        indexUnderTest.onContractChanged(new ContractChangedEvent(1L, 10L, "CANCELLED", BASE.plusDays(3), BASE.plusDays(4)));
+
+        // then
+        assertThat(indexUnderTest.findBookedCarIds(BASE, BASE.plusDays(10))).isEmpty();
+        verify(contractRepository, times(1)).findBookedIntervals(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Test rebuild drops cars that no longer have bookings")
+    public void givenStaleEntries_whenRebuild_thenReplaceWithDatabaseState() {
+        // given
+        given(contractRepository.findBookedIntervals(anyCollection()))
+                .willReturn(List.of(new BookedInterval(1L, 10L, BASE, BASE.plusDays(1))))
+                .willReturn(List.of(new BookedInterval(2L, 20L, BASE, BASE.plusDays(1))));
+        indexUnderTest.rebuild();
+
+        // when
+        indexUnderTest.rebuild();
+
+        // then
+        assertThat(indexUnderTest.findBookedCarIds(BASE, BASE.plusDays(1))).containsExactly(20L);
+    }
+
+    @Test
+    @DisplayName("Test events committed while the database is read are replayed over the loaded snapshot")
+    public void givenEventsDuringRebuild_whenRebuild_thenEventsNotOverwritten() {
+        // given - пока идёт чтение, коммитятся новая бронь машины 20 и отмена брони машины 10,
+        // а чтение возвращает состояние до них
+        given(contractRepository.findBookedIntervals(anyCollection())).willAnswer(invocation -> {
+            indexUnderTest.onContractChanged(new ContractChangedEvent(2L, 20L, "PENDING", BASE, BASE.plusDays(1)));
+            indexUnderTest.onContractChanged(new ContractChangedEvent(1L, 10L, "CANCELLED", BASE, BASE.plusDays(1)));
+            return List.of(new BookedInterval(1L, 10L, BASE, BASE.plusDays(1)));
+        });
+
+        // when
+        indexUnderTest.rebuild();
+
+        // then
+        assertThat(indexUnderTest.findBookedCarIds(BASE, BASE.plusDays(1))).containsExactly(20L);
+    }
+}
@@ -0,0 +1,112 @@
+package org.example.carshering.service.domain;
+
+import org.example.carshering.dto.request.CarFilterRequest;
+import org.example.carshering.dto.response.CarFacetRow;
+import org.example.carshering.dto.response.CarFacetsResponse;
+import org.example.carshering.dto.response.PriceHistogramResponse;
+import org.example.carshering.dto.response.PriceHistogramResponse.PriceBucket;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for CarFacetCalculator
+ */
+public class CarFacetCalculatorTests {
+
+    private static final List<CarFacetRow> ROWS = List.of(
+            new CarFacetRow(1L, "Toyota", "Camry", "Business", "Sedan", 2020, 3000.0),
+            new CarFacetRow(2L, "Toyota", "RAV4", "Comfort", "SUV", 2022, 3500.0),
+            new CarFacetRow(3L, "BMW", "X5", "Business", "SUV", 2021, 7000.0),
+            new CarFacetRow(4L, "Kia", "Rio", null, "Sedan", 2019, 1500.0)
+    );
+
+    private static CarFilterRequest filter(List<String> brands, String bodyType, Double minCell, Double maxCell) {
+        return new CarFilterRequest(brands, null, null, null, bodyType, null, null, null, null, minCell, maxCell);
+    }
+
+    @Test
+    @DisplayName("Test without filters every facet counts all rows")
+    public void givenEmptyFilter_whenCompute_thenCountAllRows() {
+        // when
+        CarFacetsResponse result = CarFacetCalculator.compute(ROWS, filter(null, null, null, null));
+
+        // then
+        assertThat(result.total()).isEqualTo(4);
+        assertThat(result.brands()).isEqualTo(Map.of("BMW", 1L, "Kia", 1L, "Toyota", 2L));
+        assertThat(result.carClasses()).isEqualTo(Map.of("Business", 2L, "Comfort", 1L));
+        assertThat(result.bodyTypes()).isEqualTo(Map.of("SUV", 2L, "Sedan", 2L));
+        assertThat(result.years()).containsOnlyKeys(2019, 2020, 2021, 2022);
+        assertThat(result.price().min()).isEqualTo(1500.0);
+        assertThat(result.price().max()).isEqualTo(7000.0);
+    }
+
+    @Test
+    @DisplayName("Test selected brand does not narrow the brand facet but narrows the others")
+    public void givenBrandFilter_whenCompute_thenBrandFacetIgnoresOwnFilter() {
+        // when
+        CarFacetsResponse result = CarFacetCalculator.compute(ROWS, filter(List.of("Toyota"), null, null, null));
+
+        // then
+        assertThat(result.total()).isEqualTo(2);
+        assertThat(result.brands()).isEqualTo(Map.of("BMW", 1L, "Kia", 1L, "Toyota", 2L));
+        assertThat(result.bodyTypes()).isEqualTo(Map.of("SUV", 1L, "Sedan", 1L));
+        assertThat(result.models()).isEqualTo(Map.of("Camry", 1L, "RAV4", 1L));
+    }
+
+    @Test
+    @DisplayName("Test price range ignores the price filter while other facets respect it")
+    public void givenPriceFilter_whenCompute_thenPriceRangeIgnoresIt() {
+        // when
+        CarFacetsResponse result = CarFacetCalculator.compute(ROWS, filter(null, "SUV", null, 4000.0));
+
+        // then
+        assertThat(result.total()).isEqualTo(1);
+        assertThat(result.brands()).isEqualTo(Map.of("Toyota", 1L));
+        assertThat(result.bodyTypes()).isEqualTo(Map.of("SUV", 1L, "Sedan", 2L));
+        assertThat(result.price().min()).isEqualTo(3500.0);
+        assertThat(result.price().max()).isEqualTo(7000.0);
+    }
+
+    @Test
+    @DisplayName("Test price histogram splits the price range into equal buckets and puts the maximum into the last one")
+    public void givenEmptyFilter_whenPriceHistogram_thenEqualWidthBuckets() {
+        // when
+        PriceHistogramResponse result = CarFacetCalculator.priceHistogram(ROWS, filter(null, null, null, null), 2);
+
+        // then
+        assertThat(result.min()).isEqualTo(1500.0);
+        assertThat(result.max()).isEqualTo(7000.0);
+        assertThat(result.buckets()).containsExactly(
+                new PriceBucket(1500.0, 4250.0, 3),
+                new PriceBucket(4250.0, 7000.0, 1)
+        );
+    }
+
+    @Test
+    @DisplayName("Test price histogram ignores the price filter while other filters narrow it")
+    public void givenBodyTypeAndPriceFilter_whenPriceHistogram_thenOnlyPriceFilterIgnored() {
+        // when
+        PriceHistogramResponse result = CarFacetCalculator.priceHistogram(ROWS, filter(null, "Sedan", null, 2000.0), 3);
+
+        // then
+        assertThat(result.min()).isEqualTo(1500.0);
+        assertThat(result.max()).isEqualTo(3000.0);
+        assertThat(result.buckets()).extracting(PriceBucket::count).containsExactly(1L, 0L, 1L);
+    }
+
+    @Test
+    @DisplayName("Test price histogram is empty when nothing matches")
+    public void givenNoMatchingRows_whenPriceHistogram_thenNoBuckets() {
+        // when
+        PriceHistogramResponse result = CarFacetCalculator.priceHistogram(ROWS, filter(List.of("Lada"), null, null, null), 10);
+
+        // then
+        assertThat(result.min()).isNull();
+        assertThat(result.buckets()).isEmpty();
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.carshering.service.domain;
+
+import org.example.carshering.exceptions.custom.InvalidDataException;
+import org.example.carshering.repository.CarScrollSort;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests for CarScrollCursor
+ */
+public class CarScrollCursorTests {
+
+    @Test
+    @DisplayName("Test encoded cursor decodes to the same position")
+    public void givenCursor_whenEncodeAndDecode_thenReturnSamePosition() {
+        // given
+        CarScrollCursor cursor = new CarScrollCursor(CarScrollSort.RENT, true, 2500.0, 42L);
+
+        // when
+        CarScrollCursor result = CarScrollCursor.decode(cursor.encode(), CarScrollSort.RENT, true);
+
+        // then
+        assertThat(result).isEqualTo(cursor);
+    }
+
+    @Test
+    @DisplayName("Test brand value containing separator survives round trip")
+    public void givenBrandWithSeparator_whenEncodeAndDecode_thenValuePreserved() {
+        // given
+        CarScrollCursor cursor = new CarScrollCursor(CarScrollSort.BRAND, false, "Rolls|Royce", 7L);
+
+        // when
+        CarScrollCursor result = CarScrollCursor.decode(cursor.encode(), CarScrollSort.BRAND, false);
+
+        // then
+        assertThat(result.value()).isEqualTo("Rolls|Royce");
+        assertThat(result.id()).isEqualTo(7L);
+    }
+
+    @Test
+    @DisplayName("Test cursor from another sort is rejected")
+    public void givenCursorForOtherSort_whenDecode_thenThrowInvalidDataException() {
+        // given
+        String token = new CarScrollCursor(CarScrollSort.YEAR_OF_ISSUE, false, 2020, 1L).encode();
+
+        // when & then
+        assertThrows(InvalidDataException.class, () -> CarScrollCursor.decode(token, CarScrollSort.RENT, false));
+        assertThrows(InvalidDataException.class, () -> CarScrollCursor.decode(token, CarScrollSort.YEAR_OF_ISSUE, true));
+    }
+
+    @Test
+    @DisplayName("Test malformed cursor is rejected")
+    public void givenGarbageToken_whenDecode_thenThrowInvalidDataException() {
+        assertThrows(InvalidDataException.class, () -> CarScrollCursor.decode("not a cursor!", CarScrollSort.ID, false));
+    }
+}
@@ -0,0 +1,174 @@
+package org.example.carshering.service.domain;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.carshering.dto.request.CarFilterRequest;
+import org.example.carshering.event.CarChangedEvent;
+import org.example.carshering.event.ContractChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for CatalogueCache
+ */
+public class CatalogueCacheTests {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 3, 1, 10, 0);
+
+    private SimpleMeterRegistry meterRegistry;
+    private MutableClock clock;
+    private CatalogueCache cacheUnderTest;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new MutableClock(Instant.parse("2030-01-01T00:00:00Z"));
+        cacheUnderTest = new CatalogueCache(meterRegistry, 2, Duration.ofMinutes(10), clock);
+        loads = new AtomicInteger();
+    }
+
+    private static CarFilterRequest filter(LocalDateTime start, LocalDateTime end) {
+        return new CarFilterRequest(null, null, null, null, null, null, null, start, end, null, null);
+    }
+
+    private String load(CarFilterRequest filter) {
+        return cacheUnderTest.get("page", filter, PageRequest.of(0, 20), () -> "value-" + loads.incrementAndGet());
+    }
+
+    private double counter(String name, String tag, String value) {
+        return meterRegistry.get(name).tag(tag, value).counter().count();
+    }
+
+    @Test
+    @DisplayName("Test repeated request is served from cache")
+    public void givenSameKey_whenGetTwice_thenLoadOnce() {
+        // when
+        String first = load(filter(null, null));
+        String second = load(filter(null, null));
+
+        // then
+        assertThat(second).isEqualTo(first);
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(counter("catalogue.cache.requests", "result", "hit")).isEqualTo(1);
+        assertThat(counter("catalogue.cache.requests", "result", "miss")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Test least recently used entry is evicted when cache is full")
+    public void givenFullCache_whenPutNewKey_thenEvictEldest() {
+        // given
+        load(filter(null, null));
+        load(filter(BASE, BASE.plusDays(1)));
+        load(filter(null, null));
+
+        // when
+        load(filter(BASE, BASE.plusDays(2)));
+
+        // then
+        assertThat(cacheUnderTest.size()).isEqualTo(2);
+        assertThat(counter("catalogue.cache.evictions", "cause", "size")).isEqualTo(1);
+        load(filter(null, null));
+        assertThat(loads.get()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Test expired entry is reloaded")
+    public void givenExpiredEntry_whenGet_thenReload() {
+        // given
+        load(filter(null, null));
+        clock.advance(Duration.ofMinutes(11));
+
+        // when
+        load(filter(null, null));
+
+        // then
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(counter("catalogue.cache.evictions", "cause", "expired")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Test contract change evicts only entries with overlapping date window")
+    public void givenContractChanged_whenOnContractChanged_thenEvictOverlappingOnly() {
+        // given
+        cacheUnderTest = new CatalogueCache(meterRegistry, 10, Duration.ofMinutes(10), clock);
+        load(filter(null, null));
+        load(filter(BASE, BASE.plusDays(1)));
+        load(filter(BASE.plusDays(5), BASE.plusDays(6)));
+
+        // when - контракт перенесён с BASE+5 на BASE+10
+        cacheUnderTest.onContractChanged(new ContractChangedEvent(1L, 1L, "PENDING",
+                BASE.plusDays(10), BASE.plusDays(11), BASE.plusDays(5), BASE.plusDays(5).plusHours(2)));
+
+        // then
+        assertThat(cacheUnderTest.size()).isEqualTo(2);
+        load(filter(null, null));
+        load(filter(BASE, BASE.plusDays(1)));
+        assertThat(loads.get()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Test car change clears the whole cache")
+    public void givenCarChanged_whenOnCarChanged_thenClearAll() {
+        // given
+        load(filter(null, null));
+        load(filter(BASE, BASE.plusDays(1)));
+
+        // when
+        cacheUnderTest.onCarChanged(new CarChangedEvent(1L));
+
+        // then
+        assertThat(cacheUnderTest.size()).isZero();
+        assertThat(counter("catalogue.cache.evictions", "cause", "invalidation")).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Test value loaded during invalidation is not cached")
+    public void givenInvalidationDuringLoad_whenGet_thenValueNotStored() {
+        // when
+        cacheUnderTest.get("page", filter(null, null), null, () -> {
+            cacheUnderTest.onCarChanged(new CarChangedEvent(1L));
+            return "stale";
+        });
+
+        // then
+        assertThat(cacheUnderTest.size()).isZero();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
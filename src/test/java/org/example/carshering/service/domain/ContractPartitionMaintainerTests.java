@@ -0,0 +1,61 @@
+package org.example.carshering.service.domain;
+
+import org.example.carshering.repository.ContractRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for ContractPartitionMaintainer
+ */
+@ExtendWith(MockitoExtension.class)
+public class ContractPartitionMaintainerTests {
+
+    @Mock
+    private ContractRepository contractRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ContractPartitionMaintainer maintainerUnderTest;
+
+    @BeforeEach
+    void setUp() {
+        maintainerUnderTest = new ContractPartitionMaintainer(contractRepository, transactionManager, 6);
+    }
+
+    @Test
+    @DisplayName("Test partitions are ensured for the configured horizon in a transaction")
+    public void givenHorizon_whenEnsurePartitions_thenRepositoryCalledInTransaction() {
+        // given
+        given(contractRepository.ensureMonthlyPartitions(6)).willReturn(2);
+
+        // when
+        maintainerUnderTest.ensurePartitions();
+
+        // then
+        verify(contractRepository).ensureMonthlyPartitions(6);
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    @DisplayName("Test database failure does not escape the scheduled job")
+    public void givenDatabaseFailure_whenEnsurePartitions_thenLoggedNotThrown() {
+        // given
+        given(contractRepository.ensureMonthlyPartitions(6))
+                .willThrow(new DataAccessResourceFailureException("connection refused"));
+
+        // when / then
+        assertThatCode(() -> maintainerUnderTest.ensurePartitions()).doesNotThrowAnyException();
+        verify(transactionManager).rollback(any());
+    }
+}
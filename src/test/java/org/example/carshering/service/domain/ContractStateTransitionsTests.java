@@ -0,0 +1,144 @@
+package org.example.carshering.service.domain;
+
+import org.example.carshering.entity.RentalState;
+import org.example.carshering.event.ContractChangedEvent;
+import org.example.carshering.repository.ContractRepository;
+import org.example.carshering.repository.ContractRepository.TransitionedContract;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for ContractStateTransitions
+ */
+@ExtendWith(MockitoExtension.class)
+public class ContractStateTransitionsTests {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 5, 1, 12, 0);
+
+    @Mock
+    private ContractRepository contractRepository;
+    @Mock
+    private ReferenceDataRegistry referenceData;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ContractStateTransitions transitionsUnderTest;
+
+    @BeforeEach
+    void setUp() {
+        transitionsUnderTest = new ContractStateTransitions(
+                contractRepository, referenceData, eventPublisher, transactionManager, 2);
+    }
+
+    private void givenStates(String from, long fromId, String to, long toId) {
+        given(referenceData.findRentalState(from))
+                .willReturn(Optional.of(RentalState.builder().id(fromId).name(from).build()));
+        given(referenceData.findRentalState(to))
+                .willReturn(Optional.of(RentalState.builder().id(toId).name(to).build()));
+    }
+
+    private static TransitionedContract row(long id, long carId) {
+        return new TransitionedContract() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getCarId() {
+                return carId;
+            }
+
+            @Override
+            public LocalDateTime getDataStart() {
+                return NOW.minusHours(1);
+            }
+
+            @Override
+            public LocalDateTime getDataEnd() {
+                return NOW.plusHours(1);
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("Test started contracts are activated in batches until a short batch")
+    public void givenMoreContractsThanBatch_whenActivateStarted_thenRepeatUntilShortBatch() {
+        // given
+        givenStates("CONFIRMED", 3L, "ACTIVE", 4L);
+        given(contractRepository.transitionStartedBatch(3L, 4L, NOW, 2))
+                .willReturn(List.of(row(1, 10), row(2, 20)))
+                .willReturn(List.of(row(3, 30)));
+
+        // when
+        int activated = transitionsUnderTest.activateStarted(NOW);
+
+        // then
+        assertThat(activated).isEqualTo(3);
+        verify(contractRepository, times(2)).transitionStartedBatch(3L, 4L, NOW, 2);
+        verify(transactionManager, times(2)).commit(any());
+
+        ArgumentCaptor<ContractChangedEvent> events = ArgumentCaptor.forClass(ContractChangedEvent.class);
+        verify(eventPublisher, times(3)).publishEvent(events.capture());
+        assertThat(events.getAllValues())
+                .extracting(ContractChangedEvent::contractId, ContractChangedEvent::carId, ContractChangedEvent::state)
+                .containsExactly(
+                        tuple(1L, 10L, "ACTIVE"),
+                        tuple(2L, 20L, "ACTIVE"),
+                        tuple(3L, 30L, "ACTIVE")
+                );
+    }
+
+    @Test
+    @DisplayName("Test ended contracts are completed and nothing is published when none are due")
+    public void givenNoDueContracts_whenCompleteEnded_thenNoEvents() {
+        // given
+        givenStates("ACTIVE", 4L, "COMPLETED", 5L);
+        given(contractRepository.transitionEndedBatch(4L, 5L, NOW, 2)).willReturn(List.of());
+
+        // when
+        int completed = transitionsUnderTest.completeEnded(NOW);
+
+        // then
+        assertThat(completed).isZero();
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Test missing rental state skips the transition")
+    public void givenMissingState_whenActivateStarted_thenNoUpdate() {
+        // given
+        given(referenceData.findRentalState(anyString())).willReturn(Optional.empty());
+
+        // when
+        int activated = transitionsUnderTest.activateStarted(NOW);
+
+        // then
+        assertThat(activated).isZero();
+        verify(contractRepository, never()).transitionStartedBatch(anyLong(), anyLong(), any(), anyInt());
+    }
+}
@@ -0,0 +1,135 @@
+package org.example.carshering.service.domain;
+
+import org.example.carshering.dto.response.BookedInterval;
+import org.example.carshering.event.ContractChangedEvent;
+import org.example.carshering.repository.ContractRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for ContractTransitionTimer
+ */
+@ExtendWith(MockitoExtension.class)
+public class ContractTransitionTimerTests {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 6, 1, 9, 0);
+
+    @Mock
+    private ContractRepository contractRepository;
+    @Mock
+    private ContractStateTransitions transitions;
+
+    private MutableClock clock;
+    private ContractTransitionTimer timerUnderTest;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(BASE.toInstant(ZoneOffset.UTC));
+        timerUnderTest = new ContractTransitionTimer(contractRepository, transitions, clock);
+    }
+
+    @Test
+    @DisplayName("Test rehydrated confirmed contract is activated exactly at its start minute")
+    public void givenConfirmedInDb_whenTickAtStart_thenActivate() {
+        // given
+        given(contractRepository.findBookedIntervals(Set.of("CONFIRMED")))
+                .willReturn(List.of(new BookedInterval(1L, 10L, BASE.plusMinutes(15), BASE.plusHours(5))));
+        given(contractRepository.findBookedIntervals(Set.of("ACTIVE"))).willReturn(List.of());
+        timerUnderTest.rehydrate();
+
+        // when
+        clock.set(BASE.plusMinutes(14));
+        timerUnderTest.tick();
+
+        // then
+        verify(transitions, never()).activateStarted(any());
+
+        // when
+        clock.set(BASE.plusMinutes(15));
+        timerUnderTest.tick();
+
+        // then
+        verify(transitions).activateStarted(BASE.plusMinutes(15));
+        verify(transitions, never()).completeEnded(any());
+    }
+
+    @Test
+    @DisplayName("Test activation event replaces start timer with end timer")
+    public void givenActivatedEvent_whenTickAtEnd_thenComplete() {
+        // given
+        timerUnderTest.onContractChanged(new ContractChangedEvent(1L, 10L, "CONFIRMED", BASE.plusMinutes(1), BASE.plusHours(2)));
+        timerUnderTest.onContractChanged(new ContractChangedEvent(1L, 10L, "ACTIVE", BASE.plusMinutes(1), BASE.plusHours(2)));
+
+        // when
+        clock.set(BASE.plusHours(2));
+        timerUnderTest.tick();
+
+        // then
+        verify(transitions, never()).activateStarted(any());
+        verify(transitions).completeEnded(BASE.plusHours(2));
+        assertThat(timerUnderTest.scheduledCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Test cancelled or pending contract has no timers")
+    public void givenCancelledEvent_whenTick_thenNothingHappens() {
+        // given
+        timerUnderTest.onContractChanged(new ContractChangedEvent(1L, 10L, "CONFIRMED", BASE.plusMinutes(5), BASE.plusHours(1)));
+        timerUnderTest.onContractChanged(new ContractChangedEvent(2L, 20L, "PENDING", BASE.plusMinutes(5), BASE.plusHours(1)));
+
+        // when
+        timerUnderTest.onContractChanged(new ContractChangedEvent(1L, 10L, "CANCELLED", BASE.plusMinutes(5), BASE.plusHours(1)));
+        clock.set(BASE.plusHours(2));
+        timerUnderTest.tick();
+
+        // then
+        assertThat(timerUnderTest.scheduledCount()).isZero();
+        verify(transitions, never()).activateStarted(any());
+        verify(transitions, never()).completeEnded(any());
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void set(LocalDateTime time) {
+            instant = time.toInstant(ZoneOffset.UTC);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
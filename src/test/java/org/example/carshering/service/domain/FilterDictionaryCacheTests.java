@@ -0,0 +1,115 @@
+package org.example.carshering.service.domain;
+
+import org.example.carshering.event.CarModelChangedEvent;
+import org.example.carshering.event.FilterDictionaryChangedEvent;
+import org.example.carshering.service.interfaces.CarBrandService;
+import org.example.carshering.service.interfaces.CarClassService;
+import org.example.carshering.service.interfaces.CarModelNameService;
+import org.example.carshering.service.interfaces.CarModelService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for FilterDictionaryCache
+ */
+@ExtendWith(MockitoExtension.class)
+public class FilterDictionaryCacheTests {
+
+    @Mock
+    private CarBrandService carBrandService;
+
+    @Mock
+    private CarModelNameService carModelNameService;
+
+    @Mock
+    private CarClassService carClassService;
+
+    @Mock
+    private CarModelService carModelService;
+
+    @InjectMocks
+    private FilterDictionaryCache cacheUnderTest;
+
+    @Test
+    @DisplayName("Test snapshot is loaded once and reused while dictionaries are unchanged")
+    public void givenLoadedSnapshot_whenGetAgain_thenNoReload() {
+        // given
+        given(carBrandService.findAllBrands()).willReturn(List.of("Toyota"));
+        given(carModelService.findAllBodyTypes()).willReturn(List.of("Sedan"));
+
+        // when
+        FilterDictionaryCache.Snapshot first = cacheUnderTest.get();
+        FilterDictionaryCache.Snapshot second = cacheUnderTest.get();
+
+        // then
+        assertThat(second).isSameAs(first);
+        assertThat(first.dictionaries().brands()).containsExactly("Toyota");
+        assertThat(first.dictionaries().bodyTypes()).containsExactly("Sedan");
+        assertThat(first.etag()).startsWith("\"").endsWith("\"");
+        verify(carBrandService, times(1)).findAllBrands();
+    }
+
+    @Test
+    @DisplayName("Test dictionary change reloads the snapshot and changes the version and the ETag")
+    public void givenDictionaryChanged_whenGet_thenNewVersionAndETag() {
+        // given
+        given(carBrandService.findAllBrands())
+                .willReturn(List.of("Toyota"))
+                .willReturn(List.of("Toyota", "BMW"));
+        FilterDictionaryCache.Snapshot before = cacheUnderTest.get();
+
+        // when
+        cacheUnderTest.onDictionaryChanged(new FilterDictionaryChangedEvent("brands"));
+        FilterDictionaryCache.Snapshot after = cacheUnderTest.get();
+
+        // then
+        assertThat(after.dictionaries().version()).isNotEqualTo(before.dictionaries().version());
+        assertThat(after.etag()).isNotEqualTo(before.etag());
+        assertThat(after.etag()).isEqualTo("\"" + after.dictionaries().version() + "\"");
+        assertThat(after.dictionaries().brands()).containsExactly("Toyota", "BMW");
+    }
+
+    @Test
+    @DisplayName("Test car model change reloads body types")
+    public void givenCarModelChanged_whenGet_thenReload() {
+        // given
+        given(carModelService.findAllBodyTypes())
+                .willReturn(List.of("Sedan"))
+                .willReturn(List.of("Sedan", "SUV"));
+        cacheUnderTest.get();
+
+        // when
+        cacheUnderTest.onCarModelChanged(new CarModelChangedEvent(1L));
+
+        // then
+        assertThat(cacheUnderTest.get().dictionaries().bodyTypes()).containsExactly("Sedan", "SUV");
+    }
+
+    @Test
+    @DisplayName("Test resync reloads the snapshot and keeps the ETag while the content is unchanged")
+    public void givenUnchangedContent_whenResync_thenSameETag() {
+        // given
+        given(carBrandService.findAllBrands()).willReturn(List.of("Toyota"));
+        FilterDictionaryCache.Snapshot before = cacheUnderTest.get();
+
+        // when
+        cacheUnderTest.resync();
+        FilterDictionaryCache.Snapshot after = cacheUnderTest.get();
+
+        // then
+        assertThat(after).isNotSameAs(before);
+        assertThat(after.etag()).isEqualTo(before.etag());
+        verify(carBrandService, times(2)).findAllBrands();
+    }
+}
@@ -0,0 +1,70 @@
+package org.example.carshering.service.domain;
+
+import org.example.carshering.dto.response.BookedInterval;
+import org.example.carshering.dto.response.FreeSlotResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for FreeSlotFinder
+ */
+public class FreeSlotFinderTests {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 3, 1, 10, 0);
+
+    private static BookedInterval booking(long id, int startHours, int endHours) {
+        return new BookedInterval(id, 1L, BASE.plusHours(startHours), BASE.plusHours(endHours));
+    }
+
+    @Test
+    @DisplayName("Test car without bookings is free from the requested moment on")
+    public void givenNoBookings_whenFind_thenOneOpenSlot() {
+        // when
+        List<FreeSlotResponse> result = FreeSlotFinder.find(List.of(), BASE, Duration.ofHours(2), 5);
+
+        // then
+        assertThat(result).containsExactly(new FreeSlotResponse(BASE, null));
+    }
+
+    @Test
+    @DisplayName("Test gaps shorter than the duration are skipped and touching gaps fit exactly")
+    public void givenGapsOfDifferentLength_whenFind_thenOnlyLongEnoughGaps() {
+        // given - окна: [0,2) 2ч, [3,4) 1ч, [6,...) открытое
+        List<BookedInterval> bookings = List.of(
+                booking(1, 2, 3),
+                booking(2, 4, 6)
+        );
+
+        // when
+        List<FreeSlotResponse> result = FreeSlotFinder.find(bookings, BASE, Duration.ofHours(2), 5);
+
+        // then
+        assertThat(result).containsExactly(
+                new FreeSlotResponse(BASE, BASE.plusHours(2)),
+                new FreeSlotResponse(BASE.plusHours(6), null)
+        );
+    }
+
+    @Test
+    @DisplayName("Test booking running at the requested moment moves the first slot to its end")
+    public void givenBookingInProgress_whenFind_thenStartAfterIt() {
+        // given
+        List<BookedInterval> bookings = List.of(
+                booking(1, -5, 1),
+                booking(2, -1, 3),
+                booking(3, 10, 12)
+        );
+
+        // when
+        List<FreeSlotResponse> result = FreeSlotFinder.find(bookings, BASE, Duration.ofHours(4), 1);
+
+        // then
+        assertThat(result).containsExactly(new FreeSlotResponse(BASE.plusHours(3), BASE.plusHours(10)));
+    }
+}
@@ -0,0 +1,160 @@
+package org.example.carshering.service.domain;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.carshering.entity.IdempotencyRecord;
+import org.example.carshering.exceptions.custom.BusinessConflictException;
+import org.example.carshering.exceptions.custom.IdempotencyKeyReuseException;
+import org.example.carshering.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * Unit tests for IdempotencyStore
+ */
+@ExtendWith(MockitoExtension.class)
+public class IdempotencyStoreTests {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 5, 1, 12, 0);
+    private static final Map<String, Object> REQUEST = Map.of("carId", 7, "dataStart", "2030-05-02T10:00");
+
+    @Mock
+    private IdempotencyRecordRepository repository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private RetryingTransactionTemplate retryingTransaction;
+    private IdempotencyStore storeUnderTest;
+
+    record Receipt(Long id, String state) {
+    }
+
+    @BeforeEach
+    void setUp() {
+        retryingTransaction = new RetryingTransactionTemplate(
+                transactionManager, new SimpleMeterRegistry(), 3, Duration.ZERO);
+        storeUnderTest = new IdempotencyStore(repository, objectMapper, transactionManager, retryingTransaction,
+                Duration.ofHours(24), 100, Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+    }
+
+    @Test
+    @DisplayName("Test request without key runs the action without touching the store")
+    public void givenNoKey_whenExecute_thenActionRuns() {
+        // when
+        Receipt result = storeUnderTest.execute(1L, null, "contract.create", REQUEST, Receipt.class,
+                () -> new Receipt(10L, "PENDING"));
+
+        // then
+        assertThat(result).isEqualTo(new Receipt(10L, "PENDING"));
+        verifyNoInteractions(repository, transactionManager);
+    }
+
+    @Test
+    @DisplayName("Test first request claims the key, stores the response and a retry is served from memory")
+    public void givenNewKey_whenExecuteTwice_thenActionRunsOnce() {
+        // given
+        given(repository.claim(eq(1L), eq("k-1"), eq("contract.create"), anyString(), eq(NOW), eq(NOW.plusHours(24))))
+                .willReturn(1);
+        AtomicInteger calls = new AtomicInteger();
+
+        // when
+        Receipt first = storeUnderTest.execute(1L, "k-1", "contract.create", REQUEST, Receipt.class,
+                () -> new Receipt((long) calls.incrementAndGet(), "PENDING"));
+        Receipt retry = storeUnderTest.execute(1L, "k-1", "contract.create", REQUEST, Receipt.class,
+                () -> new Receipt((long) calls.incrementAndGet(), "PENDING"));
+
+        // then
+        assertThat(calls).hasValue(1);
+        assertThat(retry).isEqualTo(first);
+        verify(repository).complete(1L, "k-1", "{\"id\":1,\"state\":\"PENDING\"}");
+        verify(repository, times(1)).claim(any(), any(), any(), any(), any(), any());
+        assertThat(storeUnderTest.cacheSize()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Test completed key found in the database replays the stored response")
+    public void givenCompletedRecord_whenExecute_thenStoredResponseReturned() {
+        // given
+        AtomicInteger calls = new AtomicInteger();
+        given(repository.claim(eq(1L), eq("k-1"), eq("contract.create"), anyString(), any(), any()))
+                .willReturn(1)
+                .willReturn(0);
+        IdempotencyStore other = new IdempotencyStore(repository, objectMapper, transactionManager, retryingTransaction,
+                Duration.ofHours(24), 100, Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+        storeUnderTest.execute(1L, "k-1", "contract.create", REQUEST, Receipt.class,
+                () -> new Receipt((long) calls.incrementAndGet(), "PENDING"));
+        String hash = capturedHash();
+        given(repository.findByClientIdAndKey(1L, "k-1")).willReturn(Optional.of(IdempotencyRecord.builder()
+                .clientId(1L).key("k-1").operation("contract.create").requestHash(hash)
+                .response("{\"id\":1,\"state\":\"PENDING\"}").createdAt(NOW).expiresAt(NOW.plusHours(24))
+                .build()));
+
+        // when
+        Receipt replayed = other.execute(1L, "k-1", "contract.create", REQUEST, Receipt.class,
+                () -> new Receipt((long) calls.incrementAndGet(), "PENDING"));
+
+        // then
+        assertThat(calls).hasValue(1);
+        assertThat(replayed).isEqualTo(new Receipt(1L, "PENDING"));
+    }
+
+    @Test
+    @DisplayName("Test key reused with a different body is rejected")
+    public void givenKeyUsedForOtherRequest_whenExecute_thenReuseException() {
+        // given
+        given(repository.claim(eq(1L), eq("k-1"), eq("contract.create"), anyString(), any(), any())).willReturn(1);
+        storeUnderTest.execute(1L, "k-1", "contract.create", REQUEST, Receipt.class, () -> new Receipt(1L, "PENDING"));
+
+        // when / then
+        assertThatThrownBy(() -> storeUnderTest.execute(1L, "k-1", "contract.create", Map.of("carId", 8),
+                Receipt.class, () -> new Receipt(2L, "PENDING")))
+                .isInstanceOf(IdempotencyKeyReuseException.class);
+    }
+
+    @Test
+    @DisplayName("Test key claimed by a request still in progress is a conflict")
+    public void givenUnfinishedRecord_whenExecute_thenConflict() {
+        // given
+        given(repository.claim(eq(1L), eq("k-1"), eq("contract.cancel:5"), anyString(), any(), any())).willReturn(0);
+        given(repository.findByClientIdAndKey(1L, "k-1")).willReturn(Optional.of(IdempotencyRecord.builder()
+                .clientId(1L).key("k-1").operation("contract.cancel:5").requestHash("h")
+                .createdAt(NOW).expiresAt(NOW.plusHours(24)).build()));
+
+        // when / then
+        assertThatThrownBy(() -> storeUnderTest.execute(1L, "k-1", "contract.cancel:5", null, Void.class, () -> null))
+                .isInstanceOf(BusinessConflictException.class);
+        verify(repository, never()).complete(any(), any(), any());
+    }
+
+    private String capturedHash() {
+        ArgumentCaptor<String> hash = ArgumentCaptor.forClass(String.class);
+        verify(repository).claim(eq(1L), eq("k-1"), eq("contract.create"), hash.capture(), any(), any());
+        return hash.getValue();
+    }
+}
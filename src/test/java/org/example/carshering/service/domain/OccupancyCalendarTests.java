@@ -0,0 +1,73 @@
+package org.example.carshering.service.domain;
+
+import org.example.carshering.dto.response.BookedInterval;
+import org.example.carshering.exceptions.custom.InvalidDataException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for OccupancyCalendar
+ */
+public class OccupancyCalendarTests {
+
+    private static final YearMonth MARCH = YearMonth.of(2030, 3);
+
+    private static BookedInterval booking(LocalDateTime start, LocalDateTime end) {
+        return new BookedInterval(1L, 1L, start, end);
+    }
+
+    @Test
+    @DisplayName("Test day calendar marks every day touched by a booking and not the day it ends at midnight")
+    public void givenBooking_whenEncodeByDay_thenTouchedDaysSet() {
+        // when - 2 марта 10:00 .. 4 марта 00:00 занимает 2 и 3 марта
+        byte[] bitmap = OccupancyCalendar.encode(List.of(
+                booking(LocalDateTime.of(2030, 3, 2, 10, 0), LocalDateTime.of(2030, 3, 4, 0, 0))
+        ), MARCH, OccupancyCalendar.Granularity.DAY);
+
+        // then
+        BitSet bits = BitSet.valueOf(bitmap);
+        assertThat(bits.stream().boxed().toList()).containsExactly(1, 2);
+    }
+
+    @Test
+    @DisplayName("Test bookings crossing month boundaries are clipped to the month")
+    public void givenBookingsAcrossMonthBounds_whenEncodeByHour_thenClipped() {
+        // when
+        byte[] bitmap = OccupancyCalendar.encode(List.of(
+                booking(LocalDateTime.of(2030, 2, 27, 0, 0), LocalDateTime.of(2030, 3, 1, 1, 30)),
+                booking(LocalDateTime.of(2030, 3, 31, 23, 0), LocalDateTime.of(2030, 4, 2, 0, 0))
+        ), MARCH, OccupancyCalendar.Granularity.HOUR);
+
+        // then
+        BitSet bits = BitSet.valueOf(bitmap);
+        assertThat(OccupancyCalendar.Granularity.HOUR.slotCount(MARCH)).isEqualTo(31 * 24);
+        assertThat(bits.stream().boxed().toList()).containsExactly(0, 1, 31 * 24 - 1);
+    }
+
+    @Test
+    @DisplayName("Test free month encodes to an empty bitmap")
+    public void givenNoBookings_whenEncode_thenEmpty() {
+        // when
+        byte[] bitmap = OccupancyCalendar.encode(List.of(), MARCH, OccupancyCalendar.Granularity.DAY);
+
+        // then
+        assertThat(bitmap).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Test granularity is parsed case-insensitively and rejects unknown values")
+    public void givenGranularityValues_whenParse_thenResolvedOrRejected() {
+        assertThat(OccupancyCalendar.Granularity.parse("hour")).isEqualTo(OccupancyCalendar.Granularity.HOUR);
+        assertThat(OccupancyCalendar.Granularity.parse(null)).isEqualTo(OccupancyCalendar.Granularity.DAY);
+        assertThatThrownBy(() -> OccupancyCalendar.Granularity.parse("week"))
+                .isInstanceOf(InvalidDataException.class);
+    }
+}
@@ -0,0 +1,160 @@
+package org.example.carshering.service.domain;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.carshering.entity.OutboxEvent;
+import org.example.carshering.event.OutboxMessage;
+import org.example.carshering.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for OutboxRelay
+ */
+@ExtendWith(MockitoExtension.class)
+public class OutboxRelayTests {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 5, 1, 12, 0);
+
+    @Mock
+    private OutboxEventRepository outboxRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private ObjectProvider<OutboxSink> sinks;
+    @Mock
+    private OutboxSink sink;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private OutboxRelay relayUnderTest;
+
+    @BeforeEach
+    void setUp() {
+        relayUnderTest = new OutboxRelay(outboxRepository, eventPublisher, sinks, transactionManager, meterRegistry,
+                10, Duration.ofDays(7), 3, Duration.ofSeconds(5), Duration.ofSeconds(15),
+                Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+    }
+
+    private static OutboxEvent event(long id, String type, long aggregateId) {
+        return OutboxEvent.builder()
+                .id(id).aggregateType(type).aggregateId(aggregateId).eventType("ContractChanged")
+                .payload("{}").createdAt(NOW.minusSeconds(30)).build();
+    }
+
+    @Test
+    @DisplayName("Test unpublished events are delivered in id order and marked published")
+    public void givenEvents_whenRelay_thenDeliveredInOrder() {
+        // given
+        given(outboxRepository.tryRelayLock(OutboxRelay.RELAY_LOCK_KEY)).willReturn(true);
+        given(outboxRepository.findDeliverable(NOW, 10)).willReturn(List.of(
+                event(1, "contract", 5), event(2, "car", 7), event(3, "contract", 5)));
+        given(sinks.orderedStream()).willAnswer(invocation -> Stream.of(sink));
+
+        // when
+        relayUnderTest.relay();
+
+        // then
+        ArgumentCaptor<OutboxMessage> messages = ArgumentCaptor.forClass(OutboxMessage.class);
+        verify(eventPublisher, times(3)).publishEvent(messages.capture());
+        assertThat(messages.getAllValues()).extracting(OutboxMessage::id).containsExactly(1L, 2L, 3L);
+        verify(sink, times(3)).send(any());
+        verify(outboxRepository).markPublished(List.of(1L, 2L, 3L), NOW);
+        assertThat(meterRegistry.counter("outbox.delivered").count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Test failed event holds back later events of the same aggregate only")
+    public void givenSinkFailure_whenRelay_thenAggregateBlockedOthersDelivered() {
+        // given
+        given(outboxRepository.tryRelayLock(OutboxRelay.RELAY_LOCK_KEY)).willReturn(true);
+        given(outboxRepository.findDeliverable(NOW, 10)).willReturn(List.of(
+                event(1, "contract", 5), event(2, "car", 7), event(3, "contract", 5)));
+        given(sinks.orderedStream()).willAnswer(invocation -> Stream.of(sink));
+        willThrow(new IllegalStateException("broker down"))
+                .given(sink).send(argThat(message -> message.id() == 1L));
+
+        // when
+        relayUnderTest.relay();
+
+        // then
+        verify(outboxRepository).markFailed(1L, "broker down", NOW.plusSeconds(5));
+        verify(outboxRepository).markPublished(List.of(2L), NOW);
+        verify(sink, never()).send(argThat(message -> message.id() == 3L));
+        assertThat(meterRegistry.counter("outbox.failed").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Test relay does nothing while another instance holds the lock")
+    public void givenLockTaken_whenRelay_thenNothingRead() {
+        // given
+        given(outboxRepository.tryRelayLock(OutboxRelay.RELAY_LOCK_KEY)).willReturn(false);
+
+        // when
+        relayUnderTest.relay();
+
+        // then
+        verify(outboxRepository, never()).findDeliverable(any(), anyInt());
+        verify(outboxRepository, never()).markFailed(any(), anyString(), any());
+        verify(outboxRepository, never()).markPublished(any(), eq(NOW));
+    }
+
+    @Test
+    @DisplayName("Test event is parked after the last allowed attempt and counted")
+    public void givenLastAttemptFails_whenRelay_thenEventParked() {
+        // given
+        OutboxEvent failing = event(1, "contract", 5);
+        failing.setAttempts(2);
+        given(outboxRepository.tryRelayLock(OutboxRelay.RELAY_LOCK_KEY)).willReturn(true);
+        given(outboxRepository.findDeliverable(NOW, 10)).willReturn(List.of(failing));
+        given(outboxRepository.countParked()).willReturn(1L);
+        given(sinks.orderedStream()).willAnswer(invocation -> Stream.of(sink));
+        willThrow(new IllegalStateException("broker down")).given(sink).send(any());
+
+        // when
+        relayUnderTest.relay();
+
+        // then
+        verify(outboxRepository).markParked(1L, "broker down", NOW);
+        verify(outboxRepository, never()).markFailed(any(), anyString(), any());
+        assertThat(meterRegistry.counter("outbox.parked").count()).isEqualTo(1);
+        assertThat(meterRegistry.get("outbox.parked.events").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Test retry delay doubles with every attempt and is capped")
+    public void givenAttempts_whenBackoffAfter_thenExponentialAndCapped() {
+        // when / then
+        assertThat(relayUnderTest.backoffAfter(1)).isEqualTo(Duration.ofSeconds(5));
+        assertThat(relayUnderTest.backoffAfter(2)).isEqualTo(Duration.ofSeconds(10));
+        assertThat(relayUnderTest.backoffAfter(3)).isEqualTo(Duration.ofSeconds(15));
+        assertThat(relayUnderTest.backoffAfter(40)).isEqualTo(Duration.ofSeconds(15));
+    }
+}
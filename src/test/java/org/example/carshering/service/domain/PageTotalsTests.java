@@ -0,0 +1,181 @@
+package org.example.carshering.service.domain;
+
+import org.example.carshering.dto.response.TotalAwarePage;
+import org.example.carshering.repository.TableStatisticsRepository;
+import org.example.carshering.service.domain.PageTotals.CountKey;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for PageTotals
+ */
+public class PageTotalsTests {
+
+    private TableStatisticsRepository tableStatisticsRepository;
+    private MutableClock clock;
+    private PageTotals totalsUnderTest;
+    private AtomicInteger counts;
+
+    @BeforeEach
+    void setUp() {
+        tableStatisticsRepository = mock(TableStatisticsRepository.class);
+        clock = new MutableClock(Instant.parse("2030-01-01T00:00:00Z"));
+        totalsUnderTest = new PageTotals(tableStatisticsRepository, 1000, 10, Duration.ofSeconds(30), clock);
+        counts = new AtomicInteger();
+    }
+
+    private static Slice<Integer> slice(int page, boolean hasNext, Integer... content) {
+        return new SliceImpl<>(List.of(content), PageRequest.of(page, 2), hasNext);
+    }
+
+    private long count() {
+        counts.incrementAndGet();
+        return 42;
+    }
+
+    @Test
+    @DisplayName("Test last page gets its total without counting")
+    public void givenLastPage_whenToPage_thenTotalWithoutCount() {
+        // when
+        TotalAwarePage<Integer> result = totalsUnderTest.toPage(slice(1, false, 3), CountKey.filtered("list", "f"), true, this::count);
+
+        // then
+        assertThat(result.getTotalElements()).isEqualTo(3);
+        assertThat(result.isTotalExact()).isTrue();
+        assertThat(counts.get()).isZero();
+    }
+
+    @Test
+    @DisplayName("Test exact count is cached per filter until the TTL expires")
+    public void givenSameFilter_whenToPageTwice_thenCountOnceUntilExpired() {
+        // when
+        totalsUnderTest.toPage(slice(0, true, 1, 2), CountKey.filtered("list", "f"), true, this::count);
+        TotalAwarePage<Integer> cached = totalsUnderTest.toPage(slice(1, true, 3, 4), CountKey.filtered("list", "f"), true, this::count);
+        totalsUnderTest.toPage(slice(0, true, 1, 2), CountKey.filtered("list", "other"), true, this::count);
+
+        // then
+        assertThat(cached.getTotalElements()).isEqualTo(42);
+        assertThat(cached.isTotalExact()).isTrue();
+        assertThat(counts.get()).isEqualTo(2);
+
+        clock.advance(Duration.ofSeconds(31));
+        totalsUnderTest.toPage(slice(0, true, 1, 2), CountKey.filtered("list", "f"), true, this::count);
+        assertThat(counts.get()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Test without total no count is made and the total is a lower bound")
+    public void givenWithoutTotal_whenToPage_thenLowerBound() {
+        // when
+        TotalAwarePage<Integer> result = totalsUnderTest.toPage(slice(1, true, 3, 4), CountKey.filtered("list", "f"), false, this::count);
+
+        // then
+        assertThat(result.getTotalElements()).isEqualTo(5);
+        assertThat(result.isTotalExact()).isFalse();
+        assertThat(result.hasNext()).isTrue();
+        assertThat(counts.get()).isZero();
+    }
+
+    @Test
+    @DisplayName("Test unfiltered list over a large table uses the planner estimate")
+    public void givenLargeTable_whenToPageUnfiltered_thenEstimate() {
+        // given
+        given(tableStatisticsRepository.estimateRowCount("car_rental.contract")).willReturn(250_000L);
+
+        // when
+        TotalAwarePage<Integer> result = totalsUnderTest.toPage(slice(0, true, 1, 2),
+                CountKey.unfiltered("contracts", "car_rental.contract"), true, this::count);
+
+        // then
+        assertThat(result.getTotalElements()).isEqualTo(250_000);
+        assertThat(result.isTotalExact()).isFalse();
+        assertThat(counts.get()).isZero();
+    }
+
+    @Test
+    @DisplayName("Test small or never analysed table falls back to the exact count")
+    public void givenSmallTable_whenToPageUnfiltered_thenExactCount() {
+        // given
+        given(tableStatisticsRepository.estimateRowCount(anyString())).willReturn(500L);
+
+        // when
+        TotalAwarePage<Integer> result = totalsUnderTest.toPage(slice(0, true, 1, 2),
+                CountKey.unfiltered("contracts", "car_rental.contract"), true, this::count);
+
+        // then
+        assertThat(result.getTotalElements()).isEqualTo(42);
+        assertThat(result.isTotalExact()).isTrue();
+        assertThat(counts.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Test filtered list never asks for the estimate and a stale total does not hide the next page")
+    public void givenStaleCount_whenToPage_thenTotalCoversNextPage() {
+        // when
+        TotalAwarePage<Integer> result = totalsUnderTest.toPage(slice(30, true, 61, 62), CountKey.filtered("list", "f"), true, this::count);
+
+        // then
+        assertThat(result.getTotalElements()).isEqualTo(63);
+        assertThat(result.isTotalExact()).isFalse();
+        assertThat(result.hasNext()).isTrue();
+        verify(tableStatisticsRepository, never()).estimateRowCount(anyString());
+    }
+
+    @Test
+    @DisplayName("Test mapping the page content keeps the total and its exactness")
+    public void givenLowerBound_whenMap_thenTotalExactKept() {
+        // when
+        TotalAwarePage<String> result = totalsUnderTest.toPage(slice(0, true, 1, 2), CountKey.filtered("list", "f"), false, this::count)
+                .map(String::valueOf);
+
+        // then
+        assertThat(result.getContent()).containsExactly("1", "2");
+        assertThat(result.getTotalElements()).isEqualTo(3);
+        assertThat(result.isTotalExact()).isFalse();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
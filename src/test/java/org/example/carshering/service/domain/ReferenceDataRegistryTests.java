@@ -0,0 +1,99 @@
+package org.example.carshering.service.domain;
+
+import org.example.carshering.entity.CarState;
+import org.example.carshering.entity.DocumentType;
+import org.example.carshering.entity.RentalState;
+import org.example.carshering.entity.Role;
+import org.example.carshering.repository.CarStateRepository;
+import org.example.carshering.repository.DocumentTypeRepository;
+import org.example.carshering.repository.RentalStateRepository;
+import org.example.carshering.repository.RoleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for ReferenceDataRegistry
+ */
+@ExtendWith(MockitoExtension.class)
+public class ReferenceDataRegistryTests {
+
+    @Mock
+    private RentalStateRepository rentalStateRepository;
+    @Mock
+    private CarStateRepository carStateRepository;
+    @Mock
+    private RoleRepository roleRepository;
+    @Mock
+    private DocumentTypeRepository documentTypeRepository;
+
+    @InjectMocks
+    private ReferenceDataRegistry registryUnderTest;
+
+    @BeforeEach
+    void setUp() {
+        given(rentalStateRepository.findAll()).willReturn(List.of(
+                RentalState.builder().id(1L).name("PENDING").build(),
+                RentalState.builder().id(2L).name("ACTIVE").build()));
+        given(carStateRepository.findAll()).willReturn(List.of(CarState.builder().id(3L).status("AVAILABLE").build()));
+        given(roleRepository.findAll()).willReturn(List.of(Role.builder().id(4L).name("CLIENT").build()));
+        given(documentTypeRepository.findAll()).willReturn(List.of(DocumentType.builder().id(5L).name("Паспорт").build()));
+    }
+
+    @Test
+    @DisplayName("Test lookups ignore case and hit the database only once")
+    public void givenLoadedRegistry_whenLookupRepeatedly_thenLoadOnce() {
+        // when
+        RentalState active = registryUnderTest.findRentalState("active").orElseThrow();
+        registryUnderTest.findRentalState("PENDING");
+        registryUnderTest.findCarState("Available");
+        registryUnderTest.findCarState(3L);
+        registryUnderTest.findRole("client");
+        registryUnderTest.findDocumentType(5L);
+
+        // then
+        assertThat(active.getId()).isEqualTo(2L);
+        assertThat(registryUnderTest.findCarState(3L)).map(CarState::getStatus).contains("AVAILABLE");
+        assertThat(registryUnderTest.findRole("CLIENT")).map(Role::getId).contains(4L);
+        assertThat(registryUnderTest.findDocumentType(5L)).map(DocumentType::getName).contains("Паспорт");
+        verify(rentalStateRepository, times(1)).findAll();
+        verify(documentTypeRepository, times(1)).findAll();
+    }
+
+    @Test
+    @DisplayName("Test unknown name or id returns empty")
+    public void givenUnknownKey_whenLookup_thenEmpty() {
+        // when / then
+        assertThat(registryUnderTest.findRentalState("UNKNOWN")).isEmpty();
+        assertThat(registryUnderTest.findRentalState(null)).isEmpty();
+        assertThat(registryUnderTest.findCarState(99L)).isEmpty();
+        assertThat(registryUnderTest.findDocumentType(null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Test invalidation reloads the snapshot on the next lookup")
+    public void givenInvalidated_whenLookup_thenReload() {
+        // given
+        registryUnderTest.findRentalState("PENDING");
+        given(rentalStateRepository.findAll()).willReturn(List.of(RentalState.builder().id(7L).name("COMPLETED").build()));
+
+        // when
+        registryUnderTest.invalidate();
+
+        // then
+        assertThat(registryUnderTest.findRentalState("COMPLETED")).map(RentalState::getId).contains(7L);
+        assertThat(registryUnderTest.findRentalState("PENDING")).isEmpty();
+        verify(rentalStateRepository, times(2)).findAll();
+    }
+}
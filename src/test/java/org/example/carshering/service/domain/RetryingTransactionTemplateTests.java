@@ -0,0 +1,101 @@
+package org.example.carshering.service.domain;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.carshering.exceptions.custom.BusinessConflictException;
+import org.example.carshering.exceptions.custom.NotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionSystemException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for RetryingTransactionTemplate
+ */
+@ExtendWith(MockitoExtension.class)
+public class RetryingTransactionTemplateTests {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RetryingTransactionTemplate templateUnderTest;
+
+    @BeforeEach
+    void setUp() {
+        templateUnderTest = new RetryingTransactionTemplate(transactionManager, meterRegistry, 3, Duration.ZERO);
+    }
+
+    private double counter(String name) {
+        return meterRegistry.counter(name, "operation", "contract.update").count();
+    }
+
+    @Test
+    @DisplayName("Test optimistic lock conflict is retried in a new transaction")
+    public void givenOneConflict_whenExecute_thenSecondAttemptSucceeds() {
+        // given
+        AtomicInteger attempts = new AtomicInteger();
+
+        // when
+        String result = templateUnderTest.execute("contract.update", () -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new ObjectOptimisticLockingFailureException("Contract", 1L);
+            }
+            return "ok";
+        });
+
+        // then
+        assertThat(result).isEqualTo("ok");
+        assertThat(attempts).hasValue(2);
+        verify(transactionManager, times(1)).rollback(any());
+        verify(transactionManager, times(1)).commit(any());
+        assertThat(counter("contract.mutation.executions")).isEqualTo(1);
+        assertThat(counter("contract.mutation.conflicts")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Test conflict on every attempt ends with a business conflict")
+    public void givenPersistentConflict_whenExecute_thenConflictAfterMaxAttempts() {
+        // given
+        AtomicInteger attempts = new AtomicInteger();
+
+        // when / then
+        assertThatThrownBy(() -> templateUnderTest.execute("contract.update", () -> {
+            attempts.incrementAndGet();
+            // конфликт при коммите приходит обёрнутым
+            throw new TransactionSystemException("commit failed",
+                    new jakarta.persistence.OptimisticLockException("stale"));
+        })).isInstanceOf(BusinessConflictException.class);
+        assertThat(attempts).hasValue(3);
+        assertThat(counter("contract.mutation.conflicts")).isEqualTo(3);
+        assertThat(counter("contract.mutation.retries.exhausted")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Test other exceptions are not retried")
+    public void givenBusinessError_whenExecute_thenThrownImmediately() {
+        // given
+        AtomicInteger attempts = new AtomicInteger();
+
+        // when / then
+        assertThatThrownBy(() -> templateUnderTest.executeWithoutResult("contract.update", () -> {
+            attempts.incrementAndGet();
+            throw new NotFoundException("Contract not found");
+        })).isInstanceOf(NotFoundException.class);
+        assertThat(attempts).hasValue(1);
+        assertThat(counter("contract.mutation.conflicts")).isZero();
+    }
+}
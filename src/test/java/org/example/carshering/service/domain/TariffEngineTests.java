@@ -0,0 +1,110 @@
+package org.example.carshering.service.domain;
+
+import org.example.carshering.entity.Car;
+import org.example.carshering.entity.CarClass;
+import org.example.carshering.entity.CarModel;
+import org.example.carshering.entity.Tariff;
+import org.example.carshering.event.TariffChangedEvent;
+import org.example.carshering.repository.TariffRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for TariffEngine
+ */
+@ExtendWith(MockitoExtension.class)
+public class TariffEngineTests {
+
+    private static final LocalDateTime START = LocalDateTime.of(2030, 1, 7, 10, 0);
+
+    @Mock
+    private TariffRepository tariffRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TariffEngine engineUnderTest;
+
+    @BeforeEach
+    void setUp() {
+        engineUnderTest = new TariffEngine(tariffRepository, transactionManager);
+    }
+
+    private static Tariff tariff(long id, Long classId, Long modelId, double multiplier) {
+        return Tariff.builder()
+                .id(id)
+                .name("tariff-" + id)
+                .carClassId(classId)
+                .carModelId(modelId)
+                .hourRules(new ArrayList<>(List.of(new Tariff.HourRule(null, 0, 24, multiplier))))
+                .build();
+    }
+
+    private static Car car(long modelId, Long classId) {
+        CarModel model = CarModel.builder()
+                .idModel(modelId)
+                .carClass(classId == null ? null : CarClass.builder().id(classId).build())
+                .build();
+        return Car.builder().id(1L).rent(100.0).model(model).build();
+    }
+
+    @Test
+    @DisplayName("Test model tariff wins over class tariff, class over default, default over flat")
+    public void givenTariffsOnEveryLevel_whenQuote_thenMostSpecificApplies() {
+        // given
+        given(tariffRepository.findAllByActiveTrue()).willReturn(List.of(
+                tariff(1, null, null, 1.1),
+                tariff(2, 20L, null, 1.2),
+                tariff(3, null, 30L, 1.3)));
+
+        // when / then
+        assertThat(engineUnderTest.quote(car(30, 20L), START, START.plusHours(1)).tariff()).isEqualTo("tariff-3");
+        assertThat(engineUnderTest.quote(car(31, 20L), START, START.plusHours(1)).tariff()).isEqualTo("tariff-2");
+        assertThat(engineUnderTest.quote(car(31, null), START, START.plusHours(1)).total()).isEqualTo(110.0);
+        verify(tariffRepository, times(1)).findAllByActiveTrue();
+    }
+
+    @Test
+    @DisplayName("Test tariff change swaps the compiled catalogue")
+    public void givenTariffChanged_whenQuote_thenNewPricesApply() {
+        // given
+        given(tariffRepository.findAllByActiveTrue())
+                .willReturn(List.of())
+                .willReturn(List.of(tariff(1, null, null, 2.0)));
+        assertThat(engineUnderTest.quote(car(1, null), START, START.plusHours(2)).total()).isEqualTo(200.0);
+
+        // when
+        engineUnderTest.onTariffChanged(new TariffChangedEvent(1L));
+
+        // then
+        assertThat(engineUnderTest.quote(car(1, null), START, START.plusHours(2)).total()).isEqualTo(400.0);
+    }
+
+    @Test
+    @DisplayName("Test invalid stored tariff is skipped instead of breaking all prices")
+    public void givenInvalidStoredTariff_whenReload_thenOthersStillApply() {
+        // given
+        Tariff broken = tariff(1, null, 30L, 1.5);
+        broken.getHourRules().add(new Tariff.HourRule(9, 0, 24, 1.5));
+        given(tariffRepository.findAllByActiveTrue()).willReturn(List.of(broken, tariff(2, 20L, null, 1.2)));
+
+        // when
+        engineUnderTest.reload();
+
+        // then
+        assertThat(engineUnderTest.quote(car(30, 20L), START, START.plusHours(1)).tariff()).isEqualTo("tariff-2");
+    }
+}
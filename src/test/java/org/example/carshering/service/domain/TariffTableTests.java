@@ -0,0 +1,139 @@
+package org.example.carshering.service.domain;
+
+import org.example.carshering.exceptions.custom.InvalidDataException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Unit tests for TariffTable
+ */
+public class TariffTableTests {
+
+    // понедельник
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2030, 1, 7, 0, 0);
+
+    @Test
+    @DisplayName("Test flat tariff charges the hourly rate for whole hours with at least one hour")
+    public void givenFlatTariff_whenQuote_thenRateTimesHours() {
+        // when
+        TariffTable.Quote twoDays = TariffTable.FLAT.quote(100.0, MONDAY, MONDAY.plusHours(48).plusMinutes(30));
+        TariffTable.Quote tenMinutes = TariffTable.FLAT.quote(100.0, MONDAY, MONDAY.plusMinutes(10));
+
+        // then
+        assertThat(twoDays.billedHours()).isEqualTo(48);
+        assertThat(twoDays.total()).isEqualTo(4800.0);
+        assertThat(tenMinutes.billedHours()).isEqualTo(1);
+        assertThat(tenMinutes.total()).isEqualTo(100.0);
+    }
+
+    @Test
+    @DisplayName("Test rule past midnight covers the end of one day and the start of the next")
+    public void givenNightRule_whenQuoteAcrossMidnight_thenNightHoursDiscounted() {
+        // given - каждый день 22:00-06:00 за полцены
+        TariffTable table = TariffTable.compile("night",
+                List.of(new TariffTable.HourRule(null, 22, 6, 0.5)), List.of());
+
+        // when - пн 20:00 - вт 02:00: два часа по 1.0 и четыре по 0.5
+        TariffTable.Quote quote = table.quote(100.0, MONDAY.plusHours(20), MONDAY.plusHours(26));
+
+        // then
+        assertThat(quote.total()).isEqualTo(400.0);
+    }
+
+    @Test
+    @DisplayName("Test later rule overrides earlier one and the week wraps from Sunday to Monday")
+    public void givenOverlappingRules_whenQuoteOverWeekBoundary_thenLaterRuleWins() {
+        // given - все часы x2, кроме воскресенья
+        TariffTable table = TariffTable.compile("weekdays",
+                List.of(new TariffTable.HourRule(null, 0, 24, 2.0),
+                        new TariffTable.HourRule(7, 0, 24, 1.0)),
+                List.of());
+
+        // when - вс 22:00 - пн 02:00
+        TariffTable.Quote quote = table.quote(100.0, MONDAY.minusHours(2), MONDAY.plusHours(2));
+
+        // then - 2 * 1.0 + 2 * 2.0
+        assertThat(quote.total()).isEqualTo(600.0);
+    }
+
+    @Test
+    @DisplayName("Test precomputed sums match an hour-by-hour calculation for long rentals")
+    public void givenLongRentals_whenQuote_thenEqualsHourByHourSum() {
+        // given
+        List<TariffTable.HourRule> rules = List.of(
+                new TariffTable.HourRule(null, 8, 10, 1.2),
+                new TariffTable.HourRule(5, 18, 2, 1.5),
+                new TariffTable.HourRule(6, 0, 24, 1.4));
+        TariffTable table = TariffTable.compile("mixed", rules, List.of());
+
+        for (int startHour = 0; startHour < TariffTable.HOURS_PER_WEEK; startHour += 13) {
+            for (int hours : new int[]{1, 5, 167, 168, 169, 500}) {
+                LocalDateTime start = MONDAY.plusHours(startHour).plusMinutes(15);
+
+                // when
+                double total = table.quote(10.0, start, start.plusHours(hours)).total();
+
+                // then
+                double expected = 0;
+                for (int i = 0; i < hours; i++) {
+                    expected += 10.0 * multiplierAt(rules, start.plusHours(i));
+                }
+                assertThat(total).as("start %s, %d hours", start, hours).isCloseTo(expected, within(0.01));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test the tier with the largest minimum not above the billed hours applies")
+    public void givenDurationTiers_whenQuote_thenMatchingTierApplied() {
+        // given
+        TariffTable table = TariffTable.compile("long",
+                List.of(),
+                List.of(new TariffTable.DurationTier(72, 0.8), new TariffTable.DurationTier(24, 0.9)));
+
+        // when / then
+        assertThat(table.quote(100.0, MONDAY, MONDAY.plusHours(23)).durationMultiplier()).isEqualTo(1.0);
+        assertThat(table.quote(100.0, MONDAY, MONDAY.plusHours(24)).durationMultiplier()).isEqualTo(0.9);
+        assertThat(table.quote(100.0, MONDAY, MONDAY.plusHours(71)).durationMultiplier()).isEqualTo(0.9);
+        assertThat(table.quote(100.0, MONDAY, MONDAY.plusHours(72)).total()).isEqualTo(5760.0);
+    }
+
+    @Test
+    @DisplayName("Test empty hour rule and duplicate tiers are rejected")
+    public void givenInvalidRules_whenCompile_thenInvalidDataException() {
+        assertThatThrownBy(() -> TariffTable.compile("empty",
+                List.of(new TariffTable.HourRule(null, 5, 5, 1.1)), List.of()))
+                .isInstanceOf(InvalidDataException.class);
+        assertThatThrownBy(() -> TariffTable.compile("duplicate", List.of(),
+                List.of(new TariffTable.DurationTier(24, 0.9), new TariffTable.DurationTier(24, 0.8))))
+                .isInstanceOf(InvalidDataException.class);
+        assertThatThrownBy(() -> TariffTable.compile("free",
+                List.of(new TariffTable.HourRule(1, 0, 24, 0.0)), List.of()))
+                .isInstanceOf(InvalidDataException.class);
+    }
+
+    private static double multiplierAt(List<TariffTable.HourRule> rules, LocalDateTime time) {
+        int day = time.getDayOfWeek().getValue();
+        int hour = time.getHour();
+        double multiplier = 1.0;
+        for (TariffTable.HourRule rule : rules) {
+            boolean wraps = rule.hourFrom() > rule.hourTo();
+            boolean today = (rule.dayOfWeek() == null || rule.dayOfWeek() == day)
+                    && hour >= rule.hourFrom() && (wraps || hour < rule.hourTo());
+            int previousDay = day == 1 ? 7 : day - 1;
+            boolean fromYesterday = wraps && hour < rule.hourTo()
+                    && (rule.dayOfWeek() == null || rule.dayOfWeek() == previousDay);
+            if (today || fromYesterday) {
+                multiplier = rule.multiplier();
+            }
+        }
+        return multiplier;
+    }
+}
@@ -0,0 +1,93 @@
+package org.example.carshering.service.domain;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for TimerWheel
+ */
+public class TimerWheelTests {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 10, 30);
+
+    private TimerWheel<Long> wheelUnderTest;
+
+    @BeforeEach
+    void setUp() {
+        wheelUnderTest = new TimerWheel<>(BASE);
+    }
+
+    @Test
+    @DisplayName("Test timer fires exactly at its minute and not before")
+    public void givenTimerInMinutes_whenAdvance_thenFireAtDueMinute() {
+        // given
+        wheelUnderTest.schedule(1L, BASE.plusMinutes(5));
+
+        // when / then
+        assertThat(wheelUnderTest.advanceTo(BASE.plusMinutes(4).plusSeconds(59))).isEmpty();
+        assertThat(wheelUnderTest.advanceTo(BASE.plusMinutes(5))).containsExactly(1L);
+        assertThat(wheelUnderTest.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Test timers on hour, day and overflow levels cascade down and fire on time")
+    public void givenTimersOnEveryLevel_whenAdvance_thenEachFiresAtItsMinute() {
+        // given
+        LocalDateTime inHours = BASE.plusHours(5).plusMinutes(7);
+        LocalDateTime inDays = BASE.plusDays(3).plusHours(2).plusMinutes(1);
+        LocalDateTime inMonths = BASE.plusDays(100).plusMinutes(13);
+        wheelUnderTest.schedule(1L, inHours);
+        wheelUnderTest.schedule(2L, inDays);
+        wheelUnderTest.schedule(3L, inMonths);
+
+        // when / then
+        assertThat(wheelUnderTest.advanceTo(inHours.minusMinutes(1))).isEmpty();
+        assertThat(wheelUnderTest.advanceTo(inHours)).containsExactly(1L);
+        assertThat(wheelUnderTest.advanceTo(inDays.minusMinutes(1))).isEmpty();
+        assertThat(wheelUnderTest.advanceTo(inDays)).containsExactly(2L);
+        assertThat(wheelUnderTest.advanceTo(inMonths.minusMinutes(1))).isEmpty();
+        assertThat(wheelUnderTest.advanceTo(inMonths)).containsExactly(3L);
+    }
+
+    @Test
+    @DisplayName("Test due time with seconds is rounded up to the next minute")
+    public void givenDueWithSeconds_whenAdvance_thenFireOnNextMinute() {
+        // given
+        wheelUnderTest.schedule(1L, BASE.plusMinutes(2).plusSeconds(30));
+
+        // when / then
+        assertThat(wheelUnderTest.advanceTo(BASE.plusMinutes(2).plusSeconds(45))).isEmpty();
+        assertThat(wheelUnderTest.advanceTo(BASE.plusMinutes(3))).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("Test overdue timer fires on the next advance")
+    public void givenPastDue_whenAdvance_thenFireImmediately() {
+        // given
+        wheelUnderTest.schedule(1L, BASE.minusHours(2));
+
+        // when / then
+        assertThat(wheelUnderTest.advanceTo(BASE)).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("Test rescheduled timer fires only at the new time and cancelled timer never fires")
+    public void givenRescheduledAndCancelled_whenAdvance_thenOnlyNewTimeFires() {
+        // given
+        wheelUnderTest.schedule(1L, BASE.plusMinutes(10));
+        wheelUnderTest.schedule(1L, BASE.plusHours(3));
+        wheelUnderTest.schedule(2L, BASE.plusMinutes(20));
+        boolean cancelled = wheelUnderTest.cancel(2L);
+
+        // when / then
+        assertThat(cancelled).isTrue();
+        assertThat(wheelUnderTest.advanceTo(BASE.plusHours(2))).isEmpty();
+        assertThat(wheelUnderTest.advanceTo(BASE.plusHours(3))).containsExactly(1L);
+        assertThat(wheelUnderTest.cancel(2L)).isFalse();
+    }
+}
@@ -4,6 +4,7 @@ import org.example.carshering.dto.request.FilterCarModelRequest;
 import org.example.carshering.dto.request.create.CreateCarModelRequest;
 import org.example.carshering.dto.request.update.UpdateCarModelRequest;
 import org.example.carshering.dto.response.CarModelResponse;
+import org.example.carshering.dto.response.CarModelSearchResponse;
 import org.example.carshering.entity.Car;
 import org.example.carshering.entity.CarModel;
 import org.example.carshering.exceptions.custom.AlreadyExistsException;
@@ -18,6 +19,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -46,6 +48,9 @@ public class CarModelServiceImplTests {
     @Mock
     private CarServiceHelperService carService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private CarModelServiceImpl serviceUnderTest;
 
@@ -355,4 +360,43 @@ public class CarModelServiceImplTests {
         method.invoke(serviceUnderTest, sort);
     }
 
+    @Test
+    @DisplayName("Test search models normalizes query, escapes LIKE wildcards and maps rows")
+    public void givenQuery_whenSearchModels_thenNormalizedQueryAndMappedRows() {
+        // given
+        CarModelRepository.ModelSearchRow row = mock(CarModelRepository.ModelSearchRow.class);
+        given(row.getModelId()).willReturn(3L);
+        given(row.getBrand()).willReturn("Toyota");
+        given(row.getModel()).willReturn("Camry");
+        given(row.getScore()).willReturn(0.5);
+        given(carModelRepository.searchModels("toy_ta", "toy\\_ta", false, 10)).willReturn(List.of(row));
+
+        // when
+        List<CarModelSearchResponse> actual = serviceUnderTest.searchModels("  ToY_ta ", false, null);
+
+        // then
+        assertThat(actual).containsExactly(new CarModelSearchResponse(3L, "Toyota", "Camry", null, null, false, 0.5));
+    }
+
+    @Test
+    @DisplayName("Test search models returns empty list for too short query without querying the database")
+    public void givenShortQuery_whenSearchModels_thenEmptyList() {
+        // when
+        List<CarModelSearchResponse> actual = serviceUnderTest.searchModels(" t ", true, 5);
+
+        // then
+        assertThat(actual).isEmpty();
+        verifyNoInteractions(carModelRepository);
+    }
+
+    @Test
+    @DisplayName("Test search models clamps the limit")
+    public void givenTooLargeLimit_whenSearchModels_thenLimitClamped() {
+        // when
+        serviceUnderTest.searchModels("bmw", true, 1000);
+
+        // then
+        verify(carModelRepository).searchModels("bmw", "bmw", true, 50);
+    }
+
 }
@@ -12,8 +12,10 @@ import org.example.carshering.entity.Role;
 import org.example.carshering.exceptions.custom.*;
 import org.example.carshering.mapper.ClientMapper;
 import org.example.carshering.repository.ClientRepository;
+import org.example.carshering.repository.TableStatisticsRepository;
 import org.example.carshering.service.interfaces.EmailService;
 import org.example.carshering.service.domain.ContractServiceHelper;
+import org.example.carshering.service.domain.PageTotals;
 import org.example.carshering.service.domain.RoleServiceHelper;
 import org.example.carshering.util.DataUtils;
 import org.junit.jupiter.api.DisplayName;
@@ -21,10 +23,12 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.*;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
@@ -57,6 +61,10 @@ public class ClientServiceImplTests {
     @Mock
     private ContractServiceHelper contractService;
 
+    @Spy
+    private PageTotals pageTotals =
+            new PageTotals(mock(TableStatisticsRepository.class), 100_000, 100, Duration.ofSeconds(30));
+
     @InjectMocks
     private ClientServiceImpl serviceUnderTest;
 
@@ -564,7 +572,7 @@ public class ClientServiceImplTests {
         given(clientMapper.toShortDtoForAdmin(client2)).willReturn(response2);
 
         // when
-        Page<ShortUserResponse> actual = serviceUnderTest.filterUsers(filter, pageable);
+        Page<ShortUserResponse> actual = serviceUnderTest.filterUsers(filter, pageable, true);
 
         // then
         assertThat(actual).isNotNull();
@@ -590,8 +598,8 @@ public class ClientServiceImplTests {
         given(clientRepository.findByFilter(false, "CLIENT", pageableByLogin)).willReturn(emptyPage);
 
         // when
-        Page<ShortUserResponse> resultEmail = serviceUnderTest.filterUsers(filter, pageableByEmail);
-        Page<ShortUserResponse> resultLogin = serviceUnderTest.filterUsers(filter, pageableByLogin);
+        Page<ShortUserResponse> resultEmail = serviceUnderTest.filterUsers(filter, pageableByEmail, true);
+        Page<ShortUserResponse> resultLogin = serviceUnderTest.filterUsers(filter, pageableByLogin, true);
 
         // then
         assertThat(resultEmail).isNotNull();
@@ -613,7 +621,7 @@ public class ClientServiceImplTests {
         given(clientRepository.findByFilter(null, null, pageable)).willReturn(emptyPage);
 
         // when
-        Page<ShortUserResponse> result = serviceUnderTest.filterUsers(filter, pageable);
+        Page<ShortUserResponse> result = serviceUnderTest.filterUsers(filter, pageable, true);
 
         // then
         assertThat(result).isNotNull();
@@ -634,7 +642,7 @@ public class ClientServiceImplTests {
         given(clientRepository.findByFilter(false, "CLIENT", pageable)).willReturn(emptyPage);
 
         // when
-        Page<ShortUserResponse> actual = serviceUnderTest.filterUsers(filter, pageable);
+        Page<ShortUserResponse> actual = serviceUnderTest.filterUsers(filter, pageable, true);
 
         // then
         assertThat(actual).isNotNull();
@@ -654,7 +662,7 @@ public class ClientServiceImplTests {
         // when + then
         assertThrows(
                 InvalidQueryParameterException.class,
-                () -> serviceUnderTest.filterUsers(filter, pageable)
+                () -> serviceUnderTest.filterUsers(filter, pageable, true)
         );
 
         verify(clientRepository, never()).findByFilter(any(), any(), any());
@@ -0,0 +1,267 @@
+package org.example.carshering.service.impl;
+
+import org.example.carshering.dto.request.create.CreateContractBatchRequest;
+import org.example.carshering.dto.request.create.CreateContractRequest;
+import org.example.carshering.dto.response.BookedInterval;
+import org.example.carshering.dto.response.ContractBatchResponse;
+import org.example.carshering.dto.response.DocumentResponse;
+import org.example.carshering.entity.Car;
+import org.example.carshering.entity.Client;
+import org.example.carshering.entity.Contract;
+import org.example.carshering.entity.RentalState;
+import org.example.carshering.event.ContractChangedEvent;
+import org.example.carshering.exceptions.custom.CarUnavailableOnDatesException;
+import org.example.carshering.mapper.ContractMapper;
+import org.example.carshering.repository.ContractBatchRepository;
+import org.example.carshering.repository.ContractRepository;
+import org.example.carshering.service.domain.BatchBookingPlanner;
+import org.example.carshering.service.domain.CarAvailabilityIndex;
+import org.example.carshering.service.domain.CarServiceHelperService;
+import org.example.carshering.service.domain.ClientServiceHelper;
+import org.example.carshering.service.domain.DocumentServiceHelper;
+import org.example.carshering.service.domain.ReferenceDataRegistry;
+import org.example.carshering.service.domain.RentalDomainService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for ContractServiceImpl#createContracts
+ */
+@ExtendWith(MockitoExtension.class)
+public class ContractServiceImplBatchTests {
+
+    private static final Long USER_ID = 7L;
+    private static final LocalDateTime START = LocalDateTime.of(2030, 11, 5, 10, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2030, 11, 6, 10, 0);
+
+    @Mock
+    private ContractRepository contractRepository;
+
+    @Mock
+    private ContractBatchRepository contractBatchRepository;
+
+    @Mock
+    private ReferenceDataRegistry referenceData;
+
+    @Mock
+    private ContractMapper contractMapper;
+
+    @Mock
+    private ClientServiceHelper clientService;
+
+    @Mock
+    private CarServiceHelperService carService;
+
+    @Mock
+    private DocumentServiceHelper documentService;
+
+    @Mock
+    private RentalDomainService rentalDomainService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private ContractServiceImpl serviceUnderTest;
+
+    @BeforeEach
+    void setUp() {
+        given(clientService.getEntity(USER_ID)).willReturn(new Client());
+        given(documentService.hasDocument(USER_ID)).willReturn(true);
+        given(documentService.findDocument(USER_ID)).willReturn(DocumentResponse.builder().verified(true).build());
+    }
+
+    private void givenCars(Long... ids) {
+        List<Car> cars = Arrays.stream(ids).map(id -> Car.builder().id(id).build()).toList();
+        given(carService.getEntitiesWithLock(any())).willReturn(cars);
+    }
+
+    private void givenContractsMappable() {
+        given(referenceData.findRentalState("PENDING"))
+                .willReturn(Optional.of(RentalState.builder().id(1L).name("PENDING").build()));
+        given(contractMapper.toEntity(any(CreateContractRequest.class))).willAnswer(invocation -> {
+            CreateContractRequest item = invocation.getArgument(0);
+            Contract contract = new Contract();
+            contract.setDataStart(item.dataStart());
+            contract.setDataEnd(item.dataEnd());
+            return contract;
+        });
+    }
+
+    private static CreateContractRequest item(Long carId) {
+        return new CreateContractRequest(carId, START, END);
+    }
+
+    private static DataIntegrityViolationException overlap() {
+        return new DataIntegrityViolationException(
+                "conflicting key value violates exclusion constraint \"ex_contract_car_period\"");
+    }
+
+    @Test
+    @DisplayName("Test batch locks distinct cars in id order and loads their bookings with one query")
+    public void givenBatch_whenCreateContracts_thenSortedLockAndSingleBookingQuery() {
+        // given
+        givenCars(1L, 2L);
+        givenContractsMappable();
+        CreateContractBatchRequest request = new CreateContractBatchRequest(
+                List.of(item(2L), item(1L), new CreateContractRequest(2L, END, END.plusDays(1))), true);
+
+        // when
+        ContractBatchResponse response = serviceUnderTest.createContracts(USER_ID, request);
+
+        // then
+        verify(carService).getEntitiesWithLock(List.of(1L, 2L));
+        verify(contractRepository, times(1)).findBookedIntervalsInRange(
+                Set.of(1L, 2L), CarAvailabilityIndex.BLOCKING_STATES, START, END.plusDays(1));
+        verify(contractBatchRepository, times(1)).insertAll(argThat(contracts -> contracts.size() == 3));
+        assertThat(response.created()).isEqualTo(3);
+        assertThat(response.results()).extracting(ContractBatchResponse.ItemResult::status)
+                .containsExactly("CREATED", "CREATED", "CREATED");
+        verify(eventPublisher, times(3)).publishEvent(any(ContractChangedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Test all-or-nothing batch with a conflicting item books nothing and skips valid items")
+    public void givenConflictAllOrNothing_whenCreateContracts_thenNothingInserted() {
+        // given
+        givenCars(1L, 2L);
+        given(contractRepository.findBookedIntervalsInRange(any(), any(), any(), any()))
+                .willReturn(List.of(new BookedInterval(10L, 2L, START.minusHours(1), START.plusHours(1))));
+        CreateContractBatchRequest request = new CreateContractBatchRequest(List.of(item(1L), item(2L)), true);
+
+        // when
+        ContractBatchResponse response = serviceUnderTest.createContracts(USER_ID, request);
+
+        // then
+        assertThat(response.created()).isZero();
+        assertThat(response.rejected()).isEqualTo(1);
+        assertThat(response.results())
+                .extracting(ContractBatchResponse.ItemResult::status, ContractBatchResponse.ItemResult::error)
+                .containsExactly(
+                        tuple("SKIPPED", null),
+                        tuple("REJECTED", BatchBookingPlanner.CAR_UNAVAILABLE)
+                );
+        verify(contractBatchRepository, never()).insertAll(anyList());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Test best-effort batch books valid items and rejects the conflicting one")
+    public void givenConflictBestEffort_whenCreateContracts_thenValidItemsCreated() {
+        // given
+        givenCars(1L, 2L);
+        givenContractsMappable();
+        given(contractRepository.findBookedIntervalsInRange(any(), any(), any(), any()))
+                .willReturn(List.of(new BookedInterval(10L, 2L, START.minusHours(1), START.plusHours(1))));
+        CreateContractBatchRequest request = new CreateContractBatchRequest(List.of(item(1L), item(2L)), false);
+
+        // when
+        ContractBatchResponse response = serviceUnderTest.createContracts(USER_ID, request);
+
+        // then
+        assertThat(response.created()).isEqualTo(1);
+        assertThat(response.rejected()).isEqualTo(1);
+        assertThat(response.results()).extracting(ContractBatchResponse.ItemResult::status)
+                .containsExactly("CREATED", "REJECTED");
+        verify(contractBatchRepository).insertAll(argThat(contracts ->
+                contracts.size() == 1 && contracts.get(0).getCar().getId().equals(1L)));
+    }
+
+    @Test
+    @DisplayName("Test all-or-nothing batch maps an overlap found by the constraint to CarUnavailableOnDatesException")
+    public void givenConstraintOverlapAllOrNothing_whenCreateContracts_thenCarUnavailable() {
+        // given
+        givenCars(1L, 2L);
+        givenContractsMappable();
+        willAnswer(invocation -> {
+            throw overlap();
+        }).given(contractBatchRepository).insertAll(anyList());
+        CreateContractBatchRequest request = new CreateContractBatchRequest(List.of(item(1L), item(2L)), true);
+
+        // when / then
+        assertThrows(CarUnavailableOnDatesException.class, () -> serviceUnderTest.createContracts(USER_ID, request));
+        verify(contractBatchRepository, times(1)).insertAll(anyList());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Test best-effort batch rejects only the item that lost the race to the constraint")
+    public void givenConstraintOverlapBestEffort_whenCreateContracts_thenOnlyLoserRejected() {
+        // given
+        givenCars(1L, 2L);
+        givenContractsMappable();
+        willAnswer(invocation -> {
+            List<Contract> contracts = invocation.getArgument(0);
+            // бронь машины 2 появилась после проверки: падает и весь пакет, и позиция этой машины
+            if (contracts.stream().anyMatch(contract -> contract.getCar().getId().equals(2L))) {
+                throw overlap();
+            }
+            contracts.forEach(contract -> contract.setId(100L + contract.getCar().getId()));
+            return null;
+        }).given(contractBatchRepository).insertAll(anyList());
+        CreateContractBatchRequest request = new CreateContractBatchRequest(List.of(item(1L), item(2L)), false);
+
+        // when
+        ContractBatchResponse response = serviceUnderTest.createContracts(USER_ID, request);
+
+        // then
+        assertThat(response.created()).isEqualTo(1);
+        assertThat(response.rejected()).isEqualTo(1);
+        assertThat(response.results())
+                .extracting(ContractBatchResponse.ItemResult::status, ContractBatchResponse.ItemResult::error)
+                .containsExactly(
+                        tuple("CREATED", null),
+                        tuple("REJECTED", BatchBookingPlanner.CAR_UNAVAILABLE)
+                );
+        // пакет целиком и затем каждая позиция под своей точкой сохранения
+        verify(contractBatchRepository, times(3)).insertAll(anyList());
+        ArgumentCaptor<ContractChangedEvent> events = ArgumentCaptor.forClass(ContractChangedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(events.capture());
+        assertThat(events.getValue().carId()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Test best-effort batch rethrows integrity violations other than the booking overlap")
+    public void givenOtherViolationBestEffort_whenCreateContracts_thenRethrown() {
+        // given
+        givenCars(1L);
+        givenContractsMappable();
+        willAnswer(invocation -> {
+            throw new DataIntegrityViolationException("violates foreign key constraint \"fk_contract_client\"");
+        }).given(contractBatchRepository).insertAll(anyList());
+        CreateContractBatchRequest request = new CreateContractBatchRequest(List.of(item(1L)), false);
+
+        // when / then
+        assertThrows(DataIntegrityViolationException.class, () -> serviceUnderTest.createContracts(USER_ID, request));
+    }
+}
@@ -0,0 +1,190 @@
+package org.example.carshering.service.impl;
+
+import org.example.carshering.dto.response.BookedInterval;
+import org.example.carshering.dto.response.PriceQuoteBatchResponse;
+import org.example.carshering.exceptions.custom.InvalidDataException;
+import org.example.carshering.repository.CarRepository.PricedCar;
+import org.example.carshering.repository.ContractRepository;
+import org.example.carshering.service.domain.CarAvailabilityIndex;
+import org.example.carshering.service.domain.CarServiceHelperService;
+import org.example.carshering.service.domain.RentalDomainService;
+import org.example.carshering.service.domain.TariffTable;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * Unit tests for ContractServiceImpl#quoteAll
+ */
+@ExtendWith(MockitoExtension.class)
+public class ContractServiceImplQuoteTests {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 11, 5, 10, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2025, 11, 6, 10, 0);
+    private static final TariffTable.Quote QUOTE = new TariffTable.Quote("BASE", 24, 100.0, 1.0, 2400.0);
+
+    @Mock
+    private ContractRepository contractRepository;
+
+    @Mock
+    private CarServiceHelperService carService;
+
+    @Mock
+    private RentalDomainService rentalDomainService;
+
+    @InjectMocks
+    private ContractServiceImpl serviceUnderTest;
+
+    @Test
+    @DisplayName("Test quoteAll returns unknown car IDs in notFound and quotes the rest")
+    public void givenUnknownCarId_whenQuoteAll_thenReportedAsNotFound() {
+        // given
+        given(carService.getPricedCars(Set.of(1L, 2L))).willReturn(List.of(new TestPricedCar(1L, "AVAILABLE")));
+        given(contractRepository.findBookedIntervalsInRange(Set.of(1L), CarAvailabilityIndex.BLOCKING_STATES, START, END))
+                .willReturn(List.of());
+        given(rentalDomainService.quote(any(), any(), anyDouble(), any(), any())).willReturn(QUOTE);
+
+        // when
+        PriceQuoteBatchResponse response = serviceUnderTest.quoteAll(List.of(1L, 2L), START, END);
+
+        // then
+        assertThat(response.notFound()).containsExactly(2L);
+        assertThat(response.quotes()).hasSize(1);
+        PriceQuoteBatchResponse.CarQuote quote = response.quotes().get(0);
+        assertThat(quote.carId()).isEqualTo(1L);
+        assertThat(quote.available()).isTrue();
+        assertThat(quote.total()).isEqualTo(2400.0);
+    }
+
+    @Test
+    @DisplayName("Test quoteAll collapses duplicate car IDs into one quote and keeps request order")
+    public void givenDuplicateCarIds_whenQuoteAll_thenOneQuotePerCar() {
+        // given
+        given(carService.getPricedCars(Set.of(1L, 2L)))
+                .willReturn(List.of(new TestPricedCar(1L, "AVAILABLE"), new TestPricedCar(2L, "AVAILABLE")));
+        given(contractRepository.findBookedIntervalsInRange(Set.of(1L, 2L), CarAvailabilityIndex.BLOCKING_STATES, START, END))
+                .willReturn(List.of());
+        given(rentalDomainService.quote(any(), any(), anyDouble(), any(), any())).willReturn(QUOTE);
+
+        // when
+        PriceQuoteBatchResponse response = serviceUnderTest.quoteAll(List.of(2L, 1L, 2L, 1L), START, END);
+
+        // then
+        assertThat(response.quotes()).extracting(PriceQuoteBatchResponse.CarQuote::carId).containsExactly(2L, 1L);
+        assertThat(response.notFound()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Test quoteAll marks a car in UNAVAILABLE state as not available but still prices it")
+    public void givenUnavailableCar_whenQuoteAll_thenNotAvailable() {
+        // given
+        given(carService.getPricedCars(Set.of(1L))).willReturn(List.of(new TestPricedCar(1L, "UNAVAILABLE")));
+        given(contractRepository.findBookedIntervalsInRange(Set.of(1L), CarAvailabilityIndex.BLOCKING_STATES, START, END))
+                .willReturn(List.of());
+        given(rentalDomainService.quote(any(), any(), anyDouble(), any(), any())).willReturn(QUOTE);
+
+        // when
+        PriceQuoteBatchResponse response = serviceUnderTest.quoteAll(List.of(1L), START, END);
+
+        // then
+        PriceQuoteBatchResponse.CarQuote quote = response.quotes().get(0);
+        assertThat(quote.available()).isFalse();
+        assertThat(quote.carState()).isEqualTo("UNAVAILABLE");
+        assertThat(quote.total()).isEqualTo(2400.0);
+    }
+
+    @Test
+    @DisplayName("Test quoteAll marks a car with an overlapping booking as not available")
+    public void givenBookedOverlap_whenQuoteAll_thenNotAvailable() {
+        // given
+        given(carService.getPricedCars(Set.of(1L, 2L)))
+                .willReturn(List.of(new TestPricedCar(1L, "AVAILABLE"), new TestPricedCar(2L, "AVAILABLE")));
+        given(contractRepository.findBookedIntervalsInRange(Set.of(1L, 2L), CarAvailabilityIndex.BLOCKING_STATES, START, END))
+                .willReturn(List.of(new BookedInterval(10L, 2L, START.minusHours(2), START.plusHours(2))));
+        given(rentalDomainService.quote(any(), any(), anyDouble(), any(), any())).willReturn(QUOTE);
+
+        // when
+        PriceQuoteBatchResponse response = serviceUnderTest.quoteAll(List.of(1L, 2L), START, END);
+
+        // then
+        assertThat(response.quotes())
+                .extracting(PriceQuoteBatchResponse.CarQuote::carId, PriceQuoteBatchResponse.CarQuote::available)
+                .containsExactly(
+                        tuple(1L, true),
+                        tuple(2L, false)
+                );
+    }
+
+    @Test
+    @DisplayName("Test quoteAll rejects more than 300 car IDs without touching the database")
+    public void givenTooManyCarIds_whenQuoteAll_thenInvalidDataException() {
+        // given
+        List<Long> carIds = LongStream.rangeClosed(1, 301).boxed().toList();
+
+        // when / then
+        assertThrows(InvalidDataException.class, () -> serviceUnderTest.quoteAll(carIds, START, END));
+        verifyNoInteractions(carService, contractRepository);
+    }
+
+    @Test
+    @DisplayName("Test quoteAll accepts exactly 300 car IDs")
+    public void givenMaxCarIds_whenQuoteAll_thenAccepted() {
+        // given
+        List<Long> carIds = LongStream.rangeClosed(1, 300).boxed().toList();
+        given(carService.getPricedCars(any())).willReturn(List.of());
+
+        // when
+        PriceQuoteBatchResponse response = serviceUnderTest.quoteAll(carIds, START, END);
+
+        // then
+        assertThat(response.notFound()).hasSize(300);
+        assertThat(response.quotes()).isEmpty();
+        verify(contractRepository, never()).findBookedIntervalsInRange(any(), any(), any(), any());
+    }
+
+    private record TestPricedCar(Long id, String state) implements PricedCar {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public Double getRent() {
+            return 100.0;
+        }
+
+        @Override
+        public Long getModelId() {
+            return 1L;
+        }
+
+        @Override
+        public Long getClassId() {
+            return null;
+        }
+
+        @Override
+        public String getState() {
+            return state;
+        }
+    }
+}
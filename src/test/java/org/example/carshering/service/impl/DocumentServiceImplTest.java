@@ -12,20 +12,24 @@ import org.example.carshering.exceptions.custom.BannedClientAccessException;
 import org.example.carshering.exceptions.custom.NotFoundException;
 import org.example.carshering.mapper.DocumentMapper;
 import org.example.carshering.repository.DocumentRepository;
+import org.example.carshering.repository.TableStatisticsRepository;
 import org.example.carshering.service.domain.ClientServiceHelper;
 import org.example.carshering.service.domain.DocumentTypeServiceHelper;
+import org.example.carshering.service.domain.PageTotals;
 import org.example.carshering.util.DataUtils;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
+import java.time.Duration;
 import java.util.Optional;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
@@ -47,6 +51,9 @@ public class DocumentServiceImplTest {
     private DocumentMapper documentMapper;
     @Mock
     private ClientServiceHelper clientService;
+    @Spy
+    private PageTotals pageTotals =
+            new PageTotals(mock(TableStatisticsRepository.class), 100_000, 100, Duration.ofSeconds(30));
 
     @InjectMocks
     private DocumentServiceImpl serviceUnderTest;
@@ -939,20 +946,21 @@ public class DocumentServiceImplTest {
         Document doc1 = dataUtils.createDocumentTransient("1111", "2222", "AUTO", true);
         Document doc2 = dataUtils.createDocumentTransient("3333", "4444", "MVD", false);
         Pageable pageable = PageRequest.of(0, 20);
-        Page<Document> documentPage = new PageImpl<>(java.util.List.of(doc1, doc2), pageable, 2);
+        Slice<Document> documentPage = new SliceImpl<>(java.util.List.of(doc1, doc2), pageable, false);
 
-        given(documentRepository.findAll(pageable)).willReturn(documentPage);
+        given(documentRepository.findAllBy(pageable)).willReturn(documentPage);
         given(documentMapper.toDto(doc1)).willReturn(DataUtils.documentResponsePersisted("AVAILABLE", "1111", "2222", "AUTO", true));
         given(documentMapper.toDto(doc2)).willReturn(DataUtils.documentResponsePersisted("AVAILABLE", "3333", "4444", "MVD", false));
 
         // when
-        var result = serviceUnderTest.getAllDocuments(false, pageable);
+        var result = serviceUnderTest.getAllDocuments(false, pageable, true);
 
         // then
         assertThat(result).isNotNull();
         assertThat(result.getContent().size()).isEqualTo(2);
         assertThat(result.getTotalElements()).isEqualTo(2);
-        verify(documentRepository).findAll(pageable);
+        verify(documentRepository).findAllBy(pageable);
+        verify(documentRepository, never()).count();
         verify(documentMapper, times(2)).toDto(any());
     }
 
@@ -961,18 +969,18 @@ public class DocumentServiceImplTest {
     public void givenNoDocuments_whenGetAllDocuments_thenReturnEmptyList() {
         // given
         Pageable pageable = PageRequest.of(0, 20);
-        Page<Document> emptyPage = new PageImpl<>(java.util.List.of(), pageable, 0);
+        Slice<Document> emptyPage = new SliceImpl<>(java.util.List.of(), pageable, false);
 
-        given(documentRepository.findAll(pageable)).willReturn(emptyPage);
+        given(documentRepository.findAllBy(pageable)).willReturn(emptyPage);
 
         // when
-        var result = serviceUnderTest.getAllDocuments(false, pageable);
+        var result = serviceUnderTest.getAllDocuments(false, pageable, true);
 
         // then
         assertThat(result).isNotNull();
         assertThat(result.getContent().size()).isEqualTo(0);
         assertThat(result.getTotalElements()).isEqualTo(0);
-        verify(documentRepository).findAll(pageable);
+        verify(documentRepository).findAllBy(pageable);
         verify(documentMapper, never()).toDto(any());
     }
 
@@ -984,13 +992,13 @@ public class DocumentServiceImplTest {
         // given
         Document doc = dataUtils.createDocumentTransient("1111", "2222", "AUTO", false);
         Pageable pageable = PageRequest.of(0, 20);
-        Page<Document> documentPage = new PageImpl<>(java.util.List.of(doc), pageable, 1);
+        Slice<Document> documentPage = new SliceImpl<>(java.util.List.of(doc), pageable, false);
 
         given(documentRepository.findByVerifiedIsFalse(pageable)).willReturn(documentPage);
         given(documentMapper.toDto(doc)).willReturn(DataUtils.documentResponsePersisted("AVAILABLE", "1111", "2222", "AUTO", false));
 
         // when
-        var result = serviceUnderTest.getAllDocuments(true, pageable);
+        var result = serviceUnderTest.getAllDocuments(true, pageable, true);
 
         // then
         assertThat(result).isNotNull();
@@ -0,0 +1,33 @@
+package org.example.carshering.util;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+/**
+ * Счётчик SQL-запросов на основе статистики Hibernate.
+ * <p>
+ * Требует {@code spring.jpa.properties.hibernate.generate_statistics=true}.
+ * Используется в тестах планов загрузки: считает подготовленные JDBC-запросы
+ * между {@link #reset()} и {@link #count()}.
+ */
+public final class StatementCounter {
+
+    private final Statistics statistics;
+
+    public StatementCounter(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    public void reset() {
+        statistics.clear();
+    }
+
+    public long count() {
+        return statistics.getPrepareStatementCount();
+    }
+
+    public long loadedEntities() {
+        return statistics.getEntityLoadCount();
+    }
+}
@@ -0,0 +1,61 @@
+-- Запрет пересекающихся броней одной машины на уровне БД.
+-- period - полуинтервал [data_start, data_end), касающиеся брони не конфликтуют,
+-- как и в ContractRepository.findOverlappingContracts.
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE car_rental.contract
+    ADD COLUMN period tsrange GENERATED ALWAYS AS (tsrange(data_start, data_end, '[)')) STORED;
+
+-- Условие EXCLUDE не может ссылаться на rental_state, поэтому признак "бронь занимает машину"
+-- хранится в самой строке и выставляется триггером по имени статуса.
+ALTER TABLE car_rental.contract
+    ADD COLUMN blocks_car BOOLEAN NOT NULL DEFAULT FALSE;
+
+CREATE OR REPLACE FUNCTION car_rental.contract_set_blocks_car() RETURNS trigger AS
+$$
+BEGIN
+    NEW.blocks_car := EXISTS (SELECT 1
+                              FROM car_rental.rental_state rs
+                              WHERE rs.id = NEW.state_id
+                                AND UPPER(rs.name) IN ('BOOKED', 'ACTIVE', 'PENDING', 'CONFIRMED'));
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+UPDATE car_rental.contract ct
+SET blocks_car = TRUE
+FROM car_rental.rental_state rs
+WHERE rs.id = ct.state_id
+  AND UPPER(rs.name) IN ('BOOKED', 'ACTIVE', 'PENDING', 'CONFIRMED');
+
+-- Уже существующие пересечения миграция не разрешает: статус брони - бизнес-решение, о котором
+-- должен узнать клиент. Пересекающиеся пары перечисляются в ошибке и разбираются вручную до повторного запуска.
+DO
+$$
+    DECLARE
+        conflicts TEXT;
+    BEGIN
+        SELECT string_agg(format('%s/%s (car %s)', a.id, b.id, a.car_id), ', ' ORDER BY a.id, b.id)
+        INTO conflicts
+        FROM car_rental.contract a
+                 JOIN car_rental.contract b
+                      ON b.car_id = a.car_id AND b.id > a.id AND b.period && a.period
+        WHERE a.blocks_car
+          AND b.blocks_car;
+
+        IF conflicts IS NOT NULL THEN
+            RAISE EXCEPTION 'Overlapping bookings of the same car: %', conflicts
+                USING HINT = 'Cancel or move one booking of each pair, then rerun the migration';
+        END IF;
+    END
+$$;
+
+CREATE TRIGGER trg_contract_set_blocks_car
+    BEFORE INSERT OR UPDATE
+    ON car_rental.contract
+    FOR EACH ROW
+EXECUTE FUNCTION car_rental.contract_set_blocks_car();
+
+ALTER TABLE car_rental.contract
+    ADD CONSTRAINT ex_contract_car_period
+        EXCLUDE USING gist (car_id WITH =, period WITH &&) WHERE (blocks_car);
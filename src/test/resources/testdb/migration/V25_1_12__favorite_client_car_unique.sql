@@ -0,0 +1,9 @@
+-- Каталог для авторизованного клиента присоединяет favorite по (client_id, car_id):
+-- уникальность гарантирует не больше одной строки на машину, индекс обслуживает join.
+DELETE FROM car_rental.favorite f
+    USING car_rental.favorite d
+WHERE f.client_id = d.client_id
+  AND f.car_id = d.car_id
+  AND f.id > d.id;
+
+CREATE UNIQUE INDEX uq_favorite_client_car ON car_rental.favorite (client_id, car_id);
@@ -0,0 +1,9 @@
+-- Триграммные индексы для поиска по справочникам моделей.
+-- Индексируется LOWER(...), как в условиях LOWER(x) LIKE LOWER('%...%') фильтра моделей
+-- и в нечётком поиске CarModelRepository.searchModels (оператор %, similarity).
+CREATE EXTENSION IF NOT EXISTS pg_trgm WITH SCHEMA public;
+
+CREATE INDEX idx_brands_name_trgm ON car_rental.brands USING gin (LOWER(name) public.gin_trgm_ops);
+CREATE INDEX idx_models_name_trgm ON car_rental.models USING gin (LOWER(name) public.gin_trgm_ops);
+CREATE INDEX idx_car_classes_name_trgm ON car_rental.car_classes USING gin (LOWER(name) public.gin_trgm_ops);
+CREATE INDEX idx_car_model_body_type_trgm ON car_rental.car_model USING gin (LOWER(body_type) public.gin_trgm_ops);
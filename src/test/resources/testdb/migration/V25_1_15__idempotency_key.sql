@@ -0,0 +1,18 @@
+-- Ключи идемпотентности клиентских запросов (Idempotency-Key).
+-- Строка вставляется в той же транзакции, что и сама операция, и до её выполнения: повтор с тем же ключом
+-- ждёт коммита первого запроса на уникальном индексе и затем получает сохранённый ответ.
+CREATE TABLE car_rental.idempotency_key
+(
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    client_id    BIGINT                                  NOT NULL,
+    idem_key     VARCHAR(100)                            NOT NULL,
+    operation    VARCHAR(100)                            NOT NULL,
+    request_hash VARCHAR(64)                             NOT NULL,
+    response     TEXT,
+    created_at   TIMESTAMP WITHOUT TIME ZONE             NOT NULL,
+    expires_at   TIMESTAMP WITHOUT TIME ZONE             NOT NULL,
+    CONSTRAINT pk_idempotency_key PRIMARY KEY (id),
+    CONSTRAINT uc_idempotency_key_client_key UNIQUE (client_id, idem_key)
+);
+
+CREATE INDEX idx_idempotency_key_expires_at ON car_rental.idempotency_key (expires_at);
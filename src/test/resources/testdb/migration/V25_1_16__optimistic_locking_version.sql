@@ -0,0 +1,4 @@
+-- Версия для оптимистической блокировки (@Version) контрактов и машин.
+-- DEFAULT 0 заполняет существующие строки и строки из пакетной JDBC-вставки контрактов.
+ALTER TABLE car_rental.contract ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE car_rental.car ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,19 @@
+-- Транзакционный outbox доменных событий контрактов и машин.
+-- Строка пишется в транзакции изменения, релей доставляет её слушателям и ставит published_at.
+CREATE TABLE car_rental.outbox_event
+(
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    aggregate_type VARCHAR(50)                             NOT NULL,
+    aggregate_id   BIGINT                                  NOT NULL,
+    event_type     VARCHAR(100)                            NOT NULL,
+    payload        TEXT                                    NOT NULL,
+    created_at     TIMESTAMP WITHOUT TIME ZONE             NOT NULL,
+    published_at   TIMESTAMP WITHOUT TIME ZONE,
+    attempts       INTEGER                                 NOT NULL DEFAULT 0,
+    last_error     VARCHAR(500),
+    CONSTRAINT pk_outbox_event PRIMARY KEY (id)
+);
+
+-- релей читает только недоставленные, по порядку id
+CREATE INDEX idx_outbox_event_unpublished ON car_rental.outbox_event (id) WHERE published_at IS NULL;
+CREATE INDEX idx_outbox_event_published_at ON car_rental.outbox_event (published_at) WHERE published_at IS NOT NULL;
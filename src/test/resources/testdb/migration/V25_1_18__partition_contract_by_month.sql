@@ -0,0 +1,190 @@
+-- Секционирование car_rental.contract по месяцу data_start (RANGE, секция на месяц + DEFAULT).
+-- Запросы аналитики и календаря ограничены по data_start и читают только нужные секции.
+--
+-- Ограничения PostgreSQL для секционированных таблиц:
+--  * первичный ключ обязан включать ключ секционирования - теперь это (id, data_start);
+--    уникальность id по-прежнему обеспечивает последовательность;
+--  * EXCLUDE (car_id WITH =, period WITH &&) нельзя объявить на всю секционированную таблицу
+--    (ключ секционирования сравнивается не на равенство), а внутри секции он не поймает бронь,
+--    начавшуюся в прошлом месяце. Поэтому интервалы броней, занимающих машину, дублируются триггером
+--    в несекционированную car_rental.contract_car_period, и ограничение с прежним именем
+--    ex_contract_car_period стоит на ней.
+
+-- 1. Старая таблица уходит в сторону; её ограничение пересечений освобождает имя
+ALTER TABLE car_rental.contract RENAME TO contract_unpartitioned;
+ALTER TABLE car_rental.contract_unpartitioned DROP CONSTRAINT ex_contract_car_period;
+
+CREATE SEQUENCE car_rental.contract_partitioned_id_seq;
+
+CREATE TABLE car_rental.contract
+(
+    id               BIGINT           NOT NULL DEFAULT nextval('car_rental.contract_partitioned_id_seq'),
+    data_start       TIMESTAMP        NOT NULL,
+    data_end         TIMESTAMP        NOT NULL,
+    total_cost       DOUBLE PRECISION NOT NULL,
+    car_id           BIGINT           NOT NULL,
+    client_id        BIGINT           NOT NULL,
+    state_id         BIGINT           NOT NULL,
+    comment          VARCHAR(255),
+    duration_minutes BIGINT,
+    period           TSRANGE GENERATED ALWAYS AS (tsrange(data_start, data_end, '[)')) STORED,
+    blocks_car       BOOLEAN          NOT NULL DEFAULT FALSE,
+    version          BIGINT           NOT NULL DEFAULT 0,
+    CONSTRAINT pk_contract PRIMARY KEY (id, data_start),
+    CONSTRAINT fk_contract_state FOREIGN KEY (state_id) REFERENCES car_rental.rental_state (id),
+    CONSTRAINT fk_contract_car FOREIGN KEY (car_id) REFERENCES car_rental.car (id),
+    CONSTRAINT fk_contract_client FOREIGN KEY (client_id) REFERENCES car_rental.client (id)
+) PARTITION BY RANGE (data_start);
+
+-- брони за пределами созданных секций; ensure_contract_partitions переносит их в свою секцию
+CREATE TABLE car_rental.contract_default PARTITION OF car_rental.contract DEFAULT;
+
+-- 2. Интервалы броней, занимающих машину, и запрет их пересечения
+CREATE TABLE car_rental.contract_car_period
+(
+    contract_id BIGINT  NOT NULL,
+    car_id      BIGINT  NOT NULL,
+    period      TSRANGE NOT NULL,
+    CONSTRAINT pk_contract_car_period PRIMARY KEY (contract_id),
+    CONSTRAINT ex_contract_car_period EXCLUDE USING gist (car_id WITH =, period WITH &&)
+);
+
+CREATE OR REPLACE FUNCTION car_rental.contract_sync_car_period() RETURNS trigger AS
+$$
+BEGIN
+    -- перенос строки между секциями (смена data_start) приходит как DELETE + INSERT
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        DELETE FROM car_rental.contract_car_period WHERE contract_id = OLD.id;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') AND NEW.blocks_car THEN
+        INSERT INTO car_rental.contract_car_period (contract_id, car_id, period)
+        VALUES (NEW.id, NEW.car_id, NEW.period);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- триггеры секционированной таблицы копируются во все секции, в том числе присоединяемые позже
+CREATE TRIGGER trg_contract_set_blocks_car
+    BEFORE INSERT OR UPDATE
+    ON car_rental.contract
+    FOR EACH ROW
+EXECUTE FUNCTION car_rental.contract_set_blocks_car();
+
+CREATE TRIGGER trg_contract_sync_car_period
+    AFTER INSERT OR UPDATE OR DELETE
+    ON car_rental.contract
+    FOR EACH ROW
+EXECUTE FUNCTION car_rental.contract_sync_car_period();
+
+-- 3. Создание секций
+CREATE OR REPLACE FUNCTION car_rental.create_contract_partition(month_start DATE) RETURNS BOOLEAN AS
+$$
+DECLARE
+    from_ts   TIMESTAMP := date_trunc('month', month_start);
+    to_ts     TIMESTAMP := date_trunc('month', month_start) + INTERVAL '1 month';
+    part_name TEXT      := 'contract_' || to_char(date_trunc('month', month_start), 'YYYY_MM');
+BEGIN
+    IF to_regclass('car_rental.' || part_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+
+    EXECUTE format('CREATE TABLE car_rental.%I (LIKE car_rental.contract INCLUDING DEFAULTS INCLUDING GENERATED)',
+                   part_name);
+
+    -- функция работает под живой нагрузкой: до ATTACH в DEFAULT не должны попадать новые брони,
+    -- иначе ATTACH не пройдёт проверку DEFAULT. Вставки в уже созданные секции блокировка не задерживает
+    LOCK TABLE car_rental.contract_default IN ACCESS EXCLUSIVE MODE;
+
+    -- строки этого месяца из DEFAULT переезжают в новую секцию одним оператором:
+    -- удалённая строка гарантированно вставлена
+    EXECUTE format($sql$
+        WITH moved AS (
+            DELETE FROM car_rental.contract_default
+            WHERE data_start >= $1 AND data_start < $2
+            RETURNING id, data_start, data_end, total_cost, car_id, client_id, state_id,
+                      comment, duration_minutes, blocks_car, version
+        )
+        INSERT INTO car_rental.%I (id, data_start, data_end, total_cost, car_id, client_id, state_id,
+                                   comment, duration_minutes, blocks_car, version)
+        SELECT id, data_start, data_end, total_cost, car_id, client_id, state_id,
+               comment, duration_minutes, blocks_car, version
+        FROM moved
+        $sql$, part_name) USING from_ts, to_ts;
+
+    EXECUTE format('ALTER TABLE car_rental.contract ATTACH PARTITION car_rental.%I FOR VALUES FROM (%L) TO (%L)',
+                   part_name, from_ts, to_ts);
+
+    -- DELETE из DEFAULT снял интервалы перенесённых броней (в новой секции триггеров до ATTACH не было)
+    EXECUTE format($sql$
+        INSERT INTO car_rental.contract_car_period (contract_id, car_id, period)
+        SELECT id, car_id, period FROM car_rental.%I WHERE blocks_car
+        $sql$, part_name);
+    RETURN TRUE;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Секции с текущего месяца на months_ahead вперёд плюс месяцы броней, попавших в DEFAULT.
+-- Вызывается при старте и раз в сутки из ContractPartitionMaintainer.
+CREATE OR REPLACE FUNCTION car_rental.ensure_contract_partitions(months_ahead INT) RETURNS INT AS
+$$
+DECLARE
+    months  DATE[];
+    m       DATE;
+    created INT := 0;
+BEGIN
+    -- месяцы собираются заранее: открытый курсор по DEFAULT не дал бы выполнить ATTACH
+    SELECT array_agg(DISTINCT month_start)
+    INTO months
+    FROM (SELECT generate_series(date_trunc('month', localtimestamp),
+                                 date_trunc('month', localtimestamp) + make_interval(months => months_ahead),
+                                 INTERVAL '1 month')::date AS month_start
+          UNION
+          SELECT date_trunc('month', data_start)::date
+          FROM car_rental.contract_default) all_months;
+
+    FOREACH m IN ARRAY coalesce(months, ARRAY []::DATE[])
+        LOOP
+            IF car_rental.create_contract_partition(m) THEN
+                created := created + 1;
+            END IF;
+        END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+-- 4. Перенос данных: сначала секции под все месяцы существующих броней, затем сами строки
+DO
+$$
+    DECLARE
+        m DATE;
+    BEGIN
+        FOR m IN SELECT DISTINCT date_trunc('month', data_start)::date FROM car_rental.contract_unpartitioned
+            LOOP
+                PERFORM car_rental.create_contract_partition(m);
+            END LOOP;
+    END
+$$;
+
+INSERT INTO car_rental.contract (id, data_start, data_end, total_cost, car_id, client_id, state_id,
+                                 comment, duration_minutes, blocks_car, version)
+SELECT id, data_start, data_end, total_cost, car_id, client_id, state_id,
+       comment, duration_minutes, blocks_car, version
+FROM car_rental.contract_unpartitioned;
+
+SELECT setval('car_rental.contract_partitioned_id_seq',
+              coalesce((SELECT max(id) FROM car_rental.contract), 0) + 1, false);
+
+-- вместе со старой таблицей удаляются её последовательность identity, индексы и триггер
+DROP TABLE car_rental.contract_unpartitioned;
+
+ALTER SEQUENCE car_rental.contract_partitioned_id_seq RENAME TO contract_id_seq;
+ALTER SEQUENCE car_rental.contract_id_seq OWNED BY car_rental.contract.id;
+
+SELECT car_rental.ensure_contract_partitions(12);
+
+-- 5. Индексы объявляются на родителе и создаются в каждой секции
+CREATE INDEX idx_contract_datastart_state ON car_rental.contract (data_start, state_id);
+CREATE INDEX idx_contract_car_client ON car_rental.contract (car_id, client_id);
+CREATE INDEX idx_contract_state_datastart ON car_rental.contract (state_id, data_start);
+CREATE INDEX idx_contract_state_dataend ON car_rental.contract (state_id, data_end);